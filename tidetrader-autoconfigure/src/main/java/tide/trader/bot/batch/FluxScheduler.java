@@ -0,0 +1,302 @@
+package tide.trader.bot.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.scheduling.TaskScheduler;
+import tide.trader.bot.util.base.Base;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Flux scheduler - calls each flux update when it is due instead of polling fluxes continuously.
+ * - A flux update is due one rate (the exchange API rate of the flux) after the start of the previous one.
+ * - When a flux has nothing pending (for example, no open order), the update is skipped and checked again one rate later.
+ * If nothing was pending during the idle delay, the flux is updated anyway.
+ * - When a flux update fails, the next one is delayed exponentially (up to one minute).
+ * No thread is blocked between two updates. Lag and cycle time of each flux are available with {@link #getMetrics()}.
+ */
+public class FluxScheduler extends Base {
+
+    /** Minimum delay between two updates of a flux in ms. */
+    private static final long MINIMUM_DELAY_IN_MS = 1;
+
+    /** Maximum delay between two updates of a failing flux in ms (1 minute). */
+    private static final long MAXIMUM_BACKOFF_IN_MS = 60_000;
+
+    /** Task scheduler. */
+    private final TaskScheduler taskScheduler;
+
+    /** Fluxes are updated as long as enabled is set to true. */
+    private final AtomicBoolean enabled = new AtomicBoolean(true);
+
+    /** Scheduled fluxes (by name). */
+    private final Map<String, ScheduledFlux> scheduledFluxes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Constructor.
+     *
+     * @param newTaskScheduler task scheduler
+     */
+    public FluxScheduler(final TaskScheduler newTaskScheduler) {
+        this.taskScheduler = newTaskScheduler;
+    }
+
+    /**
+     * Schedule a flux update.
+     *
+     * @param name             flux name
+     * @param rateInMs         delay between the start of two updates in ms
+     * @param idleDelayInMs    delay after which the flux is updated even if nothing is pending in ms
+     * @param initialDelayInMs delay before the first update in ms
+     * @param pending          returns true if the flux has something to retrieve
+     * @param update           updates the flux, returns false on error
+     */
+    public void schedule(final String name,
+                         final long rateInMs,
+                         final long idleDelayInMs,
+                         final long initialDelayInMs,
+                         final BooleanSupplier pending,
+                         final BooleanSupplier update) {
+        final ScheduledFlux scheduledFlux = new ScheduledFlux(name, Math.max(rateInMs, MINIMUM_DELAY_IN_MS), idleDelayInMs, pending, update);
+        if (scheduledFluxes.putIfAbsent(name, scheduledFlux) != null) {
+            throw new IllegalStateException("Flux " + name + " is already scheduled");
+        }
+        scheduledFlux.scheduleAt(System.currentTimeMillis() + initialDelayInMs);
+        logger.info("Flux {} scheduled every {} ms", name, rateInMs);
+    }
+
+    /**
+     * Stop updating fluxes: the next updates are cancelled, so the task scheduler doesn't wait for them to terminate
+     * (updates in progress are not interrupted).
+     */
+    public void shutdown() {
+        enabled.set(false);
+        synchronized (scheduledFluxes) {
+            scheduledFluxes.values().forEach(ScheduledFlux::cancel);
+        }
+    }
+
+    /**
+     * Returns the metrics of each scheduled flux.
+     *
+     * @return metrics (by flux name)
+     */
+    public Map<String, FluxMetrics> getMetrics() {
+        final Map<String, FluxMetrics> metrics = new LinkedHashMap<>();
+        synchronized (scheduledFluxes) {
+            scheduledFluxes.forEach((name, scheduledFlux) -> metrics.put(name, scheduledFlux.getMetrics()));
+        }
+        return metrics;
+    }
+
+    /**
+     * Metrics of a scheduled flux.
+     */
+    @Value
+    @Builder
+    @AllArgsConstructor(access = PRIVATE)
+    public static class FluxMetrics {
+
+        /** Number of updates. */
+        long updates;
+
+        /** Number of updates skipped as nothing was pending. */
+        long skippedUpdates;
+
+        /** Number of updates that failed. */
+        long failedUpdates;
+
+        /** Delay between the time the last update was due and its real start in ms. */
+        long lastLagInMs;
+
+        /** Maximum delay between the time an update was due and its real start in ms. */
+        long maximumLagInMs;
+
+        /** Duration of the last update in ms. */
+        long lastCycleTimeInMs;
+
+        /** Average duration of updates in ms. */
+        long averageCycleTimeInMs;
+
+    }
+
+    /**
+     * A flux scheduled by this scheduler - only one update of a flux runs at a time as the next one is only scheduled
+     * when the previous one is done.
+     */
+    private final class ScheduledFlux implements Runnable {
+
+        /** Flux name. */
+        private final String name;
+
+        /** Delay between the start of two updates in ms. */
+        private final long rateInMs;
+
+        /** Delay after which the flux is updated even if nothing is pending in ms. */
+        private final long idleDelayInMs;
+
+        /** Returns true if the flux has something to retrieve. */
+        private final BooleanSupplier pending;
+
+        /** Updates the flux. */
+        private final BooleanSupplier update;
+
+        /** Time the next update is due (ms). */
+        private long dueTime;
+
+        /** Next update (null if the task scheduler doesn't return it). */
+        private ScheduledFuture<?> nextUpdate;
+
+        /** Start of the last update (ms) - the first update is never skipped. */
+        private long lastUpdate;
+
+        /** Consecutive failed updates. */
+        private int consecutiveFailures;
+
+        /** Number of updates. */
+        private long updates;
+
+        /** Number of skipped updates. */
+        private long skippedUpdates;
+
+        /** Number of failed updates. */
+        private long failedUpdates;
+
+        /** Last lag in ms. */
+        private long lastLagInMs;
+
+        /** Maximum lag in ms. */
+        private long maximumLagInMs;
+
+        /** Last cycle time in ms. */
+        private long lastCycleTimeInMs;
+
+        /** Total cycle time in ms. */
+        private long totalCycleTimeInMs;
+
+        /**
+         * Constructor.
+         *
+         * @param newName          flux name
+         * @param newRateInMs      rate in ms
+         * @param newIdleDelayInMs idle delay in ms
+         * @param newPending       pending
+         * @param newUpdate        update
+         */
+        private ScheduledFlux(final String newName,
+                              final long newRateInMs,
+                              final long newIdleDelayInMs,
+                              final BooleanSupplier newPending,
+                              final BooleanSupplier newUpdate) {
+            this.name = newName;
+            this.rateInMs = newRateInMs;
+            this.idleDelayInMs = newIdleDelayInMs;
+            this.pending = newPending;
+            this.update = newUpdate;
+        }
+
+        /**
+         * Schedule the next update.
+         *
+         * @param newDueTime time the update is due (ms)
+         */
+        private synchronized void scheduleAt(final long newDueTime) {
+            // Checked under the lock: no update is scheduled once cancel() has run.
+            if (enabled.get()) {
+                dueTime = newDueTime;
+                nextUpdate = taskScheduler.schedule(this, Instant.ofEpochMilli(newDueTime));
+            }
+        }
+
+        /**
+         * Cancel the next update.
+         */
+        private synchronized void cancel() {
+            if (nextUpdate != null) {
+                nextUpdate.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!enabled.get()) {
+                return;
+            }
+            final long start = System.currentTimeMillis();
+            long delay = rateInMs;
+            synchronized (this) {
+                lastLagInMs = Math.max(start - dueTime, 0);
+                maximumLagInMs = Math.max(maximumLagInMs, lastLagInMs);
+            }
+            try {
+                if (pending.getAsBoolean() || start - lastUpdate >= idleDelayInMs) {
+                    final boolean succeeded = update.getAsBoolean();
+                    delay = onUpdate(start, succeeded);
+                } else {
+                    synchronized (this) {
+                        skippedUpdates++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.error("Flux {} update failed: {}", name, e.getMessage());
+                delay = onUpdate(start, false);
+            } finally {
+                scheduleAt(start + delay);
+            }
+        }
+
+        /**
+         * Records an update and returns the delay before the next one (backing off after failures).
+         *
+         * @param start     start of the update (ms)
+         * @param succeeded true if the update succeeded
+         * @return delay before the next update in ms
+         */
+        private synchronized long onUpdate(final long start, final boolean succeeded) {
+            lastUpdate = start;
+            updates++;
+            lastCycleTimeInMs = System.currentTimeMillis() - start;
+            totalCycleTimeInMs += lastCycleTimeInMs;
+            if (succeeded) {
+                consecutiveFailures = 0;
+                return rateInMs;
+            }
+            failedUpdates++;
+            consecutiveFailures++;
+            // The delay doubles after each consecutive failure.
+            long backoff = rateInMs;
+            for (int i = 0; i < consecutiveFailures && backoff < MAXIMUM_BACKOFF_IN_MS; i++) {
+                backoff *= 2;
+            }
+            return Math.max(rateInMs, Math.min(backoff, MAXIMUM_BACKOFF_IN_MS));
+        }
+
+        /**
+         * Returns the metrics of this flux.
+         *
+         * @return metrics
+         */
+        private synchronized FluxMetrics getMetrics() {
+            return FluxMetrics.builder()
+                    .updates(updates)
+                    .skippedUpdates(skippedUpdates)
+                    .failedUpdates(failedUpdates)
+                    .lastLagInMs(lastLagInMs)
+                    .maximumLagInMs(maximumLagInMs)
+                    .lastCycleTimeInMs(lastCycleTimeInMs)
+                    .averageCycleTimeInMs(updates == 0 ? 0 : totalCycleTimeInMs / updates)
+                    .build();
+        }
+
+    }
+
+}
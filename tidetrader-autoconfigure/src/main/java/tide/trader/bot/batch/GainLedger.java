@@ -0,0 +1,352 @@
+package tide.trader.bot.batch;
+
+import tide.trader.bot.domain.DailyGain;
+import tide.trader.bot.domain.Gain;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.position.PositionTypeDTO;
+import tide.trader.bot.dto.strategy.StrategyDomainDTO;
+import tide.trader.bot.dto.trade.TradeDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
+import tide.trader.bot.dto.util.CurrencyDTO;
+import tide.trader.bot.dto.util.GainDTO;
+import tide.trader.bot.repository.DailyGainRepository;
+import tide.trader.bot.repository.GainRepository;
+import tide.trader.bot.repository.PositionRepository;
+import tide.trader.bot.util.base.Base;
+import tide.trader.bot.util.math.MathConstants;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.math.RoundingMode.HALF_UP;
+
+/**
+ * Gain ledger - gains made by closed positions, by strategy and currency.
+ * Each time a position is closed, {@link PositionFlux} adds its amounts and fees to the ledger entries of its strategy
+ * (one row per currency in the "GAINS" table), so gains are read without going through all the closed positions.
+ * The gain of the position is also added to the day it was opened (one row per strategy, currency and day in the
+ * "DAILY_GAINS" table), giving the daily gain series of the dashboard (see {@link #getDailyGains(long, CurrencyDTO)}).
+ * The ledger can be rebuilt from the closed positions (archived ones included, see {@link PositionArchive}) with
+ * {@link #rebuild()}: it's done on start when the ledger is empty while positions were closed (database created before
+ * the ledger).
+ */
+public class GainLedger extends Base {
+
+    /** Gain repository. */
+    private final GainRepository gainRepository;
+
+    /** Daily gain repository. */
+    private final DailyGainRepository dailyGainRepository;
+
+    /** Position repository. */
+    private final PositionRepository positionRepository;
+
+    /** Position archive. */
+    private final PositionArchive positionArchive;
+
+    /**
+     * Constructor.
+     *
+     * @param newGainRepository      gain repository
+     * @param newDailyGainRepository daily gain repository
+     * @param newPositionRepository  position repository
+     * @param newPositionArchive     position archive
+     */
+    public GainLedger(final GainRepository newGainRepository,
+                      final DailyGainRepository newDailyGainRepository,
+                      final PositionRepository newPositionRepository,
+                      final PositionArchive newPositionArchive) {
+        this.gainRepository = newGainRepository;
+        this.dailyGainRepository = newDailyGainRepository;
+        this.positionRepository = newPositionRepository;
+        this.positionArchive = newPositionArchive;
+    }
+
+    /**
+     * Rebuilds the ledger if it's empty while positions were closed.
+     */
+    public synchronized void initialize() {
+        if ((gainRepository.count() == 0 || dailyGainRepository.count() == 0)
+                && (positionRepository.existsByStatus(PositionStatusDTO.CLOSED) || positionArchive.count() > 0)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds the gains of a position that has just been closed.
+     *
+     * @param position closed position
+     */
+    public synchronized void addClosedPosition(final PositionDTO position) {
+        final Map<String, Gain> gains = new LinkedHashMap<>();
+        addPosition(position, (strategyUid, currency) -> gains.computeIfAbsent(currency.getCode(),
+                code -> gainRepository.findByStrategyUidAndCurrency(strategyUid, code)
+                        .orElseGet(() -> newGain(position, code))));
+        gainRepository.saveAll(gains.values());
+
+        final CurrencyAmountDTO gain = position.getGain().getAmount();
+        final DailyGain dailyGain = dailyGainRepository.findByStrategyUidAndCurrencyAndDay(position.getStrategy().getUid(),
+                        gain.getCurrency().getCode(),
+                        getDay(position))
+                .orElseGet(() -> newDailyGain(position, gain.getCurrency()));
+        addDailyGain(dailyGain, gain);
+        dailyGainRepository.save(dailyGain);
+        logger.debug("Gains of position {} added to the ledger", position.getPositionId());
+    }
+
+    /**
+     * Rebuilds the ledger from all the closed positions (archived ones included).
+     */
+    public synchronized void rebuild() {
+        final Map<Long, Map<String, Gain>> gains = new LinkedHashMap<>();
+        final Map<List<Object>, DailyGain> dailyGains = new LinkedHashMap<>();
+        final List<PositionDTO> positions = Stream.concat(positionArchive.findClosedPositions(0).stream(),
+                        positionRepository.findByStatus(PositionStatusDTO.CLOSED).stream())
+                .map(Base.POSITION_MAPPER::mapToPositionDTO)
+                .collect(Collectors.toList());
+        positions.forEach(position -> addPosition(position, (strategyUid, currency) -> gains
+                .computeIfAbsent(strategyUid, uid -> new LinkedHashMap<>())
+                .computeIfAbsent(currency.getCode(), code -> newGain(position, code))));
+        positions.forEach(position -> {
+            final CurrencyAmountDTO gain = position.getGain().getAmount();
+            addDailyGain(dailyGains.computeIfAbsent(List.of(position.getStrategy().getUid(), gain.getCurrency(), getDay(position)),
+                    key -> newDailyGain(position, gain.getCurrency())), gain);
+        });
+        gainRepository.deleteAllInBatch();
+        gainRepository.saveAll(gains.values()
+                .stream()
+                .flatMap(strategyGains -> strategyGains.values().stream())
+                .collect(Collectors.toList()));
+        dailyGainRepository.deleteAllInBatch();
+        dailyGainRepository.saveAll(dailyGains.values());
+        logger.info("Gain ledger rebuilt from {} closed positions", positions.size());
+    }
+
+    /**
+     * Returns the gains made by the closed positions of a strategy.
+     *
+     * @param strategyUid strategy uid (0 for all strategies)
+     * @return gains by currency
+     */
+    public Map<CurrencyDTO, GainDTO> getGains(final long strategyUid) {
+        final List<Gain> entries;
+        if (strategyUid == 0) {
+            entries = gainRepository.findByOrderByUid();
+        } else {
+            entries = gainRepository.findByStrategyUid(strategyUid);
+        }
+
+        // Strategies totals are summed by currency.
+        final Map<String, BigDecimal> totalBefore = new LinkedHashMap<>();
+        final Map<String, BigDecimal> totalAfter = new LinkedHashMap<>();
+        final Map<String, BigDecimal> openingOrdersFees = new LinkedHashMap<>();
+        final Map<String, BigDecimal> closingOrdersFees = new LinkedHashMap<>();
+        entries.forEach(gain -> {
+            if (gain.getPositions() > 0) {
+                totalBefore.merge(gain.getCurrency(), gain.getTotalBefore(), BigDecimal::add);
+                totalAfter.merge(gain.getCurrency(), gain.getTotalAfter(), BigDecimal::add);
+            }
+            if (gain.getOpeningOrderFees().signum() != 0) {
+                openingOrdersFees.merge(gain.getCurrency(), gain.getOpeningOrderFees(), BigDecimal::add);
+            }
+            if (gain.getClosingOrderFees().signum() != 0) {
+                closingOrdersFees.merge(gain.getCurrency(), gain.getClosingOrderFees(), BigDecimal::add);
+            }
+        });
+
+        final Map<CurrencyDTO, GainDTO> gains = new LinkedHashMap<>();
+        totalBefore.forEach((currency, before) -> {
+            final BigDecimal after = totalAfter.get(currency);
+            final BigDecimal gainAmount = after.subtract(before);
+            final BigDecimal gainPercentage = ((after.subtract(before)).divide(before, HALF_UP)).multiply(MathConstants.ONE_HUNDRED_BIG_DECIMAL);
+            gains.put(CurrencyDTO.getInstance(currency), GainDTO.builder()
+                    .percentage(gainPercentage.setScale(2, HALF_UP).doubleValue())
+                    .amount(CurrencyAmountDTO.builder()
+                            .value(gainAmount)
+                            .currency(CurrencyDTO.getInstance(currency))
+                            .build())
+                    .openingOrderFees(toCurrencyAmounts(openingOrdersFees))
+                    .closingOrderFees(toCurrencyAmounts(closingOrdersFees))
+                    .build());
+        });
+        return gains;
+    }
+
+    /**
+     * Returns the gains made by the closed positions of a strategy in a currency, by day they were opened.
+     *
+     * @param strategyUid strategy uid
+     * @param currency    currency
+     * @return gains by day (sorted by day)
+     */
+    public Map<LocalDate, BigDecimal> getDailyGains(final long strategyUid, final CurrencyDTO currency) {
+        return dailyGainRepository.findByStrategyUidAndCurrency(strategyUid, currency.getCode())
+                .stream()
+                .collect(Collectors.toMap(DailyGain::getDay, DailyGain::getAmount, BigDecimal::add, LinkedHashMap::new));
+    }
+
+    /**
+     * Adds the amounts and fees of a closed position to the ledger entries of its strategy.
+     *
+     * @param position closed position
+     * @param entries  returns the ledger entry of a strategy in a currency
+     */
+    private void addPosition(final PositionDTO position, final LedgerEntries entries) {
+        final long strategyUid = position.getStrategy().getUid();
+
+        // We retrieve the currency of the gains.
+        final CurrencyDTO currency;
+        if (position.getType() == PositionTypeDTO.LONG) {
+            // LONG.
+            currency = position.getCurrencyPair().getQuoteCurrency();
+        } else if (position.getStrategy().getDomain() == StrategyDomainDTO.PERPETUAL) {
+            // SHORT on perpetual.
+            currency = position.getCurrencyPair().getQuoteCurrency();
+        } else {
+            // SHORT.
+            currency = position.getCurrencyPair().getBaseCurrency();
+        }
+        final Gain gain = entries.get(strategyUid, currency);
+        gain.setPositions(gain.getPositions() + 1);
+
+        // We calculate the amounts bought and amount sold.
+        if (position.getType() == PositionTypeDTO.LONG) {
+            gain.setTotalBefore(gain.getTotalBefore().add(position.getOpeningOrderFilledValue()));
+            gain.setTotalAfter(sum(gain.getTotalAfter(), position.getClosingOrder().getTrades(), t -> t.getAmountValue().multiply(t.getPriceValue())));
+        } else if (position.getStrategy().getDomain() == StrategyDomainDTO.PERPETUAL) {
+            gain.setTotalAfter(gain.getTotalAfter().add(position.getOpeningOrderFilledValue()));
+            gain.setTotalBefore(sum(gain.getTotalBefore(), position.getClosingOrder().getTrades(), t -> t.getAmountValue().multiply(t.getPriceValue())));
+        } else {
+            gain.setTotalBefore(gain.getTotalBefore().add(position.getOpeningOrderFilledAmount()));
+            gain.setTotalAfter(sum(gain.getTotalAfter(), position.getClosingOrder().getTrades(), TradeDTO::getAmountValue));
+        }
+
+        // And now the fees (in the ledger entry of their own currency).
+        addFees(strategyUid, position.getOpeningOrder().getTrades(), entries,
+                (entry, fee) -> entry.setOpeningOrderFees(entry.getOpeningOrderFees().add(fee)));
+        addFees(strategyUid, position.getClosingOrder().getTrades(), entries,
+                (entry, fee) -> entry.setClosingOrderFees(entry.getClosingOrderFees().add(fee)));
+    }
+
+    /**
+     * Adds the fees of trades to the ledger entries of their currencies.
+     *
+     * @param strategyUid strategy uid
+     * @param trades      trades
+     * @param entries     returns the ledger entry of a strategy in a currency
+     * @param addFee      adds a fee to a ledger entry
+     */
+    private static void addFees(final long strategyUid,
+                                final Collection<TradeDTO> trades,
+                                final LedgerEntries entries,
+                                final BiConsumer<Gain, BigDecimal> addFee) {
+        trades.stream()
+                .map(TradeDTO::getFee)
+                .filter(fee -> fee != null && fee.getCurrency() != null && fee.getValue() != null)
+                .forEach(fee -> addFee.accept(entries.get(strategyUid, fee.getCurrency()), fee.getValue()));
+    }
+
+    /**
+     * Returns a total plus a value computed for each trade.
+     *
+     * @param total  total
+     * @param trades trades
+     * @param value  value of a trade
+     * @return new total
+     */
+    private static BigDecimal sum(final BigDecimal total,
+                                  final Collection<TradeDTO> trades,
+                                  final Function<TradeDTO, BigDecimal> value) {
+        return trades.stream().map(value).reduce(total, BigDecimal::add);
+    }
+
+    /**
+     * Returns a new ledger entry.
+     *
+     * @param position position giving the strategy
+     * @param currency currency
+     * @return ledger entry
+     */
+    private static Gain newGain(final PositionDTO position, final String currency) {
+        final Gain gain = new Gain();
+        gain.setStrategy(STRATEGY_MAPPER.mapToStrategy(position.getStrategy()));
+        gain.setCurrency(currency);
+        return gain;
+    }
+
+    /**
+     * Adds the gain of a closed position to the gains of the day it was opened.
+     *
+     * @param dailyGain gains of the day
+     * @param gain      gain of the position
+     */
+    private static void addDailyGain(final DailyGain dailyGain, final CurrencyAmountDTO gain) {
+        dailyGain.setPositions(dailyGain.getPositions() + 1);
+        dailyGain.setAmount(dailyGain.getAmount().add(gain.getValue()));
+    }
+
+    /**
+     * Returns the day a position was opened.
+     *
+     * @param position position
+     * @return day
+     */
+    private static LocalDate getDay(final PositionDTO position) {
+        return position.getOpeningOrder().getTimestamp().toLocalDate();
+    }
+
+    /**
+     * Returns new gains of the day a position was opened.
+     *
+     * @param position position giving the strategy and day
+     * @param currency currency of the gains
+     * @return daily gain
+     */
+    private static DailyGain newDailyGain(final PositionDTO position, final CurrencyDTO currency) {
+        final DailyGain dailyGain = new DailyGain();
+        dailyGain.setStrategy(STRATEGY_MAPPER.mapToStrategy(position.getStrategy()));
+        dailyGain.setCurrency(currency.getCode());
+        dailyGain.setDay(getDay(position));
+        return dailyGain;
+    }
+
+    /**
+     * Returns fees as currency amounts.
+     *
+     * @param fees fees by currency
+     * @return currency amounts
+     */
+    private static List<CurrencyAmountDTO> toCurrencyAmounts(final Map<String, BigDecimal> fees) {
+        return fees.entrySet()
+                .stream()
+                .map(fee -> new CurrencyAmountDTO(fee.getValue(), CurrencyDTO.getInstance(fee.getKey())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the ledger entry of a strategy in a currency (created if needed).
+     */
+    @FunctionalInterface
+    private interface LedgerEntries {
+
+        /**
+         * Returns the ledger entry of a strategy in a currency.
+         *
+         * @param strategyUid strategy uid
+         * @param currency    currency
+         * @return ledger entry
+         */
+        Gain get(long strategyUid, CurrencyDTO currency);
+
+    }
+
+}
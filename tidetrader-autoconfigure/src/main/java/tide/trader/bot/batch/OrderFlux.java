@@ -8,16 +8,26 @@ import tide.trader.bot.service.TradeService;
 import tide.trader.bot.util.base.Base;
 import tide.trader.bot.util.base.batch.BaseFlux;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Order flux - push {@link OrderDTO}.
- * Two methods override from super class:
+ * Three methods override from super class:
  * - getNewValues(): calling trade service to retrieve orders from exchange.
+ * - getNewValues(values): keeping, among orders retrieved or pushed by the exchange, the new and updated ones.
  * - saveValues(): saving/updating orders in database.
+ * Orders are looked up and saved in database once per cycle (not once per order): orders loaded by getNewValues() are
+ * reused by saveValues() in the same cycle instead of being loaded again.
+ * Note: unlike trades, orders are not cached as they are also updated through positions, the database stays the reference.
  * To get a deep understanding of how it works, read the documentation of {@link BaseFlux}.
  */
 @RequiredArgsConstructor
@@ -29,54 +39,100 @@ public class OrderFlux extends BaseFlux<OrderDTO> {
     /** Trade service. */
     private final TradeService tradeService;
 
+    /** Orders in database (null if not in database) of the new values returned by the last getNewValues() call, reused by saveValues() (by order id). */
+    private final Map<String, Order> loadedValues = new HashMap<>();
+
+    /**
+     * Returns the ids, among the ones given, of the orders saved in database.
+     *
+     * @param orderIds order ids
+     * @return ids of orders saved in database
+     */
+    public final Set<String> getSavedOrderIds(final Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(orderRepository.findOrderIdByOrderIdIn(orderIds));
+    }
+
     @Override
     protected final Set<OrderDTO> getNewValues() {
         logger.debug("Retrieving orders from exchange");
+        return getNewValues(tradeService.getOrders());
+    }
+
+    @Override
+    protected final Set<OrderDTO> getNewValues(final Set<OrderDTO> orders) {
         Set<OrderDTO> newValues = new LinkedHashSet<>();
+        loadedValues.clear();
+        if (orders.isEmpty()) {
+            return newValues;
+        }
+
+        // Retrieving, in one query, the corresponding orders from database.
+        final Map<String, Order> ordersInDatabase = orderRepository.findByOrderIdIn(orders.stream().map(OrderDTO::getOrderId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity(), (o1, o2) -> o1));
+
+        orders.forEach(order -> {
+            logger.debug("Checking order: {}", order.getOrderId());
+            final Order orderEntity = ordersInDatabase.get(order.getOrderId());
+            final OrderDTO orderInDatabase = orderEntity == null ? null : Base.ORDER_MAPPER.mapToOrderDTO(orderEntity);
 
-        // Getting all the orders from the exchange.
-        tradeService.getOrders()
-                .forEach(order -> {
-                    logger.debug("Checking order: {}", order.getOrderId());
-                    final Optional<Order> orderInDatabase = orderRepository.findByOrderId(order.getOrderId());
-
-                    // If the order is not in database, we insert it only if strategy is set on that order.
-                    // If strategy is not set, it means that Cassandre did not yet save its locally created order.
-                    if (orderInDatabase.isEmpty() && order.getStrategy() != null) {
-                        logger.debug("New order from exchange: {}", order);
-                        newValues.add(order);
-                    }
-
-                    // If the local order is already saved in database and the order retrieved from the exchange
-                    // is different, then, we update the order in database.
-                    if (orderInDatabase.isPresent() && !Base.ORDER_MAPPER.mapToOrderDTO(orderInDatabase.get()).equals(order)) {
-                        logger.debug("Updated order from exchange: {}", order);
-                        newValues.add(order);
-                    }
-                });
+            // If the order is not in database, we insert it only if strategy is set on that order.
+            // If strategy is not set, it means that Cassandre did not yet save its locally created order.
+            if (orderInDatabase == null && order.getStrategy() != null) {
+                logger.debug("New order from exchange: {}", order);
+                newValues.add(order);
+                loadedValues.put(order.getOrderId(), null);
+            }
+
+            // If the local order is already saved in database and the order retrieved from the exchange
+            // is different, then, we update the order in database.
+            if (orderInDatabase != null && !orderInDatabase.equals(order)) {
+                logger.debug("Updated order from exchange: {}", order);
+                newValues.add(order);
+                loadedValues.put(order.getOrderId(), orderEntity);
+            }
+        });
 
         return newValues;
     }
 
     @Override
     protected final Set<OrderDTO> saveValues(final Set<OrderDTO> newValues) {
-        Set<Order> orders = new LinkedHashSet<>();
+        // Orders found in database by getNewValues() are not loaded again, only the ones emitted directly are looked up.
+        final Map<String, Order> ordersInDatabase = new HashMap<>(loadedValues);
+        loadedValues.clear();
+        final Set<String> ordersToLoad = newValues.stream()
+                .map(OrderDTO::getOrderId)
+                .filter(orderId -> !ordersInDatabase.containsKey(orderId))
+                .collect(Collectors.toSet());
+        if (!ordersToLoad.isEmpty()) {
+            orderRepository.findByOrderIdIn(ordersToLoad).forEach(order -> ordersInDatabase.putIfAbsent(order.getOrderId(), order));
+        }
+        final Map<String, Order> orders = new LinkedHashMap<>();
 
         // We create or update every order retrieved by the exchange.
-        newValues.forEach(newValue -> orderRepository.findByOrderId(newValue.getOrderId())
-                .ifPresentOrElse(order -> {
-                    // Update order.
-                    Base.ORDER_MAPPER.updateOrder(newValue, order);
-                    orders.add(orderRepository.save(order));
-                    logger.debug("Updating order in database: {}", order);
-                }, () -> {
-                    // Create order.
-                    final Order newOrder = Base.ORDER_MAPPER.mapToOrder(newValue);
-                    orders.add(orderRepository.save(newOrder));
-                    logger.debug("Creating order in database: {}", newOrder);
-                }));
-
-        return orders.stream()
+        newValues.forEach(newValue -> {
+            final Order order = ordersInDatabase.get(newValue.getOrderId());
+            if (order != null) {
+                // Update order.
+                Base.ORDER_MAPPER.updateOrder(newValue, order);
+                orders.put(newValue.getOrderId(), order);
+                logger.debug("Updating order in database: {}", order);
+            } else {
+                // Create order.
+                final Order newOrder = Base.ORDER_MAPPER.mapToOrder(newValue);
+                ordersInDatabase.put(newValue.getOrderId(), newOrder);
+                orders.put(newValue.getOrderId(), newOrder);
+                logger.debug("Creating order in database: {}", newOrder);
+            }
+        });
+
+        // All the orders are saved at once.
+        return orderRepository.saveAll(orders.values())
+                .stream()
                 .map(Base.ORDER_MAPPER::mapToOrderDTO)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
@@ -0,0 +1,489 @@
+package tide.trader.bot.batch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+import tide.trader.bot.domain.Order;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.domain.Strategy;
+import tide.trader.bot.domain.Trade;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.position.PositionTypeDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.dto.trade.OrderTypeDTO;
+import tide.trader.bot.repository.StrategyRepository;
+import tide.trader.bot.util.base.Base;
+import tide.trader.bot.util.jpa.CurrencyAmount;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Position archive - closed positions, with their orders and trades, moved out of the tables used by the fluxes.
+ * Every hot query (opened positions, pending orders...) runs on the "POSITIONS", "ORDERS" and "TRADES" tables: to keep
+ * them small, {@link #archive()} (called by the flux scheduler) moves the positions closed for longer than the configured
+ * delay to the "POSITIONS_ARCHIVE", "ORDERS_ARCHIVE" and "TRADES_ARCHIVE" tables, a batch of positions per transaction.
+ * Archived positions are still read by {@link #findClosedPositions(long)}, which the gain ledger and the closed positions
+ * of strategies use with the positions of the hot tables. They are read by pages of positions (see
+ * {@link #findClosedPositions(long, long, int)}): only the rows of the requested strategy and of the orders of the page
+ * are read, through their indexes.
+ * Gains are not affected: they are kept in the gain ledger (see {@link GainLedger}).
+ */
+public class PositionArchive extends Base {
+
+    /** Number of positions archived per transaction. */
+    private static final int BATCH_SIZE = 500;
+
+    /** Query returning the positions (with their orders) closed before a date. */
+    private static final String SELECT_ARCHIVABLE = "SELECT P.UID, P.FK_OPENING_ORDER_UID, P.FK_CLOSING_ORDER_UID"
+            + " FROM POSITIONS P JOIN ORDERS O ON O.UID = P.FK_CLOSING_ORDER_UID"
+            + " WHERE P.STATUS = '" + PositionStatusDTO.CLOSED + "' AND O.TIMESTAMP < ?"
+            + " ORDER BY P.UID LIMIT " + BATCH_SIZE;
+
+    /** Columns copied from "POSITIONS" to "POSITIONS_ARCHIVE". */
+    private static final String POSITIONS_COLUMNS = "UID, POSITION_ID, TYPE, FK_STRATEGY_UID, CURRENCY_PAIR,"
+            + " AMOUNT_VALUE, AMOUNT_CURRENCY,"
+            + " RULES_STOP_GAIN_PERCENTAGE, RULES_STOP_GAIN_BOUNCE_PERCENTAGE, RULES_STOP_LOSS_PERCENTAGE,"
+            + " STATUS, FK_OPENING_ORDER_UID, FK_CLOSING_ORDER_UID,"
+            + " LOWEST_GAIN_PRICE_VALUE, LOWEST_GAIN_PRICE_CURRENCY,"
+            + " HIGHEST_GAIN_PRICE_VALUE, HIGHEST_GAIN_PRICE_CURRENCY,"
+            + " LATEST_GAIN_PRICE_VALUE, LATEST_GAIN_PRICE_CURRENCY,"
+            + " BASE_CURRENCY_PRECISION, QUOTE_CURRENCY_PRECISION, FORCE_CLOSING, AUTO_CLOSE, EXIT_REASON,"
+            + " OPENING_ORDER_FILLED_AMOUNT, OPENING_ORDER_FILLED_VALUE, CREATED_ON, UPDATED_ON";
+
+    /** Columns copied from "ORDERS" to "ORDERS_ARCHIVE". */
+    private static final String ORDERS_COLUMNS = "UID, ORDER_ID, TYPE, FK_STRATEGY_UID, CURRENCY_PAIR,"
+            + " AMOUNT_VALUE, AMOUNT_CURRENCY, AVERAGE_PRICE_VALUE, AVERAGE_PRICE_CURRENCY,"
+            + " LIMIT_PRICE_VALUE, LIMIT_PRICE_CURRENCY, LEVERAGE, STATUS,"
+            + " CUMULATIVE_AMOUNT_VALUE, CUMULATIVE_AMOUNT_CURRENCY, MARKET_PRICE_VALUE, MARKET_PRICE_CURRENCY,"
+            + " USER_REFERENCE, TIMESTAMP, CREATED_ON, UPDATED_ON";
+
+    /** Columns copied from "TRADES" to "TRADES_ARCHIVE". */
+    private static final String TRADES_COLUMNS = "UID, TRADE_ID, TYPE, FK_ORDER_UID, CURRENCY_PAIR,"
+            + " AMOUNT_VALUE, AMOUNT_CURRENCY, PRICE_VALUE, PRICE_CURRENCY, FEE_VALUE, FEE_CURRENCY,"
+            + " USER_REFERENCE, TIMESTAMP, CREATED_ON, UPDATED_ON";
+
+    /** Query returning a page of archived positions (uid and page size are parameters). */
+    private static final String SELECT_POSITIONS = "SELECT * FROM POSITIONS_ARCHIVE"
+            + " WHERE UID > ? ORDER BY UID LIMIT ?";
+
+    /** Query returning a page of archived positions of a strategy (strategy uid, uid and page size are parameters). */
+    private static final String SELECT_STRATEGY_POSITIONS = "SELECT * FROM POSITIONS_ARCHIVE"
+            + " WHERE FK_STRATEGY_UID = ? AND UID > ? ORDER BY UID LIMIT ?";
+
+    /** Query returning archived orders (to be completed by an "IN" clause of order uids). */
+    private static final String SELECT_ORDERS = "SELECT * FROM ORDERS_ARCHIVE WHERE UID IN ";
+
+    /** Query returning the archived trades of orders (to be completed by an "IN" clause of order uids). */
+    private static final String SELECT_TRADES = "SELECT * FROM TRADES_ARCHIVE WHERE FK_ORDER_UID IN ";
+
+    /** JDBC template. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transaction template (each batch of positions is archived in its own transaction). */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Strategy repository. */
+    private final StrategyRepository strategyRepository;
+
+    /** Delay after which closed positions are archived (null if positions are never archived). */
+    private final Duration archiveAfter;
+
+    /**
+     * Constructor.
+     *
+     * @param newJdbcTemplate        JDBC template
+     * @param newTransactionTemplate transaction template
+     * @param newStrategyRepository  strategy repository
+     * @param newArchiveAfter        delay after which closed positions are archived (null if positions are never archived)
+     */
+    public PositionArchive(final JdbcTemplate newJdbcTemplate,
+                           final TransactionTemplate newTransactionTemplate,
+                           final StrategyRepository newStrategyRepository,
+                           final Duration newArchiveAfter) {
+        this.jdbcTemplate = newJdbcTemplate;
+        this.transactionTemplate = newTransactionTemplate;
+        this.strategyRepository = newStrategyRepository;
+        this.archiveAfter = newArchiveAfter;
+    }
+
+    /**
+     * Returns true if closed positions are archived.
+     *
+     * @return true if closed positions are archived
+     */
+    public boolean isEnabled() {
+        return archiveAfter != null;
+    }
+
+    /**
+     * Archives the positions closed for longer than the configured delay.
+     *
+     * @return false if positions couldn't be archived
+     */
+    public boolean archive() {
+        if (!isEnabled()) {
+            return true;
+        }
+        try {
+            final long archived = archive(ZonedDateTime.now().minus(archiveAfter));
+            if (archived > 0) {
+                logger.info("{} closed positions archived", archived);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Impossible to archive closed positions: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Archives the positions whose closing order is older than a date, with their orders and trades.
+     *
+     * @param closedBefore date
+     * @return number of positions archived
+     */
+    public synchronized long archive(final ZonedDateTime closedBefore) {
+        long archived = 0;
+        Integer batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(closedBefore));
+            archived += batch == null ? 0 : batch;
+        } while (batch != null && batch == BATCH_SIZE);
+        return archived;
+    }
+
+    /**
+     * Returns the number of positions archived.
+     *
+     * @return number of positions archived
+     */
+    public long count() {
+        final Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM POSITIONS_ARCHIVE", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Returns the closed positions archived, with their orders and trades.
+     *
+     * @param strategyUid strategy uid (0 for all strategies)
+     * @return positions (sorted by uid)
+     */
+    public List<Position> findClosedPositions(final long strategyUid) {
+        final Map<Long, Strategy> strategies = new HashMap<>();
+        final List<Position> positions = new ArrayList<>();
+        List<Position> page;
+        do {
+            page = findClosedPositions(strategyUid, positions.isEmpty() ? 0 : positions.get(positions.size() - 1).getUid(), BATCH_SIZE, strategies);
+            positions.addAll(page);
+        } while (page.size() == BATCH_SIZE);
+        return positions;
+    }
+
+    /**
+     * Returns a page of the closed positions archived, with their orders and trades.
+     *
+     * @param strategyUid strategy uid (0 for all strategies)
+     * @param afterUid    uid of the last position of the previous page (0 for the first page)
+     * @param size        maximum number of positions
+     * @return positions (sorted by uid)
+     */
+    public List<Position> findClosedPositions(final long strategyUid, final long afterUid, final int size) {
+        return findClosedPositions(strategyUid, afterUid, size, new HashMap<>());
+    }
+
+    /**
+     * Returns a page of the closed positions archived, with their orders and trades.
+     *
+     * @param strategyUid strategy uid (0 for all strategies)
+     * @param afterUid    uid of the last position of the previous page (0 for the first page)
+     * @param size        maximum number of positions
+     * @param strategies  strategies already read (by uid)
+     * @return positions (sorted by uid)
+     */
+    private List<Position> findClosedPositions(final long strategyUid,
+                                               final long afterUid,
+                                               final int size,
+                                               final Map<Long, Strategy> strategies) {
+        // Positions, with the uids of their orders.
+        final List<Position> positions = new ArrayList<>();
+        final Map<Long, Long> openingOrders = new HashMap<>();
+        final Map<Long, Long> closingOrders = new HashMap<>();
+        final RowCallbackHandler positionRow = resultSet -> {
+            final Position position = mapPosition(resultSet);
+            position.setStrategy(getStrategy(strategies, resultSet.getLong("FK_STRATEGY_UID")));
+            openingOrders.put(position.getUid(), resultSet.getObject("FK_OPENING_ORDER_UID", Long.class));
+            closingOrders.put(position.getUid(), resultSet.getObject("FK_CLOSING_ORDER_UID", Long.class));
+            positions.add(position);
+        };
+        if (strategyUid == 0) {
+            jdbcTemplate.query(SELECT_POSITIONS, positionRow, afterUid, size);
+        } else {
+            jdbcTemplate.query(SELECT_STRATEGY_POSITIONS, positionRow, strategyUid, afterUid, size);
+        }
+        final Object[] orderUids = Stream.concat(openingOrders.values().stream(), closingOrders.values().stream())
+                .filter(uid -> uid != null)
+                .distinct()
+                .toArray();
+        if (orderUids.length == 0) {
+            return positions;
+        }
+
+        // Orders and their trades.
+        final Map<Long, Order> orders = new HashMap<>();
+        jdbcTemplate.query(SELECT_ORDERS + in(orderUids.length), (RowCallbackHandler) resultSet -> {
+            final Order order = mapOrder(resultSet);
+            order.setStrategy(getStrategy(strategies, resultSet.getLong("FK_STRATEGY_UID")));
+            orders.put(order.getUid(), order);
+        }, orderUids);
+        jdbcTemplate.query(SELECT_TRADES + in(orderUids.length) + " ORDER BY TIMESTAMP", (RowCallbackHandler) resultSet -> {
+            final Trade trade = mapTrade(resultSet);
+            final Order order = orders.get(resultSet.getLong("FK_ORDER_UID"));
+            if (order != null) {
+                trade.setOrder(order);
+                order.getTrades().add(trade);
+            }
+        }, orderUids);
+        positions.forEach(position -> {
+            position.setOpeningOrder(orders.get(openingOrders.get(position.getUid())));
+            position.setClosingOrder(orders.get(closingOrders.get(position.getUid())));
+        });
+        return positions;
+    }
+
+    /**
+     * Returns a strategy (read once per uid).
+     *
+     * @param strategies  strategies already read (by uid)
+     * @param strategyUid strategy uid
+     * @return strategy (null if not found)
+     */
+    private Strategy getStrategy(final Map<Long, Strategy> strategies, final long strategyUid) {
+        return strategies.computeIfAbsent(strategyUid, uid -> strategyRepository.findById(uid).orElse(null));
+    }
+
+    /**
+     * Archives a batch of positions closed before a date (must be called in a transaction).
+     *
+     * @param closedBefore date
+     * @return number of positions archived
+     */
+    private int archiveBatch(final ZonedDateTime closedBefore) {
+        final List<Long> positionUids = new ArrayList<>();
+        final List<Long> orderUids = new ArrayList<>();
+        jdbcTemplate.query(SELECT_ARCHIVABLE, resultSet -> {
+            positionUids.add(resultSet.getLong(1));
+            Stream.of(resultSet.getObject(2), resultSet.getObject(3))
+                    .filter(uid -> uid != null)
+                    .forEach(uid -> orderUids.add(((Number) uid).longValue()));
+        }, closedBefore.toOffsetDateTime());
+        if (positionUids.isEmpty()) {
+            return 0;
+        }
+
+        final Object[] positions = positionUids.toArray();
+        final Object[] orders = orderUids.toArray();
+        final String positionsIn = in(positions.length);
+        final String ordersIn = in(orders.length);
+
+        // Copied in the archive tables.
+        jdbcTemplate.update(copy("POSITIONS", POSITIONS_COLUMNS) + "WHERE UID IN " + positionsIn, positions);
+        jdbcTemplate.update(copy("ORDERS", ORDERS_COLUMNS) + "WHERE UID IN " + ordersIn, orders);
+        jdbcTemplate.update(copy("TRADES", TRADES_COLUMNS) + "WHERE FK_ORDER_UID IN " + ordersIn, orders);
+
+        // Then removed from the hot tables (positions first, as they reference the orders).
+        jdbcTemplate.update("DELETE FROM POSITIONS WHERE UID IN " + positionsIn, positions);
+        jdbcTemplate.update("DELETE FROM TRADES WHERE FK_ORDER_UID IN " + ordersIn, orders);
+        jdbcTemplate.update("DELETE FROM ORDERS WHERE UID IN " + ordersIn, orders);
+        return positionUids.size();
+    }
+
+    /**
+     * Returns the statement copying rows of a hot table to its archive table (to be completed by a where clause).
+     *
+     * @param table   hot table
+     * @param columns columns
+     * @return statement
+     */
+    private static String copy(final String table, final String columns) {
+        return "INSERT INTO " + table + "_ARCHIVE (" + columns + ") SELECT " + columns + " FROM " + table + " ";
+    }
+
+    /**
+     * Returns an "IN" clause with parameters.
+     *
+     * @param size number of parameters
+     * @return in clause
+     */
+    private static String in(final int size) {
+        return "(" + String.join(", ", Collections.nCopies(size, "?")) + ")";
+    }
+
+    /**
+     * Maps an archived position (without its strategy and orders).
+     *
+     * @param resultSet result set
+     * @return position
+     * @throws SQLException SQL exception
+     */
+    private static Position mapPosition(final ResultSet resultSet) throws SQLException {
+        final Position position = new Position();
+        position.setUid(resultSet.getLong("UID"));
+        position.setPositionId(resultSet.getLong("POSITION_ID"));
+        position.setType(getEnum(resultSet, "TYPE", PositionTypeDTO.class));
+        position.setCurrencyPair(resultSet.getString("CURRENCY_PAIR"));
+        position.setBaseCurrencyPrecision(getInteger(resultSet, "BASE_CURRENCY_PRECISION"));
+        position.setQuoteCurrencyPrecision(getInteger(resultSet, "QUOTE_CURRENCY_PRECISION"));
+        position.setAmount(getCurrencyAmount(resultSet, "AMOUNT"));
+        position.setStopGainPercentageRule(getFloat(resultSet, "RULES_STOP_GAIN_PERCENTAGE"));
+        position.setStopGainBouncePercentageRule(getFloat(resultSet, "RULES_STOP_GAIN_BOUNCE_PERCENTAGE"));
+        position.setStopLossPercentageRule(getFloat(resultSet, "RULES_STOP_LOSS_PERCENTAGE"));
+        position.setStatus(getEnum(resultSet, "STATUS", PositionStatusDTO.class));
+        position.setAutoClose(resultSet.getBoolean("AUTO_CLOSE"));
+        position.setForceClosing(resultSet.getBoolean("FORCE_CLOSING"));
+        position.setOpeningOrderFilledAmount(resultSet.getBigDecimal("OPENING_ORDER_FILLED_AMOUNT"));
+        position.setOpeningOrderFilledValue(resultSet.getBigDecimal("OPENING_ORDER_FILLED_VALUE"));
+        position.setLowestGainPrice(getCurrencyAmount(resultSet, "LOWEST_GAIN_PRICE"));
+        position.setHighestGainPrice(getCurrencyAmount(resultSet, "HIGHEST_GAIN_PRICE"));
+        position.setLatestGainPrice(getCurrencyAmount(resultSet, "LATEST_GAIN_PRICE"));
+        position.setExitReason(resultSet.getString("EXIT_REASON"));
+        position.setCreatedOn(getZonedDateTime(resultSet, "CREATED_ON"));
+        position.setUpdatedOn(getZonedDateTime(resultSet, "UPDATED_ON"));
+        return position;
+    }
+
+    /**
+     * Maps an archived order (without its strategy and trades).
+     *
+     * @param resultSet result set
+     * @return order
+     * @throws SQLException SQL exception
+     */
+    private static Order mapOrder(final ResultSet resultSet) throws SQLException {
+        final Order order = new Order();
+        order.setUid(resultSet.getLong("UID"));
+        order.setOrderId(resultSet.getString("ORDER_ID"));
+        order.setType(getEnum(resultSet, "TYPE", OrderTypeDTO.class));
+        order.setCurrencyPair(resultSet.getString("CURRENCY_PAIR"));
+        order.setAmount(getCurrencyAmount(resultSet, "AMOUNT"));
+        order.setAveragePrice(getCurrencyAmount(resultSet, "AVERAGE_PRICE"));
+        order.setLimitPrice(getCurrencyAmount(resultSet, "LIMIT_PRICE"));
+        order.setMarketPrice(getCurrencyAmount(resultSet, "MARKET_PRICE"));
+        order.setLeverage(resultSet.getString("LEVERAGE"));
+        order.setStatus(getEnum(resultSet, "STATUS", OrderStatusDTO.class));
+        order.setCumulativeAmount(getCurrencyAmount(resultSet, "CUMULATIVE_AMOUNT"));
+        order.setUserReference(resultSet.getString("USER_REFERENCE"));
+        order.setTimestamp(getZonedDateTime(resultSet, "TIMESTAMP"));
+        order.setCreatedOn(getZonedDateTime(resultSet, "CREATED_ON"));
+        order.setUpdatedOn(getZonedDateTime(resultSet, "UPDATED_ON"));
+        return order;
+    }
+
+    /**
+     * Maps an archived trade (without its order).
+     *
+     * @param resultSet result set
+     * @return trade
+     * @throws SQLException SQL exception
+     */
+    private static Trade mapTrade(final ResultSet resultSet) throws SQLException {
+        final Trade trade = new Trade();
+        trade.setUid(resultSet.getLong("UID"));
+        trade.setTradeId(resultSet.getString("TRADE_ID"));
+        trade.setType(getEnum(resultSet, "TYPE", OrderTypeDTO.class));
+        trade.setCurrencyPair(resultSet.getString("CURRENCY_PAIR"));
+        trade.setAmount(getCurrencyAmount(resultSet, "AMOUNT"));
+        trade.setPrice(getCurrencyAmount(resultSet, "PRICE"));
+        trade.setFee(getCurrencyAmount(resultSet, "FEE"));
+        trade.setUserReference(resultSet.getString("USER_REFERENCE"));
+        trade.setTimestamp(getZonedDateTime(resultSet, "TIMESTAMP"));
+        trade.setCreatedOn(getZonedDateTime(resultSet, "CREATED_ON"));
+        trade.setUpdatedOn(getZonedDateTime(resultSet, "UPDATED_ON"));
+        return trade;
+    }
+
+    /**
+     * Returns a currency amount stored in two columns (null if both are null, as Hibernate does for embedded values).
+     *
+     * @param resultSet result set
+     * @param prefix    prefix of the "_VALUE" and "_CURRENCY" columns
+     * @return currency amount
+     * @throws SQLException SQL exception
+     */
+    private static CurrencyAmount getCurrencyAmount(final ResultSet resultSet, final String prefix) throws SQLException {
+        final BigDecimal value = resultSet.getBigDecimal(prefix + "_VALUE");
+        final String currency = resultSet.getString(prefix + "_CURRENCY");
+        if (value == null && currency == null) {
+            return null;
+        }
+        final CurrencyAmount currencyAmount = new CurrencyAmount();
+        currencyAmount.setValue(value);
+        currencyAmount.setCurrency(currency);
+        return currencyAmount;
+    }
+
+    /**
+     * Returns an enum value.
+     *
+     * @param resultSet result set
+     * @param column    column
+     * @param enumClass enum class
+     * @param <E>       enum type
+     * @return enum value (null if not set)
+     * @throws SQLException SQL exception
+     */
+    private static <E extends Enum<E>> E getEnum(final ResultSet resultSet, final String column, final Class<E> enumClass) throws SQLException {
+        final String value = resultSet.getString(column);
+        return value == null ? null : Enum.valueOf(enumClass, value);
+    }
+
+    /**
+     * Returns an integer value.
+     *
+     * @param resultSet result set
+     * @param column    column
+     * @return integer (null if not set)
+     * @throws SQLException SQL exception
+     */
+    private static Integer getInteger(final ResultSet resultSet, final String column) throws SQLException {
+        final int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Returns a float value.
+     *
+     * @param resultSet result set
+     * @param column    column
+     * @return float (null if not set)
+     * @throws SQLException SQL exception
+     */
+    private static Float getFloat(final ResultSet resultSet, final String column) throws SQLException {
+        final float value = resultSet.getFloat(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Returns a date value.
+     *
+     * @param resultSet result set
+     * @param column    column
+     * @return date (null if not set)
+     * @throws SQLException SQL exception
+     */
+    private static ZonedDateTime getZonedDateTime(final ResultSet resultSet, final String column) throws SQLException {
+        final OffsetDateTime value = resultSet.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toZonedDateTime();
+    }
+
+}
@@ -1,13 +1,22 @@
 package tide.trader.bot.batch;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import tide.trader.bot.domain.Order;
 import tide.trader.bot.domain.Position;
 import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
 import tide.trader.bot.repository.PositionRepository;
 import tide.trader.bot.util.base.batch.BaseFlux;
 import tide.trader.bot.util.base.Base;
+import tide.trader.bot.util.jpa.CurrencyAmount;
 
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,34 +26,424 @@ import java.util.stream.Collectors;
  * Two methods override from super class:
  * - getNewValues(): positions are only created inside cassandre, so we don't need to get new values from outside.
  * - saveValues(): update positions when they are sent to this flux (they are not created in the flux).
+ * Positions are updated with one statement writing the fields that change during their life (see
+ * {@link PositionRepository#updateLifecycle(Position)}), and their previous state is read from the index below when
+ * they are not closed, so a position update doesn't read the database.
+ * As every position update goes through this flux, it also maintains an in-memory index of the positions that are not closed,
+ * by strategy and currency pair, so that strategies don't have to query the database on each ticker, order or trade update.
+ * The index only holds positions as saved in database: each call returns new DTOs, so callers can't change its content.
+ * Their stop gain / stop loss rules are also indexed as trigger prices (see {@link PositionTriggers}).
+ * With a {@link PositionJournal}, positions whose prices are updated by tickers are sent to strategies without waiting for
+ * the database: their prices are journaled and written later in batches (see {@link #emitTickerUpdate(PositionDTO)}).
+ * When a position is closed, its gains are added to the {@link GainLedger}.
  * To get a deep understanding of how it works, read the documentation of {@link BaseFlux}.
  */
-@RequiredArgsConstructor
 public class PositionFlux extends BaseFlux<PositionDTO> {
 
     /** Position repository. */
     private final PositionRepository positionRepository;
 
+    /** Journal of the prices updated by tickers (null if positions are always saved right away). */
+    private final PositionJournal positionJournal;
+
+    /** Ledger of the gains made by closed positions (null if there is no ledger). */
+    private final GainLedger gainLedger;
+
+    /** Positions not closed (as saved in database), indexed by strategy uid, currency pair and position uid. */
+    private final Map<Long, Map<CurrencyPairDTO, Map<Long, Position>>> openPositions = new LinkedHashMap<>();
+
+    /** Trigger prices of the positions not closed. */
+    private final PositionTriggers positionTriggers = new PositionTriggers();
+
+    /** True when the open positions have been loaded from database. */
+    private boolean openPositionsLoaded = false;
+
+    /**
+     * Constructor.
+     *
+     * @param newPositionRepository position repository
+     */
+    public PositionFlux(final PositionRepository newPositionRepository) {
+        this(newPositionRepository, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newPositionRepository position repository
+     * @param newPositionJournal    journal of the prices updated by tickers (null to save positions right away)
+     */
+    public PositionFlux(final PositionRepository newPositionRepository, final PositionJournal newPositionJournal) {
+        this(newPositionRepository, newPositionJournal, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newPositionRepository position repository
+     * @param newPositionJournal    journal of the prices updated by tickers (null to save positions right away)
+     * @param newGainLedger         ledger updated with the gains of the positions closed (null if there is no ledger)
+     */
+    public PositionFlux(final PositionRepository newPositionRepository,
+                        final PositionJournal newPositionJournal,
+                        final GainLedger newGainLedger) {
+        this.positionRepository = newPositionRepository;
+        this.positionJournal = newPositionJournal;
+        this.gainLedger = newGainLedger;
+    }
+
+    /**
+     * Returns the positions of a strategy that are not closed.
+     *
+     * @param strategyUid strategy uid
+     * @return positions not closed
+     */
+    public List<PositionDTO> getOpenPositions(final long strategyUid) {
+        synchronized (openPositions) {
+            loadOpenPositions();
+            return openPositions.getOrDefault(strategyUid, Collections.emptyMap())
+                    .values()
+                    .stream()
+                    .flatMap(positions -> positions.values().stream())
+                    .map(Base.POSITION_MAPPER::mapToPositionDTO)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the positions of a strategy, on a currency pair, that are not closed.
+     *
+     * @param strategyUid  strategy uid
+     * @param currencyPair currency pair
+     * @return positions not closed
+     */
+    public List<PositionDTO> getOpenPositions(final long strategyUid, final CurrencyPairDTO currencyPair) {
+        synchronized (openPositions) {
+            loadOpenPositions();
+            return openPositions.getOrDefault(strategyUid, Collections.emptyMap())
+                    .getOrDefault(currencyPair, Collections.emptyMap())
+                    .values()
+                    .stream()
+                    .map(Base.POSITION_MAPPER::mapToPositionDTO)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the positions of a strategy, on a currency pair, that a ticker price can change: the opened positions
+     * whose latest gain price is not this price, and the positions asked (for example, the triggered ones).
+     * Positions that the price doesn't change are not mapped to DTOs.
+     *
+     * @param strategyUid  strategy uid
+     * @param currencyPair currency pair
+     * @param price        ticker price
+     * @param positionsUid uids of the positions to return whatever the price
+     * @return positions not closed
+     */
+    public List<PositionDTO> getOpenPositions(final long strategyUid,
+                                              final CurrencyPairDTO currencyPair,
+                                              final BigDecimal price,
+                                              final Set<Long> positionsUid) {
+        synchronized (openPositions) {
+            loadOpenPositions();
+            return openPositions.getOrDefault(strategyUid, Collections.emptyMap())
+                    .getOrDefault(currencyPair, Collections.emptyMap())
+                    .values()
+                    .stream()
+                    .filter(position -> positionsUid.contains(position.getUid()) || isPriceChangedBy(position, price))
+                    .map(Base.POSITION_MAPPER::mapToPositionDTO)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the uids of the positions of a strategy, on a currency pair, whose stop gain or stop loss trigger price
+     * is crossed by a price (or that must be closed whatever the price).
+     * Only those positions can have {@link PositionDTO#shouldBeClosed()} returning true.
+     *
+     * @param strategyUid  strategy uid
+     * @param currencyPair currency pair
+     * @param price        price
+     * @return positions uid
+     */
+    public Set<Long> getTriggeredPositions(final long strategyUid, final CurrencyPairDTO currencyPair, final BigDecimal price) {
+        synchronized (openPositions) {
+            loadOpenPositions();
+            return positionTriggers.getTriggeredPositions(strategyUid, currencyPair, price);
+        }
+    }
+
+    /**
+     * Returns true if a position on this currency pair is being force closed (it must be closed on the next ticker).
+     *
+     * @param currencyPair currency pair
+     * @return true if a position is force closing
+     */
+    public boolean isForceClosing(final CurrencyPairDTO currencyPair) {
+        synchronized (openPositions) {
+            loadOpenPositions();
+            return positionTriggers.isForceClosing(currencyPair);
+        }
+    }
+
+    /**
+     * Reloads a position from database into the open positions index.
+     * Must be called after a position was updated in database without going through this flux.
+     *
+     * @param positionUid position uid
+     */
+    public void refreshOpenPosition(final long positionUid) {
+        positionRepository.findById(positionUid).ifPresent(this::indexPosition);
+    }
+
+    /**
+     * Emits a position just inserted in database (see {@link PositionRepository#insert(Position)}).
+     * The position is added to the open positions index and sent to strategies without being saved again.
+     *
+     * @param position position inserted
+     * @return position sent to strategies
+     */
+    public PositionDTO emitCreatedPosition(final Position position) {
+        indexPosition(position);
+        final PositionDTO positionDTO = Base.POSITION_MAPPER.mapToPositionDTO(position);
+        emitSavedValues(Set.of(positionDTO));
+        return positionDTO;
+    }
+
+    /**
+     * Emits a position whose prices were updated by a ticker.
+     * With a journal, the position is sent to strategies right away and its prices are written in database later.
+     *
+     * @param positionDTO position
+     */
+    public void emitTickerUpdate(final PositionDTO positionDTO) {
+        if (positionJournal == null) {
+            emitValue(positionDTO);
+            return;
+        }
+        PositionDTO journaledPosition = null;
+        synchronized (openPositions) {
+            final Position position = openPositions.getOrDefault(positionDTO.getStrategy().getUid(), Collections.emptyMap())
+                    .getOrDefault(positionDTO.getCurrencyPair(), Collections.emptyMap())
+                    .get(positionDTO.getUid());
+            // Only indexed positions can be journaled, as the index must hold their latest prices.
+            if (position != null && positionJournal.append(positionDTO)) {
+                positionJournal.applyPendingPrices(position);
+                journaledPosition = Base.POSITION_MAPPER.mapToPositionDTO(position);
+                logger.debug("Journaling position prices: {}", positionDTO);
+            }
+        }
+        if (journaledPosition != null) {
+            emitSavedValues(Set.of(journaledPosition));
+        } else {
+            emitValue(positionDTO);
+        }
+    }
+
+    /**
+     * Returns true if some position prices are journaled but not written in database yet.
+     *
+     * @return true if the journal must be flushed
+     */
+    public boolean hasJournaledUpdates() {
+        return positionJournal != null && positionJournal.hasPendingUpdates();
+    }
+
+    /**
+     * Writes the position prices journaled in database.
+     *
+     * @return false if an error occurred (the prices stay in the journal)
+     */
+    public boolean flushJournal() {
+        return positionJournal == null || positionJournal.flush();
+    }
+
+    /**
+     * Writes the position prices journaled in database and closes the journal.
+     */
+    public void closeJournal() {
+        if (positionJournal != null) {
+            positionJournal.close();
+        }
+    }
+
     @Override
     protected final Set<PositionDTO> saveValues(final Set<PositionDTO> newValues) {
         Set<Position> positions = new LinkedHashSet<>();
 
         // We save every position sent to the flux.
         newValues.stream().peek(positionDTO -> logger.debug("Checking position in database: {}", positionDTO)).forEach(positionDTO -> {
-            final Optional<Position> position = positionRepository.findById(positionDTO.getUid());
+            final Optional<Position> position = getSavedPosition(positionDTO);
             if (position.isPresent()) {
-                // If the position is in database (which should be always true), we update it.
-                Base.POSITION_MAPPER.updatePosition(positionDTO, position.get());
-                positions.add(positionRepository.save(position.get()));
-                logger.debug("Updating position in database: {}", positionDTO);
+                // If the position is in database (which should be always true), we update its lifecycle fields.
+                // The update is made on a copy: the index only gets it once it's saved in database.
+                final boolean closing;
+                final Position updatedPosition;
+                synchronized (openPositions) {
+                    closing = position.get().getStatus() != PositionStatusDTO.CLOSED && positionDTO.getStatus() == PositionStatusDTO.CLOSED;
+                    updatedPosition = copyPosition(position.get());
+                    Base.POSITION_MAPPER.updatePosition(positionDTO, updatedPosition);
+                    if (positionJournal != null) {
+                        positionJournal.applyPendingPrices(updatedPosition);
+                    }
+                }
+                if (positionRepository.updateLifecycle(updatedPosition)) {
+                    logger.debug("Updating position in database: {}", positionDTO);
+                    if (closing) {
+                        // Trades are not updated on the copy: the closed position is read again with its closing trades.
+                        final Position closedPosition = positionRepository.findById(updatedPosition.getUid()).orElse(updatedPosition);
+                        positions.add(closedPosition);
+
+                        // The gains of a position are added to the ledger once, when it's closed.
+                        if (gainLedger != null) {
+                            gainLedger.addClosedPosition(Base.POSITION_MAPPER.mapToPositionDTO(closedPosition));
+                        }
+                    } else {
+                        positions.add(updatedPosition);
+                    }
+                } else {
+                    logger.error("Position {} not updated in database", positionDTO.getUid());
+                }
             } else {
                 logger.error("Position {} not found in database:", positionDTO.getUid());
             }
         });
 
+        // The index keeps the positions saved, strategies receive their own copies.
+        positions.forEach(this::indexPosition);
         return positions.stream()
                 .map(Base.POSITION_MAPPER::mapToPositionDTO)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
+    /**
+     * Returns true if a price changes the prices of a position (only opened positions are updated by tickers).
+     *
+     * @param position position
+     * @param price    ticker price
+     * @return true if the latest gain price of the position is not this price
+     */
+    private static boolean isPriceChangedBy(final Position position, final BigDecimal price) {
+        return position.getStatus() == PositionStatusDTO.OPENED
+                && (position.getLatestGainPrice() == null
+                || position.getLatestGainPrice().getValue() == null
+                || position.getLatestGainPrice().getValue().compareTo(price) != 0);
+    }
+
+    /**
+     * Returns a copy of a position that can be updated without changing the original one.
+     * The values updated by {@link tide.trader.bot.util.mapper.PositionMapper#updatePosition(PositionDTO, Position)}
+     * (amounts and orders) are copied too; order trades are shared as the mapper never updates them (closed positions,
+     * whose closing trades are needed, are read again from database).
+     *
+     * @param position position
+     * @return copy
+     */
+    private static Position copyPosition(final Position position) {
+        final Position copy = new Position();
+        BeanUtils.copyProperties(position, copy);
+        copy.setAmount(copyCurrencyAmount(position.getAmount()));
+        copy.setLowestGainPrice(copyCurrencyAmount(position.getLowestGainPrice()));
+        copy.setHighestGainPrice(copyCurrencyAmount(position.getHighestGainPrice()));
+        copy.setLatestGainPrice(copyCurrencyAmount(position.getLatestGainPrice()));
+        copy.setOpeningOrder(copyOrder(position.getOpeningOrder()));
+        copy.setClosingOrder(copyOrder(position.getClosingOrder()));
+        return copy;
+    }
+
+    /**
+     * Returns a copy of an order.
+     *
+     * @param order order (can be null)
+     * @return copy
+     */
+    private static Order copyOrder(final Order order) {
+        if (order == null) {
+            return null;
+        }
+        final Order copy = new Order();
+        BeanUtils.copyProperties(order, copy);
+        copy.setAmount(copyCurrencyAmount(order.getAmount()));
+        copy.setAveragePrice(copyCurrencyAmount(order.getAveragePrice()));
+        copy.setLimitPrice(copyCurrencyAmount(order.getLimitPrice()));
+        copy.setMarketPrice(copyCurrencyAmount(order.getMarketPrice()));
+        copy.setCumulativeAmount(copyCurrencyAmount(order.getCumulativeAmount()));
+        return copy;
+    }
+
+    /**
+     * Returns a copy of a currency amount.
+     *
+     * @param currencyAmount currency amount (can be null)
+     * @return copy
+     */
+    private static CurrencyAmount copyCurrencyAmount(final CurrencyAmount currencyAmount) {
+        if (currencyAmount == null) {
+            return null;
+        }
+        final CurrencyAmount copy = new CurrencyAmount();
+        copy.setValue(currencyAmount.getValue());
+        copy.setCurrency(currencyAmount.getCurrency());
+        return copy;
+    }
+
+    /**
+     * Returns a position as saved in database: from the open positions index when it's there, from database otherwise.
+     *
+     * @param positionDTO position
+     * @return position saved
+     */
+    private Optional<Position> getSavedPosition(final PositionDTO positionDTO) {
+        synchronized (openPositions) {
+            if (openPositionsLoaded) {
+                final Position position = openPositions.getOrDefault(positionDTO.getStrategy().getUid(), Collections.emptyMap())
+                        .getOrDefault(positionDTO.getCurrencyPair(), Collections.emptyMap())
+                        .get(positionDTO.getUid());
+                if (position != null) {
+                    return Optional.of(position);
+                }
+            }
+        }
+        return positionRepository.findById(positionDTO.getUid());
+    }
+
+    /**
+     * Adds, replaces or removes (when closed) a position in the open positions index.
+     *
+     * @param position position saved in database
+     */
+    private void indexPosition(final Position position) {
+        final PositionDTO positionDTO = Base.POSITION_MAPPER.mapToPositionDTO(position);
+        synchronized (openPositions) {
+            // Positions not loaded yet will be read from database on first access.
+            if (!openPositionsLoaded) {
+                return;
+            }
+            final Map<CurrencyPairDTO, Map<Long, Position>> strategyPositions = openPositions.computeIfAbsent(positionDTO.getStrategy().getUid(), uid -> new LinkedHashMap<>());
+            final Map<Long, Position> currencyPairPositions = strategyPositions.computeIfAbsent(positionDTO.getCurrencyPair(), currencyPair -> new LinkedHashMap<>());
+            if (positionDTO.getStatus() == PositionStatusDTO.CLOSED) {
+                currencyPairPositions.remove(positionDTO.getUid());
+                positionTriggers.remove(positionDTO);
+            } else {
+                currencyPairPositions.put(positionDTO.getUid(), position);
+                positionTriggers.update(positionDTO);
+            }
+        }
+    }
+
+    /**
+     * Loads, on first access, the positions not closed from database.
+     */
+    private void loadOpenPositions() {
+        if (!openPositionsLoaded) {
+            openPositionsLoaded = true;
+            positionRepository.findByStatusNot(PositionStatusDTO.CLOSED).forEach(this::indexPosition);
+            logger.debug("{} positions not closed loaded", openPositions.values()
+                    .stream()
+                    .flatMap(positions -> positions.values().stream())
+                    .mapToInt(Map::size)
+                    .sum());
+        }
+    }
+
 }
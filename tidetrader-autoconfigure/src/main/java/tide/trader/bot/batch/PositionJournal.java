@@ -0,0 +1,480 @@
+package tide.trader.bot.batch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
+import tide.trader.bot.util.base.Base;
+import tide.trader.bot.util.jpa.CurrencyAmount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Position journal - write-behind persistence of the position prices updated by tickers.
+ * On every ticker, the latest (and maybe lowest / highest) gain prices of the opened positions change. Instead of saving
+ * those positions in database before strategies receive them, their new prices are appended to a local journal file and
+ * kept in memory, then {@link #flush()} (called by the flux scheduler) writes them to database in one JDBC batch.
+ * The journal is made of segments: a new segment is started on each flush, and the previous ones are deleted once their
+ * prices are in database. Segments left by a crash are replayed in database when the journal is opened.
+ * Other position updates (status, orders, rules...) are still saved right away by {@link PositionFlux}, the prices
+ * waiting in the journal are applied over them (see {@link #applyPendingPrices(Position)}).
+ * Lines are flushed to the file system on each append: a crash of the application doesn't lose any price. Segments are
+ * forced to the storage device ({@link FileChannel#force(boolean)}) once per flush, when a new segment is started, and on
+ * close: a crash of the machine (power loss) may lose the prices appended since the last flush.
+ */
+public class PositionJournal extends Base {
+
+    /** Segment file prefix. */
+    private static final String SEGMENT_PREFIX = "positions-";
+
+    /** Segment file suffix. */
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    /** Field separator in a journal line. */
+    private static final String SEPARATOR = ";";
+
+    /** Statement updating the prices of a position. */
+    private static final String UPDATE_PRICES = "UPDATE POSITIONS SET"
+            + " LOWEST_GAIN_PRICE_VALUE = ?, LOWEST_GAIN_PRICE_CURRENCY = ?,"
+            + " HIGHEST_GAIN_PRICE_VALUE = ?, HIGHEST_GAIN_PRICE_CURRENCY = ?,"
+            + " LATEST_GAIN_PRICE_VALUE = ?, LATEST_GAIN_PRICE_CURRENCY = ?,"
+            + " UPDATED_ON = ?"
+            + " WHERE UID = ?";
+
+    /** Directory of the journal segments. */
+    private final Path directory;
+
+    /** JDBC template. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Prices not written in database yet (by position uid). */
+    private final Map<Long, PositionPrices> pendingPrices = new LinkedHashMap<>();
+
+    /** Prices being written in database by flush() (by position uid). */
+    private final Map<Long, PositionPrices> flushingPrices = new LinkedHashMap<>();
+
+    /** Segments whose prices may not be in database yet (the last one is the one written). */
+    private final List<Path> segments = new ArrayList<>();
+
+    /** Number of the next segment. */
+    private long nextSegmentNumber;
+
+    /** Channel of the current segment. */
+    private FileChannel channel;
+
+    /** Writer of the current segment. */
+    private BufferedWriter writer;
+
+    /**
+     * Constructor.
+     *
+     * @param newDirectory    directory of the journal segments
+     * @param newJdbcTemplate JDBC template
+     */
+    public PositionJournal(final Path newDirectory, final JdbcTemplate newJdbcTemplate) {
+        this.directory = newDirectory;
+        this.jdbcTemplate = newJdbcTemplate;
+    }
+
+    /**
+     * Opens the journal: prices of the segments left by a previous run are written in database, then a new segment is started.
+     */
+    public synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            final List<Path> previousSegments;
+            try (Stream<Path> files = Files.list(directory)) {
+                previousSegments = files.filter(PositionJournal::isSegment)
+                        .sorted(Comparator.comparingLong(PositionJournal::getSegmentNumber))
+                        .collect(Collectors.toList());
+            }
+
+            // Lines are replayed in order, so the last prices of each position are kept.
+            final Map<Long, PositionPrices> replayedPrices = new LinkedHashMap<>();
+            for (Path segment : previousSegments) {
+                try (Stream<String> lines = Files.lines(segment)) {
+                    lines.map(PositionPrices::parse)
+                            .filter(prices -> prices != null)
+                            .forEach(prices -> replayedPrices.put(prices.uid, prices));
+                }
+            }
+            if (!replayedPrices.isEmpty()) {
+                writePrices(replayedPrices.values());
+                logger.info("Prices of {} positions replayed from journal {}", replayedPrices.size(), directory);
+            }
+            for (Path segment : previousSegments) {
+                Files.delete(segment);
+            }
+            nextSegmentNumber = previousSegments.isEmpty() ? 0 : getSegmentNumber(previousSegments.get(previousSegments.size() - 1)) + 1;
+            startSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible to open position journal " + directory, e);
+        }
+    }
+
+    /**
+     * Appends the prices of a position to the journal.
+     *
+     * @param position position updated by a ticker
+     * @return false if the prices couldn't be journaled (the position must then be saved in database)
+     */
+    public synchronized boolean append(final PositionDTO position) {
+        final PositionPrices prices = new PositionPrices(position);
+        try {
+            writer.write(prices.format());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Impossible to journal position {} prices: {}", position.getUid(), e.getMessage());
+            return false;
+        }
+        pendingPrices.put(prices.uid, prices);
+        return true;
+    }
+
+    /**
+     * Sets, on a position, its prices that are not written in database yet.
+     * Must be called before saving a position, so that it doesn't overwrite newer prices waiting in the journal.
+     *
+     * @param position position
+     */
+    public synchronized void applyPendingPrices(final Position position) {
+        PositionPrices prices = pendingPrices.get(position.getUid());
+        if (prices == null) {
+            prices = flushingPrices.get(position.getUid());
+        }
+        if (prices != null) {
+            position.setLowestGainPrice(prices.lowest.toCurrencyAmount());
+            position.setHighestGainPrice(prices.highest.toCurrencyAmount());
+            position.setLatestGainPrice(prices.latest.toCurrencyAmount());
+        }
+    }
+
+    /**
+     * Returns true if some prices are not written in database yet.
+     *
+     * @return true if a flush is needed
+     */
+    public synchronized boolean hasPendingUpdates() {
+        return !pendingPrices.isEmpty();
+    }
+
+    /**
+     * Writes the prices journaled in database (one batch), then deletes the segments holding them.
+     * Prices can be appended while the batch is written: they go to a new segment.
+     *
+     * @return false if the prices couldn't be written (they will be written by the next flush)
+     */
+    public boolean flush() {
+        final List<PositionPrices> prices;
+        final List<Path> flushedSegments;
+        synchronized (this) {
+            if (pendingPrices.isEmpty()) {
+                return true;
+            }
+            flushingPrices.putAll(pendingPrices);
+            pendingPrices.clear();
+            prices = new ArrayList<>(flushingPrices.values());
+            flushedSegments = new ArrayList<>(segments);
+            try {
+                startSegment();
+            } catch (IOException e) {
+                logger.error("Impossible to start a new position journal segment: {}", e.getMessage());
+                restorePendingPrices();
+                return false;
+            }
+        }
+
+        try {
+            writePrices(prices);
+        } catch (RuntimeException e) {
+            logger.error("Impossible to write journaled position prices in database: {}", e.getMessage());
+            synchronized (this) {
+                restorePendingPrices();
+            }
+            return false;
+        }
+
+        synchronized (this) {
+            logger.debug("Prices of {} positions written from journal", prices.size());
+            flushingPrices.clear();
+            segments.removeAll(flushedSegments);
+        }
+        for (Path segment : flushedSegments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                // The segment will be replayed on next start, which is harmless.
+                logger.error("Impossible to delete position journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the prices journaled in database and closes the journal (called on shutdown).
+     */
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            // If the prices can't be written in database, they're replayed from the journal on next start.
+            force();
+        } catch (IOException e) {
+            logger.error("Impossible to force position journal: {}", e.getMessage());
+        }
+        if (flush()) {
+            try {
+                writer.close();
+                for (Path segment : segments) {
+                    Files.deleteIfExists(segment);
+                }
+                segments.clear();
+                writer = null;
+                channel = null;
+            } catch (IOException e) {
+                logger.error("Impossible to close position journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Puts back the prices that couldn't be written in database (prices appended since are newer and kept).
+     */
+    private void restorePendingPrices() {
+        flushingPrices.forEach(pendingPrices::putIfAbsent);
+        flushingPrices.clear();
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @throws IOException if the segment can't be created
+     */
+    private void startSegment() throws IOException {
+        if (writer != null) {
+            force();
+            writer.close();
+        }
+        final Path segment = directory.resolve(SEGMENT_PREFIX + nextSegmentNumber++ + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment, CREATE, WRITE, APPEND);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        segments.add(segment);
+    }
+
+    /**
+     * Forces the lines of the current segment to the storage device (with its size, as lines are appended).
+     *
+     * @throws IOException if the segment can't be forced
+     */
+    private void force() throws IOException {
+        writer.flush();
+        channel.force(true);
+    }
+
+    /**
+     * Writes prices in database with one JDBC batch.
+     *
+     * @param prices prices
+     */
+    private void writePrices(final Iterable<PositionPrices> prices) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final List<Object[]> arguments = new ArrayList<>();
+        prices.forEach(p -> arguments.add(new Object[]{
+                p.lowest.value, p.lowest.currency,
+                p.highest.value, p.highest.currency,
+                p.latest.value, p.latest.currency,
+                now,
+                p.uid}));
+        jdbcTemplate.batchUpdate(UPDATE_PRICES, arguments);
+    }
+
+    /**
+     * Returns true if the file is a journal segment.
+     *
+     * @param file file
+     * @return true if it's a segment
+     */
+    private static boolean isSegment(final Path file) {
+        final String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Returns the number of a segment.
+     *
+     * @param segment segment
+     * @return segment number
+     */
+    private static long getSegmentNumber(final Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Prices of a position.
+     */
+    private static final class PositionPrices {
+
+        /** Position uid. */
+        private final long uid;
+
+        /** Lowest gain price. */
+        private final Price lowest;
+
+        /** Highest gain price. */
+        private final Price highest;
+
+        /** Latest gain price. */
+        private final Price latest;
+
+        /**
+         * Constructor.
+         *
+         * @param newUid     position uid
+         * @param newLowest  lowest gain price
+         * @param newHighest highest gain price
+         * @param newLatest  latest gain price
+         */
+        private PositionPrices(final long newUid, final Price newLowest, final Price newHighest, final Price newLatest) {
+            this.uid = newUid;
+            this.lowest = newLowest;
+            this.highest = newHighest;
+            this.latest = newLatest;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param position position
+         */
+        private PositionPrices(final PositionDTO position) {
+            this(position.getUid(),
+                    new Price(position.getLowestGainPrice()),
+                    new Price(position.getHighestGainPrice()),
+                    new Price(position.getLatestGainPrice()));
+        }
+
+        /**
+         * Returns the journal line of these prices.
+         *
+         * @return line (uid;lowest value;lowest currency;highest value;highest currency;latest value;latest currency)
+         */
+        private String format() {
+            return uid + SEPARATOR + lowest.format() + SEPARATOR + highest.format() + SEPARATOR + latest.format();
+        }
+
+        /**
+         * Parses a journal line.
+         *
+         * @param line line
+         * @return prices or null if the line is incomplete (the application stopped while writing it)
+         */
+        private static PositionPrices parse(final String line) {
+            final String[] fields = line.split(SEPARATOR, -1);
+            if (fields.length != 7) {
+                return null;
+            }
+            try {
+                return new PositionPrices(Long.parseLong(fields[0]),
+                        Price.parse(fields[1], fields[2]),
+                        Price.parse(fields[3], fields[4]),
+                        Price.parse(fields[5], fields[6]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+    }
+
+    /**
+     * A price (value and currency, both null if there is no price).
+     */
+    private static final class Price {
+
+        /** Value. */
+        private final BigDecimal value;
+
+        /** Currency. */
+        private final String currency;
+
+        /**
+         * Constructor.
+         *
+         * @param newValue    value
+         * @param newCurrency currency
+         */
+        private Price(final BigDecimal newValue, final String newCurrency) {
+            this.value = newValue;
+            this.currency = newCurrency;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param price price
+         */
+        private Price(final CurrencyAmountDTO price) {
+            this(price == null ? null : price.getValue(),
+                    price == null || price.getCurrency() == null ? null : price.getCurrency().getCode());
+        }
+
+        /**
+         * Returns the price as an entity field.
+         *
+         * @return currency amount (null if there is no price)
+         */
+        private CurrencyAmount toCurrencyAmount() {
+            if (value == null) {
+                return null;
+            }
+            final CurrencyAmount currencyAmount = new CurrencyAmount();
+            currencyAmount.setValue(value);
+            currencyAmount.setCurrency(currency);
+            return currencyAmount;
+        }
+
+        /**
+         * Returns the journal fields of this price.
+         *
+         * @return value;currency
+         */
+        private String format() {
+            return (value == null ? "" : value.toPlainString()) + SEPARATOR + (currency == null ? "" : currency);
+        }
+
+        /**
+         * Parses the journal fields of a price.
+         *
+         * @param value    value
+         * @param currency currency
+         * @return price
+         */
+        private static Price parse(final String value, final String currency) {
+            return new Price(value.isEmpty() ? null : new BigDecimal(value), currency.isEmpty() ? null : currency);
+        }
+
+    }
+
+}
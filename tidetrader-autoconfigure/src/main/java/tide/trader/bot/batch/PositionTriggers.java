@@ -0,0 +1,216 @@
+package tide.trader.bot.batch;
+
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.position.PositionTypeDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Stop gain and stop loss rules of the open positions, converted to trigger prices and sorted by strategy and currency pair.
+ * <p>
+ * Rules are percentages of a fixed opening value, so they are converted once (when the position is indexed) into prices:
+ * - "upper" triggers are reached when the price goes up to them (stop gain of a long position, stop loss of a short one).
+ * - "lower" triggers are reached when the price goes down to them (stop loss of a long position, stop gain of a short one).
+ * On a ticker, a range lookup on the last price returns the positions whose triggers were crossed, and only those need
+ * to be checked with {@link PositionDTO#shouldBeClosed()}.
+ * Trigger prices are computed with a small margin, so they only return too many candidates (never miss one)
+ * because of the rounding done when calculating gains.
+ * This class is not thread safe, {@link PositionFlux} accesses it under its own lock.
+ */
+final class PositionTriggers {
+
+    /** Margin (in percentage points) applied to rules when computing trigger prices. */
+    private static final float TRIGGER_PERCENTAGE_MARGIN = 0.1f;
+
+    /** Triggers by strategy uid and currency pair. */
+    private final Map<Long, Map<CurrencyPairDTO, Triggers>> triggers = new HashMap<>();
+
+    /** Trigger prices of each position indexed (by position uid). */
+    private final Map<Long, PositionTriggerPrices> positionTriggerPrices = new HashMap<>();
+
+    /**
+     * Adds or replaces the triggers of a position.
+     *
+     * @param position position
+     */
+    void update(final PositionDTO position) {
+        remove(position);
+        final PositionTriggerPrices prices = new PositionTriggerPrices(position);
+        if (prices.isEmpty()) {
+            return;
+        }
+        final Triggers currencyPairTriggers = triggers.computeIfAbsent(position.getStrategy().getUid(), uid -> new HashMap<>())
+                .computeIfAbsent(position.getCurrencyPair(), currencyPair -> new Triggers());
+        if (prices.forceClosing) {
+            currencyPairTriggers.forceClosing.add(position.getUid());
+        }
+        add(currencyPairTriggers.upper, prices.upper, position.getUid());
+        add(currencyPairTriggers.lower, prices.lower, position.getUid());
+        positionTriggerPrices.put(position.getUid(), prices);
+    }
+
+    /**
+     * Removes the triggers of a position.
+     *
+     * @param position position
+     */
+    void remove(final PositionDTO position) {
+        final PositionTriggerPrices prices = positionTriggerPrices.remove(position.getUid());
+        if (prices == null) {
+            return;
+        }
+        final Triggers currencyPairTriggers = triggers.getOrDefault(position.getStrategy().getUid(), Map.of()).get(position.getCurrencyPair());
+        if (currencyPairTriggers != null) {
+            currencyPairTriggers.forceClosing.remove(position.getUid());
+            remove(currencyPairTriggers.upper, prices.upper, position.getUid());
+            remove(currencyPairTriggers.lower, prices.lower, position.getUid());
+        }
+    }
+
+    /**
+     * Returns the uids of the positions whose triggers are crossed by a price.
+     *
+     * @param strategyUid  strategy uid
+     * @param currencyPair currency pair
+     * @param price        price
+     * @return positions uid
+     */
+    Set<Long> getTriggeredPositions(final long strategyUid, final CurrencyPairDTO currencyPair, final BigDecimal price) {
+        final Triggers currencyPairTriggers = triggers.getOrDefault(strategyUid, Map.of()).get(currencyPair);
+        if (currencyPairTriggers == null) {
+            return Set.of();
+        }
+        final Set<Long> positions = new LinkedHashSet<>(currencyPairTriggers.forceClosing);
+        if (price != null) {
+            currencyPairTriggers.upper.headMap(price, true).values().forEach(positions::addAll);
+            currencyPairTriggers.lower.tailMap(price, true).values().forEach(positions::addAll);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns true if a position of any strategy on this currency pair is being force closed.
+     *
+     * @param currencyPair currency pair
+     * @return true if a position is force closing
+     */
+    boolean isForceClosing(final CurrencyPairDTO currencyPair) {
+        return triggers.values()
+                .stream()
+                .map(strategyTriggers -> strategyTriggers.get(currencyPair))
+                .anyMatch(currencyPairTriggers -> currencyPairTriggers != null && !currencyPairTriggers.forceClosing.isEmpty());
+    }
+
+    /**
+     * Add a position to a trigger map.
+     *
+     * @param map         trigger map
+     * @param price       trigger price (null if none)
+     * @param positionUid position uid
+     */
+    private static void add(final NavigableMap<BigDecimal, Set<Long>> map, final BigDecimal price, final long positionUid) {
+        if (price != null) {
+            map.computeIfAbsent(price, p -> new LinkedHashSet<>()).add(positionUid);
+        }
+    }
+
+    /**
+     * Remove a position from a trigger map.
+     *
+     * @param map         trigger map
+     * @param price       trigger price (null if none)
+     * @param positionUid position uid
+     */
+    private static void remove(final NavigableMap<BigDecimal, Set<Long>> map, final BigDecimal price, final long positionUid) {
+        if (price != null) {
+            final Set<Long> positions = map.get(price);
+            if (positions != null) {
+                positions.remove(positionUid);
+                if (positions.isEmpty()) {
+                    map.remove(price);
+                }
+            }
+        }
+    }
+
+    /**
+     * Triggers of a currency pair (for a strategy).
+     */
+    private static final class Triggers {
+
+        /** Positions to close when the price goes up to the trigger price. */
+        private final NavigableMap<BigDecimal, Set<Long>> upper = new TreeMap<>();
+
+        /** Positions to close when the price goes down to the trigger price. */
+        private final NavigableMap<BigDecimal, Set<Long>> lower = new TreeMap<>();
+
+        /** Positions to close whatever the price. */
+        private final Set<Long> forceClosing = new LinkedHashSet<>();
+
+    }
+
+    /**
+     * Trigger prices of a position.
+     */
+    private static final class PositionTriggerPrices {
+
+        /** Price triggering the position when the price goes up. */
+        private final BigDecimal upper;
+
+        /** Price triggering the position when the price goes down. */
+        private final BigDecimal lower;
+
+        /** The position must be closed whatever the price. */
+        private final boolean forceClosing;
+
+        /**
+         * Constructor.
+         *
+         * @param position position
+         */
+        private PositionTriggerPrices(final PositionDTO position) {
+            // Only opened positions are checked on tickers.
+            final PositionRulesDTO rules = position.getStatus() == PositionStatusDTO.OPENED ? position.getRules() : null;
+            final BigDecimal stopGainPrice = Optional.ofNullable(rules)
+                    .filter(PositionRulesDTO::isStopGainPercentageSet)
+                    .map(PositionRulesDTO::getStopGainPercentage)
+                    .flatMap(percentage -> position.calculatePriceFromGain(percentage - TRIGGER_PERCENTAGE_MARGIN))
+                    .orElse(null);
+            final BigDecimal stopLossPrice = Optional.ofNullable(rules)
+                    .filter(PositionRulesDTO::isStopLossPercentageSet)
+                    .map(PositionRulesDTO::getStopLossPercentage)
+                    .flatMap(percentage -> position.calculatePriceFromGain(-percentage + TRIGGER_PERCENTAGE_MARGIN))
+                    .orElse(null);
+            // The gain of a long position increases with the price, the gain of a short position decreases.
+            if (position.getType() == PositionTypeDTO.LONG) {
+                this.upper = stopGainPrice;
+                this.lower = stopLossPrice;
+            } else {
+                this.upper = stopLossPrice;
+                this.lower = stopGainPrice;
+            }
+            this.forceClosing = rules != null && position.isForceClosing();
+        }
+
+        /**
+         * Returns true if the position can never be triggered.
+         *
+         * @return true if no trigger
+         */
+        private boolean isEmpty() {
+            return upper == null && lower == null && !forceClosing;
+        }
+
+    }
+
+}
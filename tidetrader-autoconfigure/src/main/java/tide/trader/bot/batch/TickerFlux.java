@@ -1,6 +1,5 @@
 package tide.trader.bot.batch;
 
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.ArrayUtils;
 import org.knowm.xchange.exceptions.NotAvailableFromExchangeException;
 import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
@@ -12,20 +11,32 @@ import tide.trader.bot.strategy.CassandreStrategy;
 import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
 import tide.trader.bot.util.base.batch.BaseFlux;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Ticker flux - push {@link TickerDTO}.
  * Two methods override from super class:
- * - getNewValues(): calling market service to retrieve tickers from exchange.
+ * - getNewValues(): calling market service to retrieve tickers from exchange (nothing when tickers are streamed).
  * - saveValues(): not implemented as we don't store tickers data in database.
+ * Only tickers that changed since the last one emitted for their currency pair are sent to strategies.
+ * An optional heartbeat re-emits an unchanged ticker once the heartbeat delay (measured on ticker timestamps) has elapsed.
+ * Tickers of currency pairs with a position being force closed are always emitted, so the position is closed on the next one.
  * To get a deep understanding of how it works, read the documentation of {@link BaseFlux}.
  */
-@RequiredArgsConstructor
 public class TickerFlux extends BaseFlux<TickerDTO> {
 
     /** Application context. */
@@ -34,19 +45,131 @@ public class TickerFlux extends BaseFlux<TickerDTO> {
     /** Market service. */
     private final MarketService marketService;
 
+    /** True when tickers are pushed by the exchange stream instead of being polled. */
+    private final AtomicBoolean streaming = new AtomicBoolean(false);
+
+    /** Heartbeat: delay after which an unchanged ticker is emitted again (null = never, zero = always). */
+    private final Duration heartbeat;
+
+    /** Returns true if every ticker of a currency pair must be emitted, changed or not. */
+    private final Predicate<CurrencyPairDTO> alwaysEmitted;
+
+    /** Last ticker emitted for each currency pair. */
+    private final Map<CurrencyPairDTO, EmittedTicker> lastEmittedTickers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor - unchanged tickers are never emitted again.
+     *
+     * @param newApplicationContext application context
+     * @param newMarketService      market service
+     */
+    public TickerFlux(final ApplicationContext newApplicationContext,
+                      final MarketService newMarketService) {
+        this(newApplicationContext, newMarketService, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newApplicationContext application context
+     * @param newMarketService      market service
+     * @param newHeartbeat          delay after which an unchanged ticker is emitted again (null = never, zero = always)
+     */
+    public TickerFlux(final ApplicationContext newApplicationContext,
+                      final MarketService newMarketService,
+                      final Duration newHeartbeat) {
+        this(newApplicationContext, newMarketService, newHeartbeat, currencyPair -> false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newApplicationContext application context
+     * @param newMarketService      market service
+     * @param newHeartbeat          delay after which an unchanged ticker is emitted again (null = never, zero = always)
+     * @param newAlwaysEmitted      returns true if every ticker of a currency pair must be emitted (for example, force closing positions)
+     */
+    public TickerFlux(final ApplicationContext newApplicationContext,
+                      final MarketService newMarketService,
+                      final Duration newHeartbeat,
+                      final Predicate<CurrencyPairDTO> newAlwaysEmitted) {
+        this.applicationContext = newApplicationContext;
+        this.marketService = newMarketService;
+        this.heartbeat = newHeartbeat;
+        this.alwaysEmitted = newAlwaysEmitted;
+    }
+
+    /**
+     * Subscribe to the exchange ticker stream: each ticker received is pushed as soon as it arrives (never while update() runs).
+     * If the exchange doesn't support streaming, tickers keep being polled by getNewValues().
+     */
+    public void startStreaming() {
+        streaming.set(marketService.subscribeTickers(getRequestedCurrencyPairs(), ticker -> push(Set.of(ticker))));
+    }
+
+    /**
+     * Close the exchange ticker stream.
+     */
+    public void stopStreaming() {
+        if (streaming.getAndSet(false)) {
+            marketService.unsubscribeTickers();
+        }
+    }
+
+    /**
+     * Returns true if tickers are streamed.
+     *
+     * @return true if streaming
+     */
+    public boolean isStreaming() {
+        return streaming.get();
+    }
+
+    /**
+     * Emit new tickers, skipping the ones that didn't change since the last emission for their currency pair
+     * (unless the heartbeat delay has elapsed).
+     *
+     * @param newValues new values
+     */
+    @Override
+    public void emitValues(final Set<TickerDTO> newValues) {
+        super.emitValues(newValues.stream()
+                .filter(this::isToBeEmitted)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    /**
+     * Returns true if the ticker changed since the last one emitted for its currency pair, if the heartbeat elapsed
+     * or if every ticker of its currency pair must be emitted.
+     * If true, the ticker becomes the last one emitted for its currency pair.
+     *
+     * @param ticker ticker
+     * @return true if the ticker must be emitted
+     */
+    private boolean isToBeEmitted(final TickerDTO ticker) {
+        if (ticker.getCurrencyPair() == null || Duration.ZERO.equals(heartbeat)) {
+            return true;
+        }
+        final EmittedTicker candidate = new EmittedTicker(ticker);
+        final boolean forced = alwaysEmitted.test(ticker.getCurrencyPair());
+        final boolean[] emit = {false};
+        lastEmittedTickers.compute(ticker.getCurrencyPair(), (currencyPair, last) -> {
+            emit[0] = forced
+                    || last == null
+                    || !last.fingerprint.equals(candidate.fingerprint)
+                    || heartbeat != null && !candidate.timestamp.isBefore(last.timestamp.plus(heartbeat));
+            return emit[0] ? candidate : last;
+        });
+        return emit[0];
+    }
+
     @Override
     protected final Set<TickerDTO> getNewValues() {
-        // We retrieve the list of currency pairs asked by all strategies.
-        // Some users coded a getRequestedCurrencyPairs() that returns different results.
-        final LinkedHashSet<CurrencyPairDTO> requestedCurrencyPairs = applicationContext
-                .getBeansWithAnnotation(CassandreStrategy.class)
-                .values()
-                .stream()
-                .filter(Objects::nonNull)
-                .map(object -> (CassandreStrategyInterface) object)
-                .map(CassandreStrategyInterface::getRequestedCurrencyPairs)
-                .flatMap(Set::stream)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+        // When streaming, tickers are emitted by the stream.
+        if (streaming.get()) {
+            return Collections.emptySet();
+        }
+        final LinkedHashSet<CurrencyPairDTO> requestedCurrencyPairs = getRequestedCurrencyPairs();
 
         // We try to retrieve all tickers at once and if not working, one by one.
         try {
@@ -66,4 +189,64 @@ public class TickerFlux extends BaseFlux<TickerDTO> {
         }
     }
 
+    /**
+     * Returns the list of currency pairs asked by all strategies.
+     * Some users coded a getRequestedCurrencyPairs() that returns different results.
+     *
+     * @return requested currency pairs
+     */
+    private LinkedHashSet<CurrencyPairDTO> getRequestedCurrencyPairs() {
+        return applicationContext
+                .getBeansWithAnnotation(CassandreStrategy.class)
+                .values()
+                .stream()
+                .filter(Objects::nonNull)
+                .map(object -> (CassandreStrategyInterface) object)
+                .map(CassandreStrategyInterface::getRequestedCurrencyPairs)
+                .flatMap(Set::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Fingerprint and timestamp of the last ticker emitted for a currency pair.
+     */
+    private static final class EmittedTicker {
+
+        /** Market values of the ticker (timestamp excluded). */
+        private final List<BigDecimal> fingerprint;
+
+        /** Ticker timestamp. */
+        private final ZonedDateTime timestamp;
+
+        /**
+         * Constructor.
+         *
+         * @param ticker ticker
+         */
+        private EmittedTicker(final TickerDTO ticker) {
+            this.fingerprint = Arrays.asList(
+                    normalize(ticker.getOpen()),
+                    normalize(ticker.getLast()),
+                    normalize(ticker.getBid()),
+                    normalize(ticker.getAsk()),
+                    normalize(ticker.getHigh()),
+                    normalize(ticker.getLow()),
+                    normalize(ticker.getVolume()),
+                    normalize(ticker.getBidSize()),
+                    normalize(ticker.getAskSize()));
+            this.timestamp = ticker.getTimestamp();
+        }
+
+        /**
+         * Returns the value without trailing zeros so that 1.0 and 1.00 are considered equal.
+         *
+         * @param value value
+         * @return normalized value
+         */
+        private static BigDecimal normalize(final BigDecimal value) {
+            return value == null ? null : value.stripTrailingZeros();
+        }
+
+    }
+
 }
@@ -0,0 +1,379 @@
+package tide.trader.bot.batch;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import tide.trader.bot.util.base.Base;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ticker importer - loads the "tickers-to-import*csv" files in the "IMPORTED_TICKERS" table.
+ * Files are read line by line and rows are inserted with JDBC batches (no entity, no persistence context), a batch per
+ * transaction. The progress of each file is saved in "IMPORTED_TICKERS_FILES" with its batch: when the application is
+ * restarted, completed files are skipped and an interrupted file is resumed after its last imported row. If a file was
+ * modified or removed, everything is imported again.
+ * Feature documentation is here: https://trading-bot.cassandre.tech/learn/import-historical-data.html
+ */
+public class TickerImporter extends Base {
+
+    /** Default number of rows inserted per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    /** Imported columns (CSV header and table column). */
+    private static final List<String> COLUMNS = List.of("CURRENCY_PAIR", "OPEN", "LAST", "BID", "ASK", "HIGH", "LOW",
+            "VWAP", "VOLUME", "QUOTE_VOLUME", "BID_SIZE", "ASK_SIZE", "TIMESTAMP");
+
+    /** Index of the currency pair column. */
+    private static final int CURRENCY_PAIR = 0;
+
+    /** Index of the timestamp column. */
+    private static final int TIMESTAMP = COLUMNS.size() - 1;
+
+    /** Insert query. */
+    private static final String INSERT_TICKER = "INSERT INTO IMPORTED_TICKERS (UID, " + String.join(", ", COLUMNS) + ")"
+            + " VALUES (?" + ", ?".repeat(COLUMNS.size()) + ")";
+
+    /** Query saving the progress of a file. */
+    private static final String UPDATE_FILE = "UPDATE IMPORTED_TICKERS_FILES SET IMPORTED_ROWS = ?, COMPLETED = ? WHERE FILENAME = ?";
+
+    /** One second in ms. */
+    private static final long ONE_SECOND = 1_000;
+
+    /** JDBC template. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transaction template (each batch of rows is inserted in its own transaction). */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Number of rows inserted per batch. */
+    private final int batchSize;
+
+    /**
+     * Constructor.
+     *
+     * @param newJdbcTemplate        JDBC template
+     * @param newTransactionTemplate transaction template
+     * @param newBatchSize           number of rows inserted per batch
+     */
+    public TickerImporter(final JdbcTemplate newJdbcTemplate,
+                          final TransactionTemplate newTransactionTemplate,
+                          final int newBatchSize) {
+        this.jdbcTemplate = newJdbcTemplate;
+        this.transactionTemplate = newTransactionTemplate;
+        this.batchSize = newBatchSize;
+    }
+
+    /**
+     * Imports tickers from files (skipping what was already imported).
+     *
+     * @param resources files to import
+     * @return number of tickers in database
+     */
+    public synchronized long importFiles(final List<Resource> resources) {
+        final List<Resource> files = resources.stream()
+                .filter(resource -> resource.getFilename() != null)
+                .sorted(Comparator.comparing(Resource::getFilename))
+                .collect(Collectors.toList());
+
+        // If a file imported before was modified or removed, we import everything again.
+        final Map<String, ImportedFile> importedFiles = getImportedFiles();
+        final Set<String> filenames = files.stream().map(Resource::getFilename).collect(Collectors.toSet());
+        final boolean changed = !filenames.containsAll(importedFiles.keySet())
+                || files.stream().anyMatch(file -> {
+                    final ImportedFile importedFile = importedFiles.get(file.getFilename());
+                    return importedFile != null && !importedFile.isSameFile(file);
+                });
+        if (changed) {
+            logger.info("Imported files changed, importing all tickers again");
+            jdbcTemplate.update("DELETE FROM IMPORTED_TICKERS");
+            jdbcTemplate.update("DELETE FROM IMPORTED_TICKERS_FILES");
+            importedFiles.clear();
+        }
+
+        logger.info("Importing tickers...");
+        final long start = System.currentTimeMillis();
+        long imported = 0;
+        for (Resource file : files) {
+            final ImportedFile importedFile = importedFiles.get(file.getFilename());
+            if (importedFile != null && importedFile.completed) {
+                logger.info("File {} already imported", file.getFilename());
+            } else {
+                try {
+                    imported += importFile(file, importedFile == null ? 0 : importedFile.rows);
+                } catch (IOException | CsvValidationException | RuntimeException e) {
+                    logger.error("Impossible to load imported tickers from {}: {}", file.getFilename(), e.getMessage());
+                }
+            }
+        }
+
+        final long count = count();
+        if (imported > 0) {
+            logger.info("{} tickers imported ({} in database) - {} rows/s", imported, count, rate(imported, start));
+        } else {
+            logger.info("{} tickers imported", count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of imported tickers in database.
+     *
+     * @return number of imported tickers
+     */
+    public long count() {
+        final Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM IMPORTED_TICKERS", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Imports a file, starting after the rows already imported.
+     *
+     * @param file         file
+     * @param importedRows number of rows of the file already imported
+     * @return number of rows imported
+     * @throws IOException            file can't be read
+     * @throws CsvValidationException file is not a valid CSV file
+     */
+    private long importFile(final Resource file, final long importedRows) throws IOException, CsvValidationException {
+        if (importedRows == 0) {
+            jdbcTemplate.update("DELETE FROM IMPORTED_TICKERS_FILES WHERE FILENAME = ?", file.getFilename());
+            jdbcTemplate.update("INSERT INTO IMPORTED_TICKERS_FILES (FILENAME, FILE_SIZE, LAST_MODIFIED, IMPORTED_ROWS, COMPLETED)"
+                    + " VALUES (?, ?, ?, 0, FALSE)", file.getFilename(), file.contentLength(), file.lastModified());
+            logger.info("Importing file {}", file.getFilename());
+        } else {
+            logger.info("Resuming import of file {} after {} rows", file.getFilename(), importedRows);
+        }
+
+        final long start = System.currentTimeMillis();
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReaderBuilder(reader).build()) {
+            final int[] columns = getColumns(csvReader.readNext());
+
+            // Rows already imported are skipped.
+            long rows = 0;
+            while (rows < importedRows && csvReader.readNext() != null) {
+                rows++;
+            }
+
+            long uid = getLastUid();
+            final List<Object[]> batch = new ArrayList<>(batchSize);
+            String[] line = csvReader.readNext();
+            while (line != null) {
+                if (!isBlank(line)) {
+                    batch.add(toRow(++uid, line, columns));
+                }
+                rows++;
+                line = csvReader.readNext();
+                if (batch.size() == batchSize || line == null) {
+                    saveBatch(file.getFilename(), batch, rows, line == null);
+                    batch.clear();
+                }
+            }
+            if (rows == importedRows) {
+                // Empty file (or nothing left to import).
+                saveBatch(file.getFilename(), batch, rows, true);
+            }
+
+            final long imported = rows - importedRows;
+            logger.info("{} rows imported from {} - {} rows/s", imported, file.getFilename(), rate(imported, start));
+            return imported;
+        }
+    }
+
+    /**
+     * Inserts a batch of rows and saves the progress of the file in the same transaction.
+     *
+     * @param filename filename
+     * @param batch    rows
+     * @param rows     number of rows of the file imported after this batch
+     * @param complete true if it's the last batch of the file
+     */
+    private void saveBatch(final String filename, final List<Object[]> batch, final long rows, final boolean complete) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TICKER, batch, batch.size(), TickerImporter::setValues);
+            }
+            jdbcTemplate.update(UPDATE_FILE, rows, complete, filename);
+        });
+        logger.debug("{} rows imported from {}", rows, filename);
+    }
+
+    /**
+     * Returns the files already imported (or being imported).
+     *
+     * @return imported files by filename
+     */
+    private Map<String, ImportedFile> getImportedFiles() {
+        final Map<String, ImportedFile> files = new HashMap<>();
+        jdbcTemplate.query("SELECT * FROM IMPORTED_TICKERS_FILES", resultSet -> {
+            files.put(resultSet.getString("FILENAME"), new ImportedFile(resultSet.getLong("FILE_SIZE"),
+                    resultSet.getLong("LAST_MODIFIED"),
+                    resultSet.getLong("IMPORTED_ROWS"),
+                    resultSet.getBoolean("COMPLETED")));
+        });
+        return files;
+    }
+
+    /**
+     * Returns the last uid used in the imported tickers table.
+     *
+     * @return last uid
+     */
+    private long getLastUid() {
+        final Long uid = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(UID), 0) FROM IMPORTED_TICKERS", Long.class);
+        return uid == null ? 0 : uid;
+    }
+
+    /**
+     * Returns the position of each imported column in the file (-1 if the file doesn't have the column).
+     *
+     * @param header CSV header
+     * @return positions
+     */
+    private static int[] getColumns(final String[] header) {
+        final List<String> names = header == null ? List.of() : Arrays.stream(header)
+                .map(StringUtils::trimToEmpty)
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+        return COLUMNS.stream()
+                .mapToInt(names::indexOf)
+                .toArray();
+    }
+
+    /**
+     * Converts a CSV line to a table row.
+     *
+     * @param uid     uid
+     * @param line    CSV line
+     * @param columns position of each column in the line
+     * @return row (uid and columns values)
+     */
+    private static Object[] toRow(final long uid, final String[] line, final int[] columns) {
+        final Object[] row = new Object[COLUMNS.size() + 1];
+        row[0] = uid;
+        for (int i = 0; i < columns.length; i++) {
+            final String value = columns[i] < 0 || columns[i] >= line.length ? null : StringUtils.trimToNull(line[columns[i]]);
+            if (value == null || i == CURRENCY_PAIR) {
+                row[i + 1] = value;
+            } else if (i == TIMESTAMP) {
+                // Timestamps are epoch in seconds.
+                row[i + 1] = Instant.ofEpochSecond(Long.parseLong(value)).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+            } else {
+                row[i + 1] = new BigDecimal(value);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Sets the values of a row in the insert statement.
+     *
+     * @param statement statement
+     * @param row       row
+     * @throws SQLException SQL exception
+     */
+    private static void setValues(final PreparedStatement statement, final Object[] row) throws SQLException {
+        statement.setLong(1, (Long) row[0]);
+        statement.setString(CURRENCY_PAIR + 2, (String) row[CURRENCY_PAIR + 1]);
+        for (int i = CURRENCY_PAIR + 1; i < TIMESTAMP; i++) {
+            statement.setBigDecimal(i + 2, (BigDecimal) row[i + 1]);
+        }
+        if (row[TIMESTAMP + 1] == null) {
+            statement.setNull(TIMESTAMP + 2, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            statement.setObject(TIMESTAMP + 2, row[TIMESTAMP + 1]);
+        }
+    }
+
+    /**
+     * Returns true if a CSV line is empty.
+     *
+     * @param line CSV line
+     * @return true if empty
+     */
+    private static boolean isBlank(final String[] line) {
+        return Arrays.stream(line).allMatch(StringUtils::isBlank);
+    }
+
+    /**
+     * Returns a number of rows per second.
+     *
+     * @param rows  number of rows
+     * @param start start (ms)
+     * @return rows per second
+     */
+    private static long rate(final long rows, final long start) {
+        return rows * ONE_SECOND / Math.max(1, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * A file imported (or being imported).
+     */
+    private static final class ImportedFile {
+
+        /** File size. */
+        private final long size;
+
+        /** File last modification date. */
+        private final long lastModified;
+
+        /** Number of rows imported. */
+        private final long rows;
+
+        /** True if all the rows are imported. */
+        private final boolean completed;
+
+        /**
+         * Constructor.
+         *
+         * @param newSize         file size
+         * @param newLastModified file last modification date
+         * @param newRows         number of rows imported
+         * @param newCompleted    true if all the rows are imported
+         */
+        private ImportedFile(final long newSize, final long newLastModified, final long newRows, final boolean newCompleted) {
+            this.size = newSize;
+            this.lastModified = newLastModified;
+            this.rows = newRows;
+            this.completed = newCompleted;
+        }
+
+        /**
+         * Returns true if the file wasn't modified since it was imported.
+         *
+         * @param file file
+         * @return true if it's the same file
+         */
+        private boolean isSameFile(final Resource file) {
+            try {
+                return size == file.contentLength() && lastModified == file.lastModified();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+    }
+
+}
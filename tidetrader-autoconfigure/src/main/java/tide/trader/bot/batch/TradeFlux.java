@@ -1,6 +1,7 @@
 package tide.trader.bot.batch;
 
 import lombok.RequiredArgsConstructor;
+import tide.trader.bot.domain.Order;
 import tide.trader.bot.domain.Trade;
 import tide.trader.bot.dto.trade.TradeDTO;
 import tide.trader.bot.repository.OrderRepository;
@@ -9,16 +10,26 @@ import tide.trader.bot.service.TradeService;
 import tide.trader.bot.util.base.batch.BaseFlux;
 import tide.trader.bot.util.base.Base;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Trade flux - push {@link TradeDTO}.
- * Two methods override from super class:
- * - getNewValues(): calling trade service to retrieve trades from exchange (only if orders exists already in database).
+ * Three methods override from super class:
+ * - getNewValues(): calling trade service to retrieve trades from exchange.
+ * - getNewValues(values): keeping, among trades retrieved or pushed by the exchange, the new and updated ones (only if orders exists already in database).
  * - saveValues(): saving/updating trades in database.
+ * Trades (and their orders) are looked up and saved in database once per cycle (not once per trade), and the last persisted
+ * version of each trade retrieved from the exchange is kept in memory, so unchanged trades don't hit the database at all.
+ * Trades loaded by getNewValues() are reused by saveValues() in the same cycle instead of being loaded again.
  * To get a deep understanding of how it works, read the documentation of {@link BaseFlux}.
  */
 @RequiredArgsConstructor
@@ -33,30 +44,65 @@ public class TradeFlux extends BaseFlux<TradeDTO> {
     /** Trade service. */
     private final TradeService tradeService;
 
+    /** Last persisted version of the trades retrieved from the exchange (by trade id). */
+    private final Map<String, TradeDTO> persistedValues = new ConcurrentHashMap<>();
+
+    /** Trades in database (null if not in database) of the new values returned by the last getNewValues() call, reused by saveValues() (by trade id). */
+    private final Map<String, Trade> loadedValues = new HashMap<>();
+
     @Override
     protected final Set<TradeDTO> getNewValues() {
         logger.debug("Retrieving trades from exchange");
+
+        // Getting all the trades from the exchange, trades not returned anymore are forgotten.
+        final Set<TradeDTO> trades = tradeService.getTrades();
+        persistedValues.keySet().retainAll(trades.stream().map(TradeDTO::getTradeId).collect(Collectors.toSet()));
+        return getNewValues(trades);
+    }
+
+    @Override
+    protected final Set<TradeDTO> getNewValues(final Set<TradeDTO> trades) {
         Set<TradeDTO> newValues = new LinkedHashSet<>();
+        loadedValues.clear();
 
-        // Finding which trades have been updated.
-        tradeService.getTrades()
+        // We only keep the trades that changed since we persisted them.
+        final List<TradeDTO> tradesToCheck = trades.stream()
+                .filter(trade -> !trade.equals(persistedValues.get(trade.getTradeId())))
+                .collect(Collectors.toList());
+        if (tradesToCheck.isEmpty()) {
+            return newValues;
+        }
+
+        // Note: we only save trades when the order present in database.
+        final Set<String> ordersInDatabase = new HashSet<>(orderRepository.findOrderIdByOrderIdIn(tradesToCheck.stream().map(TradeDTO::getOrderId).collect(Collectors.toSet())));
+        final Map<String, Trade> tradesInDatabase = tradeRepository.findByTradeIdIn(tradesToCheck.stream().map(TradeDTO::getTradeId).collect(Collectors.toSet()))
                 .stream()
-                // Note: we only save trades when the order present in database.
-                .filter(t -> orderRepository.findByOrderId(t.getOrderId()).isPresent())
+                .collect(Collectors.toMap(Trade::getTradeId, Function.identity(), (t1, t2) -> t1));
+
+        // Finding which trades have been updated.
+        tradesToCheck.stream()
+                .filter(trade -> ordersInDatabase.contains(trade.getOrderId()))
                 .forEach(trade -> {
                     logger.debug("Checking trade: {}", trade.getTradeId());
-                    final Optional<Trade> tradeInDatabase = tradeRepository.findByTradeId(trade.getTradeId());
+                    final Trade tradeEntity = tradesInDatabase.get(trade.getTradeId());
+                    final TradeDTO tradeInDatabase = tradeEntity == null ? null : Base.TRADE_MAPPER.mapToTradeDTO(tradeEntity);
 
                     // The trade is not in database.
-                    if (tradeInDatabase.isEmpty()) {
+                    if (tradeInDatabase == null) {
                         logger.debug("New trade from exchange: {}", trade);
                         newValues.add(trade);
+                        loadedValues.put(trade.getTradeId(), null);
                     }
 
                     // The trade is in database but the trade values from the server changed.
-                    if (tradeInDatabase.isPresent() && !Base.TRADE_MAPPER.mapToTradeDTO(tradeInDatabase.get()).equals(trade)) {
-                        logger.debug("Updated trade from exchange: {}", trade);
-                        newValues.add(trade);
+                    if (tradeInDatabase != null) {
+                        if (!tradeInDatabase.equals(trade)) {
+                            logger.debug("Updated trade from exchange: {}", trade);
+                            newValues.add(trade);
+                            loadedValues.put(trade.getTradeId(), tradeEntity);
+                        } else {
+                            persistedValues.put(trade.getTradeId(), tradeInDatabase);
+                        }
                     }
                 });
 
@@ -65,26 +111,50 @@ public class TradeFlux extends BaseFlux<TradeDTO> {
 
     @Override
     protected final Set<TradeDTO> saveValues(final Set<TradeDTO> newValues) {
-        Set<Trade> trades = new LinkedHashSet<>();
+        // Trades found in database by getNewValues() are not loaded again, only the ones emitted directly are looked up.
+        final Map<String, Trade> tradesInDatabase = new HashMap<>(loadedValues);
+        loadedValues.clear();
+        final Set<String> tradesToLoad = newValues.stream()
+                .map(TradeDTO::getTradeId)
+                .filter(tradeId -> !tradesInDatabase.containsKey(tradeId))
+                .collect(Collectors.toSet());
+        if (!tradesToLoad.isEmpty()) {
+            tradeRepository.findByTradeIdIn(tradesToLoad).forEach(trade -> tradesInDatabase.putIfAbsent(trade.getTradeId(), trade));
+        }
+        // Orders are only needed for the trades to create.
+        final Set<String> orderIds = newValues.stream()
+                .filter(newValue -> tradesInDatabase.get(newValue.getTradeId()) == null)
+                .map(TradeDTO::getOrderId)
+                .collect(Collectors.toSet());
+        final Map<String, Order> orders = orderIds.isEmpty() ? Map.of() : orderRepository.findByOrderIdIn(orderIds)
+                .stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity(), (o1, o2) -> o1));
+        final Map<String, Trade> trades = new LinkedHashMap<>();
 
         // We create or update every trade retrieved by the exchange.
-        newValues.forEach(newValue -> tradeRepository.findByTradeId(newValue.getTradeId())
-                .ifPresentOrElse(trade -> {
-                    // Update trade.
-                    Base.TRADE_MAPPER.updateTrade(newValue, trade);
-                    trades.add(tradeRepository.save(trade));
-                    logger.debug("Updating trade in database: {}", trade);
-                }, () -> {
-                    // Create trade.
-                    final Trade newTrade = Base.TRADE_MAPPER.mapToTrade(newValue);
-                    // Order is always present as we check it in getNewValues().
-                    orderRepository.findByOrderId(newValue.getOrderId()).ifPresent(newTrade::setOrder);
-                    trades.add(tradeRepository.save(newTrade));
-                    logger.debug("Creating trade in database: {}", newTrade);
-                }));
-
-        return trades.stream()
+        newValues.forEach(newValue -> {
+            final Trade trade = tradesInDatabase.get(newValue.getTradeId());
+            if (trade != null) {
+                // Update trade.
+                Base.TRADE_MAPPER.updateTrade(newValue, trade);
+                trades.put(newValue.getTradeId(), trade);
+                logger.debug("Updating trade in database: {}", trade);
+            } else {
+                // Create trade.
+                final Trade newTrade = Base.TRADE_MAPPER.mapToTrade(newValue);
+                // Order is always present as we check it in getNewValues().
+                newTrade.setOrder(orders.get(newValue.getOrderId()));
+                tradesInDatabase.put(newValue.getTradeId(), newTrade);
+                trades.put(newValue.getTradeId(), newTrade);
+                logger.debug("Creating trade in database: {}", newTrade);
+            }
+        });
+
+        // All the trades are saved at once.
+        return tradeRepository.saveAll(trades.values())
+                .stream()
                 .map(Base.TRADE_MAPPER::mapToTradeDTO)
+                .peek(trade -> persistedValues.put(trade.getTradeId(), trade))
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
@@ -0,0 +1,284 @@
+package tide.trader.bot.batch;
+
+import tide.trader.bot.dto.trade.OrderDTO;
+import tide.trader.bot.dto.trade.TradeDTO;
+import tide.trader.bot.service.TradeService;
+import tide.trader.bot.util.base.Base;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User data stream - pushes the orders and trades received from the exchange stream to {@link OrderFlux} and {@link TradeFlux}.
+ * When user data is streamed, the order, trade and account fluxes don't have to be polled continuously anymore:
+ * - Orders and trades are reconciled with the REST API after each (re)connection and every reconciliation delay (safety net).
+ * - Accounts are retrieved with the REST API when the exchange notifies a balance change and every reconciliation delay.
+ * Orders and trades pushed before their local order is saved in database (the exchange can answer faster than the order
+ * creation is committed) would be dropped by the fluxes: they are kept aside and pushed again once their order is saved.
+ * If their order is still unknown after the reconciliation delay, they are dropped and a reconciliation is requested.
+ * If the exchange doesn't support streaming, the fluxes keep being polled continuously.
+ */
+public class UserDataStream extends Base {
+
+    /** Trade service. */
+    private final TradeService tradeService;
+
+    /** Order flux. */
+    private final OrderFlux orderFlux;
+
+    /** Trade flux. */
+    private final TradeFlux tradeFlux;
+
+    /** Delay between two reconciliations with the REST API in ms. */
+    private final long reconciliationDelayInMs;
+
+    /** True when user data is pushed by the exchange stream instead of being polled. */
+    private final AtomicBoolean streaming = new AtomicBoolean(false);
+
+    /** True when orders and trades must be reconciled as soon as possible (updates may have been missed). */
+    private final AtomicBoolean resyncRequested = new AtomicBoolean(false);
+
+    /** True when accounts must be retrieved as soon as possible (balances changed). */
+    private final AtomicBoolean accountUpdateRequested = new AtomicBoolean(false);
+
+    /** Last reconciliation of orders and trades (ms). */
+    private final AtomicLong lastOrderAndTradeReconciliation = new AtomicLong();
+
+    /** Last reconciliation of accounts (ms). */
+    private final AtomicLong lastAccountReconciliation = new AtomicLong();
+
+    /** Orders pushed whose local order is not saved yet in database (by order id). */
+    private final Map<String, Pending<OrderDTO>> pendingOrders = new LinkedHashMap<>();
+
+    /** Trades pushed whose order is not saved yet in database (by trade id). */
+    private final Map<String, Pending<TradeDTO>> pendingTrades = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param newTradeService            trade service
+     * @param newOrderFlux               order flux
+     * @param newTradeFlux               trade flux
+     * @param newReconciliationDelayInMs delay between two reconciliations with the REST API in ms
+     */
+    public UserDataStream(final TradeService newTradeService,
+                          final OrderFlux newOrderFlux,
+                          final TradeFlux newTradeFlux,
+                          final long newReconciliationDelayInMs) {
+        this.tradeService = newTradeService;
+        this.orderFlux = newOrderFlux;
+        this.tradeFlux = newTradeFlux;
+        this.reconciliationDelayInMs = newReconciliationDelayInMs;
+    }
+
+    /**
+     * Subscribe to the exchange user data stream.
+     * If the exchange doesn't support streaming, orders, trades and accounts keep being polled.
+     */
+    public void startStreaming() {
+        streaming.set(tradeService.subscribeUserData(
+                this::onOrder,
+                this::onTrade,
+                () -> accountUpdateRequested.set(true),
+                () -> {
+                    resyncRequested.set(true);
+                    accountUpdateRequested.set(true);
+                }));
+    }
+
+    /**
+     * Close the exchange user data stream.
+     */
+    public void stopStreaming() {
+        if (streaming.getAndSet(false)) {
+            tradeService.unsubscribeUserData();
+        }
+    }
+
+    /**
+     * Order pushed by the exchange.
+     *
+     * @param order order
+     */
+    private synchronized void onOrder(final OrderDTO order) {
+        if (order.getStrategy() != null || !orderFlux.getSavedOrderIds(Set.of(order.getOrderId())).isEmpty()) {
+            orderFlux.push(Set.of(order));
+        } else {
+            logger.debug("Order {} pushed before being saved in database", order.getOrderId());
+            pendingOrders.put(order.getOrderId(), new Pending<>(order));
+        }
+    }
+
+    /**
+     * Trade pushed by the exchange.
+     *
+     * @param trade trade
+     */
+    private synchronized void onTrade(final TradeDTO trade) {
+        if (!pendingOrders.containsKey(trade.getOrderId())
+                && !orderFlux.getSavedOrderIds(Set.of(trade.getOrderId())).isEmpty()) {
+            tradeFlux.push(Set.of(trade));
+        } else {
+            logger.debug("Trade {} pushed before its order {} was saved in database", trade.getTradeId(), trade.getOrderId());
+            pendingTrades.put(trade.getTradeId(), new Pending<>(trade));
+        }
+    }
+
+    /**
+     * Returns true if some orders or trades pushed are waiting for their order to be saved in database.
+     *
+     * @return true if orders or trades are pending
+     */
+    public synchronized boolean hasPendingUpdates() {
+        return !pendingOrders.isEmpty() || !pendingTrades.isEmpty();
+    }
+
+    /**
+     * Push again the orders and trades whose order is now saved in database (orders first, then trades).
+     * The ones still unknown after the reconciliation delay are dropped and a reconciliation is requested.
+     *
+     * @return true (the pending updates are retried on each call)
+     */
+    public synchronized boolean retryPendingUpdates() {
+        final Set<String> savedOrderIds = orderFlux.getSavedOrderIds(pendingOrders.values().stream()
+                .map(pending -> pending.getValue().getOrderId())
+                .collect(Collectors.toSet()));
+        final Set<OrderDTO> orders = removeReady(pendingOrders, order -> savedOrderIds.contains(order.getOrderId()));
+        if (!orders.isEmpty()) {
+            orderFlux.push(orders);
+        }
+
+        final Set<String> tradeOrderIds = orderFlux.getSavedOrderIds(pendingTrades.values().stream()
+                .map(pending -> pending.getValue().getOrderId())
+                .collect(Collectors.toSet()));
+        final Set<TradeDTO> trades = removeReady(pendingTrades, trade -> tradeOrderIds.contains(trade.getOrderId()));
+        if (!trades.isEmpty()) {
+            tradeFlux.push(trades);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the pending values that are ready, drops the expired ones (and requests a reconciliation).
+     *
+     * @param pendingValues pending values
+     * @param ready         returns true if a value can be pushed
+     * @param <T>           value type
+     * @return values ready to be pushed
+     */
+    private <T> Set<T> removeReady(final Map<String, Pending<T>> pendingValues, final Predicate<T> ready) {
+        final long now = System.currentTimeMillis();
+        final Set<T> values = new LinkedHashSet<>();
+        final Iterator<Pending<T>> iterator = pendingValues.values().iterator();
+        while (iterator.hasNext()) {
+            final Pending<T> pending = iterator.next();
+            if (ready.test(pending.getValue())) {
+                values.add(pending.getValue());
+                iterator.remove();
+            } else if (now - pending.getReceivedAt() >= reconciliationDelayInMs) {
+                logger.warn("{} dropped, its order is still not saved in database", pending.getValue());
+                resyncRequested.set(true);
+                iterator.remove();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns true if user data is streamed.
+     *
+     * @return true if streaming
+     */
+    public boolean isStreaming() {
+        return streaming.get();
+    }
+
+    /**
+     * Returns true if orders and trades have to be retrieved with the REST API: always when not streaming, otherwise after
+     * a (re)connection or when the reconciliation delay elapsed.
+     *
+     * @return true if orders and trades must be retrieved
+     */
+    public boolean isOrderAndTradeUpdateDue() {
+        return isUpdateDue(resyncRequested, lastOrderAndTradeReconciliation);
+    }
+
+    /**
+     * Returns true if accounts have to be retrieved with the REST API: always when not streaming, otherwise when balances
+     * changed or when the reconciliation delay elapsed.
+     *
+     * @return true if accounts must be retrieved
+     */
+    public boolean isAccountUpdateDue() {
+        return isUpdateDue(accountUpdateRequested, lastAccountReconciliation);
+    }
+
+    /**
+     * Returns true if an update is requested or if the reconciliation delay elapsed (the request is then consumed).
+     *
+     * @param requested          update requested
+     * @param lastReconciliation last reconciliation
+     * @return true if the update is due
+     */
+    private boolean isUpdateDue(final AtomicBoolean requested, final AtomicLong lastReconciliation) {
+        if (!streaming.get()) {
+            return true;
+        }
+        final long now = System.currentTimeMillis();
+        if (requested.getAndSet(false) || now - lastReconciliation.get() >= reconciliationDelayInMs) {
+            lastReconciliation.set(now);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Value pushed by the exchange and waiting for its order to be saved.
+     *
+     * @param <T> value type
+     */
+    private static final class Pending<T> {
+
+        /** Value. */
+        private final T value;
+
+        /** Reception date (ms). */
+        private final long receivedAt = System.currentTimeMillis();
+
+        /**
+         * Constructor.
+         *
+         * @param newValue value
+         */
+        Pending(final T newValue) {
+            this.value = newValue;
+        }
+
+        /**
+         * Getter value.
+         *
+         * @return value
+         */
+        T getValue() {
+            return value;
+        }
+
+        /**
+         * Getter receivedAt.
+         *
+         * @return receivedAt
+         */
+        long getReceivedAt() {
+            return receivedAt;
+        }
+
+    }
+
+}
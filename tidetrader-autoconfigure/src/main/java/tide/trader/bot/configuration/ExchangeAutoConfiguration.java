@@ -7,17 +7,26 @@ import org.knowm.xchange.ExchangeFactory;
 import org.knowm.xchange.ExchangeSpecification;
 import org.knowm.xchange.derivative.Domain;
 import org.knowm.xchange.service.account.AccountService;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.StreamingMarketDataService;
+import org.knowm.xchange.service.trade.StreamingTradeService;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import si.mazi.rescu.HttpStatusIOException;
 import tide.trader.bot.batch.*;
+import tide.trader.bot.repository.DailyGainRepository;
+import tide.trader.bot.repository.GainRepository;
 import tide.trader.bot.repository.OrderRepository;
 import tide.trader.bot.repository.PositionRepository;
+import tide.trader.bot.repository.StrategyRepository;
 import tide.trader.bot.repository.TradeRepository;
 import tide.trader.bot.service.*;
 import tide.trader.bot.util.exception.ConfigurationException;
@@ -27,6 +36,9 @@ import tide.trader.bot.util.base.configuration.BaseConfiguration;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
@@ -56,6 +68,21 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
     /** Position repository. */
     private final PositionRepository positionRepository;
 
+    /** Gain repository. */
+    private final GainRepository gainRepository;
+
+    /** Daily gain repository. */
+    private final DailyGainRepository dailyGainRepository;
+
+    /** Strategy repository. */
+    private final StrategyRepository strategyRepository;
+
+    /** JDBC template. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Transaction manager. */
+    private final PlatformTransactionManager transactionManager;
+
     /** XChange. */
     private Exchange xChangeExchange;
 
@@ -98,9 +125,21 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
     /** Trade flux. */
     private TradeFlux tradeFlux;
 
+    /** User data stream. */
+    private UserDataStream userDataStream;
+
     /** Position flux. */
     private PositionFlux positionFlux;
 
+    /** Gain ledger. */
+    private GainLedger gainLedger;
+
+    /** Position archive. */
+    private PositionArchive positionArchive;
+
+    /** Ticker importer. */
+    private TickerImporter tickerImporter;
+
     /**
      * Instantiating the exchange services based on user parameters.
      */
@@ -213,6 +252,40 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         return xChangeMarketDataService;
     }
 
+    /**
+     * Returns the XChange streaming market data service if streaming mode is enabled and supported by the exchange.
+     *
+     * @return xChange streaming market data service or null
+     */
+    private StreamingMarketDataService getXChangeStreamingMarketDataService() {
+        if (!Boolean.TRUE.equals(exchangeParameters.getModes().getStreaming())) {
+            return null;
+        }
+        try {
+            return xChangeExchange.getStreamingMarketDataService();
+        } catch (NotYetImplementedForExchangeException e) {
+            logger.warn("Streaming is not supported by {}, tickers will be polled", exchangeParameters.getDriverClassName());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the XChange streaming trade service if streaming mode is enabled and supported by the exchange.
+     *
+     * @return xChange streaming trade service or null
+     */
+    private StreamingTradeService getXChangeStreamingTradeService() {
+        if (!Boolean.TRUE.equals(exchangeParameters.getModes().getStreaming())) {
+            return null;
+        }
+        try {
+            return xChangeExchange.getStreamingTradeService();
+        } catch (NotYetImplementedForExchangeException e) {
+            logger.warn("User data streaming is not supported by {}, orders and trades will be polled", exchangeParameters.getDriverClassName());
+            return null;
+        }
+    }
+
     /**
      * Getter xChangeTradeService.
      *
@@ -264,7 +337,8 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         if (marketService == null) {
             marketService = new MarketServiceXChangeImplementation(
                     exchangeParameters.getRates().getTickerValueInMs(),
-                    getXChangeMarketDataService());
+                    getXChangeMarketDataService(),
+                    getXChangeStreamingMarketDataService());
         }
         return marketService;
     }
@@ -280,8 +354,10 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         if (tradeService == null) {
             tradeService = new TradeServiceXChangeImplementation(
                     exchangeParameters.getRates().getTradeValueInMs(),
+                    exchangeParameters.getDriverClassName(),
                     orderRepository,
-                    getXChangeTradeService());
+                    getXChangeTradeService(),
+                    getXChangeStreamingTradeService());
         }
         return tradeService;
     }
@@ -320,10 +396,14 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
      * @return tickerFlux
      */
     @Bean
-    @DependsOn("getMarketService")
+    @DependsOn({"getMarketService", "getPositionFlux"})
     public TickerFlux getTickerFlux() {
         if (tickerFlux == null) {
-            tickerFlux = new TickerFlux(applicationContext, getMarketService());
+            final Long tickerHeartbeat = exchangeParameters.getRates().getTickerHeartbeatValueInMs();
+            tickerFlux = new TickerFlux(applicationContext,
+                    getMarketService(),
+                    tickerHeartbeat == null ? null : Duration.ofMillis(tickerHeartbeat),
+                    getPositionFlux()::isForceClosing);
         }
         return tickerFlux;
     }
@@ -356,16 +436,86 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         return tradeFlux;
     }
 
+    /**
+     * Getter for userDataStream.
+     *
+     * @return userDataStream
+     */
+    @Bean
+    @DependsOn({"getOrderFlux", "getTradeFlux"})
+    public UserDataStream getUserDataStream() {
+        if (userDataStream == null) {
+            userDataStream = new UserDataStream(getTradeService(),
+                    getOrderFlux(),
+                    getTradeFlux(),
+                    exchangeParameters.getRates().getReconciliationValueInMs());
+        }
+        return userDataStream;
+    }
+
+    /**
+     * Getter for positionArchive.
+     *
+     * @return positionArchive
+     */
+    @Bean
+    public PositionArchive getPositionArchive() {
+        if (positionArchive == null) {
+            positionArchive = new PositionArchive(jdbcTemplate,
+                    new TransactionTemplate(transactionManager),
+                    strategyRepository,
+                    exchangeParameters.getModes().getArchiveAfterDuration());
+        }
+        return positionArchive;
+    }
+
+    /**
+     * Getter for tickerImporter.
+     *
+     * @return tickerImporter
+     */
+    @Bean
+    public TickerImporter getTickerImporter() {
+        if (tickerImporter == null) {
+            tickerImporter = new TickerImporter(jdbcTemplate,
+                    new TransactionTemplate(transactionManager),
+                    Optional.ofNullable(exchangeParameters.getModes().getImportBatchSize()).orElse(TickerImporter.DEFAULT_BATCH_SIZE));
+        }
+        return tickerImporter;
+    }
+
+    /**
+     * Getter for gainLedger.
+     *
+     * @return gainLedger
+     */
+    @Bean
+    @DependsOn("getPositionArchive")
+    public GainLedger getGainLedger() {
+        if (gainLedger == null) {
+            gainLedger = new GainLedger(gainRepository, dailyGainRepository, positionRepository, getPositionArchive());
+            gainLedger.initialize();
+        }
+        return gainLedger;
+    }
+
     /**
      * Getter for positionFlux.
      *
      * @return positionFlux
      */
     @Bean
-    @DependsOn("getTradeService")
+    @DependsOn({"getTradeService", "getGainLedger"})
     public PositionFlux getPositionFlux() {
         if (positionFlux == null) {
-            positionFlux = new PositionFlux(positionRepository);
+            final String journal = exchangeParameters.getModes().getJournal();
+            if (StringUtils.isNotBlank(journal)) {
+                final PositionJournal positionJournal = new PositionJournal(Paths.get(journal), jdbcTemplate);
+                positionJournal.open();
+                positionFlux = new PositionFlux(positionRepository, positionJournal, getGainLedger());
+            } else {
+                positionFlux = new PositionFlux(positionRepository, null, getGainLedger());
+            }
         }
         return positionFlux;
     }
@@ -376,10 +526,10 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
      * @return positionService
      */
     @Bean
-    @DependsOn({"getTradeService", "getPositionFlux"})
+    @DependsOn({"getTradeService", "getPositionFlux", "getGainLedger"})
     public PositionService getPositionService() {
         if (positionService == null) {
-            positionService = new PositionServiceCassandreImplementation(positionRepository, getTradeService(), positionFlux);
+            positionService = new PositionServiceCassandreImplementation(positionRepository, getTradeService(), positionFlux, getGainLedger(), getPositionArchive());
         }
         return positionService;
     }
@@ -9,18 +9,29 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import tide.trader.bot.batch.*;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.repository.OrderRepository;
 import tide.trader.bot.service.MessageService;
 import tide.trader.bot.util.base.configuration.BaseConfiguration;
+import tide.trader.bot.util.parameters.ExchangeParameters;
 
 import javax.annotation.PreDestroy;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ScheduleAutoConfiguration configures the flux calls.
- * Three scheduled tasks:
- * - One calling account flux.
- * - One calling ticker flux.
- * - One calling order and trade flux.
+ * The {@link FluxScheduler} calls, at their exchange API rate:
+ * - The account flux.
+ * - The ticker flux.
+ * - The order and trade fluxes, only while some orders may still be updated by the exchange (and for reconciliation).
+ * When user data is streamed (see {@link UserDataStream}), account, order and trade fluxes are only called for reconciliation.
+ * When a position journal is configured (see {@link PositionJournal}), the position prices journaled are written in database at the ticker rate.
+ * When an archive delay is configured (see {@link PositionArchive}), old closed positions are archived every hour.
  */
 @Profile("!schedule-disabled")
 @Configuration
@@ -37,8 +48,22 @@ public class ScheduleAutoConfiguration extends BaseConfiguration {
     /** Termination delay in milliseconds (10 000 ms = 10 seconds). */
     private static final int TERMINATION_DELAY_IN_MILLISECONDS = 10_000;
 
-    /** Flux continues to run as long as enabled is set to true. */
-    private final AtomicBoolean enabled = new AtomicBoolean(true);
+    /** Order statuses that will not change anymore. */
+    private static final Set<OrderStatusDTO> FINAL_ORDER_STATUSES = Stream.of(OrderStatusDTO.values())
+            .filter(OrderStatusDTO::isFinal)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatusDTO.class)));
+
+    /** Delay after which the trades of a filled order are not expected anymore (trades are retrieved for the last 24 hours). */
+    private static final Duration FILLED_ORDER_TRADES_DELAY = Duration.ofDays(1);
+
+    /** Delay between two archivings of the closed positions. */
+    private static final Duration ARCHIVE_RATE = Duration.ofHours(1);
+
+    /** Exchange parameters. */
+    private final ExchangeParameters exchangeParameters;
+
+    /** Order repository. */
+    private final OrderRepository orderRepository;
 
     /** Account flux. */
     private final AccountFlux accountFlux;
@@ -52,42 +77,89 @@ public class ScheduleAutoConfiguration extends BaseConfiguration {
     /** Trade flux. */
     private final TradeFlux tradeFlux;
 
+    /** User data stream. */
+    private final UserDataStream userDataStream;
+
+    /** Position flux. */
+    private final PositionFlux positionFlux;
+
+    /** Position archive. */
+    private final PositionArchive positionArchive;
+
     /** Message service. */
     private final MessageService messageService;
 
-    /**
-     * Recurrent calls to the account flux.
-     */
-    @Scheduled(initialDelay = START_DELAY_IN_MILLISECONDS, fixedDelay = 1)
-    public void accountFluxUpdate() {
-        if (enabled.get()) {
-            accountFlux.update();
-        }
-    }
-
-    /**
-     * Recurrent calls to the ticker flux.
-     */
-    @Scheduled(initialDelay = START_DELAY_IN_MILLISECONDS, fixedDelay = 1)
-    public void tickerFluxUpdate() {
-        if (enabled.get()) {
-            tickerFlux.update();
-        }
-    }
+    /** Flux scheduler created by {@link #fluxScheduler()} (kept to be shut down without going back to the bean factory). */
+    private FluxScheduler fluxScheduler;
 
     /**
-     * Recurrent calls to the order and trade flux.
+     * Flux scheduler calling account, ticker, order and trade fluxes when they are due.
+     *
+     * @return flux scheduler
      */
-    @Scheduled(initialDelay = START_DELAY_IN_MILLISECONDS, fixedDelay = 1)
-    public void orderAndTradeFluxUpdate() {
-        if (enabled.get()) {
-            orderFlux.update();
-            tradeFlux.update();
-        }
+    @Bean
+    public FluxScheduler fluxScheduler() {
+        fluxScheduler = new FluxScheduler(taskScheduler());
+        final ExchangeParameters.Rates rates = exchangeParameters.getRates();
+
+        // Account flux.
+        fluxScheduler.schedule("account",
+                rates.getAccountValueInMs(),
+                Long.MAX_VALUE,
+                START_DELAY_IN_MILLISECONDS,
+                userDataStream::isAccountUpdateDue,
+                accountFlux::update);
+
+        // Ticker flux (not called when tickers are streamed).
+        fluxScheduler.schedule("ticker",
+                rates.getTickerValueInMs(),
+                Long.MAX_VALUE,
+                START_DELAY_IN_MILLISECONDS,
+                () -> !tickerFlux.isStreaming(),
+                tickerFlux::update);
+
+        // Order and trade fluxes (only called when some orders may still be updated, or for reconciliation).
+        fluxScheduler.schedule("orderAndTrade",
+                rates.getTradeValueInMs(),
+                rates.getReconciliationValueInMs(),
+                START_DELAY_IN_MILLISECONDS,
+                () -> orderRepository.existsPendingOrder(FINAL_ORDER_STATUSES,
+                        OrderStatusDTO.FILLED,
+                        ZonedDateTime.now().minus(FILLED_ORDER_TRADES_DELAY))
+                        && userDataStream.isOrderAndTradeUpdateDue(),
+                () -> {
+                    final boolean ordersUpdated = orderFlux.update();
+                    return tradeFlux.update() && ordersUpdated;
+                });
+
+        // Orders and trades pushed by the exchange before their order was saved in database.
+        fluxScheduler.schedule("pendingUserData",
+                rates.getTradeValueInMs(),
+                Long.MAX_VALUE,
+                START_DELAY_IN_MILLISECONDS,
+                userDataStream::hasPendingUpdates,
+                userDataStream::retryPendingUpdates);
+
+        // Position prices journaled (only when a position journal is configured).
+        fluxScheduler.schedule("positionJournal",
+                rates.getTickerValueInMs(),
+                Long.MAX_VALUE,
+                START_DELAY_IN_MILLISECONDS,
+                positionFlux::hasJournaledUpdates,
+                positionFlux::flushJournal);
+
+        // Closed positions archived (only when an archive delay is configured).
+        fluxScheduler.schedule("positionArchive",
+                ARCHIVE_RATE.toMillis(),
+                Long.MAX_VALUE,
+                START_DELAY_IN_MILLISECONDS,
+                positionArchive::isEnabled,
+                positionArchive::archive);
+        return fluxScheduler;
     }
 
     /**
-     * Recurrent calls to the order and trade flux.
+     * Recurrent calls to the message flux.
      */
     @Scheduled(initialDelay = START_DELAY_IN_MILLISECONDS, fixedDelay = 5000)
     public void messageFluxUpdate() {
@@ -96,11 +168,16 @@ public class ScheduleAutoConfiguration extends BaseConfiguration {
 
     /**
      * This method is called before the application shutdown.
-     * We stop calling the flux.
+     * We stop calling the flux, close the exchange streams and write the position prices journaled in database.
      */
     @PreDestroy
     public void shutdown() {
-        enabled.set(false);
+        if (fluxScheduler != null) {
+            fluxScheduler.shutdown();
+        }
+        tickerFlux.stopStreaming();
+        userDataStream.stopStreaming();
+        positionFlux.closeJournal();
     }
 
     /**
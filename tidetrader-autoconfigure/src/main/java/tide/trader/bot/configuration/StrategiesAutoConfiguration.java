@@ -1,7 +1,5 @@
 package tide.trader.bot.configuration;
 
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
@@ -13,8 +11,9 @@ import tide.trader.bot.batch.AccountFlux;
 import tide.trader.bot.batch.OrderFlux;
 import tide.trader.bot.batch.PositionFlux;
 import tide.trader.bot.batch.TickerFlux;
+import tide.trader.bot.batch.TickerImporter;
 import tide.trader.bot.batch.TradeFlux;
-import tide.trader.bot.domain.ImportedTicker;
+import tide.trader.bot.batch.UserDataStream;
 import tide.trader.bot.domain.Strategy;
 import tide.trader.bot.dto.market.TickerDTO;
 import tide.trader.bot.dto.position.PositionDTO;
@@ -43,7 +42,6 @@ import tide.trader.bot.dto.strategy.StrategyTypeDTO;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -51,7 +49,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -122,6 +119,12 @@ public class StrategiesAutoConfiguration extends BaseConfiguration {
     /** Position flux. */
     private final PositionFlux positionFlux;
 
+    /** User data stream. */
+    private final UserDataStream userDataStream;
+
+    /** Ticker importer. */
+    private final TickerImporter tickerImporter;
+
     /**
      * Search for strategies and runs them.
      */
@@ -234,6 +237,15 @@ public class StrategiesAutoConfiguration extends BaseConfiguration {
         connectableOrderFlux.connect();
         connectableTradeFlux.connect();
         connectableTickerFlux.connect();
+
+        // =============================================================================================================
+        // Streaming mode.
+        // If asked and supported by the exchange, tickers and user data (orders, trades, balances) are pushed by the exchange
+        // instead of being polled.
+        if (Boolean.TRUE.equals(exchangeParameters.getModes().getStreaming())) {
+            tickerFlux.startStreaming();
+            userDataStream.startStreaming();
+        }
     }
 
     /**
@@ -389,46 +401,7 @@ public class StrategiesAutoConfiguration extends BaseConfiguration {
      * Load imported tickers into database.
      */
     private void loadImportedTickers() {
-        // Deleting everything before import.
-        importedTickersRepository.deleteAllInBatch();
-
-        // Getting the list of files to import and insert them in database.
-        logger.info("Importing tickers...");
-        AtomicLong counter = new AtomicLong(0);
-        getFilesToLoad()
-                .parallelStream()
-                .filter(resource -> resource.getFilename() != null)
-                .peek(resource -> logger.info("Importing file {}", resource.getFilename()))
-                .forEach(resource -> {
-                    try {
-                        // Insert the tickers in database.
-                        CsvToBean<ImportedTicker> csvToBean = new CsvToBeanBuilder<ImportedTicker>(Files.newBufferedReader(resource.getFile().toPath()))
-                                .withType(ImportedTicker.class)
-                                .withIgnoreLeadingWhiteSpace(true)
-                                .build();
-
-                        csvToBean.parse().forEach(importedTicker -> {
-                            logger.debug("Importing ticker {}", importedTicker);
-                            importedTicker.setUid(counter.incrementAndGet());
-                            importedTickersRepository.save(importedTicker);
-                        });
-                        /*
-                        new CsvToBeanBuilder<ImportedTicker>(Files.newBufferedReader(resource.getFile().toPath()))
-                                .withType(ImportedTicker.class)
-                                .withIgnoreLeadingWhiteSpace(true)
-                                .build()
-                                .parse()
-                                .forEach(importedTicker -> {
-                                    logger.debug("Importing ticker {}", importedTicker);
-                                    importedTicker.setUid(counter.incrementAndGet());
-                                    importedTickersRepository.save(importedTicker);
-                                });
-                         */
-                    } catch (IOException e) {
-                        logger.error("Impossible to load imported tickers: {}", e.getMessage());
-                    }
-                });
-        logger.info("{} tickers imported", importedTickersRepository.count());
+        tickerImporter.importFiles(getFilesToLoad());
     }
 
     /**
@@ -0,0 +1,89 @@
+package tide.trader.bot.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.Hibernate;
+import tide.trader.bot.util.base.domain.BaseDomain;
+import tide.trader.bot.util.test.ExcludeFromCoverageGeneratedReport;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static java.math.BigDecimal.ZERO;
+import static javax.persistence.FetchType.LAZY;
+import static javax.persistence.GenerationType.IDENTITY;
+
+/**
+ * Gains made by the closed positions of a strategy opened on a day, in a currency (map "DAILY_GAINS" table).
+ * Amounts are updated once when a position is closed, so that the daily gain series is read without going through all
+ * closed positions.
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "DAILY_GAINS")
+public class DailyGain extends BaseDomain {
+
+    /** Technical ID. */
+    @Id
+    @Column(name = "UID")
+    @GeneratedValue(strategy = IDENTITY)
+    private Long uid;
+
+    /** The strategy that made the gains. */
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "FK_STRATEGY_UID", updatable = false)
+    @ToString.Exclude
+    private Strategy strategy;
+
+    /** Currency of the gains. */
+    @Column(name = "CURRENCY", updatable = false)
+    private String currency;
+
+    /** Day the positions were opened. */
+    @Column(name = "GAIN_DAY", updatable = false)
+    private LocalDate day;
+
+    /** Number of closed positions opened this day. */
+    @Column(name = "POSITIONS")
+    private long positions;
+
+    /** Sum of the gains of the closed positions opened this day. */
+    @Column(name = "AMOUNT")
+    private BigDecimal amount = ZERO;
+
+    @Override
+    @ExcludeFromCoverageGeneratedReport
+    public final boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        DailyGain that = (DailyGain) o;
+        return Objects.equals(uid, that.uid);
+    }
+
+    @Override
+    @ExcludeFromCoverageGeneratedReport
+    public final int hashCode() {
+        return new HashCodeBuilder()
+                .append(uid)
+                .toHashCode();
+    }
+
+}
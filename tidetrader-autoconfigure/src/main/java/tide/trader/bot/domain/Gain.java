@@ -0,0 +1,95 @@
+package tide.trader.bot.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.Hibernate;
+import tide.trader.bot.util.base.domain.BaseDomain;
+import tide.trader.bot.util.test.ExcludeFromCoverageGeneratedReport;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import static java.math.BigDecimal.ZERO;
+import static javax.persistence.FetchType.LAZY;
+import static javax.persistence.GenerationType.IDENTITY;
+
+/**
+ * Gain ledger entry of a strategy in a currency (map "GAINS" table).
+ * Totals are updated once when a position is closed, so that gains are read without going through all closed positions.
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "GAINS")
+public class Gain extends BaseDomain {
+
+    /** Technical ID. */
+    @Id
+    @Column(name = "UID")
+    @GeneratedValue(strategy = IDENTITY)
+    private Long uid;
+
+    /** The strategy that made the gains. */
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "FK_STRATEGY_UID", updatable = false)
+    @ToString.Exclude
+    private Strategy strategy;
+
+    /** Currency. */
+    @Column(name = "CURRENCY", updatable = false)
+    private String currency;
+
+    /** Number of closed positions whose gains are in this currency. */
+    @Column(name = "POSITIONS")
+    private long positions;
+
+    /** Total value engaged by the closed positions when they were opened. */
+    @Column(name = "TOTAL_BEFORE")
+    private BigDecimal totalBefore = ZERO;
+
+    /** Total value got back by the closed positions when they were closed. */
+    @Column(name = "TOTAL_AFTER")
+    private BigDecimal totalAfter = ZERO;
+
+    /** Fees paid in this currency by the opening orders of the closed positions. */
+    @Column(name = "OPENING_ORDER_FEES")
+    private BigDecimal openingOrderFees = ZERO;
+
+    /** Fees paid in this currency by the closing orders of the closed positions. */
+    @Column(name = "CLOSING_ORDER_FEES")
+    private BigDecimal closingOrderFees = ZERO;
+
+    @Override
+    @ExcludeFromCoverageGeneratedReport
+    public final boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        Gain that = (Gain) o;
+        return Objects.equals(uid, that.uid);
+    }
+
+    @Override
+    @ExcludeFromCoverageGeneratedReport
+    public final int hashCode() {
+        return new HashCodeBuilder()
+                .append(uid)
+                .toHashCode();
+    }
+
+}
@@ -14,7 +14,7 @@ import tide.trader.bot.util.test.ExcludeFromCoverageGeneratedReport;
 import javax.persistence.*;
 
 import static javax.persistence.EnumType.STRING;
-import static javax.persistence.FetchType.EAGER;
+import static javax.persistence.FetchType.LAZY;
 import static javax.persistence.GenerationType.IDENTITY;
 
 /**
@@ -35,8 +35,9 @@ public class Message extends BaseDomain {
     private Long uid;
 
     /** The strategy that created the position. */
-    @ManyToOne(fetch = EAGER)
+    @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "FK_STRATEGY_UID", updatable = false)
+    @ToString.Exclude
     private Strategy strategy;
 
     /** The currency-pair. */
@@ -6,6 +6,7 @@ import lombok.Setter;
 import lombok.ToString;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 import tide.trader.bot.dto.trade.OrderStatusDTO;
 import tide.trader.bot.dto.trade.OrderTypeDTO;
 import tide.trader.bot.util.base.domain.BaseDomain;
@@ -23,6 +24,8 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
 import javax.persistence.Table;
@@ -43,8 +46,19 @@ import static javax.persistence.GenerationType.IDENTITY;
 @RequiredArgsConstructor
 @Entity
 @Table(name = "ORDERS")
+@NamedEntityGraph(name = Order.TRADES_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("strategy"),
+                @NamedAttributeNode("trades")
+        })
 public class Order extends BaseDomain {
 
+    /** Entity graph loading the strategy and the trades in one statement. */
+    public static final String TRADES_GRAPH = "Order.trades";
+
+    /** Number of orders whose trades are loaded by the same statement when they are not in the entity graph. */
+    private static final int TRADES_BATCH_SIZE = 50;
+
     /** Technical ID. */
     @Id
     @Column(name = "UID")
@@ -129,6 +143,7 @@ public class Order extends BaseDomain {
     /** All trades related to order. */
     @OneToMany(mappedBy = "order", fetch = EAGER)
     @OrderBy("timestamp")
+    @BatchSize(size = TRADES_BATCH_SIZE)
     @ToString.Exclude
     private Set<Trade> trades = new LinkedHashSet<>();
 
@@ -23,8 +23,12 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import java.math.BigDecimal;
 
 import static javax.persistence.CascadeType.ALL;
 import static javax.persistence.EnumType.STRING;
@@ -40,8 +44,18 @@ import static javax.persistence.GenerationType.IDENTITY;
 @RequiredArgsConstructor
 @Entity
 @Table(name = "POSITIONS")
+@NamedEntityGraph(name = Position.ORDERS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("strategy"),
+                @NamedAttributeNode(value = "openingOrder", subgraph = Order.TRADES_GRAPH),
+                @NamedAttributeNode(value = "closingOrder", subgraph = Order.TRADES_GRAPH)
+        },
+        subgraphs = @NamedSubgraph(name = Order.TRADES_GRAPH, attributeNodes = @NamedAttributeNode("trades")))
 public class Position extends BaseDomain {
 
+    /** Entity graph loading the strategy, the orders and their trades in one statement. */
+    public static final String ORDERS_GRAPH = "Position.orders";
+
     /** Technical ID. */
     @Id
     @Column(name = "UID")
@@ -117,6 +131,14 @@ public class Position extends BaseDomain {
     @JoinColumn(name = "FK_CLOSING_ORDER_UID")
     private Order closingOrder;
 
+    /** Amount filled by the trades of the opening order. */
+    @Column(name = "OPENING_ORDER_FILLED_AMOUNT")
+    private BigDecimal openingOrderFilledAmount;
+
+    /** Value (amount * price) of the trades of the opening order (cost basis). */
+    @Column(name = "OPENING_ORDER_FILLED_VALUE")
+    private BigDecimal openingOrderFilledValue;
+
     /** Price of the lowest gain reached by this position. */
     @Embedded
     @AttributeOverrides({
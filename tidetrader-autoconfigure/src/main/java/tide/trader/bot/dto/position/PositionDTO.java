@@ -22,8 +22,10 @@ import tide.trader.bot.util.test.ExcludeFromCoverageGeneratedReport;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -85,6 +87,12 @@ public class PositionDTO {
     /** The order created to close the position. */
     private OrderDTO closingOrder;
 
+    /** Amount filled by the trades of the opening order (updated on order and trade updates). */
+    private BigDecimal openingOrderFilledAmount;
+
+    /** Value (amount * price) of the trades of the opening order, cost basis of the position (updated on order and trade updates). */
+    private BigDecimal openingOrderFilledValue;
+
     /** Price of the lowest gain reached by this position. */
     private CurrencyAmountDTO lowestGainPrice;
 
@@ -120,6 +128,7 @@ public class PositionDTO {
                 .currency(newCurrencyPair.getBaseCurrency())
                 .build();
         this.openingOrder = newOpenOrder;
+        updateOpeningOrderFilledValues(null);
         this.rules = newRules;
         this.forceClosing = false;
         this.autoClose = true;
@@ -140,7 +149,7 @@ public class PositionDTO {
                 return OPENING_FAILURE;
             }
             // Checking if the opening order is fulfilled or not.
-            if (openingOrder.isFulfilled()) {
+            if (isOpeningOrderFulfilled()) {
                 return OPENED;
             } else {
                 return OPENING;
@@ -176,17 +185,7 @@ public class PositionDTO {
             // Gain percentage: ((60 - 50) / 50) * 100 = 20 %
             if (this.type == PositionTypeDTO.LONG) {
                 // Amounts.
-                final BigDecimal valueIBought;
-                if (openingOrder.isFulfilled()) {
-                    // If we received all the trades, I can calculate exactly the amount I bought.
-                    valueIBought = openingOrder.getTrades()
-                            .stream()
-                            .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                            .reduce(ZERO, BigDecimal::add);
-                } else {
-                    // If we did not receive all trades, I use order information.
-                    valueIBought = openingOrder.getAmountValue().multiply(openingOrder.getAveragePriceValue());
-                }
+                final BigDecimal valueIBought = getOpeningOrderValue();
                 final BigDecimal valueICanSell = amount.getValue().multiply(price);
 
                 // Percentage.
@@ -215,17 +214,7 @@ public class PositionDTO {
             // Gain = amountICanBuy - amount.
             if (this.type == PositionTypeDTO.SHORT) {
                 // Amounts.
-                final BigDecimal amountGained;
-                if (openingOrder.isFulfilled()) {
-                    // If we received all the trades, I can calculate exactly the amount I sold.
-                    amountGained = openingOrder.getTrades()
-                            .stream()
-                            .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                            .reduce(ZERO, BigDecimal::add);
-                } else {
-                    // If we did not receive all trades, I use order information.
-                    amountGained = openingOrder.getAmountValue().multiply(openingOrder.getAveragePriceValue());
-                }
+                final BigDecimal amountGained = getOpeningOrderValue();
 
                 if(strategy.getDomain() == StrategyDomainDTO.PERPETUAL) {
                     final BigDecimal valueICanSell = amount.getValue().multiply(price);
@@ -262,6 +251,105 @@ public class PositionDTO {
         return Optional.empty();
     }
 
+    /**
+     * Calculate the price at which the position reaches a gain (reverse of {@link #calculateGainFromPrice(BigDecimal)}).
+     *
+     * @param percentage gain percentage
+     * @return price (empty if no price gives this gain)
+     */
+    public Optional<BigDecimal> calculatePriceFromGain(final float percentage) {
+        final BigDecimal valueOpened = getOpeningOrderValue();
+        if (amount.getValue().signum() <= 0 || valueOpened.signum() <= 0) {
+            return Optional.empty();
+        }
+        final BigDecimal ratio = BigDecimal.valueOf(percentage).divide(MathConstants.ONE_HUNDRED_BIG_DECIMAL);
+        final BigDecimal price;
+        if (type == PositionTypeDTO.LONG) {
+            // valueICanSell = valueIBought * (1 + ratio) = amount * price.
+            price = valueOpened.multiply(BigDecimal.ONE.add(ratio)).divide(amount.getValue(), MathConstants.BIGINTEGER_SCALE, HALF_UP);
+        } else if (strategy.getDomain() == StrategyDomainDTO.PERPETUAL) {
+            // valueICanSell = amountGained * (1 - ratio) = amount * price.
+            price = valueOpened.multiply(BigDecimal.ONE.subtract(ratio)).divide(amount.getValue(), MathConstants.BIGINTEGER_SCALE, HALF_UP);
+        } else {
+            // amountICanBuy = amount * (1 + ratio) = amountGained / price.
+            final BigDecimal amountICanBuy = amount.getValue().multiply(BigDecimal.ONE.add(ratio));
+            if (amountICanBuy.signum() <= 0) {
+                return Optional.empty();
+            }
+            price = valueOpened.divide(amountICanBuy, MathConstants.BIGINTEGER_SCALE, HALF_UP);
+        }
+        return price.signum() > 0 ? Optional.of(price) : Optional.empty();
+    }
+
+    /**
+     * Returns the value of the opening order (amount * price).
+     *
+     * @return opening order value
+     */
+    private BigDecimal getOpeningOrderValue() {
+        if (isOpeningOrderFulfilled()) {
+            // If we received all the trades, we know exactly the value bought or sold.
+            return getOpeningOrderFilledValue();
+        } else {
+            // If we did not receive all trades, we use order information.
+            return openingOrder.getAmountValue().multiply(openingOrder.getAveragePriceValue());
+        }
+    }
+
+    /**
+     * Returns the amount filled by the trades of the opening order.
+     *
+     * @return opening order filled amount
+     */
+    public BigDecimal getOpeningOrderFilledAmount() {
+        if (openingOrderFilledAmount == null) {
+            updateOpeningOrderFilledValues(null);
+        }
+        return openingOrderFilledAmount;
+    }
+
+    /**
+     * Returns the value (amount * price) of the trades of the opening order: the cost basis of the position.
+     *
+     * @return opening order filled value
+     */
+    public BigDecimal getOpeningOrderFilledValue() {
+        if (openingOrderFilledValue == null) {
+            updateOpeningOrderFilledValues(null);
+        }
+        return openingOrderFilledValue;
+    }
+
+    /**
+     * Returns true if the opening order has been fulfilled with trades.
+     *
+     * @return true if opening order completed
+     */
+    private boolean isOpeningOrderFulfilled() {
+        return getOpeningOrderFilledAmount().compareTo(openingOrder.getAmountValue()) == 0;
+    }
+
+    /**
+     * Calculates the opening order filled amount and value from its trades.
+     *
+     * @param newTrade new trade of the opening order, not yet in the order (can be null)
+     */
+    private void updateOpeningOrderFilledValues(final TradeDTO newTrade) {
+        final Map<String, TradeDTO> trades = new LinkedHashMap<>();
+        openingOrder.getTrades().forEach(trade -> trades.put(trade.getTradeId(), trade));
+        if (newTrade != null) {
+            trades.put(newTrade.getTradeId(), newTrade);
+        }
+        BigDecimal filledAmount = ZERO;
+        BigDecimal filledValue = ZERO;
+        for (TradeDTO trade : trades.values()) {
+            filledAmount = filledAmount.add(trade.getAmountValue());
+            filledValue = filledValue.add(trade.getAmountValue().multiply(trade.getPriceValue()));
+        }
+        openingOrderFilledAmount = filledAmount;
+        openingOrderFilledValue = filledValue;
+    }
+
     /**
      * Method called by Cassandre on every order update.
      *
@@ -272,6 +360,7 @@ public class PositionDTO {
         // Check if it's for the opening order.
         if (openingOrder.getOrderId().equals(updatedOrder.getOrderId())) {
             this.openingOrder = updatedOrder;
+            updateOpeningOrderFilledValues(null);
             return true;
         }
         // Check if it's for the closing order.
@@ -289,9 +378,13 @@ public class PositionDTO {
      * @return true if the trade is linked to the position.
      */
     public boolean tradeUpdate(final TradeDTO trade) {
+        // If it's a trade of the opening order, the cost basis is updated.
+        if (trade.getOrderId().equals(openingOrder.getOrderId())) {
+            updateOpeningOrderFilledValues(trade);
+            return true;
+        }
         // Return true to indicate that the trade was for this position.
-        return trade.getOrderId().equals(openingOrder.getOrderId())
-                || (closingOrder != null && trade.getOrderId().equals(closingOrder.getOrderId()));
+        return closingOrder != null && trade.getOrderId().equals(closingOrder.getOrderId());
     }
 
     /**
@@ -349,10 +442,7 @@ public class PositionDTO {
             // We need to lock the amount we bought.
             if (openingOrder != null) {
                 // We calculate the amount we bought from opening order trades.
-                final BigDecimal amountBought = openingOrder.getTrades()
-                        .stream()
-                        .map(TradeDTO::getAmountValue)
-                        .reduce(ZERO, BigDecimal::add);
+                final BigDecimal amountBought = getOpeningOrderFilledAmount();
                 // If we have a closing order, we calculate how much we sold.
                 BigDecimal amountSold = ZERO;
                 if (closingOrder != null) {
@@ -366,10 +456,7 @@ public class PositionDTO {
         } else {
             if (openingOrder != null) {
                 // We calculate the amount we sold from opening order trades.
-                final BigDecimal amountSold = openingOrder.getTrades()
-                        .stream()
-                        .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                        .reduce(ZERO, BigDecimal::add);
+                final BigDecimal amountSold = getOpeningOrderFilledValue();
                 // If we have a closing order, we calculate how much we bought.
                 BigDecimal amountBought = ZERO;
                 if (closingOrder != null) {
@@ -502,10 +589,7 @@ public class PositionDTO {
                 // To start the position, I spent 100 BTC.
                 // When I closed the position, I received 150 BTC
                 // Gain  -> ((150 - 100) / 100) * 100 = 50 %
-                BigDecimal bought = openingOrder.getTrades()
-                        .stream()
-                        .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                        .reduce(ZERO, BigDecimal::add);
+                BigDecimal bought = getOpeningOrderFilledValue();
 
                 BigDecimal sold = closingOrder.getTrades()
                         .stream()
@@ -546,20 +630,14 @@ public class PositionDTO {
                 CurrencyDTO currency = currencyPair.getBaseCurrency();
                 if(strategy.getDomain() == StrategyDomainDTO.PERPETUAL) {
                     currency = currencyPair.getQuoteCurrency();
-                    bought = openingOrder.getTrades()
-                            .stream()
-                            .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                            .reduce(ZERO, BigDecimal::add);
+                    bought = getOpeningOrderFilledValue();
 
                     sold = closingOrder.getTrades()
                             .stream()
                             .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
                             .reduce(ZERO, BigDecimal::add);
                 } else {
-                    sold = openingOrder.getTrades()
-                            .stream()
-                            .map(TradeDTO::getAmountValue)
-                            .reduce(ZERO, BigDecimal::add);
+                    sold = getOpeningOrderFilledAmount();
 
                     bought = closingOrder.getTrades()
                             .stream()
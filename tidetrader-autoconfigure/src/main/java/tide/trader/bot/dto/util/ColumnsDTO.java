@@ -98,7 +98,7 @@ public class ColumnsDTO {
         for(int i = 0; i < datas.size(); i++) {
             for(int j = 0; j < datas.get(i).size(); j++) {
                 tabBuffer.append(datas.get(i).get(j));
-                if(i + 1 < datas.get(i).size()) {
+                if(j + 1 < datas.get(i).size()) {
                     tabBuffer.append("\t");
                 }
             }
@@ -6,12 +6,12 @@ import tide.trader.bot.util.test.ExcludeFromCoverageGeneratedReport;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Currency.
@@ -19,8 +19,8 @@ import java.util.TreeSet;
 @SuppressWarnings("unused")
 public final class CurrencyDTO implements Serializable {
 
-    /** List of currencies. */
-    private static final Map<String, CurrencyDTO> CURRENCIES = new HashMap<>();
+    /** List of currencies (currencies can be created by several threads). */
+    private static final Map<String, CurrencyDTO> CURRENCIES = new ConcurrentHashMap<>();
 
     /** United Arab Emirates Dirham. */
     public static final CurrencyDTO AED = createCurrency("AED", "United Arab Emirates Dirham", null);
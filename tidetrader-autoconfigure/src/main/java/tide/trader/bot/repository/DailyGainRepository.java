@@ -0,0 +1,42 @@
+package tide.trader.bot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tide.trader.bot.domain.DailyGain;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link DailyGain} repository.
+ */
+@Repository
+public interface DailyGainRepository extends JpaRepository<DailyGain, Long> {
+
+    /**
+     * Retrieve the daily gains of a strategy in a currency (sorted by day).
+     *
+     * @param strategyUid strategy uid
+     * @param currency    currency
+     * @return daily gains
+     */
+    @Query("select g from DailyGain g where g.strategy.uid = :strategyUid and g.currency = :currency order by g.day")
+    List<DailyGain> findByStrategyUidAndCurrency(@Param("strategyUid") long strategyUid, @Param("currency") String currency);
+
+    /**
+     * Find the gain of a strategy in a currency on a day.
+     *
+     * @param strategyUid strategy uid
+     * @param currency    currency
+     * @param day         day
+     * @return daily gain
+     */
+    @Query("select g from DailyGain g where g.strategy.uid = :strategyUid and g.currency = :currency and g.day = :day")
+    Optional<DailyGain> findByStrategyUidAndCurrencyAndDay(@Param("strategyUid") long strategyUid,
+                                                           @Param("currency") String currency,
+                                                           @Param("day") LocalDate day);
+
+}
@@ -0,0 +1,44 @@
+package tide.trader.bot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tide.trader.bot.domain.Gain;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link Gain} repository.
+ */
+@Repository
+public interface GainRepository extends JpaRepository<Gain, Long> {
+
+    /**
+     * Retrieve all gains (sorted by uid).
+     *
+     * @return gains
+     */
+    List<Gain> findByOrderByUid();
+
+    /**
+     * Retrieve the gains of a strategy (sorted by uid).
+     *
+     * @param strategyUid strategy uid
+     * @return gains
+     */
+    @Query("select g from Gain g where g.strategy.uid = :strategyUid order by g.uid")
+    List<Gain> findByStrategyUid(@Param("strategyUid") long strategyUid);
+
+    /**
+     * Find the gain of a strategy in a currency.
+     *
+     * @param strategyUid strategy uid
+     * @param currency    currency
+     * @return gain
+     */
+    @Query("select g from Gain g where g.strategy.uid = :strategyUid and g.currency = :currency")
+    Optional<Gain> findByStrategyUidAndCurrency(@Param("strategyUid") long strategyUid, @Param("currency") String currency);
+
+}
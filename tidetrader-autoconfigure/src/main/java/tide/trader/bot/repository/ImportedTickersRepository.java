@@ -1,10 +1,14 @@
 package tide.trader.bot.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tide.trader.bot.domain.ImportedTicker;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 
 /**
@@ -28,4 +32,53 @@ public interface ImportedTickersRepository extends JpaRepository<ImportedTicker,
      */
     List<ImportedTicker> findByCurrencyPairOrderByTimestampAsc(String currencyPair);
 
+    /**
+     * Returns the first imported tickers of a currency pair between two dates (ordered by timestamp).
+     *
+     * @param currencyPair currency pair
+     * @param startDate    start date (included)
+     * @param endDate      end date (excluded)
+     * @param pageable     page requested (limit)
+     * @return imported tickers
+     */
+    @Query("select t from ImportedTicker t where t.currencyPair = :currencyPair"
+            + " and t.timestamp >= :startDate and t.timestamp < :endDate order by t.timestamp, t.uid")
+    List<ImportedTicker> findByCurrencyPairAndTimestampBetween(@Param("currencyPair") String currencyPair,
+                                                               @Param("startDate") ZonedDateTime startDate,
+                                                               @Param("endDate") ZonedDateTime endDate,
+                                                               Pageable pageable);
+
+    /**
+     * Returns the imported tickers of a currency pair following a ticker, before a date (ordered by timestamp).
+     *
+     * @param currencyPair currency pair
+     * @param timestamp    timestamp of the ticker
+     * @param uid          uid of the ticker
+     * @param endDate      end date (excluded)
+     * @param pageable     page requested (limit)
+     * @return imported tickers
+     */
+    @Query("select t from ImportedTicker t where t.currencyPair = :currencyPair"
+            + " and t.timestamp >= :timestamp and (t.timestamp > :timestamp or t.uid > :uid) and t.timestamp < :endDate"
+            + " order by t.timestamp, t.uid")
+    List<ImportedTicker> findByCurrencyPairAfter(@Param("currencyPair") String currencyPair,
+                                                 @Param("timestamp") ZonedDateTime timestamp,
+                                                 @Param("uid") Long uid,
+                                                 @Param("endDate") ZonedDateTime endDate,
+                                                 Pageable pageable);
+
+    /**
+     * Returns the last imported tickers of a currency pair before a date (ordered by timestamp descending).
+     *
+     * @param currencyPair currency pair
+     * @param endDate      end date (excluded)
+     * @param pageable     page requested (limit)
+     * @return imported tickers
+     */
+    @Query("select t from ImportedTicker t where t.currencyPair = :currencyPair and t.timestamp < :endDate"
+            + " order by t.timestamp desc, t.uid desc")
+    List<ImportedTicker> findLastByCurrencyPairBefore(@Param("currencyPair") String currencyPair,
+                                                      @Param("endDate") ZonedDateTime endDate,
+                                                      Pageable pageable);
+
 }
@@ -1,5 +1,8 @@
 package tide.trader.bot.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -11,9 +14,13 @@ import tide.trader.bot.domain.Order;
 import tide.trader.bot.dto.trade.OrderStatusDTO;
 
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
+
 /**
  * {@link Order} repository.
  */
@@ -28,12 +35,22 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
      */
     Optional<Order> findByOrderId(String orderId);
 
+    /**
+     * Find orders by their order ids.
+     *
+     * @param orderIds order ids
+     * @return orders
+     */
+    @EntityGraph(value = Order.TRADES_GRAPH, type = LOAD)
+    List<Order> findByOrderIdIn(Collection<String> orderIds);
+
     /**
      * Find orders with a specific status.
      *
      * @param orderStatusDTO order status
      * @return orders
      */
+    @EntityGraph(value = Order.TRADES_GRAPH, type = LOAD)
     List<Order> findByStatus(OrderStatusDTO orderStatusDTO);
 
     /**
@@ -51,6 +68,53 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
      */
     List<Order> findByOrderByTimestampAsc();
 
+    /**
+     * Retrieve the orders of a strategy (sorted by timestamp).
+     *
+     * @param strategyUid strategy uid
+     * @return orders
+     */
+    @EntityGraph(value = Order.TRADES_GRAPH, type = LOAD)
+    @Query("select o from Order o where o.strategy.uid = :strategyUid order by o.timestamp")
+    List<Order> findByStrategyUid(@Param("strategyUid") Long strategyUid);
+
+    /**
+     * Retrieve the orders of a strategy having one of the statuses given (sorted by timestamp).
+     *
+     * @param strategyUid strategy uid
+     * @param statuses    statuses
+     * @return orders
+     */
+    @EntityGraph(value = Order.TRADES_GRAPH, type = LOAD)
+    @Query("select o from Order o where o.strategy.uid = :strategyUid and o.status in :statuses order by o.timestamp")
+    List<Order> findByStrategyUidAndStatusIn(@Param("strategyUid") Long strategyUid,
+                                             @Param("statuses") Collection<OrderStatusDTO> statuses);
+
+    /**
+     * Retrieve a page of the orders created by a strategy between two dates (sorted by timestamp).
+     *
+     * @param strategyUid strategy uid
+     * @param startDate   start date (included)
+     * @param endDate     end date (excluded)
+     * @param pageable    page requested
+     * @return orders
+     */
+    @Query("select o from Order o where o.strategy.uid = :strategyUid and o.timestamp >= :startDate and o.timestamp < :endDate order by o.timestamp")
+    Page<Order> findByStrategyUidAndTimestampBetween(@Param("strategyUid") Long strategyUid,
+                                                     @Param("startDate") ZonedDateTime startDate,
+                                                     @Param("endDate") ZonedDateTime endDate,
+                                                     Pageable pageable);
+
+    /**
+     * Find an order of a strategy by its order id.
+     *
+     * @param strategyUid strategy uid
+     * @param orderId     order id
+     * @return order
+     */
+    @Query("select o from Order o where o.strategy.uid = :strategyUid and o.orderId = :orderId")
+    Optional<Order> findByStrategyUidAndOrderId(@Param("strategyUid") Long strategyUid, @Param("orderId") String orderId);
+
     /**
      * Update order amount.
      * WARNING: Only used by the dry mode, please do not use it.
@@ -71,4 +135,31 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     @Query("SELECT p.orderId FROM Order p where p.status = :status")
     List<String> findOrderIdByStatus(@Param("status") OrderStatusDTO status);
 
+    /**
+     * Returns true if orders or trades may still be updated by the exchange: orders that are not in a final status and
+     * recent filled orders whose trades are not all retrieved yet.
+     * Only filled orders created after filledAfter are checked, so the query cost doesn't grow with the order history.
+     *
+     * @param finalStatuses final statuses
+     * @param filledStatus  filled status
+     * @param filledAfter   filled orders created before this date are not checked anymore
+     * @return true if some orders are pending
+     */
+    @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END FROM Order o"
+            + " WHERE o.status NOT IN :finalStatuses"
+            + " OR (o.status = :filledStatus AND o.timestamp > :filledAfter"
+            + " AND o.amount.value > (SELECT COALESCE(SUM(t.amount.value), 0) FROM Trade t WHERE t.order = o))")
+    boolean existsPendingOrder(@Param("finalStatuses") Collection<OrderStatusDTO> finalStatuses,
+                               @Param("filledStatus") OrderStatusDTO filledStatus,
+                               @Param("filledAfter") ZonedDateTime filledAfter);
+
+    /**
+     * Retrieve, among the order ids passed as a parameter, the ones existing in database.
+     *
+     * @param orderIds order ids
+     * @return order ids existing in database
+     */
+    @Query("SELECT o.orderId FROM Order o where o.orderId in :orderIds")
+    List<String> findOrderIdByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+
 }
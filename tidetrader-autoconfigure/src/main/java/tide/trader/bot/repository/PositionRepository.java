@@ -1,5 +1,6 @@
 package tide.trader.bot.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -14,11 +15,13 @@ import tide.trader.bot.dto.position.PositionStatusDTO;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
+
 /**
  * {@link Position} repository.
  */
 @Repository
-public interface PositionRepository extends JpaRepository<Position, Long>, JpaSpecificationExecutor<Position> {
+public interface PositionRepository extends JpaRepository<Position, Long>, JpaSpecificationExecutor<Position>, PositionRepositoryCustom {
 
     /**
      * Find a position by its position id.
@@ -26,6 +29,7 @@ public interface PositionRepository extends JpaRepository<Position, Long>, JpaSp
      * @param positionId position id
      * @return positions
      */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
     Optional<Position> findByPositionId(long positionId);
 
     /**
@@ -33,6 +37,7 @@ public interface PositionRepository extends JpaRepository<Position, Long>, JpaSp
      *
      * @return positions
      */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
     List<Position> findByOrderByUid();
 
     /**
@@ -40,23 +45,45 @@ public interface PositionRepository extends JpaRepository<Position, Long>, JpaSp
      * @param strategyUid
      * @return
      */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
     @Query("select p from Position p where p.strategy.uid = :strategyUid order by p.uid")
     List<Position> findByStrategyUid(@Param("strategyUid") Long strategyUid);
 
+    /**
+     * Retrieve the positions of a strategy with a specific status (sorted by uid).
+     *
+     * @param strategyUid strategy uid
+     * @param status      status
+     * @return positions
+     */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
+    @Query("select p from Position p where p.strategy.uid = :strategyUid and p.status = :status order by p.uid")
+    List<Position> findByStrategyUidAndStatus(@Param("strategyUid") Long strategyUid, @Param("status") PositionStatusDTO status);
+
     /**
      * Find positions with a specific status.
      *
      * @param status status
      * @return positions
      */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
     List<Position> findByStatus(PositionStatusDTO status);
 
+    /**
+     * Returns true if positions have a specific status.
+     *
+     * @param status status
+     * @return true if a position has this status
+     */
+    boolean existsByStatus(PositionStatusDTO status);
+
     /**
      * Find positions with a status different from the one passed as a parameter.
      *
      * @param status status
      * @return positions
      */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
     List<Position> findByStatusNot(PositionStatusDTO status);
 
     /**
@@ -65,6 +92,7 @@ public interface PositionRepository extends JpaRepository<Position, Long>, JpaSp
      * @param status list of status
      * @return positions
      */
+    @EntityGraph(value = Position.ORDERS_GRAPH, type = LOAD)
     List<Position> findByStatusIn(List<PositionStatusDTO> status);
 
     /**
@@ -0,0 +1,28 @@
+package tide.trader.bot.repository;
+
+import tide.trader.bot.domain.Position;
+
+/**
+ * {@link Position} repository - single statement writes (see {@link PositionRepositoryCustomImpl}).
+ */
+public interface PositionRepositoryCustom {
+
+    /**
+     * Inserts a new position with one statement (its orders must already be saved).
+     *
+     * @param position position (its uid is ignored)
+     * @return uid generated for the position
+     */
+    long insert(Position position);
+
+    /**
+     * Updates the fields of a position that change during its life (status, closing order, opening order filled values,
+     * gain prices and exit reason) with one statement.
+     * Rules, auto close and force closing have their own updates in {@link PositionRepository}.
+     *
+     * @param position position
+     * @return true if the position was updated
+     */
+    boolean updateLifecycle(Position position);
+
+}
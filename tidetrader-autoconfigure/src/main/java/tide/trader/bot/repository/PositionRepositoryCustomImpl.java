@@ -0,0 +1,162 @@
+package tide.trader.bot.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import tide.trader.bot.domain.Order;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.util.jpa.CurrencyAmount;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@link PositionRepositoryCustom} implementation.
+ * Positions are created and updated with JDBC statements instead of entity merges: a merge reads the position (with its
+ * orders and trades) before writing it, and a new position can't be persisted with the orders it cascades to, as they
+ * are already saved by the trade service.
+ */
+public class PositionRepositoryCustomImpl implements PositionRepositoryCustom {
+
+    /** Statement inserting a position. */
+    private static final String INSERT_POSITION = "INSERT INTO POSITIONS"
+            + " (POSITION_ID, TYPE, FK_STRATEGY_UID, CURRENCY_PAIR, BASE_CURRENCY_PRECISION, QUOTE_CURRENCY_PRECISION,"
+            + " AMOUNT_VALUE, AMOUNT_CURRENCY,"
+            + " RULES_STOP_GAIN_PERCENTAGE, RULES_STOP_GAIN_BOUNCE_PERCENTAGE, RULES_STOP_LOSS_PERCENTAGE,"
+            + " STATUS, AUTO_CLOSE, FORCE_CLOSING, FK_OPENING_ORDER_UID, FK_CLOSING_ORDER_UID,"
+            + " OPENING_ORDER_FILLED_AMOUNT, OPENING_ORDER_FILLED_VALUE, EXIT_REASON, CREATED_ON, UPDATED_ON)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Statement updating the lifecycle of a position. */
+    private static final String UPDATE_LIFECYCLE = "UPDATE POSITIONS SET"
+            + " STATUS = ?, FK_CLOSING_ORDER_UID = ?,"
+            + " OPENING_ORDER_FILLED_AMOUNT = ?, OPENING_ORDER_FILLED_VALUE = ?,"
+            + " LOWEST_GAIN_PRICE_VALUE = ?, LOWEST_GAIN_PRICE_CURRENCY = ?,"
+            + " HIGHEST_GAIN_PRICE_VALUE = ?, HIGHEST_GAIN_PRICE_CURRENCY = ?,"
+            + " LATEST_GAIN_PRICE_VALUE = ?, LATEST_GAIN_PRICE_CURRENCY = ?,"
+            + " EXIT_REASON = ?, UPDATED_ON = ?"
+            + " WHERE UID = ?";
+
+    /** JDBC template. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Clock dating position creations and updates. */
+    private final Clock clock;
+
+    /**
+     * Constructor.
+     *
+     * @param newJdbcTemplate JDBC template
+     */
+    @Autowired
+    public PositionRepositoryCustomImpl(final JdbcTemplate newJdbcTemplate) {
+        this(newJdbcTemplate, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param newJdbcTemplate JDBC template
+     * @param newClock        clock dating position creations and updates
+     */
+    public PositionRepositoryCustomImpl(final JdbcTemplate newJdbcTemplate, final Clock newClock) {
+        this.jdbcTemplate = newJdbcTemplate;
+        this.clock = newClock;
+    }
+
+    @Override
+    public long insert(final Position position) {
+        final ZonedDateTime now = ZonedDateTime.now(clock);
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(INSERT_POSITION, Statement.RETURN_GENERATED_KEYS);
+            int i = 0;
+            statement.setObject(++i, position.getPositionId(), Types.BIGINT);
+            statement.setString(++i, position.getType() == null ? null : position.getType().toString());
+            statement.setObject(++i, position.getStrategy() == null ? null : position.getStrategy().getUid(), Types.BIGINT);
+            statement.setString(++i, position.getCurrencyPair());
+            statement.setObject(++i, position.getBaseCurrencyPrecision(), Types.INTEGER);
+            statement.setObject(++i, position.getQuoteCurrencyPrecision(), Types.INTEGER);
+            i = setCurrencyAmount(statement, i, position.getAmount());
+            statement.setObject(++i, position.getStopGainPercentageRule(), Types.FLOAT);
+            statement.setObject(++i, position.getStopGainBouncePercentageRule(), Types.FLOAT);
+            statement.setObject(++i, position.getStopLossPercentageRule(), Types.FLOAT);
+            statement.setString(++i, position.getStatus() == null ? null : position.getStatus().toString());
+            statement.setBoolean(++i, position.isAutoClose());
+            statement.setBoolean(++i, position.isForceClosing());
+            statement.setObject(++i, getUid(position.getOpeningOrder()), Types.BIGINT);
+            statement.setObject(++i, getUid(position.getClosingOrder()), Types.BIGINT);
+            statement.setBigDecimal(++i, position.getOpeningOrderFilledAmount());
+            statement.setBigDecimal(++i, position.getOpeningOrderFilledValue());
+            statement.setString(++i, position.getExitReason());
+            statement.setObject(++i, now.toOffsetDateTime());
+            statement.setObject(++i, now.toOffsetDateTime());
+            return statement;
+        }, keyHolder);
+        final long uid = Objects.requireNonNull(keyHolder.getKey(), "No uid generated for the position").longValue();
+        position.setUid(uid);
+        position.setCreatedOn(now);
+        position.setUpdatedOn(now);
+        return uid;
+    }
+
+    @Override
+    public boolean updateLifecycle(final Position position) {
+        final ZonedDateTime now = ZonedDateTime.now(clock);
+        final int updated = jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(UPDATE_LIFECYCLE);
+            int i = 0;
+            statement.setString(++i, position.getStatus() == null ? null : position.getStatus().toString());
+            statement.setObject(++i, getUid(position.getClosingOrder()), Types.BIGINT);
+            statement.setBigDecimal(++i, position.getOpeningOrderFilledAmount());
+            statement.setBigDecimal(++i, position.getOpeningOrderFilledValue());
+            i = setCurrencyAmount(statement, i, position.getLowestGainPrice());
+            i = setCurrencyAmount(statement, i, position.getHighestGainPrice());
+            i = setCurrencyAmount(statement, i, position.getLatestGainPrice());
+            statement.setString(++i, position.getExitReason());
+            statement.setObject(++i, now.toOffsetDateTime());
+            statement.setLong(++i, position.getUid());
+            return statement;
+        });
+        if (updated == 1) {
+            position.setUpdatedOn(now);
+        }
+        return updated == 1;
+    }
+
+    /**
+     * Sets a currency amount stored in two columns (value and currency).
+     *
+     * @param statement      statement
+     * @param index          index of the last parameter set
+     * @param currencyAmount currency amount (can be null)
+     * @return index of the last parameter set
+     * @throws SQLException SQL exception
+     */
+    private static int setCurrencyAmount(final PreparedStatement statement,
+                                         final int index,
+                                         final CurrencyAmount currencyAmount) throws SQLException {
+        final Optional<CurrencyAmount> amount = Optional.ofNullable(currencyAmount);
+        statement.setBigDecimal(index + 1, amount.map(CurrencyAmount::getValue).orElse(null));
+        statement.setString(index + 2, amount.map(CurrencyAmount::getCurrency).orElse(null));
+        return index + 2;
+    }
+
+    /**
+     * Returns the uid of an order.
+     *
+     * @param order order (can be null)
+     * @return uid or null
+     */
+    private static Long getUid(final Order order) {
+        return order == null ? null : order.getUid();
+    }
+
+}
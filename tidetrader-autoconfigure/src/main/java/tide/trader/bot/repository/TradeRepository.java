@@ -1,13 +1,22 @@
 package tide.trader.bot.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tide.trader.bot.domain.Trade;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
+
 /**
  * {@link Trade} repository.
  */
@@ -22,6 +31,15 @@ public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecific
      */
     Optional<Trade> findByTradeId(String tradeId);
 
+    /**
+     * Find trades by their trade ids.
+     *
+     * @param tradeIds trade ids
+     * @return trades
+     */
+    @EntityGraph(attributePaths = {"order", "order.strategy"}, type = LOAD)
+    List<Trade> findByTradeIdIn(Collection<String> tradeIds);
+
     /**
      * Retrieve all trades (sorted by timestamp).
      *
@@ -29,4 +47,40 @@ public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecific
      */
     List<Trade> findByOrderByTimestampAsc();
 
+    /**
+     * Retrieve the trades of a strategy (sorted by timestamp).
+     *
+     * @param strategyUid strategy uid
+     * @return trades
+     */
+    @EntityGraph(attributePaths = {"order", "order.strategy"}, type = LOAD)
+    @Query("select t from Trade t where t.order.strategy.uid = :strategyUid order by t.timestamp")
+    List<Trade> findByStrategyUid(@Param("strategyUid") Long strategyUid);
+
+    /**
+     * Retrieve a page of the trades of a strategy made between two dates (sorted by timestamp).
+     *
+     * @param strategyUid strategy uid
+     * @param startDate   start date (included)
+     * @param endDate     end date (excluded)
+     * @param pageable    page requested
+     * @return trades
+     */
+    @EntityGraph(attributePaths = {"order", "order.strategy"}, type = LOAD)
+    @Query("select t from Trade t where t.order.strategy.uid = :strategyUid and t.timestamp >= :startDate and t.timestamp < :endDate order by t.timestamp")
+    Page<Trade> findByStrategyUidAndTimestampBetween(@Param("strategyUid") Long strategyUid,
+                                                     @Param("startDate") ZonedDateTime startDate,
+                                                     @Param("endDate") ZonedDateTime endDate,
+                                                     Pageable pageable);
+
+    /**
+     * Find a trade of a strategy by its trade id.
+     *
+     * @param strategyUid strategy uid
+     * @param tradeId     trade id
+     * @return trade
+     */
+    @Query("select t from Trade t where t.order.strategy.uid = :strategyUid and t.tradeId = :tradeId")
+    Optional<Trade> findByStrategyUidAndTradeId(@Param("strategyUid") Long strategyUid, @Param("tradeId") String tradeId);
+
 }
@@ -8,6 +8,7 @@ import tide.trader.bot.util.ta4j.DurationMaximumBar;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Service getting information about market prices.
@@ -30,6 +31,24 @@ public interface MarketService {
      */
     Set<TickerDTO> getTickers(Set<CurrencyPairDTO> currencyPairs);
 
+    /**
+     * Subscribe to the tickers pushed by the exchange, if the exchange supports streaming.
+     * The exchange implementation is in charge of reconnecting and sending a snapshot after each reconnection.
+     *
+     * @param currencyPairs currency pairs
+     * @param consumer      called with each ticker received
+     * @return true if tickers are now streamed, false if they still have to be polled
+     */
+    default boolean subscribeTickers(Set<CurrencyPairDTO> currencyPairs, Consumer<TickerDTO> consumer) {
+        return false;
+    }
+
+    /**
+     * Close the ticker stream and the history tickers streams (if any), no reconnection will be attempted afterwards.
+     */
+    default void unsubscribeTickers() {
+    }
+
     /**
      * Get history tickers for several currency pairs.
      * @param currencyPair
@@ -42,8 +61,8 @@ public interface MarketService {
     }
 
     /**
-     * Retrieve tickers information from cache
-     * @return accounts
+     * Retrieve tickers information from cache (the full market, refreshed at a low frequency)
+     * @return tickers
      */
     default Set<TickerDTO> getTickersFromCache(){
         return Collections.emptySet();
@@ -2,9 +2,11 @@ package tide.trader.bot.service;
 
 import lombok.NonNull;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.queue.CircularFifoQueue;
 import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.instrument.Instrument;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.StreamingMarketDataService;
 import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
 import org.knowm.xchange.service.marketdata.params.DefaultCancelOrderByClientOrderIdParams;
 import org.knowm.xchange.service.marketdata.params.PeriodParams;
@@ -14,15 +16,20 @@ import tide.trader.bot.util.base.Base;
 import tide.trader.bot.util.base.service.BaseService;
 import tide.trader.bot.util.java.ZonedDateTimeBetween;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -33,14 +40,26 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
     /** XChange service. */
     private final MarketDataService marketDataService;
 
-    /** Cached reply from Exchange. */
-    private final List<Ticker> cachedReply = new ArrayList<>();
+    /** XChange streaming service (null if the exchange doesn't support streaming). */
+    private final StreamingMarketDataService streamingMarketDataService;
+
+    /** Delay between two full market refreshes of the cached reply (only done when the cache is read). */
+    private static final Duration FULL_MARKET_REFRESH_DELAY = Duration.ofMinutes(1);
+
+    /** Cached reply from Exchange - the full market, updated with every ticker polled or streamed (by instrument). */
+    private final Map<Instrument, Ticker> cachedReply = new LinkedHashMap<>();
+
+    /** Last full market refresh of the cached reply (ms). */
+    private volatile long lastFullMarketRefresh;
 
     /** Cached max ticker. */
     private final static int MAX_HISTORY_TICKERS = 5000;
 
-    /** Cached ticker from Exchange. */
-    private final Map<String, CircularFifoQueue<TickerDTO>> cachedHistoryTickers = new ConcurrentHashMap<>();
+    /** Cached history tickers from Exchange (by currency pair and duration). */
+    private final Map<String, TickerHistory> cachedHistoryTickers = new ConcurrentHashMap<>();
+
+    /** History tickers (by currency pair and duration) whose klines stream subscription was already attempted. */
+    private final Set<String> streamedHistoryTickers = ConcurrentHashMap.newKeySet();
 
     /** time record **/
     private final String FILE_TIME = ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHH"));
@@ -52,8 +71,22 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
      * @param newMarketDataService market data service
      */
     public MarketServiceXChangeImplementation(final long rate, final MarketDataService newMarketDataService) {
+        this(rate, newMarketDataService, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate                          rate in ms
+     * @param newMarketDataService          market data service
+     * @param newStreamingMarketDataService streaming market data service
+     */
+    public MarketServiceXChangeImplementation(final long rate,
+                                              final MarketDataService newMarketDataService,
+                                              final StreamingMarketDataService newStreamingMarketDataService) {
         super(rate);
         this.marketDataService = newMarketDataService;
+        this.streamingMarketDataService = newStreamingMarketDataService;
     }
 
     @Override
@@ -92,8 +125,7 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
 
             logger.debug("Retrieving ticker for {} currency pair", currencyPairs.size());
             final List<Ticker> tickers = marketDataService.getTicker(params);
-            cachedReply.clear();
-            cachedReply.addAll(tickers.stream().filter(ticker -> ticker.getLast().compareTo(BigDecimal.ZERO) > 0).collect(Collectors.toList()));
+            cacheReply(tickers);
             return tickers.stream()
                     .filter(ticker -> CollectionUtils.containsAny(params.getCurrencyPairs(), ticker.getInstrument()))
                     .map(Base.TICKER_MAPPER::mapToTickerDTO)
@@ -107,8 +139,50 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
         }
     }
 
+    @Override
+    public boolean subscribeTickers(@NonNull final Set<CurrencyPairDTO> currencyPairs, @NonNull final Consumer<TickerDTO> consumer) {
+        if (streamingMarketDataService == null) {
+            return false;
+        }
+        try {
+            streamingMarketDataService.subscribeTickers(currencyPairs.stream()
+                            .map(Base.CURRENCY_MAPPER::mapToCurrencyPair)
+                            .collect(Collectors.toList()),
+                    ticker -> {
+                        cacheReply(List.of(ticker));
+                        consumer.accept(Base.TICKER_MAPPER.mapToTickerDTO(ticker));
+                    });
+            logger.info("Streaming tickers for {} currency pairs", currencyPairs.size());
+            return true;
+        } catch (IOException | NotYetImplementedForExchangeException e) {
+            logger.warn("Impossible to stream tickers, falling back to polling: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void unsubscribeTickers() {
+        if (streamingMarketDataService != null) {
+            streamingMarketDataService.disconnect();
+        }
+    }
+
     @Override
     public List<TickerDTO> getHistoryTickers(CurrencyPairDTO currencyPair, Duration duration, ZonedDateTimeBetween between) {
+        final String key = currencyPair + "_" + duration;
+        final TickerHistory history = cachedHistoryTickers.computeIfAbsent(key, value -> new TickerHistory(MAX_HISTORY_TICKERS));
+        if (streamingMarketDataService != null && streamedHistoryTickers.add(key)) {
+            subscribeHistoryTickers(currencyPair, duration, history);
+        }
+
+        // If every ticker of the period is already cached, the exchange is not called.
+        final List<TickerDTO> cachedTickers = history.get(between.getStartToMilli(), between.getEndToMilli());
+        final long expectedTickers = (between.getEndToMilli() - between.getStartToMilli() + duration.toMillis() - 1) / duration.toMillis();
+        if (expectedTickers > 0 && cachedTickers.size() == expectedTickers) {
+            logger.debug("Retrieving history ticker for {} currency pair from cache", currencyPair);
+            return cachedTickers;
+        }
+
         try {
             // We create the currency pairs parameter required by some exchanges.
             PeriodParams params = new DefaultCancelOrderByClientOrderIdParams(Base.CURRENCY_MAPPER.mapToCurrencyPair(currencyPair), duration.toMillis(), between.getStartToMilli(), between.getEndToMilli()-1);
@@ -124,10 +198,10 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
                     .peek(t -> logger.debug(" - HisNew ticker: {}", t))
                     .collect(Collectors.toList());
 
-            CircularFifoQueue<TickerDTO> cachedQueue = cachedHistoryTickers.computeIfAbsent(currencyPair + "_" + duration, value -> new CircularFifoQueue<>(MAX_HISTORY_TICKERS));
-            tickers.stream().filter(t -> !cachedQueue.contains(t)).forEach(cachedQueue::add);
+            // A ticker with the same timestamp as a cached one replaces it.
+            tickers.forEach(history::add);
             //write in local file
-            historyTickersToLocalFile(currencyPair, duration);
+            historyTickersToLocalFile(currencyPair, duration, history);
             return tickers;
 
         } catch (IOException e) {
@@ -138,47 +212,132 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
         }
     }
 
+    /**
+     * Subscribe to the klines pushed by the exchange, if the exchange supports streaming: each kline received is added
+     * to the cached history tickers (the kline being built replaces the previous update of the same period), so the
+     * bars of the following periods are read from cache instead of being requested to the exchange.
+     *
+     * @param currencyPair currency pair
+     * @param duration     duration
+     * @param history      cached history tickers
+     */
+    private void subscribeHistoryTickers(final CurrencyPairDTO currencyPair, final Duration duration, final TickerHistory history) {
+        try {
+            streamingMarketDataService.subscribeKlines(List.of(Base.CURRENCY_MAPPER.mapToCurrencyPair(currencyPair)),
+                    duration.toMillis(),
+                    kline -> history.add(Base.TICKER_MAPPER.mapToTickerDTO(kline)));
+            logger.info("Streaming {} history tickers for {} currency pair", duration, currencyPair);
+        } catch (IOException | NotYetImplementedForExchangeException | IllegalArgumentException e) {
+            logger.warn("Impossible to stream {} history tickers for {}, falling back to polling: {}", duration, currencyPair, e.getMessage());
+        }
+    }
+
     @Override
     public Set<TickerDTO> getTickersFromCache() {
-        return cachedReply.stream()
-                .map(Base.TICKER_MAPPER::mapToTickerDTO)
-                .peek(t -> logger.debug(" - New ticker: {}", t))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+        // Only the requested currency pairs are polled or streamed: the full market is refreshed here, at a low frequency.
+        if (System.currentTimeMillis() - lastFullMarketRefresh >= FULL_MARKET_REFRESH_DELAY.toMillis()) {
+            refreshFullMarket();
+        }
+        synchronized (cachedReply) {
+            return cachedReply.values().stream()
+                    .map(Base.TICKER_MAPPER::mapToTickerDTO)
+                    .peek(t -> logger.debug(" - New ticker: {}", t))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+    }
+
+    /**
+     * Retrieve the tickers of every currency pair of the exchange and cache them.
+     */
+    private synchronized void refreshFullMarket() {
+        if (System.currentTimeMillis() - lastFullMarketRefresh < FULL_MARKET_REFRESH_DELAY.toMillis()) {
+            return;
+        }
+        try {
+            // No currency pair means every currency pair.
+            CurrencyPairsParam params = Collections::emptyList;
+
+            // Consume a token from the token bucket.
+            // If a token is not available this method will block until the refill adds one to the bucket.
+            bucket.asBlocking().consume(1);
+
+            logger.debug("Retrieving tickers of the full market");
+            final List<Ticker> tickers = marketDataService.getTicker(params);
+            synchronized (cachedReply) {
+                cachedReply.clear();
+            }
+            cacheReply(tickers);
+        } catch (IOException e) {
+            logger.error("Error retrieving full market tickers: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lastFullMarketRefresh = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Cache tickers received (tickers without last price are ignored).
+     *
+     * @param tickers tickers
+     */
+    private void cacheReply(final List<Ticker> tickers) {
+        synchronized (cachedReply) {
+            tickers.stream()
+                    .filter(ticker -> ticker.getLast() != null && ticker.getLast().compareTo(BigDecimal.ZERO) > 0)
+                    .forEach(ticker -> cachedReply.put(ticker.getInstrument(), ticker));
+        }
     }
 
     @Override
     public List<TickerDTO> getHistoryTickersFromCache(CurrencyPairDTO currencyPair, Duration duration) {
-        return cachedHistoryTickers.putIfAbsent(currencyPair + "_" + duration, new CircularFifoQueue<>(MAX_HISTORY_TICKERS)).stream().collect(Collectors.toList());
+        final TickerHistory history = cachedHistoryTickers.get(currencyPair + "_" + duration);
+        if (history == null) {
+            return Collections.emptyList();
+        }
+        return history.getAll();
     }
 
     /**
-     * Save data locally
+     * Save data locally (only new tickers are appended to the file).
+     *
+     * @param currencyPair currency pair
+     * @param duration     duration
+     * @param history      cached history tickers
      */
-    private void historyTickersToLocalFile(CurrencyPairDTO currencyPair, Duration duration) {
-        if(logger.isDebugEnabled()) {
-            FileOutputStream outputStream = null;
+    private void historyTickersToLocalFile(CurrencyPairDTO currencyPair, Duration duration, TickerHistory history) {
+        if (logger.isDebugEnabled()) {
+            final List<TickerDTO> tickers = history.getTickersToPersist();
+            if (tickers.isEmpty()) {
+                return;
+            }
+            final Path file = Paths.get(System.getProperty("user.dir"), "data",
+                    "tickers-" + duration + "-" + currencyPair.getBaseCurrency() + "-" + currencyPair.getQuoteCurrency() + "_" + FILE_TIME + ".tsv");
             try {
-                File directory = new File(System.getProperty("user.dir") + "/data/");
-                directory.mkdir();
-
-                File file = new File(directory.getAbsoluteFile() + "/tickers-" + duration + "-" + currencyPair.getBaseCurrency() + "-" + currencyPair.getQuoteCurrency() + "_" + FILE_TIME + ".tsv");
-                if(!directory.exists()) {
-                    file.createNewFile();
+                Files.createDirectories(file.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (TickerDTO ticker : tickers) {
+                        writer.write(ticker.getTimestamp().toEpochSecond() + "\t" + toPlainString(ticker.getOpen()) + "\t" + toPlainString(ticker.getLast()) + "\t" + toPlainString(ticker.getHigh()) + "\t" + toPlainString(ticker.getLow()) + "\t" + toPlainString(ticker.getVolume()) + "\t" + toPlainString(ticker.getQuoteVolume()));
+                        writer.newLine();
+                    }
                 }
-                outputStream = new FileOutputStream(file);//形参里面可追加true参数，表示在原有文件末尾追加信息
-                String data = getHistoryTickersFromCache(currencyPair, duration).stream().map(ticker -> ticker.getTimestamp().toEpochSecond() + "\t" + ticker.getOpen().stripTrailingZeros().toPlainString() + "\t" + ticker.getLast().stripTrailingZeros().toPlainString() + "\t" + ticker.getHigh().stripTrailingZeros().toPlainString() + "\t" + ticker.getLow().stripTrailingZeros().toPlainString() + "\t" + ticker.getVolume().stripTrailingZeros().toPlainString() + "\t" + ticker.getQuoteVolume().stripTrailingZeros().toPlainString()).collect(Collectors.joining("\n"));
-                outputStream.write(data.getBytes("utf-8"));
             } catch (IOException e) {
                 logger.error(e.getMessage(), e);
-            } finally {
-                try {
-                    outputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
             }
+        }
+    }
 
+    /**
+     * Returns a value without trailing zeros (empty if null).
+     *
+     * @param value value
+     * @return value
+     */
+    private static String toPlainString(final BigDecimal value) {
+        if (value == null) {
+            return "";
         }
+        return value.stripTrailingZeros().toPlainString();
     }
 
 }
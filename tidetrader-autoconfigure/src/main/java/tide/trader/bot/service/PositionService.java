@@ -13,6 +13,7 @@ import tide.trader.bot.strategy.internal.CassandreStrategy;
 import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -104,6 +105,14 @@ public interface PositionService {
      */
     Set<PositionDTO> getPositions();
 
+    /**
+     * Get the closed positions of a strategy, archived ones included.
+     *
+     * @param strategyUid strategy uid (0 for all strategies)
+     * @return closed positions (archived ones first)
+     */
+    Set<PositionDTO> getClosedPositions(long strategyUid);
+
     /**
      * Returns the amounts locked by each position.
      *
@@ -127,4 +136,18 @@ public interface PositionService {
      */
     Map<CurrencyDTO, GainDTO> getGains(long strategyUid);
 
+    /**
+     * Return the gains made by the closed positions of a strategy in a currency, by day the positions were opened.
+     *
+     * @param strategyUid strategy uid
+     * @param currency    currency
+     * @return gains by day (sorted by day)
+     */
+    Map<LocalDate, BigDecimal> getDailyGains(long strategyUid, CurrencyDTO currency);
+
+    /**
+     * Rebuilds the gains from all closed positions (they are otherwise updated when each position is closed).
+     */
+    void rebuildGains();
+
 }
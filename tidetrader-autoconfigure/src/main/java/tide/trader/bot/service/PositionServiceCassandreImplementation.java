@@ -2,6 +2,8 @@ package tide.trader.bot.service;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import tide.trader.bot.batch.GainLedger;
+import tide.trader.bot.batch.PositionArchive;
 import tide.trader.bot.batch.PositionFlux;
 import tide.trader.bot.domain.Position;
 import tide.trader.bot.dto.market.TickerDTO;
@@ -9,9 +11,7 @@ import tide.trader.bot.dto.position.PositionCreationResultDTO;
 import tide.trader.bot.dto.position.PositionDTO;
 import tide.trader.bot.dto.position.PositionRulesDTO;
 import tide.trader.bot.dto.position.PositionTypeDTO;
-import tide.trader.bot.dto.strategy.StrategyDomainDTO;
 import tide.trader.bot.dto.trade.OrderCreationResultDTO;
-import tide.trader.bot.dto.trade.TradeDTO;
 import tide.trader.bot.dto.util.CurrencyAmountDTO;
 import tide.trader.bot.dto.util.CurrencyDTO;
 import tide.trader.bot.dto.util.CurrencyPairDTO;
@@ -21,15 +21,12 @@ import tide.trader.bot.strategy.internal.CassandreStrategy;
 import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
 import tide.trader.bot.util.base.Base;
 import tide.trader.bot.util.base.service.BaseService;
-import tide.trader.bot.util.math.MathConstants;
 import tide.trader.bot.dto.position.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -37,8 +34,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.math.BigDecimal.ZERO;
-import static java.math.RoundingMode.HALF_UP;
 
 /**
  * Position service - Implementation of {@link PositionService}.
@@ -58,6 +53,12 @@ public class PositionServiceCassandreImplementation extends BaseService implemen
     /** Position flux. */
     private final PositionFlux positionFlux;
 
+    /** Gain ledger. */
+    private final GainLedger gainLedger;
+
+    /** Position archive. */
+    private final PositionArchive positionArchive;
+
     @Override
     public final PositionCreationResultDTO createLongPosition(@NonNull final CassandreStrategy strategy,
                                                               @NonNull final CurrencyPairDTO currencyPair,
@@ -115,23 +116,18 @@ public class PositionServiceCassandreImplementation extends BaseService implemen
         // If it works, we create the position.
         if (orderCreationResult.isSuccessful()) {
             // =========================================================================================================
-            // Creates the position in database.
-            Position position = new Position();
-            position.setStrategy(Base.STRATEGY_MAPPER.mapToStrategy(strategy.getConfiguration().getStrategyDTO()));
-            position = positionRepository.save(position);
-
-            // =========================================================================================================
-            // Creates the position dto.
-            PositionDTO p = new PositionDTO(position.getUid(), type, strategy.getConfiguration().getStrategyDTO(), currencyPair, orderCreationResult.getOrder(), rules);
-            positionRepository.save(Base.POSITION_MAPPER.mapToPosition(p));
+            // Creates the position in database with one insert (the position id comes from the strategy and the uid
+            // is generated by the database).
+            final PositionDTO newPosition = new PositionDTO(0, type, strategy.getConfiguration().getStrategyDTO(), currencyPair, orderCreationResult.getOrder(), rules);
+            final Position position = Base.POSITION_MAPPER.mapToPosition(newPosition);
+            positionRepository.insert(position);
             logger.debug("Position {} opened with order {}",
-                    p.getPositionId(),
+                    position.getPositionId(),
                     orderCreationResult.getOrder().getOrderId());
 
             // =========================================================================================================
-            // Emit the position, creates and return the position creation result.
-            positionFlux.emitValue(p);
-            return new PositionCreationResultDTO(p);
+            // Emit the position (already saved), creates and return the position creation result.
+            return new PositionCreationResultDTO(positionFlux.emitCreatedPosition(position));
         } else {
             logger.error("Position creation failure: {}", orderCreationResult.getErrorMessage());
             return new PositionCreationResultDTO(orderCreationResult.getErrorMessage(), orderCreationResult.getException());
@@ -156,6 +152,8 @@ public class PositionServiceCassandreImplementation extends BaseService implemen
             } else {
                 positionRepository.updateStopLossRule(positionUid, null);
             }
+            // The open positions index is refreshed with the new rules.
+            positionFlux.refreshOpenPosition(positionUid);
         }
     }
 
@@ -209,12 +207,14 @@ public class PositionServiceCassandreImplementation extends BaseService implemen
     public final void setAutoClose(final long positionUid, final boolean value) {
         logger.debug("Set auto close to {} on position {}", value, positionUid);
         positionRepository.updateAutoClose(positionUid, value);
+        positionFlux.refreshOpenPosition(positionUid);
     }
 
     @Override
     public final void forcePositionClosing(final long positionUid, String exitReason) {
         logger.debug("Force position {} to close, exit reason:{}", positionUid, exitReason);
         positionRepository.updateForceClosing(positionUid, true, exitReason);
+        positionFlux.refreshOpenPosition(positionUid);
     }
 
     @Override
@@ -225,6 +225,20 @@ public class PositionServiceCassandreImplementation extends BaseService implemen
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
+    @Override
+    public final Set<PositionDTO> getClosedPositions(final long strategyUid) {
+        logger.debug("Retrieving closed positions of strategy {}", strategyUid);
+        final Stream<Position> positions;
+        if (strategyUid == 0) {
+            positions = positionRepository.findByStatus(PositionStatusDTO.CLOSED).stream();
+        } else {
+            positions = positionRepository.findByStrategyUidAndStatus(strategyUid, PositionStatusDTO.CLOSED).stream();
+        }
+        return Stream.concat(positionArchive.findClosedPositions(strategyUid).stream(), positions)
+                .map(Base.POSITION_MAPPER::mapToPositionDTO)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
     @Override
     public final Optional<PositionDTO> getPositionByUid(final long positionUid) {
         logger.debug("Retrieving position by its uid {}", positionUid);
@@ -243,107 +257,19 @@ public class PositionServiceCassandreImplementation extends BaseService implemen
     @Override
     public final Map<CurrencyDTO, GainDTO> getGains(final long strategyUid) {
         logger.debug("Retrieving gains for all positions");
-        HashMap<CurrencyDTO, BigDecimal> totalBefore = new LinkedHashMap<>();
-        HashMap<CurrencyDTO, BigDecimal> totalAfter = new LinkedHashMap<>();
-        List<CurrencyAmountDTO> openingOrdersFees = new LinkedList<>();
-        List<CurrencyAmountDTO> closingOrdersFees = new LinkedList<>();
-        HashMap<CurrencyDTO, GainDTO> gains = new LinkedHashMap<>();
-
-        // We calculate, by currency, the amount bought & sold.
-        positionRepository.findByStatus(PositionStatusDTO.CLOSED)
-                .stream()
-                // If we have a strategyUid equals to 0, it means we calculate all gains on all closed positions.
-                // If we have a strategyUid different from 0, we only retrieved the position of a particular strategy.
-                .filter(position -> position.getStrategy().getUid() == strategyUid || strategyUid == 0)
-                .map(Base.POSITION_MAPPER::mapToPositionDTO)
-                .forEach(p -> {
-                    // We retrieve the currency and initiate the maps if they are empty
-                    CurrencyDTO currency;
-                    if (p.getType() == PositionTypeDTO.LONG) {
-                        // LONG.
-                        currency = p.getCurrencyPair().getQuoteCurrency();
-                    } else {
-                        // SHORT.
-                        switch (p.getStrategy().getDomain()) {
-                            case SPOT:
-                                currency = p.getCurrencyPair().getBaseCurrency();
-                                break;
-                            case PERPETUAL:
-                                currency = p.getCurrencyPair().getQuoteCurrency();
-                                break;
-                            default:
-                                currency = p.getCurrencyPair().getBaseCurrency();
-                                break;
-                        }
-
-                    }
-                    gains.putIfAbsent(currency, null);
-                    totalBefore.putIfAbsent(currency, ZERO);
-                    totalAfter.putIfAbsent(currency, ZERO);
-
-                    // We calculate the amounts bought and amount sold.
-                    if (p.getType() == PositionTypeDTO.LONG) {
-                        totalBefore.put(currency, p.getOpeningOrder().getTrades()
-                                .stream()
-                                .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                                .reduce(totalBefore.get(currency), BigDecimal::add));
-                        totalAfter.put(currency, p.getClosingOrder().getTrades()
-                                .stream()
-                                .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                                .reduce(totalAfter.get(currency), BigDecimal::add));
-                    } else {
-                        if(p.getStrategy().getDomain() == StrategyDomainDTO.PERPETUAL) {
-                            totalAfter.put(currency, p.getOpeningOrder().getTrades()
-                                    .stream()
-                                    .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                                    .reduce(totalAfter.get(currency), BigDecimal::add));
-                            totalBefore.put(currency, p.getClosingOrder().getTrades()
-                                    .stream()
-                                    .map(t -> t.getAmountValue().multiply(t.getPriceValue()))
-                                    .reduce(totalBefore.get(currency), BigDecimal::add));
-                        } else {
-                            totalBefore.put(currency, p.getOpeningOrder().getTrades()
-                                    .stream()
-                                    .map(TradeDTO::getAmountValue)
-                                    .reduce(totalBefore.get(currency), BigDecimal::add));
-                            totalAfter.put(currency, p.getClosingOrder().getTrades()
-                                    .stream()
-                                    .map(TradeDTO::getAmountValue)
-                                    .reduce(totalAfter.get(currency), BigDecimal::add));
-                        }
-                    }
-
-                    // And now the fees.
-                    p.getOpeningOrder().getTrades()
-                            .stream()
-                            .filter(tradeDTO -> tradeDTO.getFee() != null)
-                            .forEach(tradeDTO -> openingOrdersFees.add(tradeDTO.getFee()));
-                    p.getClosingOrder().getTrades()
-                            .stream()
-                            .filter(tradeDTO -> tradeDTO.getFee() != null)
-                            .forEach(tradeDTO -> closingOrdersFees.add(tradeDTO.getFee()));
-                });
-
-        gains.keySet()
-                .forEach(currency -> {
-                    // We make the calculation.
-                    BigDecimal before = totalBefore.get(currency);
-                    BigDecimal after = totalAfter.get(currency);
-                    BigDecimal gainAmount = after.subtract(before);
-                    BigDecimal gainPercentage = ((after.subtract(before)).divide(before, HALF_UP)).multiply(MathConstants.ONE_HUNDRED_BIG_DECIMAL);
-
-                    GainDTO g = GainDTO.builder()
-                            .percentage(gainPercentage.setScale(2, HALF_UP).doubleValue())
-                            .amount(CurrencyAmountDTO.builder()
-                                    .value(gainAmount)
-                                    .currency(currency)
-                                    .build())
-                            .openingOrderFees(openingOrdersFees)
-                            .closingOrderFees(closingOrdersFees)
-                            .build();
-                    gains.put(currency, g);
-                });
-        return gains;
+        return gainLedger.getGains(strategyUid);
+    }
+
+    @Override
+    public final Map<LocalDate, BigDecimal> getDailyGains(final long strategyUid, final CurrencyDTO currency) {
+        logger.debug("Retrieving daily gains in {}", currency);
+        return gainLedger.getDailyGains(strategyUid, currency);
+    }
+
+    @Override
+    public final void rebuildGains() {
+        logger.debug("Rebuilding gains from all closed positions");
+        gainLedger.rebuild();
     }
 
     @Override
@@ -0,0 +1,191 @@
+package tide.trader.bot.service;
+
+import tide.trader.bot.dto.market.TickerDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ticker history - ring buffer of the last tickers of a currency pair and a duration, ordered by timestamp.
+ * Tickers usually arrive in time order: adding a ticker newer than (or as old as) the last one is done in constant time,
+ * whatever the number of tickers kept. Older tickers are found by binary search, as are the tickers of a time range.
+ * When the buffer is full, the oldest ticker is removed.
+ */
+final class TickerHistory {
+
+    /** Timestamps of the tickers (epoch in ms), by slot. */
+    private final long[] timestamps;
+
+    /** Tickers, by slot. */
+    private final TickerDTO[] tickers;
+
+    /** Slot of the oldest ticker. */
+    private int head;
+
+    /** Number of tickers. */
+    private int size;
+
+    /** Timestamp of the last ticker returned by {@link #getTickersToPersist()} (epoch in ms). */
+    private long lastPersisted = Long.MIN_VALUE;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of tickers
+     */
+    TickerHistory(final int capacity) {
+        this.timestamps = new long[capacity];
+        this.tickers = new TickerDTO[capacity];
+    }
+
+    /**
+     * Adds a ticker (a ticker with the same timestamp is replaced).
+     *
+     * @param ticker ticker
+     */
+    synchronized void add(final TickerDTO ticker) {
+        final long timestamp = ticker.getTimestamp().toInstant().toEpochMilli();
+
+        // Most of the time, tickers are newer than the last one or update it.
+        if (size == 0 || timestamp > timestamps[slot(size - 1)]) {
+            if (size == tickers.length) {
+                head = slot(1);
+                size--;
+            }
+            set(size++, timestamp, ticker);
+            return;
+        }
+        if (timestamp == timestamps[slot(size - 1)]) {
+            tickers[slot(size - 1)] = ticker;
+            return;
+        }
+
+        // Older ticker.
+        final int index = search(timestamp);
+        if (index < size && timestamps[slot(index)] == timestamp) {
+            tickers[slot(index)] = ticker;
+            return;
+        }
+        int insertion = index;
+        if (size == tickers.length) {
+            if (insertion == 0) {
+                // Older than every ticker kept.
+                return;
+            }
+            head = slot(1);
+            size--;
+            insertion--;
+        }
+        for (int i = size; i > insertion; i--) {
+            set(i, timestamps[slot(i - 1)], tickers[slot(i - 1)]);
+        }
+        set(insertion, timestamp, ticker);
+        size++;
+    }
+
+    /**
+     * Returns the tickers between two timestamps (ordered by timestamp).
+     *
+     * @param start start (epoch in ms, included)
+     * @param end   end (epoch in ms, excluded)
+     * @return tickers
+     */
+    synchronized List<TickerDTO> get(final long start, final long end) {
+        if (start >= end) {
+            return Collections.emptyList();
+        }
+        return copy(search(start), search(end));
+    }
+
+    /**
+     * Returns all the tickers (ordered by timestamp).
+     *
+     * @return tickers
+     */
+    synchronized List<TickerDTO> getAll() {
+        return copy(0, size);
+    }
+
+    /**
+     * Returns the tickers newer than the ones already returned by this method, to append them to a file.
+     *
+     * @return tickers to persist (ordered by timestamp)
+     */
+    synchronized List<TickerDTO> getTickersToPersist() {
+        if (size == 0 || timestamps[slot(size - 1)] <= lastPersisted) {
+            return Collections.emptyList();
+        }
+        final List<TickerDTO> newTickers = copy(lastPersisted == Long.MIN_VALUE ? 0 : search(lastPersisted + 1), size);
+        lastPersisted = timestamps[slot(size - 1)];
+        return newTickers;
+    }
+
+    /**
+     * Returns the number of tickers.
+     *
+     * @return number of tickers
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the first ticker whose timestamp is greater than or equal to a timestamp.
+     *
+     * @param timestamp timestamp (epoch in ms)
+     * @return index (size if every ticker is older)
+     */
+    private int search(final long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (timestamps[slot(middle)] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the tickers between two indexes.
+     *
+     * @param from from index (included)
+     * @param to   to index (excluded)
+     * @return tickers
+     */
+    private List<TickerDTO> copy(final int from, final int to) {
+        final List<TickerDTO> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(tickers[slot(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Sets a ticker at an index.
+     *
+     * @param index     index
+     * @param timestamp timestamp (epoch in ms)
+     * @param ticker    ticker
+     */
+    private void set(final int index, final long timestamp, final TickerDTO ticker) {
+        final int slot = slot(index);
+        timestamps[slot] = timestamp;
+        tickers[slot] = ticker;
+    }
+
+    /**
+     * Returns the slot of an index (0 is the oldest ticker).
+     *
+     * @param index index
+     * @return slot
+     */
+    private int slot(final int index) {
+        return (head + index) % tickers.length;
+    }
+
+}
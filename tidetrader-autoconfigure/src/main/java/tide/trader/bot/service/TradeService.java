@@ -8,6 +8,7 @@ import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
 
 import java.math.BigDecimal;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service getting information about orders and their management.
@@ -88,6 +89,29 @@ public interface TradeService {
      */
     Set<TradeDTO> getTrades();
 
+    /**
+     * Subscribe to the orders, trades and account updates pushed by the exchange, if the exchange supports streaming.
+     * The exchange implementation is in charge of reconnecting and of calling resync after each (re)connection.
+     *
+     * @param orderConsumer   called with each order received
+     * @param tradeConsumer   called with each trade received
+     * @param accountConsumer called each time balances changed
+     * @param resyncConsumer  called after each (re)connection, as updates may have been missed
+     * @return true if user data is now streamed, false if it still has to be polled
+     */
+    default boolean subscribeUserData(Consumer<OrderDTO> orderConsumer,
+                                      Consumer<TradeDTO> tradeConsumer,
+                                      Runnable accountConsumer,
+                                      Runnable resyncConsumer) {
+        return false;
+    }
+
+    /**
+     * Close the user data stream (if any), no reconnection will be attempted afterwards.
+     */
+    default void unsubscribeUserData() {
+    }
+
     /**
      * Set lever (not suitable for spot)
      * @param currencyPair
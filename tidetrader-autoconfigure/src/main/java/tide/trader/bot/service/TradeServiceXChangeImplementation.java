@@ -4,15 +4,17 @@ import lombok.NonNull;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.account.Balance;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.MarketOrder;
+import org.knowm.xchange.dto.trade.UserTrade;
 import org.knowm.xchange.exceptions.CurrencyPairNotValidException;
 import org.knowm.xchange.exceptions.NotAvailableFromExchangeException;
 import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.trade.StreamingTradeService;
 import org.knowm.xchange.service.trade.params.TradeHistoryParamsAll;
 import org.knowm.xchange.service.trade.params.orders.DefaultOpenOrdersParamCurrencyPair;
 import org.knowm.xchange.service.trade.params.orders.DefaultQueryOrderParamCurrencyPair;
-import org.springframework.beans.factory.annotation.Value;
 import tide.trader.bot.domain.Order;
 import tide.trader.bot.dto.market.TickerDTO;
 import tide.trader.bot.dto.trade.*;
@@ -28,8 +30,10 @@ import tide.trader.bot.util.xchange.CancelOrderParams;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.math.RoundingMode.FLOOR;
@@ -45,9 +49,11 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
     /** Okex broker id. */
     private static final String OKEX_BROKER_ID = "3fba96c2a09c42BC";
 
+    /** Exchange calls per rate: orders and trades are both retrieved once per cycle, without waiting for each other. */
+    private static final long CALLS_PER_RATE = 2;
+
     /** Driver class name. */
-    @Value("${trading.bot.exchange.driver-class-name}")
-    private String driverClassName;
+    private final String driverClassName;
 
     /** Order repository. */
     private final OrderRepository orderRepository;
@@ -55,19 +61,66 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
     /** XChange service. */
     private final org.knowm.xchange.service.trade.TradeService tradeService;
 
+    /** XChange streaming service (null if the exchange doesn't support streaming). */
+    private final StreamingTradeService streamingTradeService;
+
+    /** Clock dating orders (market orders are dated by their ticker when there is one). */
+    private final Clock clock;
+
     /**
      * Constructor.
      *
      * @param rate               rate in ms
+     * @param newDriverClassName driver class name
      * @param newOrderRepository order repository
      * @param newTradeService    market data service
      */
     public TradeServiceXChangeImplementation(final long rate,
+                                             final String newDriverClassName,
                                              final OrderRepository newOrderRepository,
                                              final org.knowm.xchange.service.trade.TradeService newTradeService) {
-        super(rate);
+        this(rate, newDriverClassName, newOrderRepository, newTradeService, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate                     rate in ms
+     * @param newDriverClassName       driver class name
+     * @param newOrderRepository       order repository
+     * @param newTradeService          trade service
+     * @param newStreamingTradeService streaming trade service
+     */
+    public TradeServiceXChangeImplementation(final long rate,
+                                             final String newDriverClassName,
+                                             final OrderRepository newOrderRepository,
+                                             final org.knowm.xchange.service.trade.TradeService newTradeService,
+                                             final StreamingTradeService newStreamingTradeService) {
+        this(rate, newDriverClassName, newOrderRepository, newTradeService, newStreamingTradeService, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rate                     rate in ms
+     * @param newDriverClassName       driver class name
+     * @param newOrderRepository       order repository
+     * @param newTradeService          trade service
+     * @param newStreamingTradeService streaming trade service (null if the exchange doesn't support streaming)
+     * @param newClock                 clock dating orders
+     */
+    public TradeServiceXChangeImplementation(final long rate,
+                                             final String newDriverClassName,
+                                             final OrderRepository newOrderRepository,
+                                             final org.knowm.xchange.service.trade.TradeService newTradeService,
+                                             final StreamingTradeService newStreamingTradeService,
+                                             final Clock newClock) {
+        super(rate, CALLS_PER_RATE);
+        this.driverClassName = newDriverClassName;
         this.orderRepository = newOrderRepository;
         this.tradeService = newTradeService;
+        this.streamingTradeService = newStreamingTradeService;
+        this.clock = newClock;
     }
 
     @Override
@@ -154,7 +207,7 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                             .currency(currencyPair.getQuoteCurrency())
                             .build())
                     .status(OrderStatusDTO.PENDING_NEW)
-                    .timestamp(ticker == null ? ZonedDateTime.now() : ticker.getTimestamp())
+                    .timestamp(ticker == null ? ZonedDateTime.now(clock) : ticker.getTimestamp())
                     .build();
 
             // We save the order.
@@ -229,7 +282,7 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
                             .currency(currencyPair.getQuoteCurrency())
                             .build())
                     .status(OrderStatusDTO.PENDING_NEW)
-                    .timestamp(ZonedDateTime.now())
+                    .timestamp(ZonedDateTime.now(clock))
                     .build();
 
             // We save the order.
@@ -424,6 +477,53 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
         return results;
     }
 
+    @Override
+    public boolean subscribeUserData(@NonNull final Consumer<OrderDTO> orderConsumer,
+                                     @NonNull final Consumer<TradeDTO> tradeConsumer,
+                                     @NonNull final Runnable accountConsumer,
+                                     @NonNull final Runnable resyncConsumer) {
+        if (streamingTradeService == null) {
+            return false;
+        }
+        try {
+            streamingTradeService.subscribeUserData(new StreamingTradeService.UserDataListener() {
+                @Override
+                public void onOrder(final org.knowm.xchange.dto.Order order) {
+                    // Orders are mapped like the open orders retrieved by getOrders() (limit orders).
+                    final LimitOrder limitOrder = order instanceof LimitOrder ? (LimitOrder) order : LimitOrder.Builder.from(order).build();
+                    orderConsumer.accept(Base.ORDER_MAPPER.mapToOrderDTO(limitOrder));
+                }
+
+                @Override
+                public void onUserTrade(final UserTrade userTrade) {
+                    tradeConsumer.accept(Base.TRADE_MAPPER.mapToTradeDTO(userTrade));
+                }
+
+                @Override
+                public void onBalances(final List<Balance> balances) {
+                    accountConsumer.run();
+                }
+
+                @Override
+                public void onResync() {
+                    resyncConsumer.run();
+                }
+            });
+            logger.info("Streaming orders, trades and balances");
+            return true;
+        } catch (IOException | NotYetImplementedForExchangeException e) {
+            logger.warn("Impossible to stream user data, falling back to polling: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void unsubscribeUserData() {
+        if (streamingTradeService != null) {
+            streamingTradeService.disconnect();
+        }
+    }
+
     /**
      * Returns a local generated order id.
      *
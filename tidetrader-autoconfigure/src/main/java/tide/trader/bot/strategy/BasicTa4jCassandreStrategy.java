@@ -11,6 +11,7 @@ import tide.trader.bot.strategy.internal.CassandreStrategy;
 import tide.trader.bot.util.java.ZonedDateTimeBetween;
 import tide.trader.bot.util.ta4j.*;
 
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -131,6 +132,30 @@ public abstract class BasicTa4jCassandreStrategy extends CassandreStrategy {
 
     }
 
+    /**
+     * Returns the last imported tickers of a bar before a date as bars (ordered by time), for example to warm up the
+     * series with the imported history: getImportedBars(bar, start).forEach(getSeries(bar)::addBar).
+     *
+     * Imported rows can be sparse: rows without a last price are skipped, missing open, high and low prices are
+     * replaced by the last price and a missing volume by zero.
+     *
+     * @param bar     bar (currency pair, duration and maximum number of bars)
+     * @param endDate end date (excluded)
+     * @return bars
+     */
+    public final List<Bar> getImportedBars(final DurationMaximumBar bar, final ZonedDateTime endDate) {
+        return getLastImportedTickers(bar.getCurrencyPair(), endDate, bar.getMaximumBarCount())
+                .stream()
+                .filter(ticker -> ticker.getLast() != null)
+                .map(ticker -> (Bar) new BaseBar(bar.getDuration(), ticker.getTimestamp().plus(bar.getDuration()),
+                        Objects.requireNonNullElse(ticker.getOpen(), ticker.getLast()).doubleValue(),
+                        Objects.requireNonNullElse(ticker.getHigh(), ticker.getLast()).doubleValue(),
+                        Objects.requireNonNullElse(ticker.getLow(), ticker.getLast()).doubleValue(),
+                        ticker.getLast().doubleValue(),
+                        Objects.requireNonNullElse(ticker.getVolume(), BigDecimal.ZERO).doubleValue()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Implements this method to tell the bot which BarSeries to apply.
      * @param bar
@@ -3,6 +3,10 @@ package tide.trader.bot.strategy.internal;
 import lombok.NonNull;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import tide.trader.bot.domain.ImportedTicker;
 import tide.trader.bot.domain.Strategy;
 import tide.trader.bot.dto.market.TickerDTO;
 import tide.trader.bot.dto.position.PositionCreationResultDTO;
@@ -12,6 +16,7 @@ import tide.trader.bot.dto.position.PositionStatusDTO;
 import tide.trader.bot.dto.strategy.StrategyDomainDTO;
 import tide.trader.bot.dto.trade.OrderCreationResultDTO;
 import tide.trader.bot.dto.trade.OrderDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
 import tide.trader.bot.dto.trade.TradeDTO;
 import tide.trader.bot.dto.account.AccountDTO;
 import tide.trader.bot.dto.account.BalanceDTO;
@@ -21,9 +26,12 @@ import tide.trader.bot.strategy.BasicTa4jCassandreStrategy;
 import tide.trader.bot.util.math.MathConstants;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.math.BigDecimal.ZERO;
 import static java.math.RoundingMode.FLOOR;
@@ -45,6 +53,14 @@ import static java.math.RoundingMode.FLOOR;
 @SuppressWarnings("checkstyle:DesignForExtension")
 public abstract class CassandreStrategy extends CassandreStrategyImplementation {
 
+    /** Statuses of open orders. */
+    private static final Set<OrderStatusDTO> OPEN_ORDER_STATUSES = Stream.of(OrderStatusDTO.values())
+            .filter(OrderStatusDTO::isOpen)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatusDTO.class)));
+
+    /** Number of imported tickers read per query when they are streamed. */
+    private static final int IMPORTED_TICKERS_PAGE_SIZE = 1_000;
+
     // =================================================================================================================
     // Methods to retrieve data related to accounts.
 
@@ -164,6 +180,75 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Return the first imported tickers of a currency pair between two dates (ordered by timestamp).
+     *
+     * @param currencyPair currency pair
+     * @param startDate    start date (included)
+     * @param endDate      end date (excluded)
+     * @param limit        maximum number of tickers
+     * @return imported tickers
+     */
+    public final List<TickerDTO> getImportedTickers(@NonNull final CurrencyPairDTO currencyPair,
+                                                    @NonNull final ZonedDateTime startDate,
+                                                    @NonNull final ZonedDateTime endDate,
+                                                    final int limit) {
+        return dependencies.getImportedTickersRepository()
+                .findByCurrencyPairAndTimestampBetween(currencyPair.toString(), startDate, endDate, PageRequest.of(0, limit))
+                .stream()
+                .map(TICKER_MAPPER::mapToTickerDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Return the last imported tickers of a currency pair before a date (ordered by timestamp).
+     * Used to warm up indicators with the imported history.
+     *
+     * @param currencyPair currency pair
+     * @param endDate      end date (excluded)
+     * @param limit        maximum number of tickers
+     * @return imported tickers
+     */
+    public final List<TickerDTO> getLastImportedTickers(@NonNull final CurrencyPairDTO currencyPair,
+                                                        @NonNull final ZonedDateTime endDate,
+                                                        final int limit) {
+        final List<TickerDTO> tickers = dependencies.getImportedTickersRepository()
+                .findLastByCurrencyPairBefore(currencyPair.toString(), endDate, PageRequest.of(0, limit))
+                .stream()
+                .map(TICKER_MAPPER::mapToTickerDTO)
+                .collect(Collectors.toList());
+        Collections.reverse(tickers);
+        return tickers;
+    }
+
+    /**
+     * Return the imported tickers of a currency pair between two dates (ordered by timestamp).
+     * Tickers are read by pages while the stream is consumed, the whole range is never loaded in memory.
+     *
+     * @param currencyPair currency pair
+     * @param startDate    start date (included)
+     * @param endDate      end date (excluded)
+     * @return imported tickers
+     */
+    public final Stream<TickerDTO> streamImportedTickers(@NonNull final CurrencyPairDTO currencyPair,
+                                                         @NonNull final ZonedDateTime startDate,
+                                                         @NonNull final ZonedDateTime endDate) {
+        final String pair = currencyPair.toString();
+        final Pageable page = PageRequest.of(0, IMPORTED_TICKERS_PAGE_SIZE);
+        return Stream.iterate(dependencies.getImportedTickersRepository().findByCurrencyPairAndTimestampBetween(pair, startDate, endDate, page),
+                        tickers -> !tickers.isEmpty(),
+                        tickers -> {
+                            if (tickers.size() < IMPORTED_TICKERS_PAGE_SIZE) {
+                                return Collections.<ImportedTicker>emptyList();
+                            }
+                            final ImportedTicker last = tickers.get(tickers.size() - 1);
+                            return dependencies.getImportedTickersRepository()
+                                    .findByCurrencyPairAfter(pair, last.getTimestamp(), last.getUid(), endDate, page);
+                        })
+                .flatMap(List::stream)
+                .map(TICKER_MAPPER::mapToTickerDTO);
+    }
+
     // =================================================================================================================
     // Methods to retrieve data related to orders.
 
@@ -173,13 +258,40 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
      * @return orders
      */
     public final Map<String, OrderDTO> getOrders() {
-        return dependencies.getOrderRepository().findByOrderByTimestampAsc()
+        return dependencies.getOrderRepository().findByStrategyUid(configuration.getStrategyUid())
+                .stream()
+                .map(ORDER_MAPPER::mapToOrderDTO)
+                .collect(Collectors.toMap(OrderDTO::getOrderId, orderDTO -> orderDTO));
+    }
+
+    /**
+     * Returns list of open orders (order id is key).
+     *
+     * @return open orders
+     */
+    public final Map<String, OrderDTO> getOpenOrders() {
+        return dependencies.getOrderRepository().findByStrategyUidAndStatusIn(configuration.getStrategyUid(), OPEN_ORDER_STATUSES)
                 .stream()
-                .filter(order -> order.getStrategy().getUid().equals(configuration.getStrategyUid()))
                 .map(ORDER_MAPPER::mapToOrderDTO)
                 .collect(Collectors.toMap(OrderDTO::getOrderId, orderDTO -> orderDTO));
     }
 
+    /**
+     * Returns a page of the orders created between two dates (sorted by timestamp).
+     *
+     * @param startDate start date (included)
+     * @param endDate   end date (excluded)
+     * @param pageable  page requested
+     * @return orders
+     */
+    public final Page<OrderDTO> getOrders(@NonNull final ZonedDateTime startDate,
+                                          @NonNull final ZonedDateTime endDate,
+                                          @NonNull final Pageable pageable) {
+        return dependencies.getOrderRepository()
+                .findByStrategyUidAndTimestampBetween(configuration.getStrategyUid(), startDate, endDate, pageable)
+                .map(ORDER_MAPPER::mapToOrderDTO);
+    }
+
     /**
      * Get an order by its order id.
      *
@@ -187,10 +299,9 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
      * @return order
      */
     public final Optional<OrderDTO> getOrderByOrderId(final String orderId) {
-        return getOrders().values()
-                .stream()
-                .filter(order -> order.getOrderId().equals(orderId))
-                .findFirst();
+        return dependencies.getOrderRepository()
+                .findByStrategyUidAndOrderId(configuration.getStrategyUid(), orderId)
+                .map(ORDER_MAPPER::mapToOrderDTO);
     }
 
     // =================================================================================================================
@@ -202,13 +313,28 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
      * @return trades
      */
     public final Map<String, TradeDTO> getTrades() {
-        return dependencies.getTradeRepository().findByOrderByTimestampAsc()
+        return dependencies.getTradeRepository().findByStrategyUid(configuration.getStrategyUid())
                 .stream()
-                .filter(trade -> trade.getOrder().getStrategy().getUid().equals(configuration.getStrategyUid()))
                 .map(TRADE_MAPPER::mapToTradeDTO)
                 .collect(Collectors.toMap(TradeDTO::getTradeId, tradeDTO -> tradeDTO));
     }
 
+    /**
+     * Returns a page of the trades made between two dates (sorted by timestamp).
+     *
+     * @param startDate start date (included)
+     * @param endDate   end date (excluded)
+     * @param pageable  page requested
+     * @return trades
+     */
+    public final Page<TradeDTO> getTrades(@NonNull final ZonedDateTime startDate,
+                                          @NonNull final ZonedDateTime endDate,
+                                          @NonNull final Pageable pageable) {
+        return dependencies.getTradeRepository()
+                .findByStrategyUidAndTimestampBetween(configuration.getStrategyUid(), startDate, endDate, pageable)
+                .map(TRADE_MAPPER::mapToTradeDTO);
+    }
+
     /**
      * Get a trade by its trade id.
      *
@@ -216,10 +342,9 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
      * @return trade
      */
     public final Optional<TradeDTO> getTradeByTradeId(final String tradeId) {
-        return getTrades().values()
-                .stream()
-                .filter(trade -> trade.getTradeId().equals(tradeId))
-                .findFirst();
+        return dependencies.getTradeRepository()
+                .findByStrategyUidAndTradeId(configuration.getStrategyUid(), tradeId)
+                .map(TRADE_MAPPER::mapToTradeDTO);
     }
 
     // =================================================================================================================
@@ -227,6 +352,7 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
 
     /**
      * Returns list of positions (position id the key).
+     * Archived positions are not returned, use {@link #getPositions(PositionStatusDTO)} to get all the closed positions.
      *
      * @return positions
      */
@@ -241,6 +367,29 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
                 .collect(Collectors.toMap(PositionDTO::getPositionId, positionDTO -> positionDTO));
     }
 
+    /**
+     * Returns the positions with a specific status (position id the key).
+     * Closed positions include the archived ones.
+     *
+     * @param status status
+     * @return positions
+     */
+    public final Map<Long, PositionDTO> getPositions(final PositionStatusDTO status) {
+        if (status == PositionStatusDTO.CLOSED) {
+            return dependencies.getPositionService()
+                    .getClosedPositions(configuration.getStrategyUid())
+                    .stream()
+                    .filter(position -> position.getCurrencyPair() != null)
+                    .collect(Collectors.toMap(PositionDTO::getPositionId, positionDTO -> positionDTO));
+        }
+        return dependencies.getPositionRepository()
+                .findByStrategyUidAndStatus(configuration.getStrategyUid(), status)
+                .stream()
+                .filter(position -> StringUtils.isNotBlank(position.getCurrencyPair()))
+                .map(POSITION_MAPPER::mapToPositionDTO)
+                .collect(Collectors.toMap(PositionDTO::getPositionId, positionDTO -> positionDTO));
+    }
+
     /**
      * Returns list of positions (position id the key).
      * @param currencyPair
@@ -289,6 +438,16 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
         return dependencies.getPositionService().getGains(configuration.getStrategyUid());
     }
 
+    /**
+     * Returns gains of the closed positions of the strategy in a currency, by day the positions were opened.
+     *
+     * @param currency currency
+     * @return gains by day (sorted by day)
+     */
+    public final Map<LocalDate, BigDecimal> getDailyGains(final CurrencyDTO currency) {
+        return dependencies.getPositionService().getDailyGains(configuration.getStrategyUid(), currency);
+    }
+
     // =================================================================================================================
     // Methods to manage orders & positions (creation, cancellation, rules updates...).
 
@@ -812,7 +971,7 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
         if(status == PositionStatusDTO.OPENED) {
             ColumnsDTO positionColumn = new ColumnsDTO("Opened Positions");
             positionColumn.setColName("CurrencyPair", "Side", "Quantity", "OpenPrice", "OpenTime", "LatestPrice", "LatestTime", "UnrealizedGain", "Action");
-            this.getPositions().values().stream().filter(p -> status == p.getStatus()).forEach(p -> {
+            this.getPositions(status).values().forEach(p -> {
                 String close = "<a href=\"javascript:closePostion('/strategy/close/" + configuration.getStrategyDTO().getStrategyId() + "/" + p.getUid() + "/"+ p.getCurrencyPair().getBaseCurrency() + "_" + p.getCurrencyPair().getQuoteCurrency() + "');\" ><i class='fas fa-times'></i></a>";
                 Optional<GainDTO> latestGain = p.getLatestCalculatedGain();
                 positionColumn.addRow(p.getCurrencyPair().toString(),
@@ -828,7 +987,7 @@ public abstract class CassandreStrategy extends CassandreStrategyImplementation
         } else if(status == PositionStatusDTO.CLOSED) {
             ColumnsDTO positionColumn = new ColumnsDTO("Closed Positions");
             positionColumn.setColName("CurrencyPair", "Side", "Quantity", "OpenPrice", "OpenTime", "ClosePrice", "CloseTime", "Gain", "Percentage");
-            this.getPositions().values().stream().filter(p -> p.getStatus().equals(PositionStatusDTO.CLOSED)).forEach(p -> {
+            this.getPositions(status).values().forEach(p -> {
                 positionColumn.addReversedRow(p.getCurrencyPair().toString(), p.getType(), p.getAmount().getValue().stripTrailingZeros(),
                         p.getOpeningOrder().getAveragePriceValue().stripTrailingZeros().toPlainString(), p.getOpeningOrder().getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                         p.getClosingOrder().getAveragePriceValue().stripTrailingZeros().toPlainString(), p.getClosingOrder().getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
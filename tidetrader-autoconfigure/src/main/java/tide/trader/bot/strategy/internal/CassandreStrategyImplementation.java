@@ -9,6 +9,7 @@ import tide.trader.bot.dto.trade.OrderCreationResultDTO;
 import tide.trader.bot.dto.trade.OrderDTO;
 import tide.trader.bot.dto.trade.TradeDTO;
 import tide.trader.bot.dto.account.AccountDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
 import tide.trader.bot.dto.util.CurrencyPairDTO;
 import tide.trader.bot.strategy.BasicCassandreStrategy;
 import tide.trader.bot.strategy.BasicTa4jCassandreStrategy;
@@ -196,28 +197,47 @@ public abstract class CassandreStrategyImplementation extends BaseStrategy imple
      */
     protected void updatePositionsWithTickersUpdates(final Map<CurrencyPairDTO, TickerDTO> tickers) {
         // We check if any ticker updates a position, and we close if it's time.
-        dependencies.getPositionRepository()
-                .findByStatusNot(PositionStatusDTO.CLOSED)
-                .stream()
-                .map(POSITION_MAPPER::mapToPositionDTO)
-                // Only the positions of this strategy.
-                .filter(positionDTO -> positionDTO.getStrategy().getUid().equals(configuration.getStrategyUid()))
-                // Only if we received the ticker used by the position.
-                .filter(positionDTO -> tickers.get(positionDTO.getCurrencyPair()) != null)
-                // We send the ticker corresponding to the currency pair of the position. If it returns true, we emit because price changed.
-                .filter(positionDTO -> positionDTO.tickerUpdate(tickers.get(positionDTO.getCurrencyPair())))
-                .peek(positionDTO -> logger.debug("Position {} updated with ticker {}", positionDTO.getPositionId(), tickers.get(positionDTO.getCurrencyPair())))
-                .peek(positionDTO -> dependencies.getPositionFlux().emitValue(positionDTO))
-                // We only use tickers updates to close a position if position is set to autoclose.
-                .filter(PositionDTO::isAutoClose)
-                // We check if the position should be closed, if true, we closed and position service will emit the position.
-                //.filter(PositionDTO::shouldBeClosed1)
-                .peek(positionDTO -> logger.debug("Closing position {}", positionDTO.getPositionId()))
-                .map(PositionDTO::shouldBeClosed)
-                .filter(PositionCloseResultDTO::isClose)
-                .map(positionCloseResult -> dependencies.getPositionService().closePosition(this, positionCloseResult.getPosition().getUid(), tickers.get(positionCloseResult.getPosition().getCurrencyPair()), positionCloseResult.getPosition().getExitReason()))
-                .filter(orderCreationResultDTO -> !orderCreationResultDTO.isSuccessful())
-                .forEach(orderCreationResultDTO -> logger.error("Impossible to close position: {}", orderCreationResultDTO.getErrorMessage()));
+        // Only the positions of this strategy on the currency pairs that ticked are retrieved from the open positions index,
+        // and only if the ticker changes their prices or if their stop gain / stop loss trigger price was crossed by the ticker.
+        // Only the positions whose prices changed are emitted, and only the triggered ones are checked for closing.
+        tickers.values().forEach(ticker -> {
+            final Set<Long> triggeredPositions = dependencies.getPositionFlux().getTriggeredPositions(configuration.getStrategyUid(), ticker.getCurrencyPair(), ticker.getLast());
+            dependencies.getPositionFlux()
+                    .getOpenPositions(configuration.getStrategyUid(), ticker.getCurrencyPair(), ticker.getLast(), triggeredPositions)
+                    .stream()
+                    // We send the ticker to the position. If its latest gain price changed, we emit it.
+                    .peek(positionDTO -> {
+                        final CurrencyAmountDTO previousPrice = positionDTO.getLatestGainPrice();
+                        if (positionDTO.tickerUpdate(ticker) && isPriceChanged(previousPrice, positionDTO.getLatestGainPrice())) {
+                            logger.debug("Position {} updated with ticker {}", positionDTO.getPositionId(), ticker);
+                            dependencies.getPositionFlux().emitTickerUpdate(positionDTO);
+                        }
+                    })
+                    // We only use tickers updates to close a position if position is set to autoclose.
+                    .filter(PositionDTO::isAutoClose)
+                    .filter(positionDTO -> triggeredPositions.contains(positionDTO.getUid()))
+                    // We check if the position should be closed, if true, we closed and position service will emit the position.
+                    .peek(positionDTO -> logger.debug("Closing position {}", positionDTO.getPositionId()))
+                    .map(PositionDTO::shouldBeClosed)
+                    .filter(PositionCloseResultDTO::isClose)
+                    .map(positionCloseResult -> dependencies.getPositionService().closePosition(this, positionCloseResult.getPosition().getUid(), ticker, positionCloseResult.getPosition().getExitReason()))
+                    .filter(orderCreationResultDTO -> !orderCreationResultDTO.isSuccessful())
+                    .forEach(orderCreationResultDTO -> logger.error("Impossible to close position: {}", orderCreationResultDTO.getErrorMessage()));
+        });
+    }
+
+    /**
+     * Returns true if the latest gain price of a position changed.
+     *
+     * @param previousPrice previous latest gain price (null if none)
+     * @param newPrice      new latest gain price (null if none)
+     * @return true if the price changed
+     */
+    private static boolean isPriceChanged(final CurrencyAmountDTO previousPrice, final CurrencyAmountDTO newPrice) {
+        if (previousPrice == null || newPrice == null) {
+            return previousPrice != newPrice;
+        }
+        return previousPrice.getValue().compareTo(newPrice.getValue()) != 0;
     }
 
     /**
@@ -227,12 +247,13 @@ public abstract class CassandreStrategyImplementation extends BaseStrategy imple
      */
     void updatePositionsWithOrdersUpdates(final Map<String, OrderDTO> orders) {
         // We check if any order updates a position.
-        orders.values().forEach(orderDTO -> dependencies.getPositionRepository()
-                .findByStatusNot(PositionStatusDTO.CLOSED)
+        orders.values().forEach(orderDTO -> dependencies.getPositionFlux()
+                .getOpenPositions(configuration.getStrategyUid())
                 .stream()
-                .map(POSITION_MAPPER::mapToPositionDTO)
-                .filter(positionDTO -> positionDTO.getStrategy().getUid().equals(configuration.getStrategyUid()))
                 .filter(positionDTO -> positionDTO.orderUpdate(orderDTO))
+                // The position is reloaded from database as it holds the latest state of its orders and trades.
+                .map(this::reloadPosition)
+                .peek(positionDTO -> positionDTO.orderUpdate(orderDTO))
                 .peek(positionDTO -> logger.debug("Position {} updated with order {}", positionDTO.getPositionId(), orderDTO))
                 .forEach(dependencies.getPositionFlux()::emitValue));
 
@@ -246,15 +267,29 @@ public abstract class CassandreStrategyImplementation extends BaseStrategy imple
      */
     void updatePositionsWithTradesUpdates(final Map<String, TradeDTO> trades) {
         // We check if any trade updates a position.
-        trades.values().forEach(tradeDTO -> dependencies.getPositionRepository()
-                .findByStatusNot(PositionStatusDTO.CLOSED)
+        trades.values().forEach(tradeDTO -> dependencies.getPositionFlux()
+                .getOpenPositions(configuration.getStrategyUid())
                 .stream()
-                .map(POSITION_MAPPER::mapToPositionDTO)
-                .filter(positionDTO -> positionDTO.getStrategy().getUid().equals(configuration.getStrategyUid()))
                 .filter(positionDTO -> positionDTO.tradeUpdate(tradeDTO))
+                // The position is reloaded from database as it holds the latest state of its orders and trades.
+                .map(this::reloadPosition)
+                .peek(positionDTO -> positionDTO.tradeUpdate(tradeDTO))
                 .peek(positionDTO -> logger.debug("Position {} updated with trade {}", positionDTO.getPositionId(), tradeDTO))
                 .forEach(dependencies.getPositionFlux()::emitValue));
 
     }
 
+    /**
+     * Reload a position from database.
+     *
+     * @param position position
+     * @return position from database (or the position passed as parameter if not found)
+     */
+    private PositionDTO reloadPosition(final PositionDTO position) {
+        return dependencies.getPositionRepository()
+                .findById(position.getUid())
+                .map(POSITION_MAPPER::mapToPositionDTO)
+                .orElse(position);
+    }
+
 }
@@ -6,6 +6,7 @@ import tide.trader.bot.util.base.Base;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static reactor.core.publisher.FluxSink.OverflowStrategy.LATEST;
 
@@ -17,6 +18,10 @@ import static reactor.core.publisher.FluxSink.OverflowStrategy.LATEST;
  * - For each value retrieved previously, we call the saveValues() method you implemented to save all the data in the database.
  * - Each value saved in database is then push to the flux to be consumed by strategies.
  * note: you are not forced to implement getNewValues() or saveValues().
+ * <p>
+ * push() method is called when values are pushed by the exchange (streaming): they go through getNewValues(values) to only
+ * keep the ones that changed, then through saveValues() like values retrieved by update().
+ * update() and push() never run at the same time.
  *
  * @param <T> flux
  */
@@ -28,6 +33,9 @@ public abstract class BaseFlux<T> extends Base {
     /** Flux sink. */
     protected FluxSink<Set<T>> fluxSink;
 
+    /** Number of values emitted since the flux was created. */
+    private final AtomicLong emittedValues = new AtomicLong();
+
     /**
      * Constructor.
      */
@@ -54,12 +62,38 @@ public abstract class BaseFlux<T> extends Base {
         return flux;
     }
 
+    /**
+     * Returns the number of values emitted since the flux was created (compared before and after update() to know if it emitted anything new).
+     *
+     * @return number of values emitted
+     */
+    public long getEmittedValues() {
+        return emittedValues.get();
+    }
+
     /**
      * Method executed when values have to be retrieved (usually called by schedulers).
+     *
+     * @return false if an error occurred (schedulers may then back off)
      */
-    public final void update() {
+    public final synchronized boolean update() {
         try {
             emitValues(getNewValues());
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("{} encountered an error {}", getClass().getSimpleName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Method executed when values are pushed by the exchange (usually called by streams).
+     *
+     * @param values values pushed
+     */
+    public final synchronized void push(final Set<T> values) {
+        try {
+            emitValues(getNewValues(values));
         } catch (RuntimeException e) {
             logger.error("{} encountered an error {}", getClass().getSimpleName(), e.getMessage());
         }
@@ -82,10 +116,20 @@ public abstract class BaseFlux<T> extends Base {
     public void emitValues(final Set<T> newValues) {
         if (!newValues.isEmpty()) {
             logger.debug("{} flux emits {} values", getClass().getSimpleName(), newValues.size());
-            fluxSink.next(saveValues(newValues));
+            emitSavedValues(saveValues(newValues));
         }
     }
 
+    /**
+     * Emit values without calling saveValues() (they are already saved, or saved later by the flux).
+     *
+     * @param savedValues saved values
+     */
+    protected void emitSavedValues(final Set<T> savedValues) {
+        emittedValues.addAndGet(savedValues.size());
+        fluxSink.next(savedValues);
+    }
+
     /**
      * Implements this method to return all the new values. Those values will be sent to the strategy.
      *
@@ -95,6 +139,16 @@ public abstract class BaseFlux<T> extends Base {
         return Collections.emptySet();
     }
 
+    /**
+     * Implements this method to return, among values pushed by the exchange, the new ones. Those values will be sent to the strategy.
+     *
+     * @param values values pushed
+     * @return list of new values
+     */
+    protected Set<T> getNewValues(final Set<T> values) {
+        return values;
+    }
+
     /**
      * Implements this method to save values coming from flux.
      *
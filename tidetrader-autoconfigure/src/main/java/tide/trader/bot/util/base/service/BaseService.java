@@ -11,6 +11,9 @@ import java.time.Duration;
  */
 public abstract class BaseService extends Base {
 
+    /** Calls allowed per millisecond when there is no rate limit. */
+    private static final long UNLIMITED_CALLS_PER_MILLISECOND = 1_000_000;
+
     /** Bucket. */
     protected final Bucket bucket;
 
@@ -28,7 +31,23 @@ public abstract class BaseService extends Base {
      * @param rate rate in ms
      */
     public BaseService(final long rate) {
-        Bandwidth limit = Bandwidth.simple(1, Duration.ofMillis(rate));
+        this(rate, 1);
+    }
+
+    /**
+     * Constructs a base service with a rate limit allowing several calls per rate.
+     * A rate of 0 means no rate limit (for example, in backtests where nothing is sent to an exchange).
+     *
+     * @param rate         rate in ms
+     * @param callsPerRate calls allowed per rate
+     */
+    public BaseService(final long rate, final long callsPerRate) {
+        Bandwidth limit;
+        if (rate == 0) {
+            limit = Bandwidth.simple(UNLIMITED_CALLS_PER_MILLISECOND, Duration.ofMillis(1));
+        } else {
+            limit = Bandwidth.simple(callsPerRate, Duration.ofMillis(rate));
+        }
         bucket = Bucket.builder().addLimit(limit).build();
     }
 
@@ -113,6 +113,36 @@ public class ExchangeParameters {
         //@NotNull(message = "Leverage parameter required, set it to true to use the PerpetualSwap leverage")
         private String leverage;
 
+        /** Set it to true to receive tickers from the exchange streams instead of polling (if the exchange supports it). */
+        private Boolean streaming;
+
+        /**
+         * Optional directory of the position journal. When set, positions updated by tickers are sent to strategies
+         * right away and their prices are written in database in batches (the journal is replayed on restart).
+         */
+        private String journal;
+
+        /**
+         * Optional delay (standard ISO 8601 duration like 'P30D') after which closed positions, with their orders and
+         * trades, are moved to the archive tables. It should be longer than a day (trades are retrieved for the last 24 hours).
+         */
+        private String archiveAfter;
+
+        /** Optional number of rows inserted per batch when importing tickers (10 000 if not set). */
+        private Integer importBatchSize;
+
+        /**
+         * Returns the delay after which closed positions are archived.
+         *
+         * @return delay or null if positions are never archived
+         */
+        public Duration getArchiveAfterDuration() {
+            if (StringUtils.isBlank(archiveAfter)) {
+                return null;
+            }
+            return Duration.parse(archiveAfter);
+        }
+
     }
 
     /** Exchange API rate calls. */
@@ -123,6 +153,9 @@ public class ExchangeParameters {
     @ConfigurationProperties(prefix = "trading.bot.exchange.rates")
     public static class Rates {
 
+        /** Default delay between two reconciliations in ms (1 minute). */
+        private static final long DEFAULT_RECONCILIATION_IN_MS = 60_000;
+
         /** Delay between calls to account API. */
         @NotNull(message = "Delay between calls to account API is mandatory")
         @Rate(message = "Invalid account rate - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
@@ -143,6 +176,12 @@ public class ExchangeParameters {
         @Rate(message = "Invalid expire rate - Enter a long value (ex: 123) or a standard ISO 8601 duration (ex: PT10H)")
         private String expire;
 
+        /** Optional delay after which an unchanged ticker is sent again to strategies (if not set, unchanged tickers are never sent again). */
+        private String tickerHeartbeat;
+
+        /** Optional delay between two reconciliations of orders, trades and accounts with the REST API when they are streamed (1 minute if not set). */
+        private String reconciliation;
+
         /**
          * Returns account rate value in ms.
          *
@@ -161,6 +200,30 @@ public class ExchangeParameters {
             return getRateValue(ticker);
         }
 
+        /**
+         * Returns ticker heartbeat value in ms.
+         *
+         * @return ticker heartbeat value in ms or null if not set
+         */
+        public Long getTickerHeartbeatValueInMs() {
+            if (StringUtils.isBlank(tickerHeartbeat)) {
+                return null;
+            }
+            return getRateValue(tickerHeartbeat);
+        }
+
+        /**
+         * Returns reconciliation value in ms.
+         *
+         * @return reconciliation value in ms
+         */
+        public long getReconciliationValueInMs() {
+            if (StringUtils.isBlank(reconciliation)) {
+                return DEFAULT_RECONCILIATION_IN_MS;
+            }
+            return getRateValue(reconciliation);
+        }
+
         /**
          * Returns trade rate value in ms.
          *
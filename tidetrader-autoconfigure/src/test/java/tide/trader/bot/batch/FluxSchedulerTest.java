@@ -0,0 +1,221 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Flux scheduler test")
+public class FluxSchedulerTest {
+
+    private static final long RATE = 100;
+
+    /** Tasks scheduled and not run yet. */
+    private final Deque<ScheduledTask> scheduledTasks = new ArrayDeque<>();
+
+    private FluxScheduler fluxScheduler;
+
+    @BeforeEach
+    public void setUp() {
+        fluxScheduler = new FluxScheduler(new StubTaskScheduler());
+    }
+
+    @Test
+    @DisplayName("Check updates are scheduled one rate after the start of the previous one")
+    public void checkRate() {
+        final AtomicInteger updates = new AtomicInteger();
+        fluxScheduler.schedule("test", RATE, Long.MAX_VALUE, 0, () -> true, () -> updates.incrementAndGet() > 0);
+        assertEquals(1, scheduledTasks.size());
+
+        for (int i = 1; i <= 3; i++) {
+            final long delay = runNext();
+            assertEquals(i, updates.get());
+            assertDelay(RATE, delay);
+        }
+        final FluxScheduler.FluxMetrics metrics = fluxScheduler.getMetrics().get("test");
+        assertEquals(3, metrics.getUpdates());
+        assertEquals(0, metrics.getSkippedUpdates());
+        assertEquals(0, metrics.getFailedUpdates());
+    }
+
+    @Test
+    @DisplayName("Check updates are skipped when nothing is pending, until the idle delay")
+    public void checkSkippedAndIdleUpdates() {
+        final AtomicBoolean pending = new AtomicBoolean(false);
+        final AtomicInteger updates = new AtomicInteger();
+        fluxScheduler.schedule("skipped", RATE, Long.MAX_VALUE, 0, pending::get, () -> updates.incrementAndGet() > 0);
+        fluxScheduler.schedule("idle", RATE, 0, 0, () -> false, () -> updates.incrementAndGet() > 0);
+
+        // Nothing pending: "skipped" is not updated, "idle" is updated as its idle delay elapsed.
+        assertDelay(RATE, runNext());
+        assertDelay(RATE, runNext());
+        assertEquals(1, updates.get());
+        assertEquals(1, fluxScheduler.getMetrics().get("skipped").getSkippedUpdates());
+        assertEquals(0, fluxScheduler.getMetrics().get("skipped").getUpdates());
+        assertEquals(1, fluxScheduler.getMetrics().get("idle").getUpdates());
+
+        // Something pending: "skipped" is updated.
+        pending.set(true);
+        runNext();
+        assertEquals(2, updates.get());
+        assertEquals(1, fluxScheduler.getMetrics().get("skipped").getUpdates());
+    }
+
+    @Test
+    @DisplayName("Check failed updates are delayed exponentially")
+    public void checkBackoff() {
+        final AtomicBoolean succeeded = new AtomicBoolean(false);
+        fluxScheduler.schedule("test", RATE, Long.MAX_VALUE, 0, () -> true, succeeded::get);
+
+        assertDelay(RATE * 2, runNext());
+        assertDelay(RATE * 4, runNext());
+        assertDelay(RATE * 8, runNext());
+        assertEquals(3, fluxScheduler.getMetrics().get("test").getFailedUpdates());
+
+        // Back to the rate after a success.
+        succeeded.set(true);
+        assertDelay(RATE, runNext());
+        succeeded.set(false);
+        assertDelay(RATE * 2, runNext());
+    }
+
+    @Test
+    @DisplayName("Check the back-off is limited to one minute")
+    public void checkMaximumBackoff() {
+        fluxScheduler.schedule("test", 10_000, Long.MAX_VALUE, 0, () -> true, () -> false);
+
+        assertDelay(20_000, runNext());
+        assertDelay(40_000, runNext());
+        assertDelay(60_000, runNext());
+        assertDelay(60_000, runNext());
+    }
+
+    @Test
+    @DisplayName("Check an update throwing an exception is counted as failed and rescheduled")
+    public void checkException() {
+        fluxScheduler.schedule("test", RATE, Long.MAX_VALUE, 0, () -> true, () -> {
+            throw new IllegalStateException("Exchange error");
+        });
+
+        assertDelay(RATE * 2, runNext());
+        assertEquals(1, fluxScheduler.getMetrics().get("test").getFailedUpdates());
+        assertEquals(1, scheduledTasks.size());
+    }
+
+    @Test
+    @DisplayName("Check no update is run nor scheduled after shutdown")
+    public void checkShutdown() {
+        final AtomicInteger updates = new AtomicInteger();
+        fluxScheduler.schedule("test", RATE, Long.MAX_VALUE, 0, () -> true, () -> updates.incrementAndGet() > 0);
+        fluxScheduler.shutdown();
+
+        scheduledTasks.poll().task.run();
+        assertEquals(0, updates.get());
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check a flux can't be scheduled twice")
+    public void checkDuplicateFlux() {
+        fluxScheduler.schedule("test", RATE, Long.MAX_VALUE, 0, () -> true, () -> true);
+        assertThrows(IllegalStateException.class,
+                () -> fluxScheduler.schedule("test", RATE, Long.MAX_VALUE, 0, () -> true, () -> true));
+    }
+
+    /**
+     * Runs the next scheduled task and returns the delay between the moment it was run and the next update it scheduled.
+     *
+     * @return delay in ms (the update starts a few ms after the task is run, so it's slightly above the real delay)
+     */
+    private long runNext() {
+        final ScheduledTask scheduledTask = scheduledTasks.poll();
+        final long before = System.currentTimeMillis();
+        scheduledTask.task.run();
+        return scheduledTasks.peekLast().time - before;
+    }
+
+    /**
+     * Checks a delay measured by runNext(), allowing for the time spent in the update.
+     *
+     * @param expected expected delay in ms
+     * @param delay    delay measured
+     */
+    private static void assertDelay(final long expected, final long delay) {
+        assertTrue(delay >= expected && delay <= expected + 50, "Expected " + expected + " ms, was " + delay + " ms");
+    }
+
+    /**
+     * A task scheduled.
+     */
+    private static final class ScheduledTask {
+
+        /** Task. */
+        private final Runnable task;
+
+        /** Time (ms). */
+        private final long time;
+
+        /**
+         * Constructor.
+         *
+         * @param newTask task
+         * @param newTime time
+         */
+        private ScheduledTask(final Runnable newTask, final long newTime) {
+            this.task = newTask;
+            this.time = newTime;
+        }
+
+    }
+
+    /**
+     * Task scheduler keeping the tasks scheduled, they are run by the test.
+     */
+    private final class StubTaskScheduler implements TaskScheduler {
+
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable task, final Date startTime) {
+            scheduledTasks.add(new ScheduledTask(task, startTime.getTime()));
+            return null;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable task, final Trigger trigger) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final Date startTime, final long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final Date startTime, final long delay) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final long delay) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,275 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import tide.trader.bot.domain.DailyGain;
+import tide.trader.bot.domain.Gain;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
+import tide.trader.bot.dto.util.CurrencyDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.dto.util.GainDTO;
+import tide.trader.bot.repository.DailyGainRepository;
+import tide.trader.bot.repository.GainRepository;
+import tide.trader.bot.repository.PositionRepository;
+import tide.trader.bot.util.mapper.PositionMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tide.trader.bot.batch.PositionFixtures.closed;
+import static tide.trader.bot.batch.PositionFixtures.position;
+import static tide.trader.bot.dto.position.PositionTypeDTO.LONG;
+import static tide.trader.bot.dto.position.PositionTypeDTO.SHORT;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.SPOT;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.ETH;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Gain ledger test")
+public class GainLedgerTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final CurrencyPairDTO ETH_USDT = new CurrencyPairDTO(ETH, USDT);
+
+    private static final PositionRulesDTO RULES = PositionRulesDTO.builder().build();
+
+    private static final PositionMapper POSITION_MAPPER = Mappers.getMapper(PositionMapper.class);
+
+    /** Ledger entries in database. */
+    private final List<Gain> database = new ArrayList<>();
+
+    /** Daily gains in database. */
+    private final List<DailyGain> dailyDatabase = new ArrayList<>();
+
+    /** Closed positions. */
+    private final List<PositionDTO> closedPositions = new ArrayList<>();
+
+    /** Closed positions archived. */
+    private final List<PositionDTO> archivedPositions = new ArrayList<>();
+
+    private GainLedger gainLedger;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        final AtomicLong uids = new AtomicLong();
+        final GainRepository gainRepository = mock(GainRepository.class);
+        when(gainRepository.count()).thenAnswer(invocation -> (long) database.size());
+        when(gainRepository.findByOrderByUid()).thenAnswer(invocation -> new ArrayList<>(database));
+        when(gainRepository.findByStrategyUid(anyLong())).thenAnswer(invocation -> database.stream()
+                .filter(gain -> gain.getStrategy().getUid() == (long) invocation.getArgument(0))
+                .collect(Collectors.toList()));
+        when(gainRepository.findByStrategyUidAndCurrency(anyLong(), anyString())).thenAnswer(invocation -> database.stream()
+                .filter(gain -> gain.getStrategy().getUid() == (long) invocation.getArgument(0))
+                .filter(gain -> gain.getCurrency().equals(invocation.getArgument(1)))
+                .findFirst());
+        when(gainRepository.saveAll(any())).thenAnswer(invocation -> {
+            ((Collection<Gain>) invocation.getArgument(0)).forEach(gain -> {
+                // Amounts are stored as numeric(38, 16).
+                gain.setTotalBefore(gain.getTotalBefore().setScale(16));
+                gain.setTotalAfter(gain.getTotalAfter().setScale(16));
+                if (gain.getUid() == null) {
+                    gain.setUid(uids.incrementAndGet());
+                    database.add(gain);
+                }
+            });
+            return new ArrayList<>((Collection<Gain>) invocation.getArgument(0));
+        });
+        doAnswer(invocation -> {
+            database.clear();
+            return null;
+        }).when(gainRepository).deleteAllInBatch();
+
+        final DailyGainRepository dailyGainRepository = mock(DailyGainRepository.class);
+        when(dailyGainRepository.count()).thenAnswer(invocation -> (long) dailyDatabase.size());
+        when(dailyGainRepository.findByStrategyUidAndCurrency(anyLong(), anyString())).thenAnswer(invocation -> dailyDatabase.stream()
+                .filter(gain -> gain.getStrategy().getUid() == (long) invocation.getArgument(0))
+                .filter(gain -> gain.getCurrency().equals(invocation.getArgument(1)))
+                .sorted(Comparator.comparing(DailyGain::getDay))
+                .collect(Collectors.toList()));
+        when(dailyGainRepository.findByStrategyUidAndCurrencyAndDay(anyLong(), anyString(), any())).thenAnswer(invocation -> dailyDatabase.stream()
+                .filter(gain -> gain.getStrategy().getUid() == (long) invocation.getArgument(0))
+                .filter(gain -> gain.getCurrency().equals(invocation.getArgument(1)))
+                .filter(gain -> gain.getDay().equals(invocation.getArgument(2)))
+                .findFirst());
+        when(dailyGainRepository.save(any())).thenAnswer(invocation -> {
+            final DailyGain gain = invocation.getArgument(0);
+            if (gain.getUid() == null) {
+                gain.setUid(uids.incrementAndGet());
+                dailyDatabase.add(gain);
+            }
+            return gain;
+        });
+        when(dailyGainRepository.saveAll(any())).thenAnswer(invocation -> {
+            ((Collection<DailyGain>) invocation.getArgument(0)).forEach(gain -> {
+                gain.setUid(uids.incrementAndGet());
+                dailyDatabase.add(gain);
+            });
+            return new ArrayList<>((Collection<DailyGain>) invocation.getArgument(0));
+        });
+        doAnswer(invocation -> {
+            dailyDatabase.clear();
+            return null;
+        }).when(dailyGainRepository).deleteAllInBatch();
+
+        final PositionRepository positionRepository = mock(PositionRepository.class);
+        when(positionRepository.existsByStatus(PositionStatusDTO.CLOSED)).thenAnswer(invocation -> !closedPositions.isEmpty());
+        when(positionRepository.findByStatus(PositionStatusDTO.CLOSED)).thenAnswer(invocation -> closedPositions.stream()
+                .map(POSITION_MAPPER::mapToPosition)
+                .collect(Collectors.toList()));
+
+        final PositionArchive positionArchive = mock(PositionArchive.class);
+        when(positionArchive.count()).thenAnswer(invocation -> (long) archivedPositions.size());
+        when(positionArchive.findClosedPositions(0)).thenAnswer(invocation -> archivedPositions.stream()
+                .map(POSITION_MAPPER::mapToPosition)
+                .collect(Collectors.toList()));
+
+        gainLedger = new GainLedger(gainRepository, dailyGainRepository, positionRepository, positionArchive);
+
+        // Strategy 1: a 10 USDT gain and a 5 USDT loss.
+        closedPositions.add(closed(position(1, 1, BTC_USDT, LONG, SPOT, true, RULES), new BigDecimal("6"), fee("0.1", USDT)));
+        closedPositions.add(closed(position(2, 1, ETH_USDT, LONG, SPOT, true, RULES), new BigDecimal("4.5"), null));
+        // Strategy 2: a 5 USDT gain and a short position giving back the BTC sold.
+        closedPositions.add(closed(position(3, 2, BTC_USDT, LONG, SPOT, true, RULES), new BigDecimal("5.5"), fee("0.01", ETH)));
+        closedPositions.add(closed(position(4, 2, BTC_USDT, SHORT, SPOT, true, RULES), new BigDecimal("4"), fee("0.02", ETH)));
+    }
+
+    @Test
+    @DisplayName("Check gains are added to the ledger when positions are closed")
+    public void checkClosedPositions() {
+        assertTrue(gainLedger.getGains(0).isEmpty());
+        closedPositions.forEach(gainLedger::addClosedPosition);
+        // One entry by strategy and currency: fees paid in ETH have their own entry.
+        assertEquals(4, database.size());
+        checkGains();
+    }
+
+    @Test
+    @DisplayName("Check the ledger is rebuilt from closed positions")
+    public void checkRebuild() {
+        gainLedger.addClosedPosition(closedPositions.get(0));
+        gainLedger.addClosedPosition(closedPositions.get(0));
+        gainLedger.rebuild();
+        assertEquals(4, database.size());
+        checkGains();
+    }
+
+    @Test
+    @DisplayName("Check the ledger is rebuilt from closed positions, archived ones included")
+    public void checkRebuildWithArchivedPositions() {
+        archivedPositions.add(closedPositions.remove(0));
+        archivedPositions.add(closedPositions.remove(2));
+        gainLedger.rebuild();
+        assertEquals(4, database.size());
+        checkGains();
+    }
+
+    @Test
+    @DisplayName("Check an empty ledger is rebuilt on start")
+    public void checkInitialize() {
+        gainLedger.initialize();
+        checkGains();
+
+        // Once the ledger exists, it's not rebuilt.
+        closedPositions.clear();
+        gainLedger.initialize();
+        checkGains();
+    }
+
+    @Test
+    @DisplayName("Check daily gains are added by day the positions were opened")
+    public void checkDailyGains() {
+        closedPositions.forEach(gainLedger::addClosedPosition);
+        checkDailyGainsSeries();
+
+        // Rebuilding the ledger gives the same series.
+        gainLedger.rebuild();
+        checkDailyGainsSeries();
+    }
+
+    /**
+     * Checks the daily gains of the closed positions.
+     */
+    private void checkDailyGainsSeries() {
+        final LocalDate day = PositionFixtures.OPENED_ON.toLocalDate();
+        // Strategy 1: the BTC position is opened the first day, the ETH one the next day.
+        final Map<LocalDate, BigDecimal> strategy1 = gainLedger.getDailyGains(1, USDT);
+        assertEquals(List.of(day, day.plusDays(1)), new ArrayList<>(strategy1.keySet()));
+        assertEquals(0, new BigDecimal("10").compareTo(strategy1.get(day)));
+        assertEquals(0, new BigDecimal("-5").compareTo(strategy1.get(day.plusDays(1))));
+
+        // Strategy 2: the short position gains are in BTC.
+        final Map<LocalDate, BigDecimal> strategy2 = gainLedger.getDailyGains(2, USDT);
+        assertEquals(List.of(day.plusDays(1)), new ArrayList<>(strategy2.keySet()));
+        assertEquals(0, new BigDecimal("5").compareTo(strategy2.get(day.plusDays(1))));
+        assertEquals(List.of(day.plusDays(2)), new ArrayList<>(gainLedger.getDailyGains(2, BTC).keySet()));
+        assertEquals(4, dailyDatabase.size());
+    }
+
+    /**
+     * Checks the gains of the closed positions.
+     */
+    private void checkGains() {
+        final Map<CurrencyDTO, GainDTO> strategy1 = gainLedger.getGains(1);
+        assertEquals(1, strategy1.size());
+        assertGain(strategy1.get(USDT), "5", 5);
+        assertEquals(List.of(fee("0.1", USDT)), strategy1.get(USDT).getClosingOrderFees());
+        assertTrue(strategy1.get(USDT).getOpeningOrderFees().isEmpty());
+
+        final Map<CurrencyDTO, GainDTO> strategy2 = gainLedger.getGains(2);
+        assertEquals(2, strategy2.size());
+        assertGain(strategy2.get(USDT), "5", 10);
+        assertGain(strategy2.get(BTC), "0", 0);
+        assertEquals(0, new BigDecimal("0.03").compareTo(strategy2.get(BTC).getOrdersFees().get(ETH).getValue()));
+
+        final Map<CurrencyDTO, GainDTO> all = gainLedger.getGains(0);
+        assertEquals(List.of(USDT, BTC), new ArrayList<>(all.keySet()));
+        assertGain(all.get(USDT), "10", 6.67);
+        assertEquals(2, all.get(USDT).getOrdersFees().size());
+    }
+
+    /**
+     * Checks a gain.
+     *
+     * @param gain       gain
+     * @param amount     amount expected
+     * @param percentage percentage expected
+     */
+    private static void assertGain(final GainDTO gain, final String amount, final double percentage) {
+        assertEquals(0, new BigDecimal(amount).compareTo(gain.getAmount().getValue()));
+        assertEquals(percentage, gain.getPercentage());
+    }
+
+    /**
+     * Returns a fee.
+     *
+     * @param value    value
+     * @param currency currency
+     * @return fee
+     */
+    private static CurrencyAmountDTO fee(final String value, final CurrencyDTO currency) {
+        return CurrencyAmountDTO.builder().value(new BigDecimal(value)).currency(currency).build();
+    }
+
+}
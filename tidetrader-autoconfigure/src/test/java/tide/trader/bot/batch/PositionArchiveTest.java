@@ -0,0 +1,242 @@
+package tide.trader.bot.batch;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tide.trader.bot.domain.Order;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.domain.Strategy;
+import tide.trader.bot.domain.Trade;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.repository.OrderRepository;
+import tide.trader.bot.repository.PositionRepository;
+import tide.trader.bot.repository.RepositoryTestConfiguration;
+import tide.trader.bot.repository.StrategyRepository;
+import tide.trader.bot.repository.TradeRepository;
+import tide.trader.bot.util.jpa.CurrencyAmount;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tide.trader.bot.dto.position.PositionStatusDTO.OPENED;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = RepositoryTestConfiguration.class)
+@DisplayName("Position archive test")
+public class PositionArchiveTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    private static final int ARCHIVED_ROWS = 1_000_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StrategyRepository strategyRepository;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    private PositionArchive positionArchive;
+
+    private Strategy strategy;
+
+    @BeforeEach
+    public void setUp() {
+        strategy = new Strategy();
+        strategy.setStrategyId("01");
+        strategy.setName("Strategy 01");
+        entityManager.persist(strategy);
+        // Positions 1 to 4 are closed on day 1 to 4, positions 5 and 6 are opened.
+        for (long positionId = 1; positionId <= 6; positionId++) {
+            position(positionId, positionId <= 4 ? CLOSED : OPENED);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        positionArchive = new PositionArchive(jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                strategyRepository,
+                Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Check closed positions are moved to the archive with their orders and trades")
+    public void checkArchive() {
+        // Positions closed before day 3.
+        assertEquals(2, positionArchive.archive(START.plusDays(3)));
+        entityManager.clear();
+        assertEquals(2, positionArchive.count());
+
+        // Hot tables.
+        assertEquals(List.of(3L, 4L, 5L, 6L), positionRepository.findByStrategyUid(strategy.getUid())
+                .stream()
+                .map(Position::getPositionId)
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(6, orderRepository.count());
+        assertEquals(10, tradeRepository.count());
+
+        // Archived positions are read with their orders and trades.
+        final List<Position> archived = positionArchive.findClosedPositions(strategy.getUid());
+        assertEquals(List.of(1L, 2L), archived.stream().map(Position::getPositionId).collect(Collectors.toList()));
+        archived.forEach(position -> {
+            assertEquals(strategy.getUid(), position.getStrategy().getUid());
+            assertEquals(CLOSED, position.getStatus());
+            assertEquals(2, position.getOpeningOrder().getTrades().size());
+            assertEquals(1, position.getClosingOrder().getTrades().size());
+            assertEquals(0, new BigDecimal("10").compareTo(position.getOpeningOrder().getAmount().getValue()));
+            assertEquals("BTC", position.getOpeningOrder().getAmount().getCurrency());
+        });
+        assertEquals(2, positionArchive.findClosedPositions(0).size());
+        assertTrue(positionArchive.findClosedPositions(strategy.getUid() + 1).isEmpty());
+
+        // Archived positions are read by pages.
+        final List<Position> firstPage = positionArchive.findClosedPositions(strategy.getUid(), 0, 1);
+        assertEquals(List.of(1L), firstPage.stream().map(Position::getPositionId).collect(Collectors.toList()));
+        final List<Position> secondPage = positionArchive.findClosedPositions(strategy.getUid(), firstPage.get(0).getUid(), 1);
+        assertEquals(List.of(2L), secondPage.stream().map(Position::getPositionId).collect(Collectors.toList()));
+        assertEquals(2, secondPage.get(0).getOpeningOrder().getTrades().size());
+        assertTrue(positionArchive.findClosedPositions(0, secondPage.get(0).getUid(), 1).isEmpty());
+
+        // Archiving again doesn't move anything.
+        assertEquals(0, positionArchive.archive(START.plusDays(3)));
+        assertEquals(2, positionArchive.archive(START.plusDays(10)));
+        entityManager.clear();
+        assertEquals(List.of(1L, 2L, 3L, 4L), positionArchive.findClosedPositions(strategy.getUid())
+                .stream()
+                .map(Position::getPositionId)
+                .collect(Collectors.toList()));
+        assertEquals(2, positionRepository.findByStrategyUid(strategy.getUid()).size());
+    }
+
+    @Test
+    @DisplayName("Check hot queries don't depend on the number of archived positions")
+    public void checkHotQueriesWithArchivedPositions() {
+        positionArchive.archive(START.plusDays(10));
+        final long before = hotQueries();
+
+        // A million archived positions.
+        jdbcTemplate.update("INSERT INTO POSITIONS_ARCHIVE (UID, POSITION_ID, FK_STRATEGY_UID, CURRENCY_PAIR, STATUS)"
+                + " SELECT N + 1000, N + 1000, ?, 'BTC/USDT', 'CLOSED' FROM UNNEST(SEQUENCE_ARRAY(1, ?, 1)) AS T(N)",
+                strategy.getUid(), ARCHIVED_ROWS);
+        assertEquals(ARCHIVED_ROWS + 4, positionArchive.count());
+
+        // Hot queries run the same statements and load the same entities.
+        assertEquals(before, hotQueries());
+    }
+
+    /**
+     * Runs the hot queries and returns the number of entities they loaded.
+     *
+     * @return number of entities loaded
+     */
+    private long hotQueries() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(2, positionRepository.findByStatusNot(CLOSED).size());
+        assertEquals(2, positionRepository.findByStatusIn(List.of(OPENED)).size());
+        // The archive tables are never read by hot queries.
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2, orderRepository.findByOrderByTimestampAsc().size());
+        return statistics.getEntityLoadCount();
+    }
+
+    /**
+     * Creates a position with its orders and trades.
+     *
+     * @param positionId position id
+     * @param status     status
+     */
+    private void position(final long positionId, final PositionStatusDTO status) {
+        final Position position = new Position();
+        position.setPositionId(positionId);
+        position.setStrategy(strategy);
+        position.setCurrencyPair("BTC/USDT");
+        position.setStatus(status);
+        position.setOpeningOrder(order("O" + positionId, positionId, 2));
+        if (status == CLOSED) {
+            position.setClosingOrder(order("C" + positionId, positionId, 1));
+        }
+        entityManager.persist(position);
+    }
+
+    /**
+     * Creates a filled order with its trades.
+     *
+     * @param orderId order id
+     * @param day     day of the order since start
+     * @param trades  number of trades
+     * @return order
+     */
+    private Order order(final String orderId, final long day, final int trades) {
+        final Order order = new Order();
+        order.setOrderId(orderId);
+        order.setStrategy(strategy);
+        order.setCurrencyPair("BTC/USDT");
+        order.setAmount(amount("10", "BTC"));
+        order.setStatus(OrderStatusDTO.FILLED);
+        order.setTimestamp(START.plusDays(day));
+        entityManager.persist(order);
+        for (int i = 0; i < trades; i++) {
+            final Trade trade = new Trade();
+            trade.setTradeId(orderId + "-" + i);
+            trade.setOrder(order);
+            trade.setCurrencyPair("BTC/USDT");
+            trade.setAmount(amount("5", "BTC"));
+            trade.setPrice(amount("20", "USDT"));
+            trade.setTimestamp(START.plusDays(day).plusMinutes(i));
+            entityManager.persist(trade);
+        }
+        return order;
+    }
+
+    /**
+     * Returns a currency amount.
+     *
+     * @param value    value
+     * @param currency currency
+     * @return currency amount
+     */
+    private static CurrencyAmount amount(final String value, final String currency) {
+        final CurrencyAmount amount = new CurrencyAmount();
+        amount.setValue(new BigDecimal(value));
+        amount.setCurrency(currency);
+        return amount;
+    }
+
+}
@@ -0,0 +1,131 @@
+package tide.trader.bot.batch;
+
+import org.mapstruct.factory.Mappers;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.position.PositionTypeDTO;
+import tide.trader.bot.dto.strategy.StrategyDTO;
+import tide.trader.bot.dto.strategy.StrategyDomainDTO;
+import tide.trader.bot.dto.trade.OrderDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.dto.trade.OrderTypeDTO;
+import tide.trader.bot.dto.trade.TradeDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.util.mapper.PositionMapper;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import static tide.trader.bot.dto.position.PositionTypeDTO.LONG;
+
+/**
+ * Positions used by position flux, position triggers and gain ledger tests.
+ */
+final class PositionFixtures {
+
+    /** Position mapper. */
+    private static final PositionMapper POSITION_MAPPER = Mappers.getMapper(PositionMapper.class);
+
+    /** Amount of each position. */
+    static final BigDecimal AMOUNT = new BigDecimal("10");
+
+    /** Opening price of each position. */
+    static final BigDecimal OPENING_PRICE = new BigDecimal("5");
+
+    /** Day the first positions are opened (two positions are opened each following day). */
+    static final ZonedDateTime OPENED_ON = ZonedDateTime.of(2022, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    /**
+     * Constructor.
+     */
+    private PositionFixtures() {
+    }
+
+    /**
+     * Returns a position saved in database.
+     *
+     * @param uid          position uid
+     * @param strategyUid  strategy uid
+     * @param currencyPair currency pair
+     * @param type         position type
+     * @param domain       strategy domain
+     * @param filled       true if the opening order is filled (position opened)
+     * @param rules        position rules
+     * @return position
+     */
+    static Position position(final long uid,
+                             final long strategyUid,
+                             final CurrencyPairDTO currencyPair,
+                             final PositionTypeDTO type,
+                             final StrategyDomainDTO domain,
+                             final boolean filled,
+                             final PositionRulesDTO rules) {
+        final StrategyDTO strategy = StrategyDTO.builder().uid(strategyUid).strategyId("0" + strategyUid).domain(domain).build();
+        final TradeDTO trade = TradeDTO.builder()
+                .tradeId("T" + uid)
+                .orderId("O" + uid)
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder().value(AMOUNT).currency(currencyPair.getBaseCurrency()).build())
+                .price(CurrencyAmountDTO.builder().value(OPENING_PRICE).currency(currencyPair.getQuoteCurrency()).build())
+                .build();
+        final OrderDTO openingOrder = OrderDTO.builder()
+                .orderId("O" + uid)
+                .type(type == LONG ? OrderTypeDTO.BID : OrderTypeDTO.ASK)
+                .strategy(strategy)
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder().value(AMOUNT).currency(currencyPair.getBaseCurrency()).build())
+                .averagePrice(CurrencyAmountDTO.builder().value(OPENING_PRICE).currency(currencyPair.getQuoteCurrency()).build())
+                .status(filled ? OrderStatusDTO.FILLED : OrderStatusDTO.NEW)
+                .timestamp(OPENED_ON.plusDays(uid / 2))
+                .trades(filled ? Set.of(trade) : Set.of())
+                .build();
+        return POSITION_MAPPER.mapToPosition(new PositionDTO(uid, type, strategy, currencyPair, openingOrder, rules));
+    }
+
+    /**
+     * Returns a position closed by a filled closing order.
+     *
+     * @param position     opened position saved in database
+     * @param closingPrice price of the closing trade
+     * @param fee          fee of the closing trade (null if there is no fee)
+     * @return closed position
+     */
+    static PositionDTO closed(final Position position, final BigDecimal closingPrice, final CurrencyAmountDTO fee) {
+        final PositionDTO positionDTO = dto(position);
+        final CurrencyPairDTO currencyPair = positionDTO.getCurrencyPair();
+        final TradeDTO trade = TradeDTO.builder()
+                .tradeId("T" + position.getUid() + "C")
+                .orderId("O" + position.getUid() + "C")
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder().value(AMOUNT).currency(currencyPair.getBaseCurrency()).build())
+                .price(CurrencyAmountDTO.builder().value(closingPrice).currency(currencyPair.getQuoteCurrency()).build())
+                .fee(fee)
+                .build();
+        positionDTO.closePositionWithOrder(OrderDTO.builder()
+                .orderId("O" + position.getUid() + "C")
+                .type(positionDTO.getType() == LONG ? OrderTypeDTO.ASK : OrderTypeDTO.BID)
+                .strategy(positionDTO.getStrategy())
+                .currencyPair(currencyPair)
+                .amount(CurrencyAmountDTO.builder().value(AMOUNT).currency(currencyPair.getBaseCurrency()).build())
+                .averagePrice(CurrencyAmountDTO.builder().value(closingPrice).currency(currencyPair.getQuoteCurrency()).build())
+                .status(OrderStatusDTO.FILLED)
+                .trades(Set.of(trade))
+                .build(), "Test");
+        return positionDTO;
+    }
+
+    /**
+     * Returns the position DTO of a position saved in database.
+     *
+     * @param position position
+     * @return position DTO
+     */
+    static PositionDTO dto(final Position position) {
+        return POSITION_MAPPER.mapToPositionDTO(position);
+    }
+
+}
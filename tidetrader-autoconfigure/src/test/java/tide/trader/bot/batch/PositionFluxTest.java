@@ -0,0 +1,275 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.repository.PositionRepository;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tide.trader.bot.batch.PositionFixtures.closed;
+import static tide.trader.bot.batch.PositionFixtures.position;
+import static tide.trader.bot.dto.position.PositionTypeDTO.LONG;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.SPOT;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.ETH;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Position flux test")
+public class PositionFluxTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final CurrencyPairDTO ETH_USDT = new CurrencyPairDTO(ETH, USDT);
+
+    private static final PositionRulesDTO RULES = PositionRulesDTO.builder()
+            .stopGainPercentage(10f)
+            .stopLossPercentage(5f)
+            .build();
+
+    /** Positions in database (by uid). */
+    private final Map<Long, Position> database = new HashMap<>();
+
+    private PositionRepository positionRepository;
+
+    private PositionFlux positionFlux;
+
+    private List<PositionDTO> emitted;
+
+    @BeforeEach
+    public void setUp() {
+        database.put(1L, position(1, 1, BTC_USDT, LONG, SPOT, true, RULES));
+        database.put(2L, position(2, 1, ETH_USDT, LONG, SPOT, true, RULES));
+        database.put(3L, position(3, 2, BTC_USDT, LONG, SPOT, true, RULES));
+
+        positionRepository = mock(PositionRepository.class);
+        when(positionRepository.findByStatusNot(PositionStatusDTO.CLOSED)).thenAnswer(invocation -> new ArrayList<>(database.values()));
+        when(positionRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(database.get((Long) invocation.getArgument(0))));
+        when(positionRepository.save(any(Position.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(positionRepository.updateLifecycle(any(Position.class))).thenAnswer(invocation -> {
+            final Position position = invocation.getArgument(0);
+            database.put(position.getUid(), position);
+            return true;
+        });
+
+        positionFlux = new PositionFlux(positionRepository);
+        emitted = new ArrayList<>();
+        positionFlux.getFlux().subscribe(emitted::addAll);
+    }
+
+    @Test
+    @DisplayName("Check open positions are loaded once and indexed by strategy and currency pair")
+    public void checkOpenPositionsIndex() {
+        assertEquals(Set.of(1L, 2L), uids(positionFlux.getOpenPositions(1)));
+        assertEquals(Set.of(1L), uids(positionFlux.getOpenPositions(1, BTC_USDT)));
+        assertEquals(Set.of(3L), uids(positionFlux.getOpenPositions(2)));
+        assertEquals(Set.of(), uids(positionFlux.getOpenPositions(3)));
+        verify(positionRepository, times(1)).findByStatusNot(PositionStatusDTO.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Check open positions returned are copies of the positions saved")
+    public void checkOpenPositionsAreCopies() {
+        final PositionDTO position = positionFlux.getOpenPositions(1, BTC_USDT).get(0);
+        assertTrue(position.tickerUpdate(TickerDTO.builder().currencyPair(BTC_USDT).last(new BigDecimal("5.2")).build()));
+        assertNotNull(position.getLatestGainPrice());
+
+        // The change is not in the index until the position is saved through the flux.
+        assertNull(positionFlux.getOpenPositions(1, BTC_USDT).get(0).getLatestGainPrice());
+        positionFlux.emitValue(position);
+        assertEquals(1, emitted.size());
+        assertEquals(0, new BigDecimal("5.2").compareTo(positionFlux.getOpenPositions(1, BTC_USDT).get(0).getLatestGainPrice().getValue()));
+    }
+
+    @Test
+    @DisplayName("Check open positions are updated with one statement, without reading them from database")
+    public void checkOpenPositionsUpdate() {
+        final PositionDTO position = positionFlux.getOpenPositions(1, BTC_USDT).get(0);
+        assertTrue(position.tickerUpdate(TickerDTO.builder().currencyPair(BTC_USDT).last(new BigDecimal("5.2")).build()));
+        positionFlux.emitValue(position);
+
+        verify(positionRepository, times(0)).findById(anyLong());
+        verify(positionRepository, times(0)).save(any(Position.class));
+        verify(positionRepository, times(1)).updateLifecycle(any(Position.class));
+        assertEquals(1, emitted.size());
+
+        // A position not updated in database is not sent to strategies.
+        when(positionRepository.updateLifecycle(any(Position.class))).thenReturn(false);
+        positionFlux.emitValue(position);
+        assertEquals(1, emitted.size());
+    }
+
+    @Test
+    @DisplayName("Check the index is not changed when a position update is rejected by the database")
+    public void checkRejectedUpdate() {
+        final PositionDTO position = positionFlux.getOpenPositions(1, BTC_USDT).get(0);
+        assertTrue(position.tickerUpdate(TickerDTO.builder().currencyPair(BTC_USDT).last(new BigDecimal("5.2")).build()));
+
+        // Update rejected.
+        when(positionRepository.updateLifecycle(any(Position.class))).thenReturn(false);
+        positionFlux.emitValue(position);
+        assertNull(positionFlux.getOpenPositions(1, BTC_USDT).get(0).getLatestGainPrice());
+        assertNull(database.get(1L).getLatestGainPrice());
+
+        // Update failing.
+        when(positionRepository.updateLifecycle(any(Position.class))).thenThrow(new IllegalStateException("Database error"));
+        assertThrows(IllegalStateException.class, () -> positionFlux.emitValue(position));
+        assertNull(positionFlux.getOpenPositions(1, BTC_USDT).get(0).getLatestGainPrice());
+        assertEquals(0, emitted.size());
+    }
+
+    @Test
+    @DisplayName("Check only the positions whose price is changed by a ticker are returned")
+    public void checkOpenPositionsChangedByPrice() {
+        assertEquals(Set.of(1L), uids(positionFlux.getOpenPositions(1, BTC_USDT, new BigDecimal("5.2"), Set.of())));
+        final PositionDTO position = positionFlux.getOpenPositions(1, BTC_USDT).get(0);
+        assertTrue(position.tickerUpdate(TickerDTO.builder().currencyPair(BTC_USDT).last(new BigDecimal("5.2")).build()));
+        positionFlux.emitValue(position);
+
+        // Same price: the position is only returned if asked.
+        assertEquals(Set.of(), uids(positionFlux.getOpenPositions(1, BTC_USDT, new BigDecimal("5.20"), Set.of())));
+        assertEquals(Set.of(1L), uids(positionFlux.getOpenPositions(1, BTC_USDT, new BigDecimal("5.2"), Set.of(1L))));
+        assertEquals(Set.of(1L), uids(positionFlux.getOpenPositions(1, BTC_USDT, new BigDecimal("5.3"), Set.of())));
+    }
+
+    @Test
+    @DisplayName("Check created positions are indexed and sent without being saved again")
+    public void checkCreatedPositions() {
+        assertEquals(Set.of(1L, 2L), uids(positionFlux.getOpenPositions(1)));
+
+        final Position position = position(4, 1, BTC_USDT, LONG, SPOT, true, RULES);
+        assertEquals(4, positionFlux.emitCreatedPosition(position).getUid());
+
+        verify(positionRepository, times(0)).updateLifecycle(any(Position.class));
+        assertEquals(1, emitted.size());
+        assertEquals(Set.of(1L, 4L), uids(positionFlux.getOpenPositions(1, BTC_USDT)));
+    }
+
+    @Test
+    @DisplayName("Check closed positions are removed from the index")
+    public void checkClosedPositions() {
+        assertEquals(Set.of(1L, 2L), uids(positionFlux.getOpenPositions(1)));
+
+        // A closing order with all its trades closes the position (the opening one is reused for the test).
+        final Position position = database.get(2L);
+        position.setClosingOrder(position.getOpeningOrder());
+        position.setStatus(PositionStatusDTO.CLOSED);
+        positionFlux.refreshOpenPosition(2L);
+
+        assertEquals(Set.of(1L), uids(positionFlux.getOpenPositions(1)));
+        assertEquals(Set.of(), positionFlux.getTriggeredPositions(1, ETH_USDT, new BigDecimal("100")));
+    }
+
+    @Test
+    @DisplayName("Check ticker updates are journaled instead of saved")
+    public void checkJournaledTickerUpdates(@TempDir final Path directory) {
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        final PositionJournal positionJournal = new PositionJournal(directory, jdbcTemplate);
+        positionJournal.open();
+        final PositionFlux journaledPositionFlux = new PositionFlux(positionRepository, positionJournal);
+        journaledPositionFlux.getFlux().subscribe(emitted::addAll);
+
+        final PositionDTO position = journaledPositionFlux.getOpenPositions(1, BTC_USDT).get(0);
+        assertTrue(position.tickerUpdate(TickerDTO.builder().currencyPair(BTC_USDT).last(new BigDecimal("5.2")).build()));
+        journaledPositionFlux.emitTickerUpdate(position);
+
+        verify(positionRepository, times(0)).save(any(Position.class));
+        assertTrue(journaledPositionFlux.hasJournaledUpdates());
+        assertEquals(1, emitted.size());
+        assertEquals(0, new BigDecimal("5.2").compareTo(journaledPositionFlux.getOpenPositions(1, BTC_USDT).get(0).getLatestGainPrice().getValue()));
+
+        // Prices are written in database by the scheduled flush.
+        assertTrue(journaledPositionFlux.flushJournal());
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertFalse(journaledPositionFlux.hasJournaledUpdates());
+    }
+
+    @Test
+    @DisplayName("Check the gains of a position are added to the ledger once, when it's closed")
+    public void checkGainLedger() {
+        final GainLedger gainLedger = mock(GainLedger.class);
+        final PositionFlux ledgerPositionFlux = new PositionFlux(positionRepository, null, gainLedger);
+        ledgerPositionFlux.getFlux().subscribe(emitted::addAll);
+
+        ledgerPositionFlux.emitValue(ledgerPositionFlux.getOpenPositions(1, BTC_USDT).get(0));
+        verify(gainLedger, times(0)).addClosedPosition(any());
+        verify(positionRepository, times(0)).findById(1L);
+
+        // The closed position is read again from database, with its closing trades.
+        final PositionDTO position = closed(database.get(1L), new BigDecimal("6"), null);
+        ledgerPositionFlux.emitValue(position);
+        verify(positionRepository, times(1)).findById(1L);
+        ledgerPositionFlux.emitValue(position);
+        verify(gainLedger, times(1)).addClosedPosition(any());
+    }
+
+    @Test
+    @DisplayName("Check force closing refresh")
+    public void checkForceClosingRefresh() {
+        assertEquals(Set.of(), positionFlux.getTriggeredPositions(1, BTC_USDT, new BigDecimal("5")));
+        assertFalse(positionFlux.isForceClosing(BTC_USDT));
+
+        // Updated in database by the position service, then refreshed.
+        database.get(1L).setForceClosing(true);
+        positionFlux.refreshOpenPosition(1L);
+
+        assertTrue(positionFlux.isForceClosing(BTC_USDT));
+        assertEquals(Set.of(1L), positionFlux.getTriggeredPositions(1, BTC_USDT, new BigDecimal("5")));
+        assertEquals(Set.of(), positionFlux.getTriggeredPositions(2, BTC_USDT, new BigDecimal("5")));
+    }
+
+    @Test
+    @DisplayName("Check rules update refresh")
+    public void checkRulesUpdateRefresh() {
+        assertEquals(Set.of(1L), positionFlux.getTriggeredPositions(1, BTC_USDT, new BigDecimal("5.6")));
+
+        // Updated in database by the position service, then refreshed.
+        database.get(1L).setStopGainPercentageRule(20f);
+        positionFlux.refreshOpenPosition(1L);
+
+        assertEquals(Set.of(), positionFlux.getTriggeredPositions(1, BTC_USDT, new BigDecimal("5.6")));
+        assertEquals(Set.of(1L), positionFlux.getTriggeredPositions(1, BTC_USDT, new BigDecimal("6")));
+        assertEquals(20f, positionFlux.getOpenPositions(1, BTC_USDT).get(0).getRules().getStopGainPercentage());
+    }
+
+    /**
+     * Returns the uids of positions.
+     *
+     * @param positions positions
+     * @return uids
+     */
+    private static Set<Long> uids(final List<PositionDTO> positions) {
+        return positions.stream().map(PositionDTO::getUid).collect(Collectors.toSet());
+    }
+
+}
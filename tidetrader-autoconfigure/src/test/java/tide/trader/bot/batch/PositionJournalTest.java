@@ -0,0 +1,217 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tide.trader.bot.batch.PositionFixtures.dto;
+import static tide.trader.bot.batch.PositionFixtures.position;
+import static tide.trader.bot.dto.position.PositionTypeDTO.LONG;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.SPOT;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Position journal test")
+public class PositionJournalTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final PositionRulesDTO RULES = PositionRulesDTO.builder().build();
+
+    @TempDir
+    Path directory;
+
+    /** Batches written in database (one list of statement arguments per batch). */
+    private final List<List<Object[]>> batches = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>((List<Object[]>) invocation.getArgument(1)));
+            return new int[0];
+        });
+    }
+
+    @Test
+    @DisplayName("Check journaled prices are written in one batch and their segments deleted")
+    public void checkFlush() throws IOException {
+        final PositionJournal positionJournal = new PositionJournal(directory, jdbcTemplate);
+        positionJournal.open();
+        assertFalse(positionJournal.hasPendingUpdates());
+
+        positionJournal.append(positionWithPrice(1, "5.1"));
+        positionJournal.append(positionWithPrice(2, "5.2"));
+        positionJournal.append(positionWithPrice(1, "5.3"));
+        assertTrue(positionJournal.hasPendingUpdates());
+        assertTrue(batches.isEmpty());
+
+        // Only the latest prices of each position are written.
+        assertTrue(positionJournal.flush());
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertLatestPrice(batches.get(0).get(0), 1, "5.3");
+        assertLatestPrice(batches.get(0).get(1), 2, "5.2");
+        assertFalse(positionJournal.hasPendingUpdates());
+        assertEquals(1, segments().size());
+
+        // Nothing to write.
+        assertTrue(positionJournal.flush());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    @DisplayName("Check prices stay journaled when the database write fails")
+    public void checkFlushFailure() throws IOException {
+        final PositionJournal positionJournal = new PositionJournal(directory, jdbcTemplate);
+        positionJournal.open();
+        positionJournal.append(positionWithPrice(1, "5.1"));
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("Database down"));
+        assertFalse(positionJournal.flush());
+        assertTrue(positionJournal.hasPendingUpdates());
+        assertEquals(2, segments().size());
+
+        // Newer prices appended after the failure are kept.
+        positionJournal.append(positionWithPrice(1, "5.2"));
+        final Position position = position(1, 1, BTC_USDT, LONG, SPOT, true, RULES);
+        positionJournal.applyPendingPrices(position);
+        assertEquals(0, new BigDecimal("5.2").compareTo(position.getLatestGainPrice().getValue()));
+    }
+
+    @Test
+    @DisplayName("Check journaled prices are replayed after a crash")
+    public void checkReplay() throws IOException {
+        final PositionJournal positionJournal = new PositionJournal(directory, jdbcTemplate);
+        positionJournal.open();
+        positionJournal.append(positionWithPrice(1, "5.1"));
+        positionJournal.append(positionWithPrice(1, "5.4"));
+        positionJournal.append(positionWithPrice(2, "5.2"));
+        // The application stopped while writing a line.
+        Files.writeString(segments().get(0), "3;5.3;USDT;5", APPEND);
+
+        // The application restarts.
+        final PositionJournal restartedPositionJournal = new PositionJournal(directory, jdbcTemplate);
+        restartedPositionJournal.open();
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertLatestPrice(batches.get(0).get(0), 1, "5.4");
+        assertLatestPrice(batches.get(0).get(1), 2, "5.2");
+        assertFalse(restartedPositionJournal.hasPendingUpdates());
+        assertEquals(1, segments().size());
+        assertEquals(0, Files.size(segments().get(0)));
+    }
+
+    @Test
+    @DisplayName("Check journaled prices are kept on close when the database write fails")
+    public void checkCloseFailure() throws IOException {
+        final PositionJournal positionJournal = new PositionJournal(directory, jdbcTemplate);
+        positionJournal.open();
+        positionJournal.append(positionWithPrice(1, "5.1"));
+        // The database is back when the application restarts.
+        doThrow(new DataAccessResourceFailureException("Database down"))
+                .doAnswer(invocation -> {
+                    batches.add(new ArrayList<>(invocation.getArgument(1)));
+                    return new int[0];
+                })
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        positionJournal.close();
+        assertEquals(2, segments().size());
+
+        new PositionJournal(directory, jdbcTemplate).open();
+        assertEquals(1, batches.size());
+        assertLatestPrice(batches.get(0).get(0), 1, "5.1");
+        assertEquals(1, segments().size());
+    }
+
+    @Test
+    @DisplayName("Check pending prices are applied to positions saved")
+    public void checkApplyPendingPrices() {
+        final PositionJournal positionJournal = new PositionJournal(directory, jdbcTemplate);
+        positionJournal.open();
+        final Position position = position(1, 1, BTC_USDT, LONG, SPOT, true, RULES);
+        positionJournal.applyPendingPrices(position);
+        assertNull(position.getLatestGainPrice());
+
+        positionJournal.append(positionWithPrice(1, "5.5"));
+        positionJournal.applyPendingPrices(position);
+        assertEquals(0, new BigDecimal("5.5").compareTo(position.getLatestGainPrice().getValue()));
+        assertEquals("USDT", position.getLatestGainPrice().getCurrency());
+        assertEquals(0, new BigDecimal("5.5").compareTo(position.getHighestGainPrice().getValue()));
+
+        // Once written, prices are read from database.
+        positionJournal.close();
+        final Position reloadedPosition = position(1, 1, BTC_USDT, LONG, SPOT, true, RULES);
+        positionJournal.applyPendingPrices(reloadedPosition);
+        assertNull(reloadedPosition.getLatestGainPrice());
+    }
+
+    /**
+     * Returns an opened position updated by a ticker.
+     *
+     * @param uid   position uid
+     * @param price ticker price
+     * @return position
+     */
+    private static PositionDTO positionWithPrice(final long uid, final String price) {
+        final PositionDTO position = dto(position(uid, 1, BTC_USDT, LONG, SPOT, true, RULES));
+        position.tickerUpdate(TickerDTO.builder().currencyPair(BTC_USDT).last(new BigDecimal(price)).build());
+        return position;
+    }
+
+    /**
+     * Checks the latest price written by a statement.
+     *
+     * @param arguments statement arguments
+     * @param uid       position uid expected
+     * @param price     latest price expected
+     */
+    private static void assertLatestPrice(final Object[] arguments, final long uid, final String price) {
+        assertEquals(uid, arguments[7]);
+        assertEquals(0, new BigDecimal(price).compareTo((BigDecimal) arguments[4]));
+        assertEquals("USDT", arguments[5]);
+    }
+
+    /**
+     * Returns the journal segments.
+     *
+     * @return segments
+     * @throws IOException if the directory can't be read
+     */
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+}
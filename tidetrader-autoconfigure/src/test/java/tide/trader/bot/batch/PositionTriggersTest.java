@@ -0,0 +1,158 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.batch.PositionFixtures.dto;
+import static tide.trader.bot.batch.PositionFixtures.position;
+import static tide.trader.bot.dto.position.PositionTypeDTO.LONG;
+import static tide.trader.bot.dto.position.PositionTypeDTO.SHORT;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.PERPETUAL;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.SPOT;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.ETH;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Position triggers test")
+public class PositionTriggersTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final CurrencyPairDTO ETH_USDT = new CurrencyPairDTO(ETH, USDT);
+
+    /** Stop gain at 10% and stop loss at 5%. */
+    private static final PositionRulesDTO RULES = PositionRulesDTO.builder()
+            .stopGainPercentage(10f)
+            .stopLossPercentage(5f)
+            .build();
+
+    @Test
+    @DisplayName("Check triggers of a long position")
+    public void checkLongPosition() {
+        final PositionTriggers positionTriggers = new PositionTriggers();
+        positionTriggers.update(dto(position(1, 1, BTC_USDT, LONG, SPOT, true, RULES)));
+
+        // Opened at 5: stop gain at 5.5, stop loss at 4.75 (triggers include a small margin).
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "5"));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "5.4"));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "4.8"));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "5.5"));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "7"));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "4.75"));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "1"));
+
+        // Other strategies and currency pairs are not triggered.
+        assertEquals(Set.of(), triggered(positionTriggers, 2, BTC_USDT, "7"));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, ETH_USDT, "7"));
+    }
+
+    @Test
+    @DisplayName("Check triggers of short positions")
+    public void checkShortPositions() {
+        final PositionTriggers positionTriggers = new PositionTriggers();
+        positionTriggers.update(dto(position(1, 1, BTC_USDT, SHORT, SPOT, true, RULES)));
+        positionTriggers.update(dto(position(2, 1, BTC_USDT, SHORT, PERPETUAL, true, RULES)));
+
+        // The gain of a short position increases when the price goes down.
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "5"));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "4.6"));
+        assertEquals(Set.of(1L, 2L), triggered(positionTriggers, 1, BTC_USDT, "4.5"));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "5.2"));
+        assertEquals(Set.of(1L, 2L), triggered(positionTriggers, 1, BTC_USDT, "5.3"));
+    }
+
+    @Test
+    @DisplayName("Check positions are checked with the triggers found")
+    public void checkTriggersMatchShouldBeClosed() {
+        final PositionTriggers positionTriggers = new PositionTriggers();
+        final PositionDTO position = dto(position(1, 1, BTC_USDT, LONG, SPOT, true, RULES));
+        positionTriggers.update(position);
+
+        // Every price that makes the position close must trigger it.
+        for (BigDecimal price = new BigDecimal("4"); price.compareTo(new BigDecimal("6")) <= 0; price = price.add(new BigDecimal("0.01"))) {
+            final BigDecimal gain = BigDecimal.valueOf(position.calculateGainFromPrice(price).orElseThrow().getPercentage());
+            if (gain.compareTo(BigDecimal.TEN) >= 0 || gain.compareTo(new BigDecimal("-5")) <= 0) {
+                assertEquals(Set.of(1L), positionTriggers.getTriggeredPositions(1, BTC_USDT, price), "Price " + price);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Check positions not opened or without rules have no triggers")
+    public void checkNoTriggers() {
+        final PositionTriggers positionTriggers = new PositionTriggers();
+        positionTriggers.update(dto(position(1, 1, BTC_USDT, LONG, SPOT, false, RULES)));
+        positionTriggers.update(dto(position(2, 1, BTC_USDT, LONG, SPOT, true, PositionRulesDTO.builder().build())));
+
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "100"));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "0.01"));
+    }
+
+    @Test
+    @DisplayName("Check rules update")
+    public void checkRulesUpdate() {
+        final PositionTriggers positionTriggers = new PositionTriggers();
+        final Position position = position(1, 1, BTC_USDT, LONG, SPOT, true, RULES);
+        positionTriggers.update(dto(position));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "5.6"));
+
+        // Stop gain moved to 20%: the previous trigger is replaced.
+        position.setStopGainPercentageRule(20f);
+        positionTriggers.update(dto(position));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "5.6"));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "6"));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "4.7"));
+    }
+
+    @Test
+    @DisplayName("Check force closing")
+    public void checkForceClosing() {
+        final PositionTriggers positionTriggers = new PositionTriggers();
+        final Position position = position(1, 1, BTC_USDT, LONG, SPOT, true, RULES);
+        positionTriggers.update(dto(position));
+        positionTriggers.update(dto(position(2, 2, BTC_USDT, LONG, SPOT, true, RULES)));
+        assertFalse(positionTriggers.isForceClosing(BTC_USDT));
+
+        // A force closing position is triggered whatever the price.
+        position.setForceClosing(true);
+        positionTriggers.update(dto(position));
+        assertTrue(positionTriggers.isForceClosing(BTC_USDT));
+        assertFalse(positionTriggers.isForceClosing(ETH_USDT));
+        assertEquals(Set.of(1L), triggered(positionTriggers, 1, BTC_USDT, "5"));
+        assertEquals(Set.of(1L), positionTriggers.getTriggeredPositions(1, BTC_USDT, null));
+        assertEquals(Set.of(), triggered(positionTriggers, 2, BTC_USDT, "5"));
+
+        // Once removed (closed), it's not triggered anymore.
+        positionTriggers.remove(dto(position));
+        assertFalse(positionTriggers.isForceClosing(BTC_USDT));
+        assertEquals(Set.of(), triggered(positionTriggers, 1, BTC_USDT, "7"));
+        assertEquals(Set.of(2L), triggered(positionTriggers, 2, BTC_USDT, "7"));
+    }
+
+    /**
+     * Returns the positions triggered by a price.
+     *
+     * @param positionTriggers position triggers
+     * @param strategyUid      strategy uid
+     * @param currencyPair     currency pair
+     * @param price            price
+     * @return positions uid
+     */
+    private static Set<Long> triggered(final PositionTriggers positionTriggers,
+                                       final long strategyUid,
+                                       final CurrencyPairDTO currencyPair,
+                                       final String price) {
+        return positionTriggers.getTriggeredPositions(strategyUid, currencyPair, new BigDecimal(price));
+    }
+
+}
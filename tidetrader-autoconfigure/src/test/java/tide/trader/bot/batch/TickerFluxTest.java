@@ -0,0 +1,129 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.ETH;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Ticker flux test")
+public class TickerFluxTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final CurrencyPairDTO ETH_USDT = new CurrencyPairDTO(ETH, USDT);
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Check unchanged tickers are not emitted again")
+    public void checkUnchangedTickersAreSkipped() {
+        final TickerFlux tickerFlux = new TickerFlux(null, null);
+        final List<TickerDTO> emitted = subscribe(tickerFlux);
+
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1.0", 0)));
+        // Same values (trailing zeros ignored) and a new timestamp: skipped.
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1.00", 1)));
+        // Another currency pair has its own last emitted ticker.
+        tickerFlux.emitValues(Set.of(ticker(ETH_USDT, "1.0", 1)));
+        // A new price: emitted.
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "2", 2)));
+
+        assertEquals(3, emitted.size());
+        assertEquals(0, new BigDecimal("2").compareTo(emitted.get(2).getLast()));
+    }
+
+    @Test
+    @DisplayName("Check unchanged tickers are emitted again after the heartbeat")
+    public void checkHeartbeat() {
+        final TickerFlux tickerFlux = new TickerFlux(null, null, Duration.ofSeconds(10));
+        final List<TickerDTO> emitted = subscribe(tickerFlux);
+
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 0)));
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 9)));
+        assertEquals(1, emitted.size());
+
+        // The heartbeat is measured from the last emitted ticker.
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 10)));
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 19)));
+        assertEquals(2, emitted.size());
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 20)));
+        assertEquals(3, emitted.size());
+    }
+
+    @Test
+    @DisplayName("Check every ticker is emitted with a zero heartbeat")
+    public void checkZeroHeartbeat() {
+        final TickerFlux tickerFlux = new TickerFlux(null, null, Duration.ZERO);
+        final List<TickerDTO> emitted = subscribe(tickerFlux);
+
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 0)));
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 0)));
+
+        assertEquals(2, emitted.size());
+    }
+
+    @Test
+    @DisplayName("Check unchanged tickers are emitted while a position is force closing")
+    public void checkForceClosing() {
+        final Set<CurrencyPairDTO> forceClosing = new HashSet<>();
+        final TickerFlux tickerFlux = new TickerFlux(null, null, null, forceClosing::contains);
+        final List<TickerDTO> emitted = subscribe(tickerFlux);
+
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 0)));
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 1)));
+        assertEquals(1, emitted.size());
+
+        forceClosing.add(BTC_USDT);
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 2)));
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 3)));
+        tickerFlux.emitValues(Set.of(ticker(ETH_USDT, "1", 3)));
+        tickerFlux.emitValues(Set.of(ticker(ETH_USDT, "1", 4)));
+        assertEquals(4, emitted.size());
+
+        forceClosing.clear();
+        tickerFlux.emitValues(Set.of(ticker(BTC_USDT, "1", 5)));
+        assertEquals(4, emitted.size());
+    }
+
+    /**
+     * Subscribe to the flux and returns the list of tickers emitted.
+     *
+     * @param tickerFlux ticker flux
+     * @return tickers emitted
+     */
+    private static List<TickerDTO> subscribe(final TickerFlux tickerFlux) {
+        final List<TickerDTO> emitted = new ArrayList<>();
+        tickerFlux.getFlux().subscribe(emitted::addAll);
+        return emitted;
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param currencyPair currency pair
+     * @param last         last price
+     * @param seconds      seconds since start
+     * @return ticker
+     */
+    private static TickerDTO ticker(final CurrencyPairDTO currencyPair, final String last, final long seconds) {
+        return TickerDTO.builder()
+                .currencyPair(currencyPair)
+                .last(new BigDecimal(last))
+                .timestamp(START.plusSeconds(seconds))
+                .build();
+    }
+
+}
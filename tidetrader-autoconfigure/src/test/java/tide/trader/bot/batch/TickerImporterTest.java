@@ -0,0 +1,146 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tide.trader.bot.domain.ImportedTicker;
+import tide.trader.bot.repository.ImportedTickersRepository;
+import tide.trader.bot.repository.RepositoryTestConfiguration;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ContextConfiguration(classes = RepositoryTestConfiguration.class)
+@DisplayName("Ticker importer test")
+public class TickerImporterTest {
+
+    private static final String HEADER = "CURRENCY_PAIR, OPEN, LAST, BID, ASK, HIGH, LOW, VWAP, VOLUME, QUOTE_VOLUME, BID_SIZE, ASK_SIZE, TIMESTAMP";
+
+    private static final long START = 1508371200;
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ImportedTickersRepository importedTickersRepository;
+
+    private TickerImporter tickerImporter;
+
+    @BeforeEach
+    public void setUp() {
+        tickerImporter = new TickerImporter(jdbcTemplate, new TransactionTemplate(transactionManager), 2);
+    }
+
+    @Test
+    @DisplayName("Check tickers are imported")
+    public void checkImport() throws IOException {
+        final List<Resource> files = List.of(file("tickers-to-import-2.csv", "ETH/USDT", 3),
+                file("tickers-to-import-1.csv", "BTC/USDT", 5));
+        assertEquals(8, tickerImporter.importFiles(files));
+
+        // Files are imported in order.
+        final List<ImportedTicker> tickers = importedTickersRepository.findByCurrencyPairOrderByTimestampAsc("BTC/USDT");
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), tickers.stream().map(ImportedTicker::getUid).collect(Collectors.toList()));
+        assertEquals(0, new BigDecimal("100.5").compareTo(tickers.get(2).getLast()));
+        assertEquals(0, new BigDecimal("2").compareTo(tickers.get(2).getVolume()));
+        assertEquals(START + 2 * 60, tickers.get(2).getTimestamp().toEpochSecond());
+        assertEquals(3, importedTickersRepository.findByCurrencyPairOrderByTimestampAsc("ETH/USDT").size());
+
+        // Importing again doesn't change anything.
+        assertEquals(8, tickerImporter.importFiles(files));
+        assertEquals(8, importedTickersRepository.findByOrderByTimestampAsc().size());
+    }
+
+    @Test
+    @DisplayName("Check an interrupted import is resumed")
+    public void checkResume() throws IOException {
+        final List<Resource> files = List.of(file("tickers-to-import-1.csv", "BTC/USDT", 5),
+                file("tickers-to-import-2.csv", "ETH/USDT", 3));
+        assertEquals(8, tickerImporter.importFiles(files));
+
+        // Import interrupted after the first batch of the first file.
+        jdbcTemplate.update("DELETE FROM IMPORTED_TICKERS WHERE UID > 2");
+        jdbcTemplate.update("UPDATE IMPORTED_TICKERS_FILES SET IMPORTED_ROWS = 2, COMPLETED = FALSE WHERE FILENAME = 'tickers-to-import-1.csv'");
+        jdbcTemplate.update("DELETE FROM IMPORTED_TICKERS_FILES WHERE FILENAME = 'tickers-to-import-2.csv'");
+
+        assertEquals(8, tickerImporter.importFiles(files));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), importedTickersRepository.findByCurrencyPairOrderByTimestampAsc("BTC/USDT")
+                .stream()
+                .map(ImportedTicker::getUid)
+                .collect(Collectors.toList()));
+        assertEquals(3, importedTickersRepository.findByCurrencyPairOrderByTimestampAsc("ETH/USDT").size());
+    }
+
+    @Test
+    @DisplayName("Check tickers are imported again when a file changed")
+    public void checkChangedFile() throws IOException {
+        assertEquals(8, tickerImporter.importFiles(List.of(file("tickers-to-import-1.csv", "BTC/USDT", 5),
+                file("tickers-to-import-2.csv", "ETH/USDT", 3))));
+
+        // File modified.
+        assertEquals(9, tickerImporter.importFiles(List.of(file("tickers-to-import-1.csv", "BTC/USDT", 6),
+                file("tickers-to-import-2.csv", "ETH/USDT", 3))));
+        assertEquals(6, importedTickersRepository.findByCurrencyPairOrderByTimestampAsc("BTC/USDT").size());
+
+        // File removed.
+        assertEquals(3, tickerImporter.importFiles(List.of(file("tickers-to-import-2.csv", "ETH/USDT", 3))));
+        assertEquals(0, importedTickersRepository.findByCurrencyPairOrderByTimestampAsc("BTC/USDT").size());
+    }
+
+    @Test
+    @DisplayName("Check large files are imported")
+    public void checkLargeFile() throws IOException {
+        final int rows = 100_000;
+        tickerImporter = new TickerImporter(jdbcTemplate, new TransactionTemplate(transactionManager), TickerImporter.DEFAULT_BATCH_SIZE);
+        assertEquals(rows, tickerImporter.importFiles(List.of(file("tickers-to-import.csv", "BTC/USDT", rows))));
+    }
+
+    /**
+     * Writes a file of tickers (one per minute).
+     *
+     * @param filename     filename
+     * @param currencyPair currency pair
+     * @param rows         number of tickers
+     * @return file
+     * @throws IOException exception
+     */
+    private Resource file(final String filename, final String currencyPair, final int rows) throws IOException {
+        final Path path = directory.resolve(filename);
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                final BigDecimal price = new BigDecimal("99.5").add(BigDecimal.valueOf(i).divide(BigDecimal.valueOf(2)));
+                writer.write(String.join(", ", currencyPair, price.toPlainString(), price.toPlainString(),
+                        price.toPlainString(), price.toPlainString(), price.toPlainString(), price.toPlainString(),
+                        price.toPlainString(), String.valueOf(i), "", "", "", String.valueOf(START + i * 60L)));
+                writer.newLine();
+            }
+        }
+        return new FileSystemResource(path);
+    }
+
+}
@@ -0,0 +1,156 @@
+package tide.trader.bot.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.domain.Order;
+import tide.trader.bot.dto.trade.TradeDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.repository.OrderRepository;
+import tide.trader.bot.repository.TradeRepository;
+import tide.trader.bot.service.TradeService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("User data stream test")
+public class UserDataStreamTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    /** Order ids saved in database. */
+    private final Set<String> savedOrderIds = new HashSet<>();
+
+    /** Trade consumer given to the trade service. */
+    private final AtomicReference<Consumer<TradeDTO>> tradeConsumer = new AtomicReference<>();
+
+    private TradeService tradeService;
+
+    private List<TradeDTO> emitted;
+
+    private TradeFlux tradeFlux;
+
+    private OrderFlux orderFlux;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        final OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findOrderIdByOrderIdIn(anyCollection())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0))
+                .stream()
+                .filter(savedOrderIds::contains)
+                .collect(Collectors.toList()));
+        when(orderRepository.findByOrderIdIn(anyCollection())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0))
+                .stream()
+                .filter(savedOrderIds::contains)
+                .map(orderId -> {
+                    final Order order = new Order();
+                    order.setOrderId(orderId);
+                    return order;
+                })
+                .collect(Collectors.toList()));
+        final TradeRepository tradeRepository = mock(TradeRepository.class);
+        when(tradeRepository.saveAll(any())).thenAnswer(invocation -> new ArrayList<>((Collection<?>) invocation.getArgument(0)));
+
+        tradeService = mock(TradeService.class);
+        when(tradeService.subscribeUserData(any(), any(), any(), any())).thenAnswer(invocation -> {
+            tradeConsumer.set(invocation.getArgument(1));
+            return true;
+        });
+
+        orderFlux = new OrderFlux(orderRepository, tradeService);
+        tradeFlux = new TradeFlux(orderRepository, tradeRepository, tradeService);
+        emitted = new ArrayList<>();
+        tradeFlux.getFlux().subscribe(emitted::addAll);
+    }
+
+    @Test
+    @DisplayName("Check trades pushed before their order is saved are pushed again once it's saved")
+    public void checkPendingTrades() {
+        final UserDataStream userDataStream = new UserDataStream(tradeService, orderFlux, tradeFlux, 60_000);
+        userDataStream.startStreaming();
+        assertTrue(userDataStream.isStreaming());
+        savedOrderIds.add("O01");
+
+        // The trade of a saved order is pushed right away.
+        tradeConsumer.get().accept(trade("T01", "O01"));
+        assertEquals(1, emitted.size());
+        assertFalse(userDataStream.hasPendingUpdates());
+
+        // The exchange answered faster than the order creation was saved.
+        tradeConsumer.get().accept(trade("T02", "O02"));
+        assertEquals(1, emitted.size());
+        assertTrue(userDataStream.hasPendingUpdates());
+        userDataStream.retryPendingUpdates();
+        assertEquals(1, emitted.size());
+        assertTrue(userDataStream.hasPendingUpdates());
+
+        // Once the order is saved, the trade is pushed.
+        savedOrderIds.add("O02");
+        userDataStream.retryPendingUpdates();
+        assertEquals(2, emitted.size());
+        assertEquals("T02", emitted.get(1).getTradeId());
+        assertFalse(userDataStream.hasPendingUpdates());
+    }
+
+    @Test
+    @DisplayName("Check trades whose order is never saved are dropped after the reconciliation delay")
+    public void checkExpiredTrades() {
+        final UserDataStream userDataStream = new UserDataStream(tradeService, orderFlux, tradeFlux, 0);
+        userDataStream.startStreaming();
+
+        tradeConsumer.get().accept(trade("T01", "O01"));
+        assertTrue(userDataStream.hasPendingUpdates());
+        userDataStream.retryPendingUpdates();
+        assertFalse(userDataStream.hasPendingUpdates());
+        assertTrue(userDataStream.isOrderAndTradeUpdateDue());
+        assertEquals(0, emitted.size());
+    }
+
+    @Test
+    @DisplayName("Check the stream is closed on stop")
+    public void checkStopStreaming() {
+        final UserDataStream userDataStream = new UserDataStream(tradeService, orderFlux, tradeFlux, 60_000);
+        userDataStream.startStreaming();
+        userDataStream.stopStreaming();
+        assertFalse(userDataStream.isStreaming());
+        verify(tradeService).unsubscribeUserData();
+    }
+
+    /**
+     * Returns a trade.
+     *
+     * @param tradeId trade id
+     * @param orderId order id
+     * @return trade
+     */
+    private static TradeDTO trade(final String tradeId, final String orderId) {
+        return TradeDTO.builder()
+                .tradeId(tradeId)
+                .orderId(orderId)
+                .currencyPair(BTC_USDT)
+                .amount(CurrencyAmountDTO.builder().value(BigDecimal.ONE).currency(BTC).build())
+                .price(CurrencyAmountDTO.builder().value(BigDecimal.TEN).currency(USDT).build())
+                .build();
+    }
+
+}
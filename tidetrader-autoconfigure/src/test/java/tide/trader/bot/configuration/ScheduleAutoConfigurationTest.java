@@ -0,0 +1,64 @@
+package tide.trader.bot.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import tide.trader.bot.batch.AccountFlux;
+import tide.trader.bot.batch.OrderFlux;
+import tide.trader.bot.batch.PositionArchive;
+import tide.trader.bot.batch.PositionFlux;
+import tide.trader.bot.batch.TickerFlux;
+import tide.trader.bot.batch.TradeFlux;
+import tide.trader.bot.batch.UserDataStream;
+import tide.trader.bot.repository.OrderRepository;
+import tide.trader.bot.service.MessageService;
+import tide.trader.bot.util.parameters.ExchangeParameters;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Schedule auto configuration test")
+public class ScheduleAutoConfigurationTest {
+
+    @Test
+    @DisplayName("Check streams are stopped and the journal is written when the context is closed")
+    public void checkShutdown() {
+        final ExchangeParameters exchangeParameters = new ExchangeParameters();
+        exchangeParameters.getRates().setAccount("100");
+        exchangeParameters.getRates().setTicker("100");
+        exchangeParameters.getRates().setTrade("100");
+        final TickerFlux tickerFlux = mock(TickerFlux.class);
+        final UserDataStream userDataStream = mock(UserDataStream.class);
+        final PositionFlux positionFlux = mock(PositionFlux.class);
+
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        // Registered as is: exchange parameters are not bound to properties.
+        context.getBeanFactory().registerSingleton("exchangeParameters", exchangeParameters);
+        context.registerBean(OrderRepository.class, () -> mock(OrderRepository.class));
+        context.registerBean(AccountFlux.class, () -> mock(AccountFlux.class));
+        context.registerBean(TickerFlux.class, () -> tickerFlux);
+        context.registerBean(OrderFlux.class, () -> mock(OrderFlux.class));
+        context.registerBean(TradeFlux.class, () -> mock(TradeFlux.class));
+        context.registerBean(UserDataStream.class, () -> userDataStream);
+        context.registerBean(PositionFlux.class, () -> positionFlux);
+        context.registerBean(PositionArchive.class, () -> mock(PositionArchive.class));
+        context.registerBean(MessageService.class, () -> mock(MessageService.class));
+        context.register(ScheduleAutoConfiguration.class);
+        context.refresh();
+        final ThreadPoolTaskScheduler taskScheduler = context.getBean(ThreadPoolTaskScheduler.class);
+
+        context.close();
+
+        verify(tickerFlux).stopStreaming();
+        verify(userDataStream).stopStreaming();
+        verify(positionFlux).closeJournal();
+
+        // Flux updates scheduled later (the archive is scheduled every hour) don't delay the termination.
+        assertTrue(taskScheduler.getScheduledExecutor().isTerminated());
+    }
+
+}
@@ -0,0 +1,112 @@
+package tide.trader.bot.dto.position;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.dto.strategy.StrategyDTO;
+import tide.trader.bot.dto.strategy.StrategyDomainDTO;
+import tide.trader.bot.dto.trade.OrderDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.dto.trade.OrderTypeDTO;
+import tide.trader.bot.dto.trade.TradeDTO;
+import tide.trader.bot.dto.util.CurrencyAmountDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.dto.util.GainDTO;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.position.PositionTypeDTO.LONG;
+import static tide.trader.bot.dto.position.PositionTypeDTO.SHORT;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.PERPETUAL;
+import static tide.trader.bot.dto.strategy.StrategyDomainDTO.SPOT;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Position DTO test")
+public class PositionDTOTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    /** Gain percentages are floored to 0.01 point (4 decimals before being multiplied by 100), prices to 8 decimals. */
+    private static final float GAIN_PRECISION = 0.02f;
+
+    private static final float[] GAINS = {-50f, -10f, -1.5f, 0f, 0.5f, 2f, 10f, 45f};
+
+    @Test
+    @DisplayName("Check price from gain of a long position")
+    public void checkLongPriceFromGain() {
+        checkPriceFromGain(position(LONG, SPOT));
+        // Bought 10 BTC at 5 USDT (50 USDT): a 20% gain is reached when 10 BTC are worth 60 USDT.
+        assertEquals(0, new BigDecimal("6").compareTo(position(LONG, SPOT).calculatePriceFromGain(20f).orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Check price from gain of a spot short position")
+    public void checkSpotShortPriceFromGain() {
+        checkPriceFromGain(position(SHORT, SPOT));
+        // Sold 10 BTC at 5 USDT (50 USDT): a 25% gain is reached when 50 USDT buy 12.5 BTC.
+        assertEquals(0, new BigDecimal("4").compareTo(position(SHORT, SPOT).calculatePriceFromGain(25f).orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Check price from gain of a perpetual short position")
+    public void checkPerpetualShortPriceFromGain() {
+        checkPriceFromGain(position(SHORT, PERPETUAL));
+        // Sold 10 BTC at 5 USDT (50 USDT): a 20% gain is reached when 10 BTC are worth 40 USDT.
+        assertEquals(0, new BigDecimal("4").compareTo(position(SHORT, PERPETUAL).calculatePriceFromGain(20f).orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Check no price is returned for an unreachable gain")
+    public void checkUnreachableGain() {
+        // A long or perpetual short position can't lose more than 100%, a spot short position can't gain -100%.
+        assertTrue(position(LONG, SPOT).calculatePriceFromGain(-100f).isEmpty());
+        assertTrue(position(SHORT, PERPETUAL).calculatePriceFromGain(100f).isEmpty());
+        assertTrue(position(SHORT, SPOT).calculatePriceFromGain(-100f).isEmpty());
+    }
+
+    /**
+     * Checks that calculateGainFromPrice() is the reverse of calculatePriceFromGain().
+     *
+     * @param position position
+     */
+    private static void checkPriceFromGain(final PositionDTO position) {
+        for (float gain : GAINS) {
+            final BigDecimal price = position.calculatePriceFromGain(gain).orElseThrow();
+            final GainDTO calculatedGain = position.calculateGainFromPrice(price).orElseThrow();
+            assertEquals(gain, calculatedGain.getPercentage(), GAIN_PRECISION, "Gain of " + gain + "% at price " + price);
+        }
+    }
+
+    /**
+     * Returns an opened position: 10 BTC bought (long) or sold (short) at 5 USDT.
+     *
+     * @param type   position type
+     * @param domain strategy domain
+     * @return position
+     */
+    private static PositionDTO position(final PositionTypeDTO type, final StrategyDomainDTO domain) {
+        final StrategyDTO strategy = StrategyDTO.builder().uid(1L).strategyId("01").domain(domain).build();
+        final TradeDTO trade = TradeDTO.builder()
+                .tradeId("T01")
+                .orderId("O01")
+                .currencyPair(BTC_USDT)
+                .amount(CurrencyAmountDTO.builder().value(new BigDecimal("10")).currency(BTC).build())
+                .price(CurrencyAmountDTO.builder().value(new BigDecimal("5")).currency(USDT).build())
+                .build();
+        final OrderDTO openingOrder = OrderDTO.builder()
+                .orderId("O01")
+                .type(type == LONG ? OrderTypeDTO.BID : OrderTypeDTO.ASK)
+                .strategy(strategy)
+                .currencyPair(BTC_USDT)
+                .amount(CurrencyAmountDTO.builder().value(new BigDecimal("10")).currency(BTC).build())
+                .averagePrice(CurrencyAmountDTO.builder().value(new BigDecimal("5")).currency(USDT).build())
+                .status(OrderStatusDTO.FILLED)
+                .trades(Set.of(trade))
+                .build();
+        return new PositionDTO(1, type, strategy, BTC_USDT, openingOrder, PositionRulesDTO.builder().build());
+    }
+
+}
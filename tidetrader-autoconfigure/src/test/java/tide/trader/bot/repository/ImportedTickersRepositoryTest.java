@@ -0,0 +1,95 @@
+package tide.trader.bot.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import tide.trader.bot.domain.ImportedTicker;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@DisplayName("Imported tickers repository test")
+public class ImportedTickersRepositoryTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Autowired
+    private ImportedTickersRepository importedTickersRepository;
+
+    @BeforeEach
+    public void setUp() {
+        // BTC/USDT: one ticker per minute (two tickers at minute 5), ETH/USDT: one ticker per minute.
+        long uid = 0;
+        for (int minute = 0; minute < 10; minute++) {
+            ticker(++uid, "BTC/USDT", minute);
+            ticker(++uid, "ETH/USDT", minute);
+        }
+        ticker(++uid, "BTC/USDT", 5);
+    }
+
+    @Test
+    @DisplayName("Check imported tickers between two dates")
+    public void checkFindBetween() {
+        final List<ImportedTicker> tickers = importedTickersRepository.findByCurrencyPairAndTimestampBetween("BTC/USDT",
+                START.plusMinutes(2), START.plusMinutes(6), PageRequest.of(0, 100));
+        assertEquals(List.of(5L, 7L, 9L, 11L, 21L), uids(tickers));
+        assertEquals(List.of(5L, 7L), uids(importedTickersRepository.findByCurrencyPairAndTimestampBetween("BTC/USDT",
+                START.plusMinutes(2), START.plusMinutes(6), PageRequest.of(0, 2))));
+        assertEquals(List.of(), uids(importedTickersRepository.findByCurrencyPairAndTimestampBetween("LTC/USDT",
+                START, START.plusMinutes(10), PageRequest.of(0, 100))));
+    }
+
+    @Test
+    @DisplayName("Check imported tickers following a ticker")
+    public void checkFindAfter() {
+        // Tickers with the same timestamp are not skipped.
+        assertEquals(List.of(21L, 13L), uids(importedTickersRepository.findByCurrencyPairAfter("BTC/USDT",
+                START.plusMinutes(5), 11L, START.plusMinutes(7), PageRequest.of(0, 100))));
+        assertEquals(List.of(13L, 15L), uids(importedTickersRepository.findByCurrencyPairAfter("BTC/USDT",
+                START.plusMinutes(5), 21L, START.plusMinutes(10), PageRequest.of(0, 2))));
+    }
+
+    @Test
+    @DisplayName("Check last imported tickers before a date")
+    public void checkFindLast() {
+        assertEquals(List.of(21L, 11L, 9L), uids(importedTickersRepository.findLastByCurrencyPairBefore("BTC/USDT",
+                START.plusMinutes(6), PageRequest.of(0, 3))));
+        assertEquals(List.of(12L, 10L), uids(importedTickersRepository.findLastByCurrencyPairBefore("ETH/USDT",
+                START.plusMinutes(6), PageRequest.of(0, 2))));
+    }
+
+    /**
+     * Saves an imported ticker.
+     *
+     * @param uid          uid
+     * @param currencyPair currency pair
+     * @param minute       minute since start
+     */
+    private void ticker(final long uid, final String currencyPair, final int minute) {
+        final ImportedTicker ticker = new ImportedTicker();
+        ticker.setUid(uid);
+        ticker.setCurrencyPair(currencyPair);
+        ticker.setLast(BigDecimal.valueOf(minute));
+        ticker.setTimestamp(START.plusMinutes(minute));
+        importedTickersRepository.save(ticker);
+    }
+
+    /**
+     * Returns the uids of tickers.
+     *
+     * @param tickers tickers
+     * @return uids
+     */
+    private static List<Long> uids(final List<ImportedTicker> tickers) {
+        return tickers.stream().map(ImportedTicker::getUid).collect(Collectors.toList());
+    }
+
+}
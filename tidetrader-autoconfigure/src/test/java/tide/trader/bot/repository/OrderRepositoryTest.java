@@ -0,0 +1,146 @@
+package tide.trader.bot.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import tide.trader.bot.domain.Order;
+import tide.trader.bot.domain.Strategy;
+import tide.trader.bot.domain.Trade;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.util.jpa.CurrencyAmount;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.trade.OrderStatusDTO.CANCELED;
+import static tide.trader.bot.dto.trade.OrderStatusDTO.FILLED;
+import static tide.trader.bot.dto.trade.OrderStatusDTO.NEW;
+import static tide.trader.bot.dto.trade.OrderStatusDTO.PARTIALLY_FILLED;
+
+@DataJpaTest
+@DisplayName("Order and trade repositories test")
+public class OrderRepositoryTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Autowired
+    private StrategyRepository strategyRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    private Strategy strategy1;
+
+    private Strategy strategy2;
+
+    @BeforeEach
+    public void setUp() {
+        strategy1 = strategy("01");
+        strategy2 = strategy("02");
+        // Strategy 1: one order per day, the last two ones are still open.
+        order("O1", strategy1, FILLED, 0, "T1");
+        order("O2", strategy1, CANCELED, 1);
+        order("O3", strategy1, FILLED, 2, "T3a", "T3b");
+        order("O4", strategy1, PARTIALLY_FILLED, 3, "T4");
+        order("O5", strategy1, NEW, 4);
+        // Strategy 2.
+        order("O6", strategy2, NEW, 0);
+        order("O7", strategy2, FILLED, 1, "T7");
+    }
+
+    @Test
+    @DisplayName("Check orders of a strategy")
+    public void checkStrategyOrders() {
+        assertEquals(List.of("O1", "O2", "O3", "O4", "O5"), orderIds(orderRepository.findByStrategyUid(strategy1.getUid())));
+        assertEquals(List.of("O6", "O7"), orderIds(orderRepository.findByStrategyUid(strategy2.getUid())));
+        assertEquals(List.of("O4", "O5"), orderIds(orderRepository.findByStrategyUidAndStatusIn(strategy1.getUid(), Set.of(OrderStatusDTO.PENDING_NEW, NEW, PARTIALLY_FILLED))));
+        assertEquals("O3", orderRepository.findByStrategyUidAndOrderId(strategy1.getUid(), "O3").orElseThrow().getOrderId());
+        assertTrue(orderRepository.findByStrategyUidAndOrderId(strategy2.getUid(), "O3").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check pages of orders of a strategy")
+    public void checkStrategyOrdersPages() {
+        final Page<Order> firstPage = orderRepository.findByStrategyUidAndTimestampBetween(strategy1.getUid(), START.plusDays(1), START.plusDays(4), PageRequest.of(0, 2));
+        assertEquals(List.of("O2", "O3"), orderIds(firstPage.getContent()));
+        assertEquals(3, firstPage.getTotalElements());
+        final Page<Order> secondPage = orderRepository.findByStrategyUidAndTimestampBetween(strategy1.getUid(), START.plusDays(1), START.plusDays(4), firstPage.nextPageable());
+        assertEquals(List.of("O4"), orderIds(secondPage.getContent()));
+        assertTrue(secondPage.isLast());
+    }
+
+    @Test
+    @DisplayName("Check trades of a strategy")
+    public void checkStrategyTrades() {
+        assertEquals(List.of("T1", "T3a", "T3b", "T4"), tradeIds(tradeRepository.findByStrategyUid(strategy1.getUid())));
+        assertEquals(List.of("T7"), tradeIds(tradeRepository.findByStrategyUid(strategy2.getUid())));
+        assertEquals(List.of("T3a", "T3b"), tradeIds(tradeRepository.findByStrategyUidAndTimestampBetween(strategy1.getUid(), START.plusDays(2), START.plusDays(3), PageRequest.of(0, 10)).getContent()));
+        assertEquals("T7", tradeRepository.findByStrategyUidAndTradeId(strategy2.getUid(), "T7").orElseThrow().getTradeId());
+        assertTrue(tradeRepository.findByStrategyUidAndTradeId(strategy1.getUid(), "T7").isEmpty());
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param strategyId strategy id
+     * @return strategy
+     */
+    private Strategy strategy(final String strategyId) {
+        final Strategy strategy = new Strategy();
+        strategy.setStrategyId(strategyId);
+        strategy.setName("Strategy " + strategyId);
+        return strategyRepository.save(strategy);
+    }
+
+    /**
+     * Creates an order and its trades (one minute apart).
+     *
+     * @param orderId  order id
+     * @param strategy strategy
+     * @param status   status
+     * @param day      day of the order since start
+     * @param tradeIds trade ids
+     */
+    private void order(final String orderId, final Strategy strategy, final OrderStatusDTO status, final int day, final String... tradeIds) {
+        final Order order = new Order();
+        order.setOrderId(orderId);
+        order.setStrategy(strategy);
+        order.setCurrencyPair("BTC/USDT");
+        final CurrencyAmount amount = new CurrencyAmount();
+        amount.setValue(BigDecimal.ONE);
+        amount.setCurrency("BTC");
+        order.setAmount(amount);
+        order.setStatus(status);
+        order.setTimestamp(START.plusDays(day));
+        orderRepository.save(order);
+        for (int i = 0; i < tradeIds.length; i++) {
+            final Trade trade = new Trade();
+            trade.setTradeId(tradeIds[i]);
+            trade.setOrder(order);
+            trade.setCurrencyPair("BTC/USDT");
+            trade.setTimestamp(START.plusDays(day).plusMinutes(i));
+            tradeRepository.save(trade);
+        }
+    }
+
+    private static List<String> orderIds(final List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).collect(Collectors.toList());
+    }
+
+    private static List<String> tradeIds(final List<Trade> trades) {
+        return trades.stream().map(Trade::getTradeId).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,221 @@
+package tide.trader.bot.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import tide.trader.bot.domain.Order;
+import tide.trader.bot.domain.Position;
+import tide.trader.bot.domain.Strategy;
+import tide.trader.bot.domain.Trade;
+import tide.trader.bot.dto.position.PositionStatusDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
+import tide.trader.bot.util.jpa.CurrencyAmount;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tide.trader.bot.dto.position.PositionStatusDTO.OPENED;
+import static tide.trader.bot.dto.position.PositionStatusDTO.OPENING;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Position repository test")
+public class PositionRepositoryTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    private Strategy strategy;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        strategy = new Strategy();
+        strategy.setStrategyId("01");
+        strategy.setName("Strategy 01");
+        entityManager.persist(strategy);
+        // Opened positions have two opening trades, closed positions also have a closing trade.
+        for (long positionId = 1; positionId <= 10; positionId++) {
+            position(positionId, positionId <= 4 ? CLOSED : OPENED);
+        }
+        position(11, OPENING);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Check positions, orders and trades are loaded with one statement")
+    public void checkPositionsStatements() {
+        final List<Position> positions = positionRepository.findByStatusNot(CLOSED);
+        assertEquals(7, positions.size());
+        positions.forEach(position -> assertEquals(position.getStatus() == OPENING ? 0 : 2, position.getOpeningOrder().getTrades().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        final List<Position> closedPositions = positionRepository.findByStrategyUidAndStatus(strategy.getUid(), CLOSED);
+        assertEquals(4, closedPositions.size());
+        closedPositions.forEach(position -> {
+            assertEquals(2, position.getOpeningOrder().getTrades().size());
+            assertEquals(1, position.getClosingOrder().getTrades().size());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(11, positionRepository.findByStrategyUid(strategy.getUid()).size());
+        assertEquals(7, positionRepository.findByStatusIn(List.of(OPENING, OPENED)).size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Check orders and trades are loaded with one statement")
+    public void checkOrdersStatements() {
+        final List<Order> orders = orderRepository.findByStrategyUid(strategy.getUid());
+        assertEquals(15, orders.size());
+        orders.forEach(order -> assertEquals(order.getOrderId().startsWith("C") ? 1 : order.getStatus() == OrderStatusDTO.NEW ? 0 : 2, order.getTrades().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(1, orderRepository.findByStrategyUidAndStatusIn(strategy.getUid(), Set.of(OrderStatusDTO.NEW)).size());
+        assertEquals(4, orderRepository.findByOrderIdIn(Set.of("O1", "O2", "C1", "C2")).size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(24, tradeRepository.findByStrategyUid(strategy.getUid()).size());
+        // Trades and their orders, then the trades of the 14 orders in batches (12 + 2) instead of one statement per order.
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Check positions are created and updated with one statement")
+    public void checkPositionsWrites() {
+        final Order openingOrder = order("O12", OrderStatusDTO.FILLED, 12, 1);
+        final Order closingOrder = order("C12", OrderStatusDTO.FILLED, 13, 1);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // Creation.
+        final Position position = new Position();
+        position.setPositionId(12L);
+        position.setStrategy(strategy);
+        position.setCurrencyPair("BTC/USDT");
+        position.setStatus(OPENED);
+        position.setOpeningOrder(openingOrder);
+        position.setOpeningOrderFilledAmount(new BigDecimal("2"));
+        position.setStopGainPercentageRule(10f);
+        position.setAutoClose(true);
+        final long uid = positionRepository.insert(position);
+        assertEquals(uid, position.getUid());
+
+        // Closing.
+        final CurrencyAmount latestGainPrice = new CurrencyAmount();
+        latestGainPrice.setValue(new BigDecimal("6"));
+        latestGainPrice.setCurrency("USDT");
+        position.setStatus(CLOSED);
+        position.setClosingOrder(closingOrder);
+        position.setLatestGainPrice(latestGainPrice);
+        position.setExitReason("Stop gain");
+        assertTrue(positionRepository.updateLifecycle(position));
+        // No entity is read or merged.
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        final Position saved = positionRepository.findById(uid).orElseThrow();
+        assertEquals(12L, saved.getPositionId());
+        assertEquals(strategy.getUid(), saved.getStrategy().getUid());
+        assertEquals(CLOSED, saved.getStatus());
+        assertEquals("O12", saved.getOpeningOrder().getOrderId());
+        assertEquals("C12", saved.getClosingOrder().getOrderId());
+        assertEquals(0, new BigDecimal("2").compareTo(saved.getOpeningOrderFilledAmount()));
+        assertEquals(0, new BigDecimal("6").compareTo(saved.getLatestGainPrice().getValue()));
+        assertEquals("Stop gain", saved.getExitReason());
+        assertEquals(10f, saved.getStopGainPercentageRule());
+        assertTrue(saved.isAutoClose());
+        assertNotNull(saved.getCreatedOn());
+
+        // Unknown position.
+        position.setUid(uid + 100);
+        assertFalse(positionRepository.updateLifecycle(position));
+    }
+
+    /**
+     * Creates a position with its orders and trades.
+     *
+     * @param positionId position id
+     * @param status     status
+     */
+    private void position(final long positionId, final PositionStatusDTO status) {
+        final Position position = new Position();
+        position.setPositionId(positionId);
+        position.setStrategy(strategy);
+        position.setCurrencyPair("BTC/USDT");
+        position.setStatus(status);
+        position.setOpeningOrder(order("O" + positionId, status == OPENING ? OrderStatusDTO.NEW : OrderStatusDTO.FILLED, positionId, status == OPENING ? 0 : 2));
+        if (status == CLOSED) {
+            position.setClosingOrder(order("C" + positionId, OrderStatusDTO.FILLED, positionId, 1));
+        }
+        entityManager.persist(position);
+    }
+
+    /**
+     * Creates an order with its trades.
+     *
+     * @param orderId order id
+     * @param status  status
+     * @param day     day of the order since start
+     * @param trades  number of trades
+     * @return order
+     */
+    private Order order(final String orderId, final OrderStatusDTO status, final long day, final int trades) {
+        final Order order = new Order();
+        order.setOrderId(orderId);
+        order.setStrategy(strategy);
+        order.setCurrencyPair("BTC/USDT");
+        order.setStatus(status);
+        order.setTimestamp(START.plusDays(day));
+        entityManager.persist(order);
+        for (int i = 0; i < trades; i++) {
+            final Trade trade = new Trade();
+            trade.setTradeId(orderId + "-" + i);
+            trade.setOrder(order);
+            trade.setCurrencyPair("BTC/USDT");
+            trade.setTimestamp(START.plusDays(day).plusMinutes(i));
+            entityManager.persist(trade);
+        }
+        return order;
+    }
+
+}
@@ -0,0 +1,14 @@
+package tide.trader.bot.repository;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.context.annotation.Import;
+import tide.trader.bot.configuration.DatabaseAutoConfiguration;
+
+/**
+ * Configuration used by repository tests (JPA slice with the Liquibase schema).
+ */
+@SpringBootConfiguration
+@Import(DatabaseAutoConfiguration.class)
+public class RepositoryTestConfiguration {
+
+}
@@ -0,0 +1,133 @@
+package tide.trader.bot.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.StreamingMarketDataService;
+import org.knowm.xchange.service.marketdata.params.Params;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.LoggerFactory;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.util.java.ZonedDateTimeBetween;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Market service XChange implementation test")
+public class MarketServiceXChangeImplementationTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final Duration DURATION = Duration.ofMinutes(1);
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    /** Three minutes: the exchange only returns the first two klines. */
+    private static final ZonedDateTimeBetween BETWEEN = new ZonedDateTimeBetween(START, START.plus(DURATION.multipliedBy(3)));
+
+    private MarketDataService marketDataService;
+
+    private StreamingMarketDataService streamingMarketDataService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        // History tickers are written in local files when debug is enabled.
+        ((Logger) LoggerFactory.getLogger(MarketServiceXChangeImplementation.class.getName())).setLevel(Level.INFO);
+        marketDataService = mock(MarketDataService.class);
+        streamingMarketDataService = mock(StreamingMarketDataService.class);
+        when(marketDataService.getKlines(any(Params.class))).thenReturn(List.of(kline(0, 1), kline(1, 2)));
+    }
+
+    @Test
+    @DisplayName("Check streamed klines are added to the history tickers")
+    @SuppressWarnings("unchecked")
+    public void checkStreamedHistoryTickers() throws IOException {
+        final MarketService marketService = new MarketServiceXChangeImplementation(1, marketDataService, streamingMarketDataService);
+        assertEquals(List.of(1L, 2L), prices(marketService.getHistoryTickers(BTC_USDT, DURATION, BETWEEN)));
+
+        // Klines are subscribed once.
+        final ArgumentCaptor<Consumer<Kline>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(streamingMarketDataService).subscribeKlines(eq(List.of(CurrencyPair.BTC_USDT)), eq(DURATION.toMillis()), listener.capture());
+
+        // The kline being built is replaced by its following updates.
+        listener.getValue().accept(kline(2, 30));
+        listener.getValue().accept(kline(2, 3));
+        assertEquals(List.of(1L, 2L, 3L), prices(marketService.getHistoryTickers(BTC_USDT, DURATION, BETWEEN)));
+        assertEquals(List.of(1L, 2L, 3L), prices(marketService.getHistoryTickersFromCache(BTC_USDT, DURATION)));
+
+        // Every ticker of the period was cached: the exchange is called once.
+        verify(marketDataService, times(1)).getKlines(any(Params.class));
+        verify(streamingMarketDataService, times(1)).subscribeKlines(anyCollection(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Check history tickers are polled if klines can't be streamed")
+    public void checkPolledHistoryTickers() throws IOException {
+        doThrow(new NotYetImplementedForExchangeException("subscribeKlines"))
+                .when(streamingMarketDataService).subscribeKlines(anyCollection(), anyLong(), any());
+        final MarketService marketService = new MarketServiceXChangeImplementation(1, marketDataService, streamingMarketDataService);
+
+        assertEquals(List.of(1L, 2L), prices(marketService.getHistoryTickers(BTC_USDT, DURATION, BETWEEN)));
+        assertEquals(List.of(1L, 2L), prices(marketService.getHistoryTickers(BTC_USDT, DURATION, BETWEEN)));
+        verify(marketDataService, times(2)).getKlines(any(Params.class));
+        verify(streamingMarketDataService, times(1)).subscribeKlines(anyCollection(), anyLong(), any());
+    }
+
+    /**
+     * Returns a kline.
+     *
+     * @param minute minute since start
+     * @param price  price
+     * @return kline
+     */
+    private static Kline kline(final long minute, final long price) {
+        final long openTime = START.plus(DURATION.multipliedBy(minute)).toInstant().toEpochMilli();
+        return new Kline.Builder()
+                .currencyPair(CurrencyPair.BTC_USDT)
+                .openTime(openTime)
+                .lastTime(openTime + DURATION.toMillis() - 1)
+                .open(BigDecimal.valueOf(price))
+                .high(BigDecimal.valueOf(price))
+                .low(BigDecimal.valueOf(price))
+                .last(BigDecimal.valueOf(price))
+                .volume(BigDecimal.ONE)
+                .quoteVolume(BigDecimal.valueOf(price))
+                .build();
+    }
+
+    /**
+     * Returns the last prices of tickers.
+     *
+     * @param tickers tickers
+     * @return last prices
+     */
+    private static List<Long> prices(final List<TickerDTO> tickers) {
+        return tickers.stream().map(ticker -> ticker.getLast().longValueExact()).collect(Collectors.toList());
+    }
+
+}
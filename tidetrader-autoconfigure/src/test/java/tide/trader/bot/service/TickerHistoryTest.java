@@ -0,0 +1,145 @@
+package tide.trader.bot.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.dto.market.TickerDTO;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Ticker history test")
+public class TickerHistoryTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Check tickers are ordered and deduplicated by timestamp")
+    public void checkAdd() {
+        final TickerHistory history = new TickerHistory(5);
+        history.add(ticker(1, 1));
+        history.add(ticker(3, 3));
+        history.add(ticker(3, 30));
+        history.add(ticker(2, 2));
+        history.add(ticker(1, 10));
+        assertEquals(List.of(1L, 2L, 3L), minutes(history.getAll()));
+        assertEquals(List.of(10L, 2L, 30L), prices(history.getAll()));
+    }
+
+    @Test
+    @DisplayName("Check the oldest tickers are removed when the history is full")
+    public void checkCapacity() {
+        final TickerHistory history = new TickerHistory(3);
+        for (int minute = 0; minute < 10; minute++) {
+            history.add(ticker(minute, minute));
+        }
+        assertEquals(List.of(7L, 8L, 9L), minutes(history.getAll()));
+
+        // Older than every ticker kept.
+        history.add(ticker(2, 2));
+        assertEquals(List.of(7L, 8L, 9L), minutes(history.getAll()));
+
+        // Missing ticker: the oldest one is removed.
+        history.add(ticker(11, 11));
+        history.add(ticker(10, 10));
+        assertEquals(List.of(9L, 10L, 11L), minutes(history.getAll()));
+    }
+
+    @Test
+    @DisplayName("Check tickers between two dates")
+    public void checkGet() {
+        final TickerHistory history = new TickerHistory(100);
+        for (int minute = 0; minute < 150; minute++) {
+            history.add(ticker(minute, minute));
+        }
+        assertEquals(List.of(60L, 61L, 62L), minutes(history.get(millis(60), millis(63))));
+        assertEquals(List.of(50L, 51L), minutes(history.get(millis(0), millis(52))));
+        assertEquals(List.of(148L, 149L), minutes(history.get(millis(148), millis(200))));
+        assertTrue(history.get(millis(63), millis(63)).isEmpty());
+        assertTrue(history.get(millis(200), millis(300)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check only new tickers are persisted")
+    public void checkTickersToPersist() {
+        final TickerHistory history = new TickerHistory(10);
+        history.add(ticker(1, 1));
+        history.add(ticker(2, 2));
+        assertEquals(List.of(1L, 2L), minutes(history.getTickersToPersist()));
+        assertTrue(history.getTickersToPersist().isEmpty());
+
+        history.add(ticker(2, 20));
+        history.add(ticker(3, 3));
+        history.add(ticker(4, 4));
+        assertEquals(List.of(3L, 4L), minutes(history.getTickersToPersist()));
+    }
+
+    @Test
+    @DisplayName("Check adding tickers doesn't slow down when the history is full")
+    public void checkAddDuration() {
+        final TickerHistory history = new TickerHistory(5_000);
+        for (int minute = 0; minute < 5_000; minute++) {
+            history.add(ticker(minute, minute));
+        }
+        final long start = System.nanoTime();
+        for (int minute = 5_000; minute < 1_005_000; minute++) {
+            history.add(ticker(minute, minute));
+        }
+        assertEquals(5_000, history.size());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param minute minute since start
+     * @param price  last price
+     * @return ticker
+     */
+    private static TickerDTO ticker(final long minute, final long price) {
+        return TickerDTO.builder()
+                .timestamp(START.plusMinutes(minute))
+                .last(BigDecimal.valueOf(price))
+                .build();
+    }
+
+    /**
+     * Returns the epoch of a minute since start.
+     *
+     * @param minute minute since start
+     * @return epoch in ms
+     */
+    private static long millis(final long minute) {
+        return START.plusMinutes(minute).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the minutes of tickers since start.
+     *
+     * @param tickers tickers
+     * @return minutes
+     */
+    private static List<Long> minutes(final List<TickerDTO> tickers) {
+        return tickers.stream()
+                .map(ticker -> Duration.between(START, ticker.getTimestamp()).toMinutes())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the last prices of tickers.
+     *
+     * @param tickers tickers
+     * @return last prices
+     */
+    private static List<Long> prices(final List<TickerDTO> tickers) {
+        return tickers.stream()
+                .map(ticker -> ticker.getLast().longValue())
+                .collect(Collectors.toList());
+    }
+
+}
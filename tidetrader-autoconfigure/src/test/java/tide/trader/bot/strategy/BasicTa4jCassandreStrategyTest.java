@@ -0,0 +1,125 @@
+package tide.trader.bot.strategy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.Bar;
+import tide.trader.bot.domain.ImportedTicker;
+import tide.trader.bot.dto.account.AccountDTO;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.trade.SideDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.repository.ImportedTickersRepository;
+import tide.trader.bot.repository.PositionRepository;
+import tide.trader.bot.strategy.internal.CassandreStrategyDependencies;
+import tide.trader.bot.util.ta4j.DurationMaximumBar;
+import tide.trader.bot.util.ta4j.IndicatorRule;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Basic ta4j strategy test")
+public class BasicTa4jCassandreStrategyTest {
+
+    private static final DurationMaximumBar BAR = new DurationMaximumBar(new CurrencyPairDTO(BTC, USDT), Duration.ofMinutes(1), 10);
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Check imported bars with sparse rows")
+    public void checkImportedBarsWithSparseRows() {
+        // Repository returns the last tickers first.
+        final ImportedTickersRepository importedTickersRepository = mock(ImportedTickersRepository.class);
+        when(importedTickersRepository.findLastByCurrencyPairBefore(eq("BTC/USDT"), eq(START.plusMinutes(3)), any()))
+                .thenReturn(List.of(ticker(2, null, "3", null),
+                        ticker(1, null, null, null),
+                        ticker(0, "1", "2", "5")));
+        final TestStrategy strategy = new TestStrategy();
+        strategy.setDependencies(CassandreStrategyDependencies.builder()
+                .positionRepository(mock(PositionRepository.class))
+                .importedTickersRepository(importedTickersRepository)
+                .build());
+
+        // The row without a last price is skipped.
+        final List<Bar> bars = strategy.getImportedBars(BAR, START.plusMinutes(3));
+        assertEquals(2, bars.size());
+
+        // Complete row.
+        assertEquals(START.plusMinutes(1), bars.get(0).getEndTime());
+        assertEquals(1, bars.get(0).getOpenPrice().doubleValue());
+        assertEquals(2, bars.get(0).getHighPrice().doubleValue());
+        assertEquals(1, bars.get(0).getLowPrice().doubleValue());
+        assertEquals(2, bars.get(0).getClosePrice().doubleValue());
+        assertEquals(5, bars.get(0).getVolume().doubleValue());
+
+        // Row with only a last price: open, high and low are the last price, the volume is zero.
+        assertEquals(START.plusMinutes(3), bars.get(1).getEndTime());
+        assertEquals(3, bars.get(1).getOpenPrice().doubleValue());
+        assertEquals(3, bars.get(1).getHighPrice().doubleValue());
+        assertEquals(3, bars.get(1).getLowPrice().doubleValue());
+        assertEquals(3, bars.get(1).getClosePrice().doubleValue());
+        assertEquals(0, bars.get(1).getVolume().doubleValue());
+    }
+
+    /**
+     * Returns an imported ticker.
+     *
+     * @param minute minute since start
+     * @param open   open price (high and low are the max and min of open and last)
+     * @param last   last price
+     * @param volume volume
+     * @return imported ticker
+     */
+    private static ImportedTicker ticker(final int minute, final String open, final String last, final String volume) {
+        final ImportedTicker ticker = new ImportedTicker();
+        ticker.setUid((long) minute);
+        ticker.setCurrencyPair("BTC/USDT");
+        ticker.setOpen(open == null ? null : new BigDecimal(open));
+        ticker.setLast(last == null ? null : new BigDecimal(last));
+        if (open != null && last != null) {
+            ticker.setHigh(new BigDecimal(open).max(new BigDecimal(last)));
+            ticker.setLow(new BigDecimal(open).min(new BigDecimal(last)));
+        }
+        ticker.setVolume(volume == null ? null : new BigDecimal(volume));
+        ticker.setTimestamp(START.plusMinutes(minute));
+        return ticker;
+    }
+
+    /**
+     * Strategy only used to read imported bars.
+     */
+    private static final class TestStrategy extends BasicTa4jCassandreStrategy {
+
+        @Override
+        public Set<DurationMaximumBar> getRequestedDurationMaximumBars() {
+            return Set.of(BAR);
+        }
+
+        @Override
+        public IndicatorRule getIndicatorRule(final DurationMaximumBar bar) {
+            return null;
+        }
+
+        @Override
+        public void shouldPosition(final SideDTO side, final TickerDTO durationTicker) {
+        }
+
+        @Override
+        public Optional<AccountDTO> getTradeAccount(final Set<AccountDTO> accounts) {
+            return accounts.stream().findFirst();
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package tide.trader.bot.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,6 +11,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import tide.trader.bot.batch.FluxScheduler;
 import tide.trader.bot.dto.account.BalanceDTO;
 import tide.trader.bot.dto.market.TickerDTO;
 import tide.trader.bot.common.mvc.BaseController;
@@ -19,7 +21,9 @@ import tide.trader.bot.service.UserService;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 @RequiredArgsConstructor
@@ -31,6 +35,8 @@ public class IndexController extends BaseController {
     private final MarketService marketService;
     /** userService **/
     private final UserService userService;
+    /** fluxScheduler (not available when scheduling is disabled) **/
+    private final ObjectProvider<FluxScheduler> fluxScheduler;
 
     @Value("${trading.bot.exchange.rates.ticker}")
     private String ratesTicker;
@@ -62,6 +68,13 @@ public class IndexController extends BaseController {
         return marketService.getTickersFromCache();
     }
 
+    @GetMapping("/fluxMetrics")
+    @ResponseBody
+    public Map<String, FluxScheduler.FluxMetrics> fluxMetrics() {
+        FluxScheduler scheduler = fluxScheduler.getIfAvailable();
+        return scheduler == null ? Collections.emptyMap() : scheduler.getMetrics();
+    }
+
     @GetMapping("/balances")
     public String balances(Model model) {
         Set<BalanceDTO> balances = new HashSet<>();
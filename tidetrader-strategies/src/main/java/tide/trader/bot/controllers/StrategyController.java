@@ -16,7 +16,6 @@ import tide.trader.bot.dto.position.PositionStatusDTO;
 import tide.trader.bot.dto.util.ColumnsDTO;
 import tide.trader.bot.dto.util.CurrencyDTO;
 import tide.trader.bot.dto.util.CurrencyPairDTO;
-import tide.trader.bot.dto.util.GainDTO;
 import tide.trader.bot.common.mvc.BaseController;
 import tide.trader.bot.repository.StrategyRepository;
 import tide.trader.bot.strategy.BasicTa4jCassandreStrategy;
@@ -25,6 +24,7 @@ import tide.trader.bot.util.JacksonUtil;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -51,22 +51,12 @@ public class StrategyController extends BaseController {
             CassandreStrategy cassandreStrategy = (CassandreStrategy) context.getBean(strategy.getClassName());
             CurrencyDTO gainCurrency = cassandreStrategy.getRequestedCurrencyPairs().stream().findFirst().get().getQuoteCurrency();
 
-            cassandreStrategy.getPositions()
-                    .values().stream()
-                    .filter(position -> position.getCurrencyPair().getQuoteCurrency().equals(gainCurrency))
-                    .filter(position -> position.getStatus() == PositionStatusDTO.CLOSED)
-                    .sorted(Comparator.comparing(p -> p.getOpeningOrder().getTimestamp()))
-                    .forEach(position -> {
-                        String gainTime = position.getOpeningOrder().getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                        GainDTO gain = position.getGain();
-
-                        //total gain
-                        if(gains.containsKey(gainTime)) {
-                            gains.put(gainTime, gains.get(gainTime).add(gain.getAmount().getValue()));
-                        } else {
-                            gains.put(gainTime, gains.values().stream().reduce((first, last) -> last).orElse(BigDecimal.ZERO).add(gain.getAmount().getValue()));
-                        }
-                    });
+            //total gain (daily gains are updated when positions are closed)
+            BigDecimal total = BigDecimal.ZERO;
+            for (Map.Entry<LocalDate, BigDecimal> dailyGain : cassandreStrategy.getDailyGains(gainCurrency).entrySet()) {
+                total = total.add(dailyGain.getValue());
+                gains.put(dailyGain.getKey().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), total);
+            }
 
             model.addAttribute("chart", (cassandreStrategy instanceof BasicTa4jCassandreStrategy ? true : false));
             model.addAttribute("currencyPairs", cassandreStrategy.getRequestedCurrencyPairs().stream().map(CurrencyPairDTO::toString).collect(Collectors.joining(",")));
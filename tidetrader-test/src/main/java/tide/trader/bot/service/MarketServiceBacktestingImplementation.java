@@ -2,45 +2,58 @@ package tide.trader.bot.service;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.mapstruct.factory.Mappers;
 import tide.trader.bot.batch.OrderFlux;
 import tide.trader.bot.batch.TradeFlux;
-import tide.trader.bot.domain.BacktestingTicker;
-import tide.trader.bot.domain.BacktestingTickerId;
 import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.trade.OrderStatusDTO;
 import tide.trader.bot.dto.util.CurrencyPairDTO;
-import tide.trader.bot.repository.BacktestingTickerRepository;
 import tide.trader.bot.repository.OrderRepository;
-import tide.trader.bot.repository.TradeRepository;
+import tide.trader.bot.util.backtesting.BacktestingTickerStore;
+import tide.trader.bot.util.backtesting.TickerFileCursor;
 import tide.trader.bot.util.exception.DryModeException;
-import tide.trader.bot.util.mapper.BacktestingTickerMapper;
 
-import java.time.Duration;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-
-import static org.awaitility.Awaitility.await;
+import java.util.stream.Stream;
 
 /**
  * Market service - Backtesting implementation.
+ * Tickers are replayed from a {@link BacktestingTickerStore}, loaded in memory before the backtest.
+ * Before replying with new tickers, the orders sent on the previous ones are settled (see {@link #settleOrders()}),
+ * and the virtual time moves to the timestamp of the tickers replied.
  */
 @RequiredArgsConstructor
 @Getter
 public class MarketServiceBacktestingImplementation implements MarketService {
 
-    /** Test session id. */
-    private final String testSessionId = UUID.randomUUID().toString();
+    /** Maximum number of order and trade updates to settle orders. */
+    private static final int MAXIMUM_SETTLEMENT_ROUNDS = 10;
+
+    /** Final order statuses (orders having another status are pending). */
+    private static final Set<OrderStatusDTO> FINAL_ORDER_STATUSES = Stream.of(OrderStatusDTO.values())
+            .filter(OrderStatusDTO::isFinal)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatusDTO.class)));
+
+    /** Filled orders are pending until all their trades arrived, whatever their (virtual) timestamp. */
+    private static final ZonedDateTime PENDING_ORDERS_START = ZonedDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
 
     /** Sequence - Which round of tickers are we treating. */
     private final AtomicLong sequence = new AtomicLong(1);
 
-    /** Flux size for each currency pair. */
-    private final Map<CurrencyPairDTO, Long> fluxSize = new LinkedHashMap<>();
+    /** Number of tickers replayed. */
+    private final AtomicLong replayedTickers = new AtomicLong();
+
+    /** Virtual time - timestamp of the last tickers replayed (null before the first ones). */
+    private final AtomicReference<ZonedDateTime> virtualTime = new AtomicReference<>();
 
     /** Order flux. */
     private final OrderFlux orderFlux;
@@ -51,14 +64,8 @@ public class MarketServiceBacktestingImplementation implements MarketService {
     /** Order repository. */
     private final OrderRepository orderRepository;
 
-    /** Trade repository. */
-    private final TradeRepository tradeRepository;
-
-    /** Backtesting tickers repository. */
-    private final BacktestingTickerRepository backtestingTickerRepository;
-
-    /** Backtesting mapper. */
-    private final BacktestingTickerMapper backtestingTickerMapper = Mappers.getMapper(BacktestingTickerMapper.class);
+    /** Backtesting tickers (only read during the backtest, so it can be shared by several backtests). */
+    private final BacktestingTickerStore backtestingTickerStore;
 
     @Override
     public final Optional<TickerDTO> getTicker(final CurrencyPairDTO currencyPair) {
@@ -68,39 +75,56 @@ public class MarketServiceBacktestingImplementation implements MarketService {
     @Override
     public final Set<TickerDTO> getTickers(final Set<CurrencyPairDTO> currencyPairs) {
         // Before replying, we check that all trades and orders arrived.
-        await().until(() -> {
+        settleOrders();
+
+        // We get the result for the corresponding sequence, and we only select the replies for the request currency pairs.
+        final Set<TickerDTO> tickers = backtestingTickerStore.getTickers(sequence.getAndIncrement(), currencyPairs);
+        replayedTickers.addAndGet(tickers.size());
+        tickers.stream()
+                .map(TickerDTO::getTimestamp)
+                .max(Comparator.naturalOrder())
+                .ifPresent(virtualTime::set);
+        return tickers;
+    }
+
+    /**
+     * Update orders and trades until every order sent has its trade.
+     * Pending orders are checked with one query, so nothing is updated on tickers following no new order.
+     * In dry mode, every order is filled by the next order and trade updates: an update emitting nothing new while
+     * orders are still pending will never settle them.
+     */
+    public void settleOrders() {
+        int rounds = 0;
+        while (orderRepository.existsPendingOrder(FINAL_ORDER_STATUSES, OrderStatusDTO.FILLED, PENDING_ORDERS_START)) {
+            if (rounds++ == MAXIMUM_SETTLEMENT_ROUNDS) {
+                throw new IllegalStateException("Orders not settled after " + MAXIMUM_SETTLEMENT_ROUNDS + " updates");
+            }
+            final long emittedValues = orderFlux.getEmittedValues() + tradeFlux.getEmittedValues();
             orderFlux.update();
             tradeFlux.update();
-            return orderRepository.count() == tradeRepository.count();
-        });
+            if (orderFlux.getEmittedValues() + tradeFlux.getEmittedValues() == emittedValues) {
+                throw new IllegalStateException("Orders not settled: order and trade updates emitted nothing new");
+            }
+        }
+    }
 
-        // We get the result for the corresponding sequence, and we only select the replies for the request currency pairs.
-        return backtestingTickerRepository
-                .findByIdTestSessionIdAndIdResponseSequenceId(testSessionId, sequence.getAndIncrement())
-                .stream()
-                .filter(ticker -> currencyPairs.contains(ticker.getCurrencyPairDTO()))
-                .map(backtestingTickerMapper::mapToTickerDTO)
-                .collect(Collectors.toSet());
+    /**
+     * Add a ticker to replay (tickers of a currency pair are replayed in the order they are added).
+     *
+     * @param tickerDTO ticker
+     */
+    public void addTicker(final TickerDTO tickerDTO) {
+        backtestingTickerStore.add(tickerDTO);
     }
 
     /**
-     * Add a ticker to load in database.
+     * Add the tickers of a file to replay.
      *
-     * @param tickerSequence sequence
-     * @param tickerDTO      ticker
+     * @param cursor ticker file cursor
+     * @throws IOException exception
      */
-    public void addTickerToDatabase(final long tickerSequence, final TickerDTO tickerDTO) {
-        BacktestingTicker ticker = backtestingTickerMapper.mapToBacktestingTicker(tickerDTO);
-        // Specific fields in BacktestingTicker.
-        BacktestingTickerId id = new BacktestingTickerId();
-        id.setTestSessionId(testSessionId);
-        id.setResponseSequenceId(tickerSequence);
-        id.setCurrencyPair(tickerDTO.getCurrencyPair().toString());
-        ticker.setId(id);
-        // Save in database.
-        backtestingTickerRepository.save(ticker);
-        // Update the size of the currency pair flux.
-        fluxSize.put(tickerDTO.getCurrencyPair(), tickerSequence);
+    public void addTickers(final TickerFileCursor cursor) throws IOException {
+        backtestingTickerStore.addAll(cursor);
     }
 
     /**
@@ -110,7 +134,7 @@ public class MarketServiceBacktestingImplementation implements MarketService {
      * @return true if nothing left
      */
     public boolean isFluxDone(final CurrencyPairDTO currencyPair) {
-        final Long size = fluxSize.get(currencyPair);
+        final Integer size = backtestingTickerStore.getSizes().get(currencyPair);
         if (size == null) {
             return true;
         } else {
@@ -125,11 +149,10 @@ public class MarketServiceBacktestingImplementation implements MarketService {
      * @return true if nothing left
      */
     public boolean isFluxDone() {
-        return fluxSize.keySet()
+        return backtestingTickerStore.getSizes()
+                .values()
                 .stream()
-                .filter(currencyPair -> sequence.get() <= fluxSize.get(currencyPair))
-                .collect(Collectors.toSet())
-                .isEmpty();
+                .allMatch(size -> sequence.get() > size);
     }
 
 }
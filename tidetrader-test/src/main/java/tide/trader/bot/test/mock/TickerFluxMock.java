@@ -9,30 +9,25 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import tide.trader.bot.batch.AccountFlux;
 import tide.trader.bot.batch.OrderFlux;
 import tide.trader.bot.batch.TickerFlux;
 import tide.trader.bot.batch.TradeFlux;
-import tide.trader.bot.dto.market.TickerDTO;
-import tide.trader.bot.dto.util.CurrencyDTO;
 import tide.trader.bot.dto.util.CurrencyPairDTO;
 import tide.trader.bot.service.MarketServiceBacktestingImplementation;
-import tide.trader.bot.repository.BacktestingTickerRepository;
 import tide.trader.bot.repository.OrderRepository;
-import tide.trader.bot.repository.TradeRepository;
 import tide.trader.bot.service.MarketService;
+import tide.trader.bot.util.backtesting.BacktestingEngine;
+import tide.trader.bot.util.backtesting.BacktestingTickerStore;
+import tide.trader.bot.util.backtesting.TickerFileCursor;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Scanner;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Objects;
 
 /**
  * Ticker flux mock - Allows developers to simulate tickers via tsv files.
@@ -60,11 +55,8 @@ public class TickerFluxMock {
     /** Order repository. */
     private final OrderRepository orderRepository;
 
-    /** Trade repository. */
-    private final TradeRepository tradeRepository;
-
-    /** Backtesting tickers repository. */
-    private final BacktestingTickerRepository backtestingTickerRepository;
+    /** Account flux. */
+    private final AccountFlux accountFlux;
 
     /** Order flux. */
     private final OrderFlux orderFlux;
@@ -90,7 +82,8 @@ public class TickerFluxMock {
     @Bean
     @Primary
     public TickerFlux tickerFlux() {
-        return new TickerFlux(applicationContext, marketService());
+        // Backtests replay every ticker from the files, even unchanged ones.
+        return new TickerFlux(applicationContext, marketService(), Duration.ZERO);
     }
 
     @Bean
@@ -101,8 +94,7 @@ public class TickerFluxMock {
                 orderFlux,
                 tradeFlux,
                 orderRepository,
-                tradeRepository,
-                backtestingTickerRepository);
+                new BacktestingTickerStore());
 
         // For every file.
         getFilesToLoad()
@@ -110,17 +102,30 @@ public class TickerFluxMock {
                 .filter(resource -> resource.getFilename() != null)
                 .forEach(resource -> {
                     // We add all the tickers of the currency pair.
-                    AtomicLong sequence = new AtomicLong(1);
                     logger.info("Adding tests data from {}", resource.getFilename().substring(resource.getFilename().indexOf(TICKERS_FILE_PREFIX)));
-                    getTickersFromFile(resource).forEach(tickerDTO -> {
-                        // Adding each ticker in database.
-                        marketServiceBacktestingImplementation.addTickerToDatabase(sequence.getAndIncrement(), tickerDTO);
-                    });
+                    try (TickerFileCursor cursor = openTickersFile(resource)) {
+                        // Adding each ticker in memory.
+                        marketServiceBacktestingImplementation.addTickers(cursor);
+                    } catch (IOException e) {
+                        logger.error("IOException : {}", e.getMessage());
+                    }
                 });
+        marketServiceBacktestingImplementation.getBacktestingTickerStore().trimToSize();
 
         return marketServiceBacktestingImplementation;
     }
 
+    /**
+     * Backtesting engine - replays tickers on the calling thread (to be used with the "schedule-disabled" profile).
+     *
+     * @return backtesting engine
+     */
+    @Bean
+    public BacktestingEngine backtestingEngine() {
+        marketService();
+        return new BacktestingEngine(tickerFlux(), accountFlux, marketServiceBacktestingImplementation);
+    }
+
     /**
      * Returns the list of files to import.
      *
@@ -146,72 +151,26 @@ public class TickerFluxMock {
     public CurrencyPairDTO getCurrencyPairFromFileName(final Resource file) {
         // Getting the string value of currency pair.
         if (file.getFilename() != null) {
-            final int currencyPairIndexStart = file.getFilename().indexOf(TICKERS_FILE_PREFIX) + TICKERS_FILE_PREFIX.length();
-            final int currencyPairIndexStop = file.getFilename().indexOf("sv") - 2;
-            final String currencyPairAsString = file.getFilename().substring(currencyPairIndexStart, currencyPairIndexStop);
-            final String[] currencyPairAsSplit = currencyPairAsString.split("-");
-            return new CurrencyPairDTO(new CurrencyDTO(currencyPairAsSplit[0].toUpperCase()), new CurrencyDTO(currencyPairAsSplit[1].toUpperCase()));
+            return TickerFileCursor.getCurrencyPair(file.getFilename());
         } else {
             return null;
         }
     }
 
     /**
-     * Returns tickers loaded from a file.
+     * Opens a tickers file - memory-mapped if it's a file, read in memory otherwise (for example, in a jar).
      *
      * @param file file
-     * @return tickers
+     * @return ticker file cursor
+     * @throws IOException exception
      */
-    private List<TickerDTO> getTickersFromFile(final Resource file) {
-        final CurrencyPairDTO currencyPair = getCurrencyPairFromFileName(file);
-        final List<TickerDTO> tickers = new LinkedList<>();
-        // Replies from TSV files.
-        try (Scanner scanner = new Scanner(file.getFile())) {
-            while (scanner.hasNextLine()) {
-                try (Scanner rowScanner = new Scanner(scanner.nextLine())) {
-                    if (file.getFilename() != null && file.getFilename().endsWith("tsv")) {
-                        rowScanner.useDelimiter("\t");
-                    } else {
-                        rowScanner.useDelimiter(",");
-                    }
-                    while (rowScanner.hasNext()) {
-                        // Data retrieved from file.
-                        final String time = rowScanner.next().replaceAll("\"", "");
-                        final String open = rowScanner.next().replaceAll("\"", "");
-                        final String close = rowScanner.next().replaceAll("\"", "");
-                        final String high = rowScanner.next().replaceAll("\"", "");
-                        final String low = rowScanner.next().replaceAll("\"", "");
-                        final String volume = rowScanner.next().replaceAll("\"", "");
-                        String turnover;
-                        if (rowScanner.hasNext()) {
-                            turnover = rowScanner.next().replaceAll("\"", "");
-                        } else {
-                            turnover = "0";
-                        }
-
-                        // Creating the ticker.
-                        TickerDTO t = TickerDTO.builder()
-                                .currencyPair(currencyPair)
-                                .timestamp(ZonedDateTime.ofInstant(new Date(Long.parseLong(time) * MILLISECONDS).toInstant(), ZoneId.systemDefault()))
-                                .open(new BigDecimal(open))
-                                .last(new BigDecimal(close))
-                                .high(new BigDecimal(high))
-                                .low(new BigDecimal(low))
-                                .volume(new BigDecimal(volume))
-                                .quoteVolume(new BigDecimal(turnover))
-                                .build();
-
-                        // Add the ticker.
-                        tickers.add(t);
-                    }
-                }
-            }
-        } catch (FileNotFoundException e) {
-            logger.error("{} not found !", file.getFilename());
-        } catch (IOException e) {
-            logger.error("IOException : {}", e.getMessage());
+    private TickerFileCursor openTickersFile(final Resource file) throws IOException {
+        if (file.isFile()) {
+            return TickerFileCursor.open(file.getFile().toPath());
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            return TickerFileCursor.of(Objects.requireNonNull(file.getFilename()), inputStream.readAllBytes());
         }
-        return tickers;
     }
 
     /**
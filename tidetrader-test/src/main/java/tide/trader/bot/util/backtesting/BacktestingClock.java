@@ -0,0 +1,52 @@
+package tide.trader.bot.util.backtesting;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Backtesting clock - follows the virtual time (timestamp of the last tickers replayed) instead of the wall clock.
+ * <p>
+ * Before the first tickers are replayed, the clock is at the epoch.
+ */
+public final class BacktestingClock extends Clock {
+
+    /** Virtual time (null before the first tickers). */
+    private final Supplier<ZonedDateTime> virtualTime;
+
+    /** Zone. */
+    private final ZoneId zone;
+
+    /**
+     * Constructor.
+     *
+     * @param newVirtualTime virtual time (null before the first tickers)
+     * @param newZone        zone
+     */
+    public BacktestingClock(final Supplier<ZonedDateTime> newVirtualTime, final ZoneId newZone) {
+        this.virtualTime = newVirtualTime;
+        this.zone = newZone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId newZone) {
+        return new BacktestingClock(virtualTime, newZone);
+    }
+
+    @Override
+    public Instant instant() {
+        final ZonedDateTime time = virtualTime.get();
+        if (time == null) {
+            return Instant.EPOCH;
+        }
+        return time.toInstant();
+    }
+
+}
@@ -0,0 +1,128 @@
+package tide.trader.bot.util.backtesting;
+
+import lombok.Builder;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tide.trader.bot.batch.AccountFlux;
+import tide.trader.bot.batch.TickerFlux;
+import tide.trader.bot.service.MarketServiceBacktestingImplementation;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * Backtesting engine - replays every ticker on the calling thread, in causal order.
+ * <p>
+ * For each sequence of tickers:
+ * - The orders sent on the previous tickers are settled (order and trade updates, then positions).
+ * - The virtual time moves to the timestamp of the new tickers, and they are sent to strategies.
+ * - Accounts are updated.
+ * Nothing runs on other threads, so tickers, orders and trades are always replayed in the same order.
+ * In a {@link BacktestingSession}, entities, orders and positions are also dated by a {@link BacktestingClock}
+ * following the replayed tickers, so two runs on the same data give the same results. In a Spring application,
+ * those dates come from the wall clock.
+ * Fluxes must not be called by the flux scheduler at the same time: use the "schedule-disabled" profile.
+ */
+public class BacktestingEngine {
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Ticker flux. */
+    private final TickerFlux tickerFlux;
+
+    /** Account flux. */
+    private final AccountFlux accountFlux;
+
+    /** Market service for backtesting. */
+    private final MarketServiceBacktestingImplementation marketService;
+
+    /**
+     * Constructor.
+     *
+     * @param newTickerFlux    ticker flux
+     * @param newAccountFlux   account flux
+     * @param newMarketService market service for backtesting
+     */
+    public BacktestingEngine(final TickerFlux newTickerFlux,
+                             final AccountFlux newAccountFlux,
+                             final MarketServiceBacktestingImplementation newMarketService) {
+        this.tickerFlux = newTickerFlux;
+        this.accountFlux = newAccountFlux;
+        this.marketService = newMarketService;
+    }
+
+    /**
+     * Replays every ticker left.
+     *
+     * @return backtest result
+     */
+    public BacktestingResult run() {
+        final long start = System.nanoTime();
+        final long firstTicker = marketService.getReplayedTickers().get();
+        long sequences = 0;
+        while (!marketService.isFluxDone()) {
+            step();
+            sequences++;
+        }
+
+        // The orders sent on the last tickers.
+        marketService.settleOrders();
+        accountFlux.update();
+
+        final BacktestingResult result = BacktestingResult.builder()
+                .sequences(sequences)
+                .tickers(marketService.getReplayedTickers().get() - firstTicker)
+                .duration(Duration.ofNanos(System.nanoTime() - start))
+                .virtualTime(marketService.getVirtualTime().get())
+                .build();
+        logger.info("Backtest done: {} tickers in {} ms ({} tickers/s)",
+                result.getTickers(),
+                result.getDuration().toMillis(),
+                result.getTickersPerSecond());
+        return result;
+    }
+
+    /**
+     * Replays the next sequence of tickers.
+     */
+    public void step() {
+        if (!tickerFlux.update()) {
+            throw new IllegalStateException("Tickers of sequence " + marketService.getSequence().get() + " could not be replayed");
+        }
+        accountFlux.update();
+    }
+
+    /**
+     * Backtest result.
+     */
+    @Value
+    @Builder
+    public static class BacktestingResult {
+
+        /** Number of sequences replayed. */
+        long sequences;
+
+        /** Number of tickers replayed. */
+        long tickers;
+
+        /** Duration of the backtest. */
+        Duration duration;
+
+        /** Virtual time at the end of the backtest (timestamp of the last tickers). */
+        ZonedDateTime virtualTime;
+
+        /**
+         * Returns the number of tickers replayed per second.
+         *
+         * @return tickers per second
+         */
+        public long getTickersPerSecond() {
+            final long nanos = Math.max(duration.toNanos(), 1);
+            return tickers * Duration.ofSeconds(1).toNanos() / nanos;
+        }
+
+    }
+
+}
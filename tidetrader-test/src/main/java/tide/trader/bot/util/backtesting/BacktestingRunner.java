@@ -0,0 +1,117 @@
+package tide.trader.bot.util.backtesting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
+import tide.trader.bot.util.backtesting.BacktestingEngine.BacktestingResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Backtesting runner - runs strategies on tickers loaded once, without a Spring context.
+ * <p>
+ * Every run gets its own {@link BacktestingSession} (database, services, fluxes); only the tickers are shared.
+ * From JUnit: {@code BacktestingRunner.fromFiles(files).run(new MyStrategy(), null)}.
+ * From the command line: {@code java tide.trader.bot.util.backtesting.BacktestingRunner <strategy class> <tickers files...>}
+ * with hsqldb and tidetrader-xchange-simulated in the classpath; the user-*.csv/tsv files are read from the classpath.
+ */
+public final class BacktestingRunner {
+
+    /** Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktestingRunner.class.getName());
+
+    /** Tickers to replay (only read by sessions). */
+    private final BacktestingTickerStore tickers;
+
+    /**
+     * Constructor.
+     *
+     * @param newTickers tickers to replay
+     */
+    public BacktestingRunner(final BacktestingTickerStore newTickers) {
+        this.tickers = newTickers;
+    }
+
+    /**
+     * Creates a runner replaying tickers files (tickers-BTC-USDT.tsv, tickers-ETH-BTC.csv...).
+     *
+     * @param files tickers files
+     * @return runner
+     * @throws IOException exception
+     */
+    public static BacktestingRunner fromFiles(final Collection<Path> files) throws IOException {
+        final BacktestingTickerStore store = new BacktestingTickerStore();
+        for (Path file : files) {
+            try (TickerFileCursor cursor = TickerFileCursor.open(file)) {
+                store.addAll(cursor);
+            }
+        }
+        store.trimToSize();
+        return new BacktestingRunner(store);
+    }
+
+    /**
+     * Opens a session for a strategy (to check its orders, trades and positions after the run).
+     *
+     * @param strategy strategy
+     * @return session (to close)
+     */
+    public BacktestingSession open(final CassandreStrategyInterface strategy) {
+        return open(strategy, null);
+    }
+
+    /**
+     * Opens a session for a strategy (to check its orders, trades and positions after the run).
+     *
+     * @param strategy   strategy
+     * @param parameters strategy parameters (null if none)
+     * @return session (to close)
+     */
+    public BacktestingSession open(final CassandreStrategyInterface strategy, final String parameters) {
+        return new BacktestingSession(strategy, tickers, parameters);
+    }
+
+    /**
+     * Runs a strategy on every ticker.
+     *
+     * @param strategy   strategy
+     * @param parameters strategy parameters (null if none)
+     * @return backtest result
+     */
+    public BacktestingResult run(final CassandreStrategyInterface strategy, final String parameters) {
+        try (BacktestingSession session = open(strategy, parameters)) {
+            return session.run();
+        }
+    }
+
+    /**
+     * Runs a strategy from the command line.
+     *
+     * @param args strategy class name, then tickers files
+     * @throws Exception exception
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 2) {
+            LOGGER.error("Usage: BacktestingRunner <strategy class> <tickers files...>");
+            return;
+        }
+        final CassandreStrategyInterface strategy = Class.forName(args[0])
+                .asSubclass(CassandreStrategyInterface.class)
+                .getDeclaredConstructor()
+                .newInstance();
+        final BacktestingRunner runner = fromFiles(Arrays.stream(args, 1, args.length)
+                .map(Path::of)
+                .collect(Collectors.toList()));
+        final BacktestingResult result = runner.run(strategy, null);
+        LOGGER.info("{} ran on {} tickers in {} ms (until {})",
+                args[0],
+                result.getTickers(),
+                result.getDuration().toMillis(),
+                result.getVirtualTime());
+    }
+
+}
@@ -0,0 +1,532 @@
+package tide.trader.bot.util.backtesting;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.Getter;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.container.spi.ContainedBean;
+import org.hibernate.resource.beans.spi.BeanInstanceProducer;
+import org.knowm.xchange.Exchange;
+import org.knowm.xchange.ExchangeFactory;
+import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.derivative.Domain;
+import org.knowm.xchange.dto.meta.CurrencyPairMetaData;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.ConnectableFlux;
+import tide.trader.bot.batch.AccountFlux;
+import tide.trader.bot.batch.GainLedger;
+import tide.trader.bot.batch.OrderFlux;
+import tide.trader.bot.batch.PositionArchive;
+import tide.trader.bot.batch.PositionFlux;
+import tide.trader.bot.batch.TickerFlux;
+import tide.trader.bot.batch.TradeFlux;
+import tide.trader.bot.domain.Strategy;
+import tide.trader.bot.dto.account.AccountDTO;
+import tide.trader.bot.dto.account.UserDTO;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.strategy.StrategyDTO;
+import tide.trader.bot.dto.strategy.StrategyDomainDTO;
+import tide.trader.bot.dto.strategy.StrategyTypeDTO;
+import tide.trader.bot.dto.trade.OrderDTO;
+import tide.trader.bot.dto.trade.TradeDTO;
+import tide.trader.bot.repository.DailyGainRepository;
+import tide.trader.bot.repository.GainRepository;
+import tide.trader.bot.repository.ImportedTickersRepository;
+import tide.trader.bot.repository.OrderRepository;
+import tide.trader.bot.repository.PositionRepository;
+import tide.trader.bot.repository.PositionRepositoryCustomImpl;
+import tide.trader.bot.repository.SignalRepository;
+import tide.trader.bot.repository.StrategyRepository;
+import tide.trader.bot.repository.TradeRepository;
+import tide.trader.bot.service.ExchangeServiceXChangeImplementation;
+import tide.trader.bot.service.MarketServiceBacktestingImplementation;
+import tide.trader.bot.service.MessageServiceImplementation;
+import tide.trader.bot.service.PositionServiceCassandreImplementation;
+import tide.trader.bot.service.TradeService;
+import tide.trader.bot.service.TradeServiceXChangeImplementation;
+import tide.trader.bot.service.UserService;
+import tide.trader.bot.service.UserServiceXChangeImplementation;
+import tide.trader.bot.strategy.BasicCassandreStrategy;
+import tide.trader.bot.strategy.BasicSingalCassandreStrategy;
+import tide.trader.bot.strategy.BasicTa4jCassandreStrategy;
+import tide.trader.bot.strategy.CassandreStrategy;
+import tide.trader.bot.strategy.internal.CassandreStrategyConfiguration;
+import tide.trader.bot.strategy.internal.CassandreStrategyDependencies;
+import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
+import tide.trader.bot.util.backtesting.BacktestingEngine.BacktestingResult;
+import tide.trader.bot.util.base.Base;
+import tide.trader.bot.util.dry.ExchangeServiceDryModeAOP;
+import tide.trader.bot.util.dry.TradeServiceDryModeAOP;
+import tide.trader.bot.util.dry.UserServiceDryModeAOP;
+import tide.trader.bot.util.exception.ConfigurationException;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Backtesting session - runs one strategy on replayed tickers, without Spring Boot.
+ * <p>
+ * The session builds, for its strategy only, what the auto-configurations build for an application in dry mode:
+ * - A private in-memory database, created by the Liquibase changelog.
+ * - JPA repositories (with transactions and auditing) on this database.
+ * - Dry mode services (the dry mode aspects are applied with proxies), fluxes and the strategy configuration.
+ * Entities, orders and positions are dated by a {@link BacktestingClock} following the replayed tickers.
+ * Tickers are replayed by a {@link BacktestingEngine} on the calling thread. Nothing is scheduled and nothing is
+ * shared with other sessions except the tickers, which are only read: sessions can run in parallel.
+ * <p>
+ * Opening a session is not cheap: the changelog is run and Hibernate is bootstrapped for each session, which takes
+ * a few seconds (about 4 s once the JVM is warm) whatever the number of tickers. Liquibase is not thread safe, so
+ * databases are created one at a time, even when sessions are opened in parallel.
+ * Sessions don't configure logging: framework loggers without a configured level are set to warn, and tidetrader
+ * ones to info (see {@link #setFrameworkLoggers()}), so a run without logging configuration doesn't log every
+ * Hibernate statement and every flux update.
+ * <p>
+ * The framework classes looking for strategies in an application context (ticker flux and dry mode aspects) get
+ * a static application context holding the strategy alone - no scanning and no auto-configuration.
+ */
+@Getter
+public final class BacktestingSession extends Base implements AutoCloseable {
+
+    /** Database URL prefix (each session has its own database). */
+    private static final String DATABASE_URL_PREFIX = "jdbc:hsqldb:mem:backtesting-";
+
+    /** Database user. */
+    private static final String DATABASE_USER = "sa";
+
+    /** Database connections. */
+    private static final int DATABASE_POOL_SIZE = 2;
+
+    /** Liquibase changelog. */
+    private static final String CHANGELOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+    /** Entities package. */
+    private static final String DOMAIN_PACKAGE = "tide.trader.bot.domain";
+
+    /** XChange simulated exchange (its services are replaced by the dry mode aspects). */
+    private static final String SIMULATED_EXCHANGE = "org.knowm.xchange.simulated.SimulatedExchange";
+
+    /** Price scale of the currency pairs added to the simulated exchange. */
+    private static final int SIMULATED_PRICE_SCALE = 8;
+
+    /** User set on the simulated exchange. */
+    private static final String EXCHANGE_USER = "backtesting";
+
+    /** Services rate (0: no rate limit as nothing is sent to an exchange). */
+    private static final long NO_RATE_LIMIT = 0;
+
+    /** Leverage (spot domain). */
+    private static final String SPOT_LEVERAGE = "1";
+
+    /** Order expiration in seconds. */
+    private static final long EXPIRE_SEC = 10;
+
+    /** Strategy bean name in the application context. */
+    private static final String STRATEGY_BEAN_NAME = "strategy";
+
+    /** Session counter (used to name databases). */
+    private static final AtomicLong SESSIONS = new AtomicLong();
+
+    /** Lock on Liquibase, whose scopes are shared by all threads: databases are created one at a time. */
+    private static final Object LIQUIBASE_LOCK = new Object();
+
+    /** Loggers of the frameworks used by sessions, and their level when it is not configured. */
+    private static final Map<String, LogLevel> FRAMEWORK_LOGGERS = Map.of("org.hibernate", LogLevel.WARN,
+            "org.springframework", LogLevel.WARN,
+            "com.zaxxer.hikari", LogLevel.WARN,
+            "liquibase", LogLevel.WARN,
+            "org.knowm.xchange", LogLevel.WARN,
+            "tide.trader.bot", LogLevel.INFO);
+
+    /** Liquibase logger (Liquibase logs with java.util.logging, which only keeps weak references to loggers). */
+    private static final Logger LIQUIBASE_LOGGER = Logger.getLogger("liquibase");
+
+    /** True once the framework loggers are set. */
+    private static final AtomicBoolean FRAMEWORK_LOGGERS_SET = new AtomicBoolean();
+
+    /** Strategy. */
+    private final CassandreStrategyInterface strategy;
+
+    /** Database. */
+    private final HikariDataSource dataSource;
+
+    /** Application context holding the strategy. */
+    private final StaticApplicationContext applicationContext = new StaticApplicationContext();
+
+    /** Entity manager factory. */
+    private EntityManagerFactory entityManagerFactory;
+
+    /** Auditing handler (setting creation and update dates of entities). */
+    private AuditingHandler auditingHandler;
+
+    /** Strategy repository. */
+    private StrategyRepository strategyRepository;
+
+    /** Order repository. */
+    private OrderRepository orderRepository;
+
+    /** Trade repository. */
+    private TradeRepository tradeRepository;
+
+    /** Position repository. */
+    private PositionRepository positionRepository;
+
+    /** Gain ledger. */
+    private GainLedger gainLedger;
+
+    /** Market service for backtesting. */
+    private MarketServiceBacktestingImplementation marketService;
+
+    /** Clock following the tickers replayed (dates of entities, orders and positions). */
+    private final BacktestingClock clock = new BacktestingClock(() -> marketService == null ? null : marketService.getVirtualTime().get(), ZoneOffset.UTC);
+
+    /** Backtesting engine. */
+    private BacktestingEngine backtestingEngine;
+
+    /**
+     * Constructor - creates the database and configures the strategy.
+     *
+     * @param newStrategy strategy (annotated with {@link CassandreStrategy})
+     * @param tickers     tickers to replay
+     * @param parameters  strategy parameters (null if none)
+     */
+    public BacktestingSession(final CassandreStrategyInterface newStrategy,
+                              final BacktestingTickerStore tickers,
+                              final String parameters) {
+        final CassandreStrategy annotation = newStrategy.getClass().getAnnotation(CassandreStrategy.class);
+        if (annotation == null) {
+            throw new ConfigurationException(newStrategy.getClass().getSimpleName() + " is not a strategy",
+                    newStrategy.getClass().getSimpleName() + " must have the @CassandreStrategy annotation");
+        }
+        setFrameworkLoggers();
+        this.strategy = newStrategy;
+        this.dataSource = new HikariDataSource();
+        try {
+            configure(annotation, tickers, parameters);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Replays every ticker.
+     *
+     * @return backtest result
+     */
+    public BacktestingResult run() {
+        return backtestingEngine.run();
+    }
+
+    @Override
+    public void close() {
+        applicationContext.close();
+        if (entityManagerFactory != null) {
+            entityManagerFactory.close();
+        }
+        if (!dataSource.isClosed()) {
+            if (entityManagerFactory != null) {
+                // The in-memory database is dropped.
+                new JdbcTemplate(dataSource).execute("SHUTDOWN");
+            }
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Creates the database, the repositories, the services and fluxes, then configures the strategy.
+     *
+     * @param annotation strategy annotation
+     * @param tickers    tickers to replay
+     * @param parameters strategy parameters
+     */
+    @SuppressWarnings("checkstyle:MethodLength")
+    private void configure(final CassandreStrategy annotation,
+                           final BacktestingTickerStore tickers,
+                           final String parameters) {
+        // =============================================================================================================
+        // Database, created by Liquibase as in the application.
+        final long session = SESSIONS.incrementAndGet();
+        dataSource.setPoolName("backtesting-" + session);
+        dataSource.setJdbcUrl(DATABASE_URL_PREFIX + session);
+        dataSource.setUsername(DATABASE_USER);
+        dataSource.setMaximumPoolSize(DATABASE_POOL_SIZE);
+        final SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGELOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            synchronized (LIQUIBASE_LOCK) {
+                liquibase.afterPropertiesSet();
+            }
+        } catch (LiquibaseException e) {
+            throw new ConfigurationException("Impossible to create the backtesting database: " + e.getMessage());
+        }
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // =============================================================================================================
+        // JPA - auditing is done by the entity listener returned by our bean container.
+        final AuditingEntityListener auditingEntityListener = new AuditingEntityListener();
+        auditingEntityListener.setAuditingHandler(this::getAuditingHandler);
+        final LocalContainerEntityManagerFactoryBean entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan(DOMAIN_PACKAGE);
+        entityManagerFactoryBean.setPersistenceUnitName("backtesting-" + session);
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+                AvailableSettings.HBM2DDL_AUTO, "none",
+                AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName(),
+                AvailableSettings.BEAN_CONTAINER, new AuditingBeanContainer(auditingEntityListener)));
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactory = entityManagerFactoryBean.getObject();
+        auditingHandler = new AuditingHandler(PersistentEntities.of(new JpaMetamodelMappingContext(Collections.singleton(entityManagerFactory.getMetamodel()))));
+        auditingHandler.setDateTimeProvider(() -> Optional.of(ZonedDateTime.now(clock)));
+
+        // Repositories (transactions are declared on repositories with @Transactional).
+        final JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        final TransactionInterceptor transactionInterceptor = new TransactionInterceptor((TransactionManager) transactionManager,
+                new AnnotationTransactionAttributeSource());
+        final JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+        repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(transactionInterceptor));
+        strategyRepository = repositoryFactory.getRepository(StrategyRepository.class);
+        orderRepository = repositoryFactory.getRepository(OrderRepository.class);
+        tradeRepository = repositoryFactory.getRepository(TradeRepository.class);
+        positionRepository = repositoryFactory.getRepository(PositionRepository.class,
+                RepositoryFragments.just(new PositionRepositoryCustomImpl(jdbcTemplate, clock)));
+        final GainRepository gainRepository = repositoryFactory.getRepository(GainRepository.class);
+        final DailyGainRepository dailyGainRepository = repositoryFactory.getRepository(DailyGainRepository.class);
+        final ImportedTickersRepository importedTickersRepository = repositoryFactory.getRepository(ImportedTickersRepository.class);
+        final SignalRepository signalRepository = repositoryFactory.getRepository(SignalRepository.class);
+
+        // =============================================================================================================
+        // Dry mode services - the dry mode aspects are applied as they are on the application beans.
+        applicationContext.getBeanFactory().registerSingleton(STRATEGY_BEAN_NAME, strategy);
+        applicationContext.refresh();
+        final UserServiceDryModeAOP userServiceDryModeAOP = new UserServiceDryModeAOP(applicationContext);
+        final TradeServiceDryModeAOP tradeServiceDryModeAOP = new TradeServiceDryModeAOP(orderRepository, positionRepository, userServiceDryModeAOP);
+        final Exchange exchange = proxy(createExchange(tickers), new ExchangeServiceDryModeAOP(applicationContext));
+        final UserService userService = new UserServiceXChangeImplementation(NO_RATE_LIMIT,
+                proxy(exchange.getAccountService(), userServiceDryModeAOP));
+        final TradeService tradeService = BacktestingSession.<TradeService>proxy(new TradeServiceXChangeImplementation(NO_RATE_LIMIT,
+                SIMULATED_EXCHANGE,
+                orderRepository,
+                proxy(exchange.getTradeService(), tradeServiceDryModeAOP),
+                null,
+                clock), tradeServiceDryModeAOP);
+
+        // Fluxes.
+        final PositionArchive positionArchive = new PositionArchive(jdbcTemplate, new TransactionTemplate(transactionManager), strategyRepository, null);
+        gainLedger = new GainLedger(gainRepository, dailyGainRepository, positionRepository, positionArchive);
+        gainLedger.initialize();
+        final PositionFlux positionFlux = new PositionFlux(positionRepository, null, gainLedger);
+        final AccountFlux accountFlux = new AccountFlux(userService);
+        final OrderFlux orderFlux = new OrderFlux(orderRepository, tradeService);
+        final TradeFlux tradeFlux = new TradeFlux(orderRepository, tradeRepository, tradeService);
+        marketService = new MarketServiceBacktestingImplementation(orderFlux, tradeFlux, orderRepository, tickers);
+        final TickerFlux tickerFlux = new TickerFlux(applicationContext, marketService, Duration.ZERO);
+        backtestingEngine = new BacktestingEngine(tickerFlux, accountFlux, marketService);
+
+        // =============================================================================================================
+        // Strategy - saved in database and configured as StrategiesAutoConfiguration does.
+        final Strategy newStrategy = new Strategy();
+        newStrategy.setStrategyId(annotation.strategyId());
+        newStrategy.setName(annotation.strategyName());
+        if (strategy instanceof BasicCassandreStrategy) {
+            newStrategy.setType(StrategyTypeDTO.BASIC_STRATEGY);
+        }
+        if (strategy instanceof BasicTa4jCassandreStrategy) {
+            newStrategy.setType(StrategyTypeDTO.BASIC_TA4J_STRATEGY);
+        }
+        if (strategy instanceof BasicSingalCassandreStrategy) {
+            newStrategy.setType(StrategyTypeDTO.BASIC_SINGAL_STRATEGY);
+        }
+        newStrategy.setDomain(StrategyDomainDTO.SPOT);
+        newStrategy.setClassName(strategy.getClass().getSimpleName());
+        final StrategyDTO strategyDTO = STRATEGY_MAPPER.mapToStrategyDTO(strategyRepository.save(newStrategy));
+        strategyDTO.initializeLastPositionIdUsed(positionRepository.getLastPositionIdUsedByStrategy(strategyDTO.getUid()));
+
+        final UserDTO user = userService.getUser()
+                .orElseThrow(() -> new ConfigurationException("Impossible to retrieve your user information",
+                        "Add a user-*.csv or user-*.tsv file with your balances"));
+        strategy.initializeAccounts(user.getAccounts());
+        strategy.setConfiguration(CassandreStrategyConfiguration.builder()
+                .strategyDTO(strategyDTO)
+                .dryMode(true)
+                .leverage(SPOT_LEVERAGE)
+                .parameters(parameters)
+                .expireSec(EXPIRE_SEC)
+                .build());
+        strategy.setDependencies(CassandreStrategyDependencies.builder()
+                .positionFlux(positionFlux)
+                .orderRepository(orderRepository)
+                .tradeRepository(tradeRepository)
+                .positionRepository(positionRepository)
+                .importedTickersRepository(importedTickersRepository)
+                .signalRepository(signalRepository)
+                .exchangeService(new ExchangeServiceXChangeImplementation(exchange))
+                .tradeService(tradeService)
+                .positionService(new PositionServiceCassandreImplementation(positionRepository, tradeService, positionFlux, gainLedger, positionArchive))
+                .marketService(marketService)
+                .messageService(new MessageServiceImplementation(true, Collections.emptySet()))
+                .build());
+        strategy.initialize();
+
+        // Connecting flux to strategy.
+        final ConnectableFlux<Set<AccountDTO>> connectableAccountFlux = accountFlux.getFlux().publish();
+        final ConnectableFlux<Set<PositionDTO>> connectablePositionFlux = positionFlux.getFlux().publish();
+        final ConnectableFlux<Set<OrderDTO>> connectableOrderFlux = orderFlux.getFlux().publish();
+        final ConnectableFlux<Set<TickerDTO>> connectableTickerFlux = tickerFlux.getFlux().publish();
+        final ConnectableFlux<Set<TradeDTO>> connectableTradeFlux = tradeFlux.getFlux().publish();
+        connectableAccountFlux.subscribe(strategy::accountsUpdates, throwable -> logger.error("AccountsUpdates failing: {}", throwable.getMessage(), throwable));
+        connectablePositionFlux.subscribe(strategy::positionsUpdates, throwable -> logger.error("PositionsUpdates failing: {}", throwable.getMessage(), throwable));
+        connectableOrderFlux.subscribe(strategy::ordersUpdates, throwable -> logger.error("OrdersUpdates failing: {}", throwable.getMessage(), throwable));
+        connectableTradeFlux.subscribe(strategy::tradesUpdates, throwable -> logger.error("TradesUpdates failing: {}", throwable.getMessage(), throwable));
+        connectableTickerFlux.subscribe(strategy::tickersUpdates, throwable -> logger.error("TickersUpdates failing: {}", throwable.getMessage(), throwable));
+        connectableAccountFlux.connect();
+        connectablePositionFlux.connect();
+        connectableOrderFlux.connect();
+        connectableTradeFlux.connect();
+        connectableTickerFlux.connect();
+    }
+
+    /**
+     * Sets the level of the framework loggers whose level is not configured (once for all sessions).
+     * Without a logging configuration (headless runs), logback logs everything at debug level, and Hibernate alone
+     * writes tens of thousands of lines per backtest. Levels set by a logging configuration are kept.
+     */
+    private static void setFrameworkLoggers() {
+        if (FRAMEWORK_LOGGERS_SET.compareAndSet(false, true)) {
+            final LoggingSystem loggingSystem = LoggingSystem.get(BacktestingSession.class.getClassLoader());
+            FRAMEWORK_LOGGERS.entrySet()
+                    .stream()
+                    .filter(logger -> loggingSystem.getLoggerConfiguration(logger.getKey()) == null
+                            || loggingSystem.getLoggerConfiguration(logger.getKey()).getConfiguredLevel() == null)
+                    .forEach(logger -> loggingSystem.setLogLevel(logger.getKey(), logger.getValue()));
+            if (LIQUIBASE_LOGGER.getLevel() == null) {
+                LIQUIBASE_LOGGER.setLevel(Level.WARNING);
+            }
+        }
+    }
+
+    /**
+     * Creates the XChange simulated exchange.
+     *
+     * @param tickers tickers to replay
+     * @return exchange
+     */
+    private Exchange createExchange(final BacktestingTickerStore tickers) {
+        try {
+            final ExchangeSpecification exchangeSpecification = new ExchangeSpecification(Class.forName(SIMULATED_EXCHANGE).asSubclass(Exchange.class));
+            exchangeSpecification.setUserName(EXCHANGE_USER);
+            exchangeSpecification.setApiKey(EXCHANGE_USER);
+            exchangeSpecification.setSecretKey(EXCHANGE_USER);
+            final Exchange exchange = ExchangeFactory.INSTANCE.createExchange(exchangeSpecification, Domain.valueOf(StrategyDomainDTO.SPOT.name()));
+
+            // The simulated exchange refuses currency pairs missing from its metadata (simulated.json): replayed ones are added.
+            final Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = exchange.getExchangeMetaData().getCurrencyPairs();
+            tickers.getSizes().keySet().forEach(currencyPair -> currencyPairs.putIfAbsent(CURRENCY_MAPPER.mapToCurrencyPair(currencyPair),
+                    new CurrencyPairMetaData(null, BigDecimal.ZERO, null, SIMULATED_PRICE_SCALE, null)));
+            return exchange;
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationException("Impossible to find the exchange driver class: " + SIMULATED_EXCHANGE,
+                    "Add tidetrader-xchange-simulated to your dependencies");
+        }
+    }
+
+    /**
+     * Returns a proxy applying an aspect to an object.
+     *
+     * @param target target
+     * @param aspect aspect
+     * @param <T>    target type
+     * @return proxy
+     */
+    private static <T> T proxy(final T target, final Object aspect) {
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(aspect);
+        return proxyFactory.getProxy();
+    }
+
+    /**
+     * Hibernate bean container returning our auditing entity listener (the other beans are created by Hibernate).
+     */
+    private static final class AuditingBeanContainer implements BeanContainer {
+
+        /** Auditing entity listener. */
+        private final AuditingEntityListener auditingEntityListener;
+
+        /**
+         * Constructor.
+         *
+         * @param newAuditingEntityListener auditing entity listener
+         */
+        private AuditingBeanContainer(final AuditingEntityListener newAuditingEntityListener) {
+            this.auditingEntityListener = newAuditingEntityListener;
+        }
+
+        @Override
+        public <B> ContainedBean<B> getBean(final Class<B> beanType,
+                                            final LifecycleOptions lifecycleOptions,
+                                            final BeanInstanceProducer fallbackProducer) {
+            final B bean;
+            if (beanType == AuditingEntityListener.class) {
+                bean = beanType.cast(auditingEntityListener);
+            } else {
+                bean = fallbackProducer.produceBeanInstance(beanType);
+            }
+            return () -> bean;
+        }
+
+        @Override
+        public <B> ContainedBean<B> getBean(final String name,
+                                            final Class<B> beanType,
+                                            final LifecycleOptions lifecycleOptions,
+                                            final BeanInstanceProducer fallbackProducer) {
+            final B bean = fallbackProducer.produceBeanInstance(name, beanType);
+            return () -> bean;
+        }
+
+        @Override
+        public void stop() {
+            // Nothing to release.
+        }
+
+    }
+
+}
@@ -0,0 +1,214 @@
+package tide.trader.bot.util.backtesting;
+
+import lombok.Builder;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tide.trader.bot.dto.util.ColumnsDTO;
+import tide.trader.bot.dto.util.CurrencyDTO;
+import tide.trader.bot.dto.util.GainDTO;
+import tide.trader.bot.strategy.internal.CassandreStrategyInterface;
+import tide.trader.bot.util.backtesting.BacktestingEngine.BacktestingResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static tide.trader.bot.dto.position.PositionStatusDTO.CLOSED;
+
+/**
+ * Backtesting sweep - backtests a strategy with several parameters at the same time, one backtest per core.
+ * <p>
+ * Each backtest runs in its own {@link BacktestingSession} (database, positions, orders, strategy instance) and
+ * on a single thread; sessions only share the tickers of the runner, which are only read. Replays are not locked
+ * and scale with the number of cores, but the databases are created one at a time (Liquibase is not thread safe)
+ * and each session takes a few seconds to open: sweeps on few tickers are bounded by the sessions creation.
+ * Results are ranked by the gain made in a currency (the best first, failed backtests last).
+ */
+public final class BacktestingSweep {
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Runner (shared tickers). */
+    private final BacktestingRunner runner;
+
+    /** Creates a new strategy instance for each backtest. */
+    private final Supplier<? extends CassandreStrategyInterface> strategyFactory;
+
+    /** Currency of the gains used to rank results. */
+    private final CurrencyDTO currency;
+
+    /**
+     * Constructor.
+     *
+     * @param newRunner          runner
+     * @param newStrategyFactory creates a new strategy instance for each backtest (for example, MyStrategy::new)
+     * @param newCurrency        currency of the gains used to rank results
+     */
+    public BacktestingSweep(final BacktestingRunner newRunner,
+                            final Supplier<? extends CassandreStrategyInterface> newStrategyFactory,
+                            final CurrencyDTO newCurrency) {
+        this.runner = newRunner;
+        this.strategyFactory = newStrategyFactory;
+        this.currency = newCurrency;
+    }
+
+    /**
+     * Backtests every parameters, one backtest per core.
+     *
+     * @param parameters strategy parameters (json) of each backtest
+     * @return ranked results
+     */
+    public List<SweepResult> run(final Collection<String> parameters) {
+        return run(parameters, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Backtests every parameters.
+     *
+     * @param parameters strategy parameters (json) of each backtest
+     * @param threads    number of backtests running at the same time
+     * @return ranked results
+     */
+    public List<SweepResult> run(final Collection<String> parameters, final int threads) {
+        final long start = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, parameters.size())));
+        final List<SweepResult> results = new ArrayList<>(parameters.size());
+        try {
+            final List<Future<SweepResult>> futures = new ArrayList<>(parameters.size());
+            parameters.forEach(p -> futures.add(executor.submit(() -> backtest(p))));
+            for (Future<SweepResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backtesting sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Backtesting sweep failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Ranking (the sort is stable: equal results stay in the parameters order).
+        results.sort(Comparator.comparing(SweepResult::isSuccessful).reversed()
+                .thenComparing(Comparator.comparingDouble(SweepResult::getGainPercentage).reversed()));
+        logger.info("Backtesting sweep done: {} backtests in {} ms\n{}",
+                results.size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                toColumns(results).dataTabs());
+        return results;
+    }
+
+    /**
+     * Runs one backtest.
+     *
+     * @param parameters strategy parameters
+     * @return result
+     */
+    private SweepResult backtest(final String parameters) {
+        final CassandreStrategyInterface strategy = strategyFactory.get();
+        try (BacktestingSession session = runner.open(strategy, parameters)) {
+            final BacktestingResult result = session.run();
+            return SweepResult.builder()
+                    .parameters(parameters)
+                    .backtest(result)
+                    .gain(session.getGainLedger()
+                            .getGains(strategy.getConfiguration().getStrategyDTO().getUid())
+                            .getOrDefault(currency, GainDTO.ZERO))
+                    .positions(session.getPositionRepository().count())
+                    .closedPositions(session.getPositionRepository().findByStatus(CLOSED).size())
+                    .build();
+        } catch (RuntimeException e) {
+            logger.error("Backtest with parameters {} failed: {}", parameters, e.getMessage(), e);
+            return SweepResult.builder()
+                    .parameters(parameters)
+                    .error(Objects.toString(e.getMessage(), e.getClass().getSimpleName()))
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the ranked results as a table.
+     *
+     * @param results ranked results
+     * @return table
+     */
+    public ColumnsDTO toColumns(final List<SweepResult> results) {
+        final ColumnsDTO columns = new ColumnsDTO("Backtesting sweep");
+        columns.setColName("Rank", "Parameters", "Gain (%)", "Gain (" + currency + ")", "Positions", "Closed", "Tickers", "Duration (ms)");
+        for (int i = 0; i < results.size(); i++) {
+            final SweepResult result = results.get(i);
+            if (result.isSuccessful()) {
+                columns.addRow(i + 1,
+                        result.getParameters(),
+                        result.getGainPercentage(),
+                        result.getGain().getAmount().getValue().stripTrailingZeros().toPlainString(),
+                        result.getPositions(),
+                        result.getClosedPositions(),
+                        result.getBacktest().getTickers(),
+                        result.getBacktest().getDuration().toMillis());
+            } else {
+                columns.addRow(i + 1, result.getParameters(), "Failed: " + result.getError(), "", "", "", "", "");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Result of one backtest.
+     */
+    @Value
+    @Builder
+    public static class SweepResult {
+
+        /** Strategy parameters. */
+        String parameters;
+
+        /** Backtest result (null if the backtest failed). */
+        BacktestingResult backtest;
+
+        /** Gain made by closed positions in the ranking currency (null if the backtest failed). */
+        GainDTO gain;
+
+        /** Number of positions. */
+        long positions;
+
+        /** Number of closed positions. */
+        long closedPositions;
+
+        /** Error (null if the backtest succeeded). */
+        String error;
+
+        /**
+         * Returns true if the backtest succeeded.
+         *
+         * @return true if the backtest succeeded
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * Returns the gain percentage (used to rank results).
+         *
+         * @return gain percentage (0 if the backtest failed)
+         */
+        public double getGainPercentage() {
+            if (gain == null) {
+                return 0;
+            }
+            return gain.getPercentage();
+        }
+
+    }
+
+}
@@ -0,0 +1,284 @@
+package tide.trader.bot.util.backtesting;
+
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * Backtesting ticker series - tickers of a currency pair stored column by column in primitive arrays.
+ * <p>
+ * Prices are stored as longs with {@link #PRICE_SCALE} decimals (as the numeric(16, 8) columns of BACKTESTING_TICKERS).
+ * Volumes are stored as doubles (a numeric(30, 12) doesn't fit in a long).
+ * A ticker is read by its index (sequence - 1) in constant time.
+ */
+public final class BacktestingTickerSeries {
+
+    /** Price scale. */
+    public static final int PRICE_SCALE = 8;
+
+    /** Missing price. */
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    /** Currency pair. */
+    private final CurrencyPairDTO currencyPair;
+
+    /** Timestamps (epoch in ms). */
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+
+    /** Open prices. */
+    private long[] open = new long[INITIAL_CAPACITY];
+
+    /** Last (close) prices. */
+    private long[] last = new long[INITIAL_CAPACITY];
+
+    /** High prices. */
+    private long[] high = new long[INITIAL_CAPACITY];
+
+    /** Low prices. */
+    private long[] low = new long[INITIAL_CAPACITY];
+
+    /** Volumes. */
+    private double[] volume = new double[INITIAL_CAPACITY];
+
+    /** Quote volumes. */
+    private double[] quoteVolume = new double[INITIAL_CAPACITY];
+
+    /** Number of tickers. */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param newCurrencyPair currency pair
+     */
+    public BacktestingTickerSeries(final CurrencyPairDTO newCurrencyPair) {
+        this.currencyPair = newCurrencyPair;
+    }
+
+    /**
+     * Adds a ticker at the end of the series.
+     *
+     * @param ticker ticker
+     */
+    public void add(final TickerDTO ticker) {
+        add(ticker.getTimestamp().toInstant().toEpochMilli(),
+                toPrice(ticker.getOpen()),
+                toPrice(ticker.getLast()),
+                toPrice(ticker.getHigh()),
+                toPrice(ticker.getLow()),
+                toVolume(ticker.getVolume()),
+                toVolume(ticker.getQuoteVolume()));
+    }
+
+    /**
+     * Adds the tickers of a file at the end of the series.
+     *
+     * @param cursor ticker file cursor
+     * @throws IOException exception
+     */
+    public void addAll(final TickerFileCursor cursor) throws IOException {
+        while (cursor.next()) {
+            add(cursor.getTimestamp(),
+                    cursor.getOpen(),
+                    cursor.getLast(),
+                    cursor.getHigh(),
+                    cursor.getLow(),
+                    cursor.getVolume(),
+                    cursor.getQuoteVolume());
+        }
+    }
+
+    /**
+     * Adds a ticker at the end of the series.
+     *
+     * @param timestamp      timestamp (epoch in ms)
+     * @param newOpen        open price, scaled by {@link #PRICE_SCALE}
+     * @param newLast        last price, scaled by {@link #PRICE_SCALE}
+     * @param newHigh        high price, scaled by {@link #PRICE_SCALE}
+     * @param newLow         low price, scaled by {@link #PRICE_SCALE}
+     * @param newVolume      volume
+     * @param newQuoteVolume quote volume
+     */
+    private void add(final long timestamp,
+                     final long newOpen,
+                     final long newLast,
+                     final long newHigh,
+                     final long newLow,
+                     final double newVolume,
+                     final double newQuoteVolume) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        timestamps[size] = timestamp;
+        open[size] = newOpen;
+        last[size] = newLast;
+        high[size] = newHigh;
+        low[size] = newLow;
+        volume[size] = newVolume;
+        quoteVolume[size] = newQuoteVolume;
+        size++;
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param index index (sequence - 1)
+     * @return ticker
+     */
+    public TickerDTO get(final int index) {
+        checkIndex(index);
+        return TickerDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(ZonedDateTime.ofInstant(Instant.ofEpochMilli(timestamps[index]), ZoneId.systemDefault()))
+                .open(fromPrice(open[index]))
+                .last(fromPrice(last[index]))
+                .high(fromPrice(high[index]))
+                .low(fromPrice(low[index]))
+                .volume(fromVolume(volume[index]))
+                .quoteVolume(fromVolume(quoteVolume[index]))
+                .build();
+    }
+
+    /**
+     * Returns the timestamp of a ticker.
+     *
+     * @param index index
+     * @return timestamp (epoch in ms)
+     */
+    public long getTimestamp(final int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    /**
+     * Returns the last price of a ticker.
+     *
+     * @param index index
+     * @return last price, scaled by {@link #PRICE_SCALE}
+     */
+    public long getLast(final int index) {
+        checkIndex(index);
+        return last[index];
+    }
+
+    /**
+     * Returns the currency pair.
+     *
+     * @return currency pair
+     */
+    public CurrencyPairDTO getCurrencyPair() {
+        return currencyPair;
+    }
+
+    /**
+     * Returns the number of tickers.
+     *
+     * @return number of tickers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Releases the unused capacity (once every ticker is loaded).
+     */
+    public void trimToSize() {
+        resize(size);
+    }
+
+    /**
+     * Grows the columns.
+     */
+    private void grow() {
+        resize(Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+    }
+
+    /**
+     * Resizes the columns.
+     *
+     * @param capacity new capacity
+     */
+    private void resize(final int capacity) {
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        open = Arrays.copyOf(open, capacity);
+        last = Arrays.copyOf(last, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+        quoteVolume = Arrays.copyOf(quoteVolume, capacity);
+    }
+
+    /**
+     * Checks an index.
+     *
+     * @param index index
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " " + currencyPair + " tickers");
+        }
+    }
+
+    /**
+     * Returns a price as a scaled long.
+     *
+     * @param value price
+     * @return scaled price
+     */
+    private static long toPrice(final BigDecimal value) {
+        if (value == null) {
+            return NO_PRICE;
+        }
+        return value.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Returns a price from a scaled long.
+     *
+     * @param value scaled price
+     * @return price
+     */
+    private static BigDecimal fromPrice(final long value) {
+        if (value == NO_PRICE) {
+            return null;
+        }
+        return BigDecimal.valueOf(value, PRICE_SCALE);
+    }
+
+    /**
+     * Returns a volume as a double.
+     *
+     * @param value volume
+     * @return volume
+     */
+    private static double toVolume(final BigDecimal value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        return value.doubleValue();
+    }
+
+    /**
+     * Returns a volume from a double.
+     *
+     * @param value volume
+     * @return volume
+     */
+    private static BigDecimal fromVolume(final double value) {
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        return BigDecimal.valueOf(value);
+    }
+
+}
@@ -0,0 +1,88 @@
+package tide.trader.bot.util.backtesting;
+
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Backtesting ticker store - in-memory replay data, one {@link BacktestingTickerSeries} per currency pair.
+ * <p>
+ * Tickers are loaded once, before the backtest. The n-th reply of the market service is made of the n-th ticker
+ * of every requested currency pair that still has one.
+ */
+public final class BacktestingTickerStore {
+
+    /** Series by currency pair. */
+    private final Map<CurrencyPairDTO, BacktestingTickerSeries> series = new LinkedHashMap<>();
+
+    /**
+     * Adds a ticker at the end of the series of its currency pair.
+     *
+     * @param ticker ticker
+     */
+    public void add(final TickerDTO ticker) {
+        series.computeIfAbsent(ticker.getCurrencyPair(), BacktestingTickerSeries::new).add(ticker);
+    }
+
+    /**
+     * Adds the tickers of a file at the end of the series of its currency pair.
+     *
+     * @param cursor ticker file cursor
+     * @throws IOException exception
+     */
+    public void addAll(final TickerFileCursor cursor) throws IOException {
+        series.computeIfAbsent(cursor.getCurrencyPair(), BacktestingTickerSeries::new).addAll(cursor);
+    }
+
+    /**
+     * Returns the tickers of a sequence.
+     *
+     * @param sequence      sequence (starts at 1)
+     * @param currencyPairs requested currency pairs
+     * @return tickers
+     */
+    public Set<TickerDTO> getTickers(final long sequence, final Set<CurrencyPairDTO> currencyPairs) {
+        final Set<TickerDTO> tickers = new LinkedHashSet<>();
+        series.forEach((currencyPair, tickerSeries) -> {
+            if (sequence <= tickerSeries.size() && currencyPairs.contains(currencyPair)) {
+                tickers.add(tickerSeries.get((int) sequence - 1));
+            }
+        });
+        return tickers;
+    }
+
+    /**
+     * Returns the series of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return series (null if there are no tickers for this currency pair)
+     */
+    public BacktestingTickerSeries getSeries(final CurrencyPairDTO currencyPair) {
+        return series.get(currencyPair);
+    }
+
+    /**
+     * Returns the number of tickers of every currency pair.
+     *
+     * @return number of tickers by currency pair
+     */
+    public Map<CurrencyPairDTO, Integer> getSizes() {
+        final Map<CurrencyPairDTO, Integer> sizes = new LinkedHashMap<>();
+        series.forEach((currencyPair, tickerSeries) -> sizes.put(currencyPair, tickerSeries.size()));
+        return Collections.unmodifiableMap(sizes);
+    }
+
+    /**
+     * Releases the unused capacity of every series (once every ticker is loaded).
+     */
+    public void trimToSize() {
+        series.values().forEach(BacktestingTickerSeries::trimToSize);
+    }
+
+}
@@ -0,0 +1,590 @@
+package tide.trader.bot.util.backtesting;
+
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Ticker file cursor - reads a tickers file ("tickers-BTC-USDT.tsv" or "tickers-BTC-USDT.csv") line by line.
+ * <p>
+ * Each line has the following fields (tab separated in tsv files, comma separated in csv files, quotes are ignored):
+ * time (epoch in seconds), open, close, high, low, volume and optionally turnover (quote volume).
+ * <p>
+ * The file is memory-mapped by windows of {@link #WINDOW_SIZE} bytes, so files larger than the heap can be read.
+ * Numbers are decoded from the bytes of the current line into primitives: prices into longs with
+ * {@link BacktestingTickerSeries#PRICE_SCALE} decimals (rounded half up), volumes into doubles.
+ * Nothing is allocated per line.
+ */
+public final class TickerFileCursor implements AutoCloseable {
+
+    /** Tickers file prefix. */
+    public static final String TICKERS_FILE_PREFIX = "tickers-";
+
+    /** Size of the file windows mapped in memory. */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /** To milliseconds. */
+    private static final long MILLISECONDS = 1_000;
+
+    /** Powers of ten that are exact doubles. */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /** Largest mantissa that is an exact double. */
+    private static final long MAXIMUM_EXACT_MANTISSA = 1L << 53;
+
+    /** Number of fields before the optional turnover. */
+    private static final int REQUIRED_FIELDS = 6;
+
+    /** Currency pair. */
+    private final CurrencyPairDTO currencyPair;
+
+    /** Field delimiter. */
+    private final byte delimiter;
+
+    /** File channel (null when reading bytes in memory). */
+    private final FileChannel channel;
+
+    /** Size of the file windows mapped in memory. */
+    private final int windowSize;
+
+    /** Size of the file. */
+    private final long size;
+
+    /** Current window. */
+    private ByteBuffer window;
+
+    /** Position of the current window in the file. */
+    private long windowStart;
+
+    /** Position of the next line in the current window. */
+    private int position;
+
+    /** Number of lines read. */
+    private long lines;
+
+    /** Timestamp (epoch in ms). */
+    private long timestamp;
+
+    /** Open price. */
+    private long open;
+
+    /** Last price. */
+    private long last;
+
+    /** High price. */
+    private long high;
+
+    /** Low price. */
+    private long low;
+
+    /** Volume. */
+    private double volume;
+
+    /** Quote volume. */
+    private double quoteVolume;
+
+    /**
+     * Constructor.
+     *
+     * @param filename      file name
+     * @param newChannel    file channel (null when reading bytes in memory)
+     * @param newWindowSize size of the file windows mapped in memory
+     * @param bytes         bytes in memory (null when reading a file)
+     * @throws IOException exception
+     */
+    private TickerFileCursor(final String filename,
+                             final FileChannel newChannel,
+                             final int newWindowSize,
+                             final byte[] bytes) throws IOException {
+        this.currencyPair = getCurrencyPair(filename);
+        this.delimiter = filename.endsWith("tsv") ? (byte) '\t' : (byte) ',';
+        this.channel = newChannel;
+        this.windowSize = newWindowSize;
+        if (newChannel != null) {
+            this.size = newChannel.size();
+            map(0);
+        } else {
+            this.size = bytes.length;
+            this.window = ByteBuffer.wrap(bytes);
+        }
+    }
+
+    /**
+     * Opens a tickers file.
+     *
+     * @param path file path
+     * @return cursor
+     * @throws IOException exception
+     */
+    public static TickerFileCursor open(final Path path) throws IOException {
+        return open(path, WINDOW_SIZE);
+    }
+
+    /**
+     * Opens a tickers file with a specific window size.
+     *
+     * @param path       file path
+     * @param windowSize size of the file windows mapped in memory
+     * @return cursor
+     * @throws IOException exception
+     */
+    static TickerFileCursor open(final Path path, final int windowSize) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new TickerFileCursor(path.getFileName().toString(), channel, windowSize, null);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads tickers from bytes in memory (for files that can't be mapped, like files in a jar).
+     *
+     * @param filename file name
+     * @param bytes    file content
+     * @return cursor
+     */
+    public static TickerFileCursor of(final String filename, final byte[] bytes) {
+        try {
+            return new TickerFileCursor(filename, null, bytes.length, bytes);
+        } catch (IOException e) {
+            // Never happens, nothing is read from a file.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the currency pair from a tickers file name ("tickers-BTC-USDT.tsv" gives BTC/USDT).
+     *
+     * @param filename file name
+     * @return currency pair
+     */
+    public static CurrencyPairDTO getCurrencyPair(final String filename) {
+        final int currencyPairIndexStart = filename.indexOf(TICKERS_FILE_PREFIX) + TICKERS_FILE_PREFIX.length();
+        final int currencyPairIndexStop = filename.indexOf("sv") - 2;
+        final String currencyPairAsString = filename.substring(currencyPairIndexStart, currencyPairIndexStop);
+        final String[] currencyPairAsSplit = currencyPairAsString.split("-");
+        return new CurrencyPairDTO(new CurrencyDTO(currencyPairAsSplit[0].toUpperCase()), new CurrencyDTO(currencyPairAsSplit[1].toUpperCase()));
+    }
+
+    /**
+     * Moves to the next ticker (empty lines are skipped).
+     *
+     * @return false if there are no more tickers
+     * @throws IOException exception
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int end = indexOfLineEnd(position);
+            if (end < 0) {
+                if (windowStart + window.limit() < size) {
+                    // The line continues in the next window.
+                    if (position == 0) {
+                        throw new IllegalStateException("Line longer than " + windowSize + " bytes in " + currencyPair + " tickers");
+                    }
+                    map(windowStart + position);
+                    continue;
+                }
+                // Last line without line end.
+                end = window.limit();
+                if (position >= end) {
+                    return false;
+                }
+            }
+            final int start = position;
+            position = end + 1;
+            if (parseLine(start, end)) {
+                lines++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the currency pair of the tickers.
+     *
+     * @return currency pair
+     */
+    public CurrencyPairDTO getCurrencyPair() {
+        return currencyPair;
+    }
+
+    /**
+     * Returns the number of tickers read.
+     *
+     * @return number of tickers
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the timestamp of the current ticker.
+     *
+     * @return timestamp (epoch in ms)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the open price of the current ticker.
+     *
+     * @return open price, scaled by {@link BacktestingTickerSeries#PRICE_SCALE}
+     */
+    public long getOpen() {
+        return open;
+    }
+
+    /**
+     * Returns the last (close) price of the current ticker.
+     *
+     * @return last price, scaled by {@link BacktestingTickerSeries#PRICE_SCALE}
+     */
+    public long getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the high price of the current ticker.
+     *
+     * @return high price, scaled by {@link BacktestingTickerSeries#PRICE_SCALE}
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * Returns the low price of the current ticker.
+     *
+     * @return low price, scaled by {@link BacktestingTickerSeries#PRICE_SCALE}
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Returns the volume of the current ticker.
+     *
+     * @return volume
+     */
+    public double getVolume() {
+        return volume;
+    }
+
+    /**
+     * Returns the quote volume (turnover) of the current ticker.
+     *
+     * @return quote volume (0 if not in the file)
+     */
+    public double getQuoteVolume() {
+        return quoteVolume;
+    }
+
+    /**
+     * Returns the current ticker as a DTO.
+     *
+     * @return ticker
+     */
+    public TickerDTO getTicker() {
+        return TickerDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(ZonedDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()))
+                .open(BigDecimal.valueOf(open, BacktestingTickerSeries.PRICE_SCALE))
+                .last(BigDecimal.valueOf(last, BacktestingTickerSeries.PRICE_SCALE))
+                .high(BigDecimal.valueOf(high, BacktestingTickerSeries.PRICE_SCALE))
+                .low(BigDecimal.valueOf(low, BacktestingTickerSeries.PRICE_SCALE))
+                .volume(BigDecimal.valueOf(volume))
+                .quoteVolume(BigDecimal.valueOf(quoteVolume))
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Maps the window starting at a position of the file.
+     *
+     * @param start position in the file
+     * @throws IOException exception
+     */
+    private void map(final long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+        position = 0;
+    }
+
+    /**
+     * Returns the index of the next line end in the current window.
+     *
+     * @param from index to search from
+     * @return index of the line end (-1 if not found)
+     */
+    private int indexOfLineEnd(final int from) {
+        final int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a line of the current window.
+     *
+     * @param start index of the first byte of the line
+     * @param end   index of the line end
+     * @return false if the line is empty
+     */
+    private boolean parseLine(final int start, final int end) {
+        int fieldStart = start;
+        int fieldEnd = indexOfFieldEnd(fieldStart, end);
+        if (isBlank(fieldStart, fieldEnd) && fieldEnd == end) {
+            return false;
+        }
+        for (int field = 0; field <= REQUIRED_FIELDS; field++) {
+            if (field == REQUIRED_FIELDS) {
+                // Optional turnover.
+                quoteVolume = fieldStart <= end && !isBlank(fieldStart, fieldEnd) ? parseDouble(fieldStart, fieldEnd) : 0;
+                break;
+            }
+            if (fieldStart > end) {
+                throw new IllegalArgumentException("Missing fields on line " + (lines + 1) + " of " + currencyPair + " tickers");
+            }
+            switch (field) {
+                case 0:
+                    timestamp = parseTimestamp(fieldStart, fieldEnd);
+                    break;
+                case 1:
+                    open = parsePrice(fieldStart, fieldEnd);
+                    break;
+                case 2:
+                    last = parsePrice(fieldStart, fieldEnd);
+                    break;
+                case 3:
+                    high = parsePrice(fieldStart, fieldEnd);
+                    break;
+                case 4:
+                    low = parsePrice(fieldStart, fieldEnd);
+                    break;
+                default:
+                    volume = parseDouble(fieldStart, fieldEnd);
+                    break;
+            }
+            fieldStart = fieldEnd + 1;
+            fieldEnd = fieldStart <= end ? indexOfFieldEnd(fieldStart, end) : end;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the end of a field.
+     *
+     * @param from index of the first byte of the field
+     * @param end  index of the line end
+     * @return index of the delimiter or of the line end
+     */
+    private int indexOfFieldEnd(final int from, final int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == delimiter) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns true if a field only contains spaces, quotes or carriage returns.
+     *
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return true if blank
+     */
+    private boolean isBlank(final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (!isIgnored(window.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a timestamp in seconds.
+     *
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return timestamp in ms
+     */
+    private long parseTimestamp(final int from, final int to) {
+        long value = 0;
+        boolean digits = false;
+        for (int i = from; i < to; i++) {
+            final byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                value = Math.addExact(Math.multiplyExact(value, 10), b - '0');
+            } else if (!isIgnored(b)) {
+                throw invalidNumber(from, to);
+            }
+        }
+        if (!digits) {
+            throw invalidNumber(from, to);
+        }
+        return Math.multiplyExact(value, MILLISECONDS);
+    }
+
+    /**
+     * Parses a price into a long with {@link BacktestingTickerSeries#PRICE_SCALE} decimals (rounded half up).
+     *
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return scaled price
+     */
+    private long parsePrice(final int from, final int to) {
+        long value = 0;
+        int decimals = -1;
+        boolean negative = false;
+        boolean roundUp = false;
+        boolean digits = false;
+        for (int i = from; i < to; i++) {
+            final byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                if (decimals < BacktestingTickerSeries.PRICE_SCALE) {
+                    value = Math.addExact(Math.multiplyExact(value, 10), b - '0');
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (decimals == BacktestingTickerSeries.PRICE_SCALE) {
+                    // First digit after the scale: rounding.
+                    roundUp = b >= '5';
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b == '-' && !digits && !negative) {
+                negative = true;
+            } else if (b == 'e' || b == 'E') {
+                // Scientific notation (rare).
+                return new BigDecimal(toString(from, to)).setScale(BacktestingTickerSeries.PRICE_SCALE, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValueExact();
+            } else if (!isIgnored(b)) {
+                throw invalidNumber(from, to);
+            }
+        }
+        if (!digits) {
+            throw invalidNumber(from, to);
+        }
+        for (int i = Math.max(decimals, 0); i < BacktestingTickerSeries.PRICE_SCALE; i++) {
+            value = Math.multiplyExact(value, 10);
+        }
+        if (roundUp) {
+            value = Math.addExact(value, 1);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a double (same value as {@link BigDecimal#doubleValue()}).
+     *
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return double
+     */
+    private double parseDouble(final int from, final int to) {
+        long mantissa = 0;
+        int decimals = -1;
+        boolean negative = false;
+        boolean digits = false;
+        for (int i = from; i < to; i++) {
+            final byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                if (mantissa >= MAXIMUM_EXACT_MANTISSA / 10 || decimals + 1 >= POWERS_OF_TEN.length) {
+                    // Too many digits for an exact computation.
+                    return Double.parseDouble(toString(from, to));
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b == '-' && !digits && !negative) {
+                negative = true;
+            } else if (b == 'e' || b == 'E') {
+                return Double.parseDouble(toString(from, to));
+            } else if (!isIgnored(b)) {
+                throw invalidNumber(from, to);
+            }
+        }
+        if (!digits) {
+            throw invalidNumber(from, to);
+        }
+        // Both the mantissa and the power of ten are exact doubles: the division is correctly rounded.
+        final double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns true if a byte is ignored in numbers (quotes, spaces and carriage returns).
+     *
+     * @param b byte
+     * @return true if ignored
+     */
+    private static boolean isIgnored(final byte b) {
+        return b == '"' || b == ' ' || b == '\r';
+    }
+
+    /**
+     * Returns the bytes of a field as a string (without quotes and spaces).
+     *
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return string
+     */
+    private String toString(final int from, final int to) {
+        final byte[] bytes = new byte[to - from];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            final byte b = window.get(i);
+            if (!isIgnored(b)) {
+                bytes[length++] = b;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the exception thrown for an invalid number.
+     *
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return exception
+     */
+    private NumberFormatException invalidNumber(final int from, final int to) {
+        return new NumberFormatException("Invalid number '" + toString(from, to) + "' on line " + (lines + 1) + " of " + currencyPair + " tickers");
+    }
+
+}
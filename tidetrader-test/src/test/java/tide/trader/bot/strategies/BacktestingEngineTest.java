@@ -0,0 +1,91 @@
+package tide.trader.bot.strategies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.repository.OrderRepository;
+import tide.trader.bot.repository.TradeRepository;
+import tide.trader.bot.test.mock.TickerFluxMock;
+import tide.trader.bot.util.BaseTest;
+import tide.trader.bot.util.OnlyPositionsStrategy;
+import tide.trader.bot.util.backtesting.BacktestingEngine;
+import tide.trader.bot.util.backtesting.BacktestingEngine.BacktestingResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_CLASS;
+import static tide.trader.bot.dto.position.PositionStatusDTO.CLOSED;
+
+@SpringBootTest(properties = {
+        "ONLY_TICKERS_STRATEGY_ENABLED=false",
+        "ONLY_ORDERS_STRATEGY_ENABLED=false",
+        "ONLY_POSITIONS_STRATEGY_ENABLED=true"
+})
+@ActiveProfiles("schedule-disabled")
+@Import(TickerFluxMock.class)
+@DisplayName("Backtesting engine test")
+@DirtiesContext(classMode = BEFORE_CLASS)
+public class BacktestingEngineTest extends BaseTest {
+
+    @Autowired
+    private BacktestingEngine backtestingEngine;
+
+    @Autowired
+    private TickerFluxMock tickerFluxMock;
+
+    @Autowired
+    private OnlyPositionsStrategy strategy;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Test
+    @DisplayName("Check tickers, orders and trades are replayed in order")
+    public void checkBacktest() {
+        final BacktestingResult result = backtestingEngine.run();
+
+        // Everything is done when run() returns: no waiting.
+        assertTrue(tickerFluxMock.isFluxDone());
+        assertEquals(7, strategy.getTickersUpdateReceived().size());
+        assertEquals(9, orderRepository.count());
+        assertEquals(9, tradeRepository.count());
+        assertEquals(7, result.getTickers());
+        assertEquals(1508803204L, result.getVirtualTime().toEpochSecond());
+
+        // Positions are closed at the price of the ticker crossing their rules.
+        for (long positionId = 1; positionId <= 4; positionId++) {
+            final PositionDTO position = strategy.getPositionByPositionId(positionId).orElseThrow();
+            assertEquals(CLOSED, position.getStatus());
+        }
+        assertEquals(0, new BigDecimal("70000").compareTo(closingPrice(1)));
+        assertEquals(0, new BigDecimal("30000").compareTo(closingPrice(2)));
+        assertEquals(0, new BigDecimal("70000").compareTo(closingPrice(3)));
+        assertEquals(0, new BigDecimal("25000").compareTo(closingPrice(4)));
+    }
+
+    /**
+     * Returns the price of the closing trade of a position.
+     *
+     * @param positionId position id
+     * @return price
+     */
+    private BigDecimal closingPrice(final long positionId) {
+        return strategy.getPositionByPositionId(positionId)
+                .orElseThrow()
+                .getClosingOrder()
+                .getTrades()
+                .iterator().next()
+                .getPrice().getValue();
+    }
+
+}
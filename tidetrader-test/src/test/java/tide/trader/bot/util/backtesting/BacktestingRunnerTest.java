@@ -0,0 +1,120 @@
+package tide.trader.bot.util.backtesting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.dto.account.AccountDTO;
+import tide.trader.bot.dto.position.PositionDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.strategy.BasicCassandreStrategy;
+import tide.trader.bot.util.OnlyPositionsStrategy;
+import tide.trader.bot.util.backtesting.BacktestingEngine.BacktestingResult;
+import tide.trader.bot.util.exception.ConfigurationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.position.PositionStatusDTO.CLOSED;
+
+@DisplayName("Backtesting runner test")
+public class BacktestingRunnerTest {
+
+    /** Timestamp of the first ticker replayed. */
+    private static final long FIRST_TICKER_EPOCH_SECOND = 1508371200L;
+
+    @Test
+    @DisplayName("Check a strategy is backtested without a Spring context")
+    public void checkRun() throws Exception {
+        final BacktestingRunner runner = BacktestingRunner.fromFiles(List.of(Path.of(Objects.requireNonNull(getClass().getResource("/tickers-BTC-USDT.tsv")).toURI())));
+
+        // Two runs on the same tickers give the same results.
+        for (int run = 0; run < 2; run++) {
+            final OnlyPositionsStrategy strategy = new OnlyPositionsStrategy();
+            try (BacktestingSession session = runner.open(strategy)) {
+                final BacktestingResult result = session.run();
+                assertEquals(7, result.getTickers());
+                assertEquals(1508803204L, result.getVirtualTime().toEpochSecond());
+                assertEquals(7, strategy.getTickersUpdateReceived().size());
+                assertEquals(9, session.getOrderRepository().count());
+                assertEquals(9, session.getTradeRepository().count());
+
+                // Positions are closed at the price of the ticker crossing their rules.
+                for (long positionId = 1; positionId <= 4; positionId++) {
+                    final PositionDTO position = strategy.getPositionByPositionId(positionId).orElseThrow();
+                    assertEquals(CLOSED, position.getStatus());
+                }
+                assertEquals(0, new BigDecimal("70000").compareTo(closingPrice(strategy, 1)));
+                assertEquals(0, new BigDecimal("30000").compareTo(closingPrice(strategy, 2)));
+                assertEquals(0, new BigDecimal("70000").compareTo(closingPrice(strategy, 3)));
+                assertEquals(0, new BigDecimal("25000").compareTo(closingPrice(strategy, 4)));
+
+                // Dates follow the replayed tickers, not the wall clock.
+                session.getPositionRepository().findAll().forEach(position -> {
+                    assertTrue(isReplayed(position.getCreatedOn(), result));
+                    assertTrue(isReplayed(position.getUpdatedOn(), result));
+                });
+                session.getOrderRepository().findAll().forEach(order -> assertTrue(isReplayed(order.getCreatedOn(), result)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Check a class without @CassandreStrategy is refused")
+    public void checkNotAStrategy() {
+        final BacktestingRunner runner = new BacktestingRunner(new BacktestingTickerStore());
+        assertThrows(ConfigurationException.class, () -> runner.run(new NotAStrategy(), null));
+    }
+
+    /**
+     * Returns true if a date is in the replayed tickers period.
+     *
+     * @param date   date
+     * @param result backtest result
+     * @return true if the date is between the first and the last tickers
+     */
+    private boolean isReplayed(final ZonedDateTime date, final BacktestingResult result) {
+        return date.toEpochSecond() >= FIRST_TICKER_EPOCH_SECOND && !date.isAfter(result.getVirtualTime());
+    }
+
+    /**
+     * Returns the price of the closing trade of a position.
+     *
+     * @param strategy   strategy
+     * @param positionId position id
+     * @return price
+     */
+    private BigDecimal closingPrice(final OnlyPositionsStrategy strategy, final long positionId) {
+        return strategy.getPositionByPositionId(positionId)
+                .orElseThrow()
+                .getClosingOrder()
+                .getTrades()
+                .iterator().next()
+                .getPrice().getValue();
+    }
+
+    /**
+     * Strategy without the @CassandreStrategy annotation.
+     */
+    private static final class NotAStrategy extends BasicCassandreStrategy {
+
+        @Override
+        public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Optional<AccountDTO> getTradeAccount(final Set<AccountDTO> accounts) {
+            return Optional.empty();
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package tide.trader.bot.util.backtesting;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import tide.trader.bot.dto.account.AccountDTO;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.position.PositionRulesDTO;
+import tide.trader.bot.dto.util.ColumnsDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.strategy.BasicCassandreStrategy;
+import tide.trader.bot.strategy.CassandreStrategy;
+import tide.trader.bot.util.BaseTest;
+import tide.trader.bot.util.backtesting.BacktestingSweep.SweepResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Backtesting sweep test")
+public class BacktestingSweepTest {
+
+    /** Stop gain percentages swept (tickers: 10 000, 20 000, 50 000, 30 000, 40 000, 70 000 and 25 000 USDT). */
+    private static final List<String> PARAMETERS = List.of("{\"stopGain\":50}", "{\"stopGain\":1000}", "{\"stopGain\":300}", "{\"stopGain\":500}");
+
+    @Test
+    @DisplayName("Check backtests run in parallel are isolated and ranked")
+    public void checkSweep() throws Exception {
+        final BacktestingRunner runner = BacktestingRunner.fromFiles(List.of(Path.of(Objects.requireNonNull(getClass().getResource("/tickers-BTC-USDT.tsv")).toURI())));
+        final BacktestingSweep sweep = new BacktestingSweep(runner, StopGainStrategy::new, USDT);
+
+        // Each backtest has its own positions, orders and trades: parallel and sequential results are the same.
+        final List<SweepResult> sequentialResults = sweep.run(PARAMETERS, 1);
+        final List<SweepResult> parallelResults = sweep.run(PARAMETERS, PARAMETERS.size());
+        assertEquals(PARAMETERS.size(), parallelResults.size());
+        for (int i = 0; i < PARAMETERS.size(); i++) {
+            final SweepResult result = parallelResults.get(i);
+            assertTrue(result.isSuccessful());
+            assertEquals(7, result.getBacktest().getTickers());
+            assertEquals(1, result.getPositions());
+            assertEquals(sequentialResults.get(i).getParameters(), result.getParameters());
+            assertEquals(sequentialResults.get(i).getGainPercentage(), result.getGainPercentage());
+        }
+
+        // Ranked by gain: the position bought at 10 000 USDT is closed at 70 000, 50 000 and 20 000 USDT, or stays opened.
+        assertEquals(List.of("{\"stopGain\":500}", "{\"stopGain\":300}", "{\"stopGain\":50}", "{\"stopGain\":1000}"),
+                parallelResults.stream().map(SweepResult::getParameters).collect(Collectors.toList()));
+        assertEquals(600, parallelResults.get(0).getGainPercentage());
+        assertEquals(400, parallelResults.get(1).getGainPercentage());
+        assertEquals(100, parallelResults.get(2).getGainPercentage());
+        assertEquals(0, parallelResults.get(3).getGainPercentage());
+        assertEquals(1, parallelResults.get(0).getClosedPositions());
+        assertEquals(0, parallelResults.get(3).getClosedPositions());
+
+        // Ranked table.
+        final ColumnsDTO columns = sweep.toColumns(parallelResults);
+        assertEquals(PARAMETERS.size(), columns.datas().size());
+        assertEquals(1, columns.datas().get(0).get(0));
+        assertEquals("{\"stopGain\":1000}", columns.datas().get(3).get(1));
+    }
+
+    /**
+     * Strategy opening one long position on the first ticker, closed by the stop gain percentage given in parameters.
+     */
+    @CassandreStrategy
+    @ConditionalOnProperty(
+            value = "sweep.strategy.enabled",
+            havingValue = "true")
+    public static final class StopGainStrategy extends BasicCassandreStrategy {
+
+        /** Stop gain percentage. */
+        private float stopGain;
+
+        /** True once the position is created. */
+        private boolean positionCreated;
+
+        @Override
+        public void initializeParameters(final String jsonParameters) {
+            try {
+                stopGain = new ObjectMapper().readTree(jsonParameters).get("stopGain").floatValue();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid parameters: " + jsonParameters, e);
+            }
+        }
+
+        @Override
+        public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
+            return Collections.singleton(BaseTest.BTC_USDT);
+        }
+
+        @Override
+        public Optional<AccountDTO> getTradeAccount(final Set<AccountDTO> accounts) {
+            return accounts.stream().filter(a -> "trade".equals(a.getAccountId())).findFirst();
+        }
+
+        @Override
+        public void onTickersUpdates(final Map<CurrencyPairDTO, TickerDTO> tickers) {
+            if (!positionCreated && tickers.containsKey(BaseTest.BTC_USDT)) {
+                positionCreated = createLongPosition(BaseTest.BTC_USDT,
+                        BigDecimal.ONE,
+                        PositionRulesDTO.builder().stopGainPercentage(stopGain).build()).isSuccessful();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,157 @@
+package tide.trader.bot.util.backtesting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import tide.trader.bot.dto.account.AccountDTO;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+import tide.trader.bot.strategy.BasicCassandreStrategy;
+import tide.trader.bot.strategy.CassandreStrategy;
+import tide.trader.bot.util.BaseTest;
+import tide.trader.bot.util.backtesting.BacktestingEngine.BacktestingResult;
+
+import java.io.BufferedWriter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Backtesting throughput benchmark - not a test (nothing is asserted), run it with its main method.
+ * <p>
+ * Replays a generated tickers file with a strategy buying and selling every few tickers, and reports the number of
+ * tickers replayed per second, so the cost of settling orders on each ticker can be compared between versions.
+ * Arguments (optional): number of tickers (default 2 000), tickers between two orders (default 10) and runs (default 3).
+ */
+public final class BacktestingThroughputBenchmark {
+
+    /** Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktestingThroughputBenchmark.class.getName());
+
+    /** Timestamp of the first ticker generated. */
+    private static final long FIRST_TICKER_EPOCH_SECOND = 1508371200L;
+
+    /**
+     * Constructor.
+     */
+    private BacktestingThroughputBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tickers, tickers between two orders and runs
+     * @throws Exception exception
+     */
+    public static void main(final String[] args) throws Exception {
+        final int tickers = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        final int orderInterval = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        final Path directory = Files.createTempDirectory("backtesting-benchmark");
+        final Path file = directory.resolve("tickers-BTC-USDT.tsv");
+        try {
+            writeTickers(file, tickers);
+            final BacktestingRunner runner = BacktestingRunner.fromFiles(List.of(file));
+            for (int run = 1; run <= runs; run++) {
+                final TradingStrategy strategy = new TradingStrategy(orderInterval);
+                final BacktestingResult result = runner.run(strategy, null);
+                LOGGER.info("Run {}: {} tickers and {} orders in {} ms - {} tickers/s",
+                        run,
+                        result.getTickers(),
+                        strategy.getCreatedOrders(),
+                        result.getDuration().toMillis(),
+                        result.getTickers() * 1_000 / Math.max(1, result.getDuration().toMillis()));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Writes a tickers file (one ticker per second, the price oscillating around 20 000 USDT).
+     *
+     * @param file    file
+     * @param tickers number of tickers
+     * @throws Exception exception
+     */
+    private static void writeTickers(final Path file, final int tickers) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < tickers; i++) {
+                final long price = 20_000 + Math.round(Math.sin(i / 10d) * 1_000);
+                writer.write((FIRST_TICKER_EPOCH_SECOND + i) + "\t" + price + "\t" + price + "\t" + price + "\t" + price + "\t" + price + "\t1");
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Strategy buying a small amount of bitcoins on a ticker and selling them some tickers later.
+     */
+    @CassandreStrategy
+    @ConditionalOnProperty(
+            value = "benchmark.strategy.enabled",
+            havingValue = "true")
+    public static final class TradingStrategy extends BasicCassandreStrategy {
+
+        /** Amount bought and sold. */
+        private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+        /** Tickers between two orders. */
+        private final int orderInterval;
+
+        /** Tickers received. */
+        private int tickers;
+
+        /** Orders created. */
+        private int createdOrders;
+
+        /**
+         * Constructor.
+         *
+         * @param newOrderInterval tickers between two orders
+         */
+        public TradingStrategy(final int newOrderInterval) {
+            this.orderInterval = newOrderInterval;
+        }
+
+        @Override
+        public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
+            return Collections.singleton(BaseTest.BTC_USDT);
+        }
+
+        @Override
+        public Optional<AccountDTO> getTradeAccount(final Set<AccountDTO> accounts) {
+            return accounts.stream().filter(a -> "trade".equals(a.getAccountId())).findFirst();
+        }
+
+        @Override
+        public void onTickersUpdates(final Map<CurrencyPairDTO, TickerDTO> tickersUpdates) {
+            if (tickersUpdates.containsKey(BaseTest.BTC_USDT) && tickers++ % orderInterval == 0) {
+                if (createdOrders % 2 == 0) {
+                    createBuyMarketOrder(BaseTest.BTC_USDT, AMOUNT);
+                } else {
+                    createSellMarketOrder(BaseTest.BTC_USDT, AMOUNT);
+                }
+                createdOrders++;
+            }
+        }
+
+        /**
+         * Returns the number of orders created.
+         *
+         * @return orders created
+         */
+        public int getCreatedOrders() {
+            return createdOrders;
+        }
+
+    }
+
+}
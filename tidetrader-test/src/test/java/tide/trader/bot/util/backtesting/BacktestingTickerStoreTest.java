@@ -0,0 +1,124 @@
+package tide.trader.bot.util.backtesting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.ETH;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Backtesting ticker store test")
+public class BacktestingTickerStoreTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    private static final CurrencyPairDTO ETH_USDT = new CurrencyPairDTO(ETH, USDT);
+
+    private static final ZonedDateTime START = ZonedDateTime.parse("2022-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Check tickers are replayed by sequence")
+    public void checkGetTickers() {
+        final BacktestingTickerStore store = new BacktestingTickerStore();
+        for (int i = 0; i < 3; i++) {
+            store.add(ticker(BTC_USDT, i, "10000." + i));
+        }
+        store.add(ticker(ETH_USDT, 0, "1000"));
+        store.trimToSize();
+        assertEquals(Map.of(BTC_USDT, 3, ETH_USDT, 1), store.getSizes());
+
+        // First sequence: both currency pairs.
+        final Map<CurrencyPairDTO, TickerDTO> reply01 = store.getTickers(1, Set.of(BTC_USDT, ETH_USDT))
+                .stream()
+                .collect(Collectors.toMap(TickerDTO::getCurrencyPair, ticker -> ticker));
+        assertEquals(2, reply01.size());
+        assertEquals(0, new BigDecimal("10000.0").compareTo(reply01.get(BTC_USDT).getLast()));
+        assertEquals(0, new BigDecimal("1000").compareTo(reply01.get(ETH_USDT).getLast()));
+        assertEquals(START.toInstant(), reply01.get(BTC_USDT).getTimestamp().toInstant());
+
+        // Third sequence: no more ETH/USDT tickers.
+        final Set<TickerDTO> reply03 = store.getTickers(3, Set.of(BTC_USDT, ETH_USDT));
+        assertEquals(1, reply03.size());
+        assertEquals(0, new BigDecimal("10000.2").compareTo(reply03.iterator().next().getLast()));
+        assertEquals(START.plusMinutes(2).toInstant(), reply03.iterator().next().getTimestamp().toInstant());
+
+        // Only requested currency pairs are replied.
+        assertEquals(1, store.getTickers(1, Set.of(ETH_USDT)).size());
+        assertTrue(store.getTickers(4, Set.of(BTC_USDT, ETH_USDT)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check ticker values are kept")
+    public void checkValues() {
+        final BacktestingTickerStore store = new BacktestingTickerStore();
+        store.add(TickerDTO.builder()
+                .currencyPair(BTC_USDT)
+                .timestamp(START)
+                .open(new BigDecimal("0.8494"))
+                .last(new BigDecimal("0.85652"))
+                .high(new BigDecimal("0.87"))
+                .low(new BigDecimal("0.123456789"))
+                .volume(new BigDecimal("8078919516.06535988"))
+                .build());
+        final BacktestingTickerSeries series = store.getSeries(BTC_USDT);
+        final TickerDTO ticker = series.get(0);
+        assertEquals(0, new BigDecimal("0.8494").compareTo(ticker.getOpen()));
+        assertEquals(0, new BigDecimal("0.85652").compareTo(ticker.getLast()));
+        assertEquals(0, new BigDecimal("0.87").compareTo(ticker.getHigh()));
+        // Prices are rounded to 8 decimals.
+        assertEquals(0, new BigDecimal("0.12345679").compareTo(ticker.getLow()));
+        // Volumes are kept as doubles.
+        assertEquals(8078919516.06535988, ticker.getVolume().doubleValue());
+        assertNull(ticker.getQuoteVolume());
+        assertEquals(85_652_000L, series.getLast(0));
+        assertEquals(START.toInstant().toEpochMilli(), series.getTimestamp(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.get(1));
+        assertNull(store.getSeries(ETH_USDT));
+    }
+
+    @Test
+    @DisplayName("Check a large number of tickers")
+    public void checkLargeSeries() {
+        final int size = 525_600;
+        final BacktestingTickerStore store = new BacktestingTickerStore();
+        for (int i = 0; i < size; i++) {
+            store.add(ticker(BTC_USDT, i, String.valueOf(i)));
+        }
+        assertEquals(size, store.getSeries(BTC_USDT).size());
+        assertEquals(0, BigDecimal.valueOf(size - 1).compareTo(store.getTickers(size, Set.of(BTC_USDT)).iterator().next().getLast()));
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param currencyPair currency pair
+     * @param minute       minute since start
+     * @param price        price
+     * @return ticker
+     */
+    private static TickerDTO ticker(final CurrencyPairDTO currencyPair, final int minute, final String price) {
+        return TickerDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(START.plusMinutes(minute))
+                .open(new BigDecimal(price))
+                .last(new BigDecimal(price))
+                .high(new BigDecimal(price))
+                .low(new BigDecimal(price))
+                .volume(BigDecimal.ONE)
+                .quoteVolume(BigDecimal.ONE)
+                .build();
+    }
+
+}
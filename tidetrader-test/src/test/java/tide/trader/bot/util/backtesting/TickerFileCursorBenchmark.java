@@ -0,0 +1,144 @@
+package tide.trader.bot.util.backtesting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+/**
+ * Ticker file cursor benchmark - not a test (nothing is asserted), run it with its main method.
+ * <p>
+ * Parses a generated tickers file with the cursor and with a scanner and big decimals (as tickers files were read
+ * before), and reports the number of tickers parsed per second by each and the speedup of the cursor.
+ * Arguments (optional): number of tickers (default 1 000 000) and runs (default 5).
+ */
+public final class TickerFileCursorBenchmark {
+
+    /** Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickerFileCursorBenchmark.class.getName());
+
+    /** Timestamp of the first ticker generated. */
+    private static final long FIRST_TICKER_EPOCH_SECOND = 1_600_000_000L;
+
+    /**
+     * Constructor.
+     */
+    private TickerFileCursorBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tickers and runs
+     * @throws IOException exception
+     */
+    public static void main(final String[] args) throws IOException {
+        final int tickers = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        final Path directory = Files.createTempDirectory("cursor-benchmark");
+        final Path file = directory.resolve("tickers-BTC-USDT.tsv");
+        try {
+            writeTickers(file, tickers);
+
+            // Warming up.
+            parseWithCursor(file);
+            parseWithScanner(file);
+
+            for (int run = 1; run <= runs; run++) {
+                final long cursorStart = System.nanoTime();
+                final long cursorChecksum = parseWithCursor(file);
+                final long cursorDuration = System.nanoTime() - cursorStart;
+
+                final long scannerStart = System.nanoTime();
+                final long scannerChecksum = parseWithScanner(file);
+                final long scannerDuration = System.nanoTime() - scannerStart;
+
+                LOGGER.info("Run {}: {} tickers - cursor {} tickers/s, scanner {} tickers/s - cursor {}x faster{}",
+                        run,
+                        tickers,
+                        tickers * 1_000_000_000L / Math.max(1, cursorDuration),
+                        tickers * 1_000_000_000L / Math.max(1, scannerDuration),
+                        String.format("%.1f", (double) scannerDuration / Math.max(1, cursorDuration)),
+                        cursorChecksum == scannerChecksum ? "" : " (checksums differ)");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Writes a tickers file (one ticker per minute).
+     *
+     * @param file    file
+     * @param tickers number of tickers
+     * @throws IOException exception
+     */
+    private static void writeTickers(final Path file, final int tickers) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < tickers; i++) {
+                writer.write((FIRST_TICKER_EPOCH_SECOND + i * 60L) + "\t"
+                        + "20000.1\t"
+                        + "20000." + (i % 100_000) + "\t"
+                        + "20500.98765432\t"
+                        + "19500.5\t"
+                        + "123.456789\t"
+                        + "2469135.78\n");
+            }
+        }
+    }
+
+    /**
+     * Parses a file with the cursor.
+     *
+     * @param file file
+     * @return checksum of the last prices
+     * @throws IOException exception
+     */
+    private static long parseWithCursor(final Path file) throws IOException {
+        long checksum = 0;
+        try (TickerFileCursor cursor = TickerFileCursor.open(file)) {
+            while (cursor.next()) {
+                checksum += cursor.getLast();
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Parses a file with a scanner and big decimals.
+     *
+     * @param file file
+     * @return checksum of the last prices
+     * @throws IOException exception
+     */
+    private static long parseWithScanner(final Path file) throws IOException {
+        long checksum = 0;
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                try (Scanner rowScanner = new Scanner(scanner.nextLine())) {
+                    rowScanner.useDelimiter("\t");
+                    rowScanner.next();
+                    new BigDecimal(rowScanner.next());
+                    checksum += new BigDecimal(rowScanner.next()).setScale(BacktestingTickerSeries.PRICE_SCALE, RoundingMode.HALF_UP)
+                            .unscaledValue()
+                            .longValueExact();
+                    new BigDecimal(rowScanner.next());
+                    new BigDecimal(rowScanner.next());
+                    new BigDecimal(rowScanner.next());
+                    new BigDecimal(rowScanner.next());
+                }
+            }
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,189 @@
+package tide.trader.bot.util.backtesting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tide.trader.bot.dto.market.TickerDTO;
+import tide.trader.bot.dto.util.CurrencyPairDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tide.trader.bot.dto.util.CurrencyDTO.BTC;
+import static tide.trader.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Ticker file cursor test")
+public class TickerFileCursorTest {
+
+    private static final CurrencyPairDTO BTC_USDT = new CurrencyPairDTO(BTC, USDT);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check tsv and csv lines parsing")
+    public void checkParsing() throws IOException {
+        final String content = "1508371200\t10000\t10000.5\t10001.123456789\t9999.999999995\t1.5\t15000\n"
+                + "\n"
+                + "\"1601596800\",\"0.8494\",\"0.85652\",\"0.87\",\"0.82001\",\"6402298.90377638\",\"5396388.7386519256337\"\r\n";
+
+        try (TickerFileCursor cursor = TickerFileCursor.of("tickers-BTC-USDT.tsv", content.getBytes(StandardCharsets.US_ASCII))) {
+            assertEquals(BTC_USDT, cursor.getCurrencyPair());
+            assertTrue(cursor.next());
+            assertEquals(1508371200_000L, cursor.getTimestamp());
+            assertEquals(price("10000"), cursor.getOpen());
+            assertEquals(price("10000.5"), cursor.getLast());
+            assertEquals(price("10001.12345679"), cursor.getHigh());
+            assertEquals(price("10000"), cursor.getLow());
+            assertEquals(1.5, cursor.getVolume());
+            assertEquals(15000, cursor.getQuoteVolume());
+
+            // The empty line is skipped and the csv line is not split on tabs.
+            assertThrows(IllegalArgumentException.class, cursor::next);
+        }
+
+        final String csv = "\"1601596800\",\"0.8494\",\"0.85652\",\"0.87\",\"0.82001\",\"6402298.90377638\",\"5396388.7386519256337\"\r\n"
+                + "\r\n"
+                + "1601683200,0.85653,0.84261,0.88888,0.82,7349493.47425826";
+        try (TickerFileCursor cursor = TickerFileCursor.of("tickers-BTC-USDT.csv", csv.getBytes(StandardCharsets.US_ASCII))) {
+            assertTrue(cursor.next());
+            final TickerDTO ticker = cursor.getTicker();
+            assertEquals(BTC_USDT, ticker.getCurrencyPair());
+            assertEquals(1601596800L, ticker.getTimestamp().toEpochSecond());
+            assertEquals(0, new BigDecimal("0.8494").compareTo(ticker.getOpen()));
+            assertEquals(0, new BigDecimal("0.85652").compareTo(ticker.getLast()));
+            assertEquals(0, new BigDecimal("0.87").compareTo(ticker.getHigh()));
+            assertEquals(0, new BigDecimal("0.82001").compareTo(ticker.getLow()));
+            assertEquals(new BigDecimal("6402298.90377638").doubleValue(), cursor.getVolume());
+            assertEquals(new BigDecimal("5396388.7386519256337").doubleValue(), cursor.getQuoteVolume());
+
+            // Last line: no line end and no turnover.
+            assertTrue(cursor.next());
+            assertEquals(1601683200_000L, cursor.getTimestamp());
+            assertEquals(price("0.84261"), cursor.getLast());
+            assertEquals(7349493.47425826, cursor.getVolume());
+            assertEquals(0, cursor.getQuoteVolume());
+            assertFalse(cursor.next());
+            assertEquals(2, cursor.getLines());
+        }
+    }
+
+    @Test
+    @DisplayName("Check invalid lines")
+    public void checkInvalidLines() {
+        assertThrows(NumberFormatException.class, () -> readAll("1508371200\t10000\tabc\t10000\t10000\t1\n"));
+        assertThrows(IllegalArgumentException.class, () -> readAll("1508371200\t10000\t10000\n"));
+        assertThrows(NumberFormatException.class, () -> readAll("\t10000\t10000\t10000\t10000\t1\n"));
+    }
+
+    @Test
+    @DisplayName("Check lines across mapped windows")
+    public void checkWindows() throws IOException {
+        final Path file = writeTickers("tickers-BTC-USDT.tsv", 1_000);
+        long expectedLines = 0;
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                scanner.nextLine();
+                expectedLines++;
+            }
+        }
+
+        // Windows of 100 bytes: lines are regularly split between two windows.
+        final BacktestingTickerSeries series = new BacktestingTickerSeries(BTC_USDT);
+        try (TickerFileCursor cursor = TickerFileCursor.open(file, 100)) {
+            series.addAll(cursor);
+            assertEquals(expectedLines, cursor.getLines());
+        }
+        assertEquals(expectedLines, series.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(expectedTimestamp(i), series.getTimestamp(i));
+            assertEquals(price(expectedLast(i)), series.getLast(i));
+        }
+
+        // A line can't be longer than a window.
+        assertThrows(IllegalStateException.class, () -> {
+            try (TickerFileCursor cursor = TickerFileCursor.open(file, 10)) {
+                cursor.next();
+            }
+        });
+    }
+
+    /**
+     * Reads every ticker of a tsv file content.
+     *
+     * @param content content
+     * @throws IOException exception
+     */
+    private void readAll(final String content) throws IOException {
+        try (TickerFileCursor cursor = TickerFileCursor.of("tickers-BTC-USDT.tsv", content.getBytes(StandardCharsets.US_ASCII))) {
+            while (cursor.next()) {
+                assertTrue(cursor.getLines() > 0);
+            }
+        }
+    }
+
+    /**
+     * Writes a tickers file.
+     *
+     * @param filename file name
+     * @param lines    number of lines
+     * @return path
+     * @throws IOException exception
+     */
+    private Path writeTickers(final String filename, final int lines) throws IOException {
+        final Path file = directory.resolve(filename);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write(expectedTimestamp(i) / 1_000 + "\t"
+                        + "20000.1\t"
+                        + expectedLast(i) + "\t"
+                        + "20500.98765432\t"
+                        + "19500.5\t"
+                        + "123.456789\t"
+                        + "2469135.78\n");
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Returns the expected timestamp of a generated line.
+     *
+     * @param index line index
+     * @return timestamp (epoch in ms)
+     */
+    private static long expectedTimestamp(final int index) {
+        return (1_600_000_000L + index * 60L) * 1_000;
+    }
+
+    /**
+     * Returns the expected last price of a generated line.
+     *
+     * @param index line index
+     * @return last price
+     */
+    private static String expectedLast(final int index) {
+        return "20000." + index;
+    }
+
+    /**
+     * Returns a price scaled as in the cursor.
+     *
+     * @param value price
+     * @return scaled price
+     */
+    private static long price(final String value) {
+        return new BigDecimal(value).setScale(BacktestingTickerSeries.PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+}
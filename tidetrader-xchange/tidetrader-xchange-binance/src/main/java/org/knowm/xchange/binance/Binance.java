@@ -1,13 +1,13 @@
 package org.knowm.xchange.binance;
 
 import java.io.IOException;
-import java.util.List;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import org.knowm.xchange.binance.dto.BinanceException;
+import org.knowm.xchange.binance.dto.BinanceList;
 import org.knowm.xchange.binance.dto.marketdata.BinanceAggTrades;
 import org.knowm.xchange.binance.dto.marketdata.BinanceOrderbook;
 import org.knowm.xchange.binance.dto.marketdata.BinancePrice;
@@ -92,7 +92,7 @@ public interface Binance {
    */
   @GET
   @Path("api/v3/aggTrades")
-  List<BinanceAggTrades> aggTrades(
+  BinanceList<BinanceAggTrades> aggTrades(
       @QueryParam("symbol") String symbol,
       @QueryParam("fromId") Long fromId,
       @QueryParam("startTime") Long startTime,
@@ -115,7 +115,7 @@ public interface Binance {
    */
   @GET
   @Path("api/v3/klines")
-  List<Object[]> klines(
+  BinanceList<Object[]> klines(
       @QueryParam("symbol") String symbol,
       @QueryParam("interval") String interval,
       @QueryParam("limit") Integer limit,
@@ -133,7 +133,7 @@ public interface Binance {
    */
   @GET
   @Path("api/v3/ticker/24hr")
-  List<BinanceTicker24h> ticker24h() throws IOException, BinanceException;
+  BinanceList<BinanceTicker24h> ticker24h() throws IOException, BinanceException;
 
   /**
    * 24 hour price change statistics.
@@ -148,6 +148,19 @@ public interface Binance {
   BinanceTicker24h ticker24h(@QueryParam("symbol") String symbol)
       throws IOException, BinanceException;
 
+  /**
+   * 24 hour price change statistics for a list of symbols.
+   *
+   * @param symbols JSON array of symbols, for example ["BTCUSDT","BNBUSDT"]
+   * @return
+   * @throws IOException
+   * @throws BinanceException
+   */
+  @GET
+  @Path("api/v3/ticker/24hr")
+  BinanceList<BinanceTicker24h> ticker24hSymbols(@QueryParam("symbols") String symbols)
+      throws IOException, BinanceException;
+
   /**
    * Latest price for a symbol.
    *
@@ -169,7 +182,7 @@ public interface Binance {
    */
   @GET
   @Path("api/v3/ticker/price")
-  List<BinancePrice> tickerAllPrices() throws IOException, BinanceException;
+  BinanceList<BinancePrice> tickerAllPrices() throws IOException, BinanceException;
 
   /**
    * Best price/qty on the order book for all symbols.
@@ -180,5 +193,5 @@ public interface Binance {
    */
   @GET
   @Path("api/v3/ticker/bookTicker")
-  List<BinancePriceQuantity> tickerAllBookTickers() throws IOException, BinanceException;
+  BinanceList<BinancePriceQuantity> tickerAllBookTickers() throws IOException, BinanceException;
 }
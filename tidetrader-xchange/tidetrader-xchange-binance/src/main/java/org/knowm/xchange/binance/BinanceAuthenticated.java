@@ -2,7 +2,6 @@ package org.knowm.xchange.binance;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Map;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.FormParam;
@@ -16,6 +15,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import org.knowm.xchange.binance.dto.BinanceException;
+import org.knowm.xchange.binance.dto.BinanceList;
 import org.knowm.xchange.binance.dto.account.AssetDetail;
 import org.knowm.xchange.binance.dto.account.AssetDividendResponse;
 import org.knowm.xchange.binance.dto.account.BinanceAccountInformation;
@@ -190,7 +190,7 @@ public interface BinanceAuthenticated extends Binance {
    */
   @DELETE
   @Path("api/v3/openOrders")
-  List<BinanceCancelledOrder> cancelAllOpenOrders(
+  BinanceList<BinanceCancelledOrder> cancelAllOpenOrders(
       @QueryParam("symbol") String symbol,
       @QueryParam("recvWindow") Long recvWindow,
       @QueryParam("timestamp") SynchronizedValueFactory<Long> timestamp,
@@ -210,7 +210,7 @@ public interface BinanceAuthenticated extends Binance {
    */
   @GET
   @Path("api/v3/openOrders")
-  List<BinanceOrder> openOrders(
+  BinanceList<BinanceOrder> openOrders(
       @QueryParam("symbol") String symbol,
       @QueryParam("recvWindow") Long recvWindow,
       @QueryParam("timestamp") SynchronizedValueFactory<Long> timestamp,
@@ -236,7 +236,7 @@ public interface BinanceAuthenticated extends Binance {
    */
   @GET
   @Path("api/v3/allOrders")
-  List<BinanceOrder> allOrders(
+  BinanceList<BinanceOrder> allOrders(
       @QueryParam("symbol") String symbol,
       @QueryParam("orderId") Long orderId,
       @QueryParam("limit") Integer limit,
@@ -283,7 +283,7 @@ public interface BinanceAuthenticated extends Binance {
    */
   @GET
   @Path("api/v3/myTrades")
-  List<BinanceTrade> myTrades(
+  BinanceList<BinanceTrade> myTrades(
       @QueryParam("symbol") String symbol,
       @QueryParam("orderId") Long orderId,
       @QueryParam("startTime") Long startTime,
@@ -369,7 +369,7 @@ public interface BinanceAuthenticated extends Binance {
    */
   @GET
   @Path("/sapi/v1/capital/deposit/hisrec")
-  List<BinanceDeposit> depositHistory(
+  BinanceList<BinanceDeposit> depositHistory(
       @QueryParam("coin") String coin,
       @QueryParam("startTime") Long startTime,
       @QueryParam("endTime") Long endTime,
@@ -395,7 +395,7 @@ public interface BinanceAuthenticated extends Binance {
    */
   @GET
   @Path("/sapi/v1/capital/withdraw/history")
-  List<BinanceWithdraw> withdrawHistory(
+  BinanceList<BinanceWithdraw> withdrawHistory(
       @QueryParam("coin") String coin,
       @QueryParam("startTime") Long startTime,
       @QueryParam("endTime") Long endTime,
@@ -433,7 +433,7 @@ public interface BinanceAuthenticated extends Binance {
 
   @GET
   @Path("/sapi/v1/sub-account/sub/transfer/history")
-  List<TransferHistory> transferHistory(
+  BinanceList<TransferHistory> transferHistory(
       @QueryParam("fromEmail") String fromEmail,
       @QueryParam("startTime") Long startTime,
       @QueryParam("endTime") Long endTime,
@@ -447,7 +447,7 @@ public interface BinanceAuthenticated extends Binance {
 
   @GET
   @Path("/sapi/v1/sub-account/transfer/subUserHistory")
-  List<TransferSubUserHistory> transferSubUserHistory(
+  BinanceList<TransferSubUserHistory> transferSubUserHistory(
       @QueryParam("asset") String asset,
       @QueryParam("type") Integer type,
       @QueryParam("startTime") Long startTime,
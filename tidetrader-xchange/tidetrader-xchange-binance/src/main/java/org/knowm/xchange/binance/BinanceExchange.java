@@ -1,5 +1,6 @@
 package org.knowm.xchange.binance;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -14,22 +15,29 @@ import org.knowm.xchange.binance.perpetualswap.BinancePerpetualAuthenticated;
 import org.knowm.xchange.binance.perpetualswap.service.BinancePerpetualAccountService;
 import org.knowm.xchange.binance.perpetualswap.service.BinancePerpetualMarketDataService;
 import org.knowm.xchange.binance.perpetualswap.service.BinancePerpetualTradeService;
+import org.knowm.xchange.binance.perpetualswap.service.BinancePerpetualTradeServiceRaw;
 import org.knowm.xchange.binance.service.BinanceAccountService;
 import org.knowm.xchange.binance.service.BinanceMarketDataService;
+import org.knowm.xchange.binance.service.BinanceStreamingMarketDataService;
+import org.knowm.xchange.binance.service.BinanceStreamingTradeService;
 import org.knowm.xchange.binance.service.BinanceTradeService;
+import org.knowm.xchange.binance.service.BinanceTradeServiceRaw;
 import org.knowm.xchange.client.ExchangeRestProxyBuilder;
 import org.knowm.xchange.client.ResilienceRegistries;
-import org.knowm.xchange.derivative.Domain;
 import org.knowm.xchange.currency.Currency;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.derivative.Domain;
 import org.knowm.xchange.dto.meta.CurrencyMetaData;
 import org.knowm.xchange.dto.meta.CurrencyPairMetaData;
 import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.service.marketdata.StreamingMarketDataService;
+import org.knowm.xchange.service.trade.StreamingTradeService;
 import org.knowm.xchange.utils.AuthUtils;
 import si.mazi.rescu.SynchronizedValueFactory;
 
 public class BinanceExchange extends BaseExchange {
   public static final String SPECIFIC_PARAM_USE_SANDBOX = "Use_Sandbox";
+  public static final String SPECIFIC_PARAM_STREAM_URI = "Stream_Uri";
 
   protected static ResilienceRegistries RESILIENCE_REGISTRIES;
 
@@ -37,9 +45,13 @@ public class BinanceExchange extends BaseExchange {
   protected BinanceAuthenticated binance;
   protected BinancePerpetualAuthenticated binancePerpetual;
   protected SynchronizedValueFactory<Long> timestampFactory;
+  protected Domain domain;
+  protected BinanceStreamingMarketDataService streamingMarketDataService;
+  protected BinanceStreamingTradeService streamingTradeService;
 
   @Override
   protected void initServices(Domain domain) {
+    this.domain = domain;
     this.timestampFactory = new BinanceTimestampFactory(binance, getExchangeSpecification().getResilience(), getResilienceRegistries());
     switch (domain){
       case SPOT:
@@ -61,6 +73,74 @@ public class BinanceExchange extends BaseExchange {
     return timestampFactory;
   }
 
+  @Override
+  public synchronized StreamingMarketDataService getStreamingMarketDataService() {
+    if (streamingMarketDataService == null) {
+      streamingMarketDataService = new BinanceStreamingMarketDataService(getStreamUri(), getMarketDataService());
+    }
+    return streamingMarketDataService;
+  }
+
+  @Override
+  public synchronized StreamingTradeService getStreamingTradeService() {
+    if (streamingTradeService == null) {
+      streamingTradeService = new BinanceStreamingTradeService(getStreamUri(), getListenKeyProvider());
+    }
+    return streamingTradeService;
+  }
+
+  /** Listen key endpoints of the current domain */
+  private BinanceStreamingTradeService.ListenKeyProvider getListenKeyProvider() {
+    if (domain == Domain.PERPETUAL) {
+      BinancePerpetualTradeServiceRaw perpetualTradeService = (BinancePerpetualTradeServiceRaw) getTradeService();
+      return new BinanceStreamingTradeService.ListenKeyProvider() {
+        @Override
+        public String start() throws IOException {
+          return perpetualTradeService.startUserDataStream().getListenKey();
+        }
+
+        @Override
+        public void keepAlive(String listenKey) throws IOException {
+          perpetualTradeService.keepAliveDataStream(listenKey);
+        }
+
+        @Override
+        public void close(String listenKey) throws IOException {
+          perpetualTradeService.closeDataStream(listenKey);
+        }
+      };
+    }
+    BinanceTradeServiceRaw spotTradeService = (BinanceTradeServiceRaw) getTradeService();
+    return new BinanceStreamingTradeService.ListenKeyProvider() {
+      @Override
+      public String start() throws IOException {
+        return spotTradeService.startUserDataStream().getListenKey();
+      }
+
+      @Override
+      public void keepAlive(String listenKey) throws IOException {
+        spotTradeService.keepAliveDataStream(listenKey);
+      }
+
+      @Override
+      public void close(String listenKey) throws IOException {
+        spotTradeService.closeDataStream(listenKey);
+      }
+    };
+  }
+
+  /** Stream uri of the current domain, can be overridden with the "Stream_Uri" parameter */
+  private String getStreamUri() {
+    Object streamUri = exchangeSpecification.getExchangeSpecificParametersItem(SPECIFIC_PARAM_STREAM_URI);
+    if (streamUri != null) {
+      return streamUri.toString();
+    }
+    if (domain == Domain.PERPETUAL) {
+      return usingSandbox() ? BinanceStreamingMarketDataService.PERPETUAL_SANDBOX_STREAM_URI : BinanceStreamingMarketDataService.PERPETUAL_STREAM_URI;
+    }
+    return usingSandbox() ? BinanceStreamingMarketDataService.SPOT_SANDBOX_STREAM_URI : BinanceStreamingMarketDataService.SPOT_STREAM_URI;
+  }
+
   @Override
   public SynchronizedValueFactory<Long> getNonceFactory() {
     throw new UnsupportedOperationException(
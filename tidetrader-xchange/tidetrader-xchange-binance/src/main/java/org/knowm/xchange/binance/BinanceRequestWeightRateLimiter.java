@@ -0,0 +1,280 @@
+package org.knowm.xchange.binance;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.internal.AtomicRateLimiter;
+import io.vavr.collection.Map;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.knowm.xchange.binance.dto.BinanceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import si.mazi.rescu.HttpResponseAware;
+
+/**
+ * Request weight budget shared by every Binance service.
+ *
+ * <p>Each call declares its weight (the permits asked to the rate limiter) and its priority: a
+ * call only gets its permits if, afterwards, the budget left is still above the share reserved to
+ * higher priorities. Orders can therefore always be placed, even while market data and background
+ * calls are throttled. The budget left is checked and the permits taken in one step (every change
+ * of the budget holds the same lock), so concurrent calls can't take the share reserved to higher
+ * priorities between the check and the acquisition.
+ *
+ * <p>The budget is kept in line with the weight Binance actually counted: each response (result or
+ * exception) exposing its headers through {@link HttpResponseAware} is read for {@code
+ * X-MBX-USED-WEIGHT-1M}, and a {@code Retry-After} header (sent with 429 / 418 responses) blocks
+ * every call until it expires.
+ */
+public class BinanceRequestWeightRateLimiter extends AtomicRateLimiter {
+
+  public static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1M";
+
+  public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  /** Request priorities, from the most to the least important. */
+  public enum Priority {
+    /** Order placement and cancellation. */
+    ORDER(0),
+    /** Order, trade and account queries. */
+    TRADE(10),
+    /** Tickers and order books. */
+    MARKET_DATA(20),
+    /** Bulk or on demand calls (kline history, exchange info). */
+    BACKGROUND(50);
+
+    /** Share of the budget (in percent) reserved to higher priorities. */
+    private final int reservedPercent;
+
+    Priority(int reservedPercent) {
+      this.reservedPercent = reservedPercent;
+    }
+  }
+
+  private final Logger LOG = LoggerFactory.getLogger(getClass());
+
+  private final java.util.Map<Priority, RateLimiter> priorityRateLimiters =
+      new EnumMap<>(Priority.class);
+
+  /** Held while the budget is checked and taken, reserved or drained. */
+  private final Object budgetLock = new Object();
+
+  private volatile long blockedUntilNanos = System.nanoTime();
+
+  /**
+   * Start of the first refresh cycle, taken right after the one of the parent rate limiter: cycles
+   * computed from it never end before the budget is actually reset.
+   */
+  private final long cyclesStartNanos = System.nanoTime();
+
+  public BinanceRequestWeightRateLimiter(String name, RateLimiterConfig rateLimiterConfig) {
+    super(name, rateLimiterConfig);
+    for (Priority priority : Priority.values()) {
+      priorityRateLimiters.put(priority, new PriorityRateLimiter(priority));
+    }
+  }
+
+  /**
+   * @param priority priority of the calls
+   * @return a rate limiter sharing this budget, for calls of the given priority
+   */
+  public RateLimiter forPriority(Priority priority) {
+    return priorityRateLimiters.get(priority);
+  }
+
+  @Override
+  public boolean acquirePermission(int permits) {
+    return acquirePermission(permits, Priority.ORDER);
+  }
+
+  @Override
+  public long reservePermission(int permits) {
+    synchronized (budgetLock) {
+      return super.reservePermission(permits);
+    }
+  }
+
+  @Override
+  public void drainPermissions() {
+    synchronized (budgetLock) {
+      super.drainPermissions();
+    }
+  }
+
+  @Override
+  public void onResult(Object result) {
+    if (result instanceof HttpResponseAware) {
+      onResponseHeaders(((HttpResponseAware) result).getResponseHeaders());
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    if (throwable instanceof HttpResponseAware) {
+      onResponseHeaders(((HttpResponseAware) throwable).getResponseHeaders());
+    }
+    if (throwable instanceof BinanceException) {
+      int status = ((BinanceException) throwable).getHttpStatusCode();
+      if (status == 429 || status == 418) {
+        LOG.warn("Request weight limit exceeded ({}), draining the budget", status);
+        drainPermissions();
+      }
+    }
+  }
+
+  /**
+   * Adjusts the budget with the weight counted by Binance.
+   *
+   * @param headers response headers (may be null)
+   */
+  public void onResponseHeaders(java.util.Map<String, List<String>> headers) {
+    if (headers == null) {
+      return;
+    }
+    Long retryAfter = headerValue(headers, RETRY_AFTER_HEADER);
+    if (retryAfter != null && retryAfter > 0) {
+      LOG.warn("Binance asked to retry after {} s", retryAfter);
+      blockedUntilNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter);
+      drainPermissions();
+    }
+    Long usedWeight = headerValue(headers, USED_WEIGHT_HEADER);
+    if (usedWeight != null) {
+      synchronized (budgetLock) {
+        int available = getMetrics().getAvailablePermissions();
+        long locallyUsed = (long) getRateLimiterConfig().getLimitForPeriod() - available;
+        // Permits can't be given back: only a weight higher than ours is taken into account.
+        long missing = Math.min(usedWeight - locallyUsed, available);
+        if (missing > 0) {
+          LOG.debug("Binance counted {} weight, {} counted locally", usedWeight, locallyUsed);
+          super.reservePermission((int) missing);
+        }
+      }
+    }
+  }
+
+  private boolean acquirePermission(int permits, Priority priority) {
+    long deadline = System.nanoTime() + getRateLimiterConfig().getTimeoutDuration().toNanos();
+    long reserved =
+        (long) getRateLimiterConfig().getLimitForPeriod() * priority.reservedPercent / 100;
+    while (true) {
+      long now = System.nanoTime();
+      long wakeUp;
+      if (now < blockedUntilNanos) {
+        wakeUp = blockedUntilNanos;
+      } else {
+        synchronized (budgetLock) {
+          // The permits are available: acquiring them doesn't wait.
+          if (getMetrics().getAvailablePermissions() - permits >= reserved) {
+            return super.acquirePermission(permits);
+          }
+        }
+        // Permits are never given back: the headroom only comes back with the next cycle.
+        wakeUp = nextCycleNanos(now);
+      }
+      if (wakeUp > deadline) {
+        return false;
+      }
+      LockSupport.parkNanos(wakeUp - now);
+      if (Thread.currentThread().isInterrupted()) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * @param now current time (from {@link System#nanoTime()})
+   * @return time at which the next refresh cycle starts and the budget is reset
+   */
+  private long nextCycleNanos(long now) {
+    long period = getRateLimiterConfig().getLimitRefreshPeriod().toNanos();
+    return cyclesStartNanos + ((now - cyclesStartNanos) / period + 1) * period;
+  }
+
+  private static Long headerValue(java.util.Map<String, List<String>> headers, String name) {
+    for (java.util.Map.Entry<String, List<String>> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())
+          && header.getValue() != null
+          && !header.getValue().isEmpty()) {
+        try {
+          return Long.parseLong(header.getValue().get(0).trim());
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** View of the budget used by the calls of one priority. */
+  private final class PriorityRateLimiter implements RateLimiter {
+
+    private final Priority priority;
+
+    private PriorityRateLimiter(Priority priority) {
+      this.priority = priority;
+    }
+
+    @Override
+    public boolean acquirePermission(int permits) {
+      return BinanceRequestWeightRateLimiter.this.acquirePermission(permits, priority);
+    }
+
+    @Override
+    public long reservePermission(int permits) {
+      return BinanceRequestWeightRateLimiter.this.reservePermission(permits);
+    }
+
+    @Override
+    public void onResult(Object result) {
+      BinanceRequestWeightRateLimiter.this.onResult(result);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      BinanceRequestWeightRateLimiter.this.onError(throwable);
+    }
+
+    @Override
+    public void changeTimeoutDuration(Duration timeoutDuration) {
+      BinanceRequestWeightRateLimiter.this.changeTimeoutDuration(timeoutDuration);
+    }
+
+    @Override
+    public void changeLimitForPeriod(int limitForPeriod) {
+      BinanceRequestWeightRateLimiter.this.changeLimitForPeriod(limitForPeriod);
+    }
+
+    @Override
+    public void drainPermissions() {
+      BinanceRequestWeightRateLimiter.this.drainPermissions();
+    }
+
+    @Override
+    public String getName() {
+      return BinanceRequestWeightRateLimiter.this.getName() + "-" + priority.name().toLowerCase();
+    }
+
+    @Override
+    public RateLimiterConfig getRateLimiterConfig() {
+      return BinanceRequestWeightRateLimiter.this.getRateLimiterConfig();
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+      return BinanceRequestWeightRateLimiter.this.getTags();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+      return BinanceRequestWeightRateLimiter.this.getMetrics();
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+      return BinanceRequestWeightRateLimiter.this.getEventPublisher();
+    }
+  }
+}
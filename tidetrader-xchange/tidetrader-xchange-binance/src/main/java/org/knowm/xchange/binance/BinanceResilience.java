@@ -16,15 +16,20 @@ public final class BinanceResilience {
 
   public static ResilienceRegistries createRegistries() {
     ResilienceRegistries registries = new ResilienceRegistries();
+    RateLimiterConfig requestWeightConfig =
+        RateLimiterConfig.from(registries.rateLimiters().getDefaultConfig())
+            .timeoutDuration(Duration.ofMinutes(1))
+            .limitRefreshPeriod(Duration.ofMinutes(1))
+            .limitForPeriod(1200)
+            .build();
+    // The request weight budget is shared by every service, by priority (see
+    // BinanceRequestWeightRateLimiter).
+    registries.rateLimiters().rateLimiter(REQUEST_WEIGHT_RATE_LIMITER, requestWeightConfig);
     registries
         .rateLimiters()
-        .rateLimiter(
+        .replace(
             REQUEST_WEIGHT_RATE_LIMITER,
-            RateLimiterConfig.from(registries.rateLimiters().getDefaultConfig())
-                .timeoutDuration(Duration.ofMinutes(1))
-                .limitRefreshPeriod(Duration.ofMinutes(1))
-                .limitForPeriod(1200)
-                .build());
+            new BinanceRequestWeightRateLimiter(REQUEST_WEIGHT_RATE_LIMITER, requestWeightConfig));
     registries
         .rateLimiters()
         .rateLimiter(
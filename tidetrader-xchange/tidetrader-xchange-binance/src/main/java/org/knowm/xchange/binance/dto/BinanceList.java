@@ -0,0 +1,33 @@
+package org.knowm.xchange.binance.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import si.mazi.rescu.HttpResponseAware;
+
+/**
+ * List returned by a Binance endpoint, along with the response headers.
+ *
+ * <p>rescu only hands the response headers to results implementing {@link HttpResponseAware} (its
+ * interceptors and client config never see the HTTP response), so endpoints returning a JSON array
+ * are deserialized into this list for {@code X-MBX-USED-WEIGHT-1M} to reach the request weight
+ * rate limiter.
+ *
+ * @param <T> element type
+ */
+public class BinanceList<T> extends ArrayList<T> implements HttpResponseAware {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient Map<String, List<String>> headers;
+
+  @Override
+  public void setResponseHeaders(Map<String, List<String>> headers) {
+    this.headers = headers;
+  }
+
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return headers;
+  }
+}
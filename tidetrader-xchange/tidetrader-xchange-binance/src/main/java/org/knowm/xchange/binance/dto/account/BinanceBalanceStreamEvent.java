@@ -0,0 +1,64 @@
+package org.knowm.xchange.binance.dto.account;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.dto.account.Balance;
+
+/**
+ * Balance of the user data stream: an entry of the spot {@code outboundAccountPosition} event
+ * (free / locked) or of the perpetual {@code ACCOUNT_UPDATE} event (wallet / cross wallet balance).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class BinanceBalanceStreamEvent {
+
+  private final String asset;
+  private final BigDecimal free;
+  private final BigDecimal locked;
+  private final BigDecimal walletBalance;
+  private final BigDecimal crossWalletBalance;
+
+  public BinanceBalanceStreamEvent(
+      @JsonProperty("a") String asset,
+      @JsonProperty("f") BigDecimal free,
+      @JsonProperty("l") BigDecimal locked,
+      @JsonProperty("wb") BigDecimal walletBalance,
+      @JsonProperty("cw") BigDecimal crossWalletBalance) {
+    this.asset = asset;
+    this.free = free;
+    this.locked = locked;
+    this.walletBalance = walletBalance;
+    this.crossWalletBalance = crossWalletBalance;
+  }
+
+  public String getAsset() {
+    return asset;
+  }
+
+  public Balance toBalance() {
+    Currency currency = Currency.getInstance(asset);
+    if (walletBalance != null) {
+      BigDecimal available = crossWalletBalance != null ? crossWalletBalance : walletBalance;
+      return new Balance(currency, walletBalance, available, walletBalance.subtract(available));
+    }
+    BigDecimal available = free != null ? free : BigDecimal.ZERO;
+    BigDecimal frozen = locked != null ? locked : BigDecimal.ZERO;
+    return new Balance(currency, available.add(frozen), available, frozen);
+  }
+
+  @Override
+  public String toString() {
+    return "BinanceBalanceStreamEvent [asset="
+        + asset
+        + ", free="
+        + free
+        + ", locked="
+        + locked
+        + ", walletBalance="
+        + walletBalance
+        + ", crossWalletBalance="
+        + crossWalletBalance
+        + "]";
+  }
+}
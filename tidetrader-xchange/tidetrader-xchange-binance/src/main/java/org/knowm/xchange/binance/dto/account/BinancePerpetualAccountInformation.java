@@ -1,5 +1,6 @@
 package org.knowm.xchange.binance.dto.account;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Value;
@@ -7,9 +8,11 @@ import lombok.Value;
 import javax.ws.rs.GET;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import si.mazi.rescu.HttpResponseAware;
 
 @Getter
-public final class BinancePerpetualAccountInformation {
+public final class BinancePerpetualAccountInformation implements HttpResponseAware {
 
   /*
   {
@@ -106,6 +109,9 @@ public final class BinancePerpetualAccountInformation {
   private final List<BinanceBalancePerpetual> balancePerpetuals;
   private final List<BalancePosition> balancePositions;
 
+  @JsonIgnore
+  private Map<String, List<String>> responseHeaders;
+
   public BinancePerpetualAccountInformation(
       @JsonProperty("feeTier") Integer feeTier,
       @JsonProperty("canTrade") boolean canTrade,
@@ -144,4 +150,15 @@ public final class BinancePerpetualAccountInformation {
     this.balancePerpetuals = balancePerpetuals;
     this.balancePositions = balancePositions;
   }
+
+  @Override
+  public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
+    this.responseHeaders = responseHeaders;
+  }
+
+  @JsonIgnore
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return responseHeaders;
+  }
 }
@@ -0,0 +1,120 @@
+package org.knowm.xchange.binance.dto.marketdata;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+
+/** Payload of a {@code <symbol>@kline_<interval>} stream frame (spot and perpetual). */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class BinanceKlineStreamEvent {
+
+  private final long eventTime;
+  private final String symbol;
+  private final Candle kline;
+
+  public BinanceKlineStreamEvent(
+      @JsonProperty("E") long eventTime,
+      @JsonProperty("s") String symbol,
+      @JsonProperty("k") Candle kline) {
+    this.eventTime = eventTime;
+    this.symbol = symbol;
+    this.kline = kline;
+  }
+
+  public long getEventTime() {
+    return eventTime;
+  }
+
+  public String getSymbol() {
+    return symbol;
+  }
+
+  public Candle getKline() {
+    return kline;
+  }
+
+  public Kline toKline(CurrencyPair pair) {
+    return new Kline.Builder()
+        .currencyPair(pair != null ? pair : BinanceAdapters.adaptSymbol(symbol))
+        .openTime(kline.openTime)
+        .lastTime(kline.closeTime)
+        .open(kline.open)
+        .high(kline.high)
+        .low(kline.low)
+        .last(kline.close)
+        .volume(kline.volume)
+        .quoteVolume(kline.quoteVolume)
+        .numberOfTrades(kline.numberOfTrades)
+        .takerBuyBaseAssetVolume(kline.takerBuyBaseAssetVolume)
+        .takerBuyQuoteAssetVolume(kline.takerBuyQuoteAssetVolume)
+        .build();
+  }
+
+  /** The candle carried by a kline frame. */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public static final class Candle {
+
+    private final long openTime;
+    private final long closeTime;
+    private final String interval;
+    private final BigDecimal open;
+    private final BigDecimal close;
+    private final BigDecimal high;
+    private final BigDecimal low;
+    private final BigDecimal volume;
+    private final long numberOfTrades;
+    private final boolean closed;
+    private final BigDecimal quoteVolume;
+    private final BigDecimal takerBuyBaseAssetVolume;
+    private final BigDecimal takerBuyQuoteAssetVolume;
+
+    public Candle(
+        @JsonProperty("t") long openTime,
+        @JsonProperty("T") long closeTime,
+        @JsonProperty("i") String interval,
+        @JsonProperty("o") BigDecimal open,
+        @JsonProperty("c") BigDecimal close,
+        @JsonProperty("h") BigDecimal high,
+        @JsonProperty("l") BigDecimal low,
+        @JsonProperty("v") BigDecimal volume,
+        @JsonProperty("n") long numberOfTrades,
+        @JsonProperty("x") boolean closed,
+        @JsonProperty("q") BigDecimal quoteVolume,
+        @JsonProperty("V") BigDecimal takerBuyBaseAssetVolume,
+        @JsonProperty("Q") BigDecimal takerBuyQuoteAssetVolume) {
+      this.openTime = openTime;
+      this.closeTime = closeTime;
+      this.interval = interval;
+      this.open = open;
+      this.close = close;
+      this.high = high;
+      this.low = low;
+      this.volume = volume;
+      this.numberOfTrades = numberOfTrades;
+      this.closed = closed;
+      this.quoteVolume = quoteVolume;
+      this.takerBuyBaseAssetVolume = takerBuyBaseAssetVolume;
+      this.takerBuyQuoteAssetVolume = takerBuyQuoteAssetVolume;
+    }
+
+    public long getOpenTime() {
+      return openTime;
+    }
+
+    public String getInterval() {
+      return interval;
+    }
+
+    public BigDecimal getClose() {
+      return close;
+    }
+
+    /** @return true once the candle is final and will not be updated anymore */
+    public boolean isClosed() {
+      return closed;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package org.knowm.xchange.binance.dto.marketdata;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.util.Date;
+import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Ticker;
+
+/** Payload of a {@code <symbol>@ticker} stream frame (spot and perpetual). */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class BinanceTickerStreamEvent {
+
+  private final long eventTime;
+  private final String symbol;
+  private final BigDecimal priceChangePercent;
+  private final BigDecimal weightedAvgPrice;
+  private final BigDecimal lastPrice;
+  private final BigDecimal bidPrice;
+  private final BigDecimal bidQty;
+  private final BigDecimal askPrice;
+  private final BigDecimal askQty;
+  private final BigDecimal openPrice;
+  private final BigDecimal highPrice;
+  private final BigDecimal lowPrice;
+  private final BigDecimal volume;
+  private final BigDecimal quoteVolume;
+  private final long closeTime;
+
+  public BinanceTickerStreamEvent(
+      @JsonProperty("E") long eventTime,
+      @JsonProperty("s") String symbol,
+      @JsonProperty("P") BigDecimal priceChangePercent,
+      @JsonProperty("w") BigDecimal weightedAvgPrice,
+      @JsonProperty("c") BigDecimal lastPrice,
+      @JsonProperty("b") BigDecimal bidPrice,
+      @JsonProperty("B") BigDecimal bidQty,
+      @JsonProperty("a") BigDecimal askPrice,
+      @JsonProperty("A") BigDecimal askQty,
+      @JsonProperty("o") BigDecimal openPrice,
+      @JsonProperty("h") BigDecimal highPrice,
+      @JsonProperty("l") BigDecimal lowPrice,
+      @JsonProperty("v") BigDecimal volume,
+      @JsonProperty("q") BigDecimal quoteVolume,
+      @JsonProperty("C") long closeTime) {
+    this.eventTime = eventTime;
+    this.symbol = symbol;
+    this.priceChangePercent = priceChangePercent;
+    this.weightedAvgPrice = weightedAvgPrice;
+    this.lastPrice = lastPrice;
+    this.bidPrice = bidPrice;
+    this.bidQty = bidQty;
+    this.askPrice = askPrice;
+    this.askQty = askQty;
+    this.openPrice = openPrice;
+    this.highPrice = highPrice;
+    this.lowPrice = lowPrice;
+    this.volume = volume;
+    this.quoteVolume = quoteVolume;
+    this.closeTime = closeTime;
+  }
+
+  public long getEventTime() {
+    return eventTime;
+  }
+
+  public String getSymbol() {
+    return symbol;
+  }
+
+  public BigDecimal getLastPrice() {
+    return lastPrice;
+  }
+
+  public long getCloseTime() {
+    return closeTime;
+  }
+
+  public Ticker toTicker(CurrencyPair pair) {
+    return new Ticker.Builder()
+        .currencyPair(pair != null ? pair : BinanceAdapters.adaptSymbol(symbol))
+        .open(openPrice)
+        .ask(askPrice)
+        .bid(bidPrice)
+        .last(lastPrice)
+        .high(highPrice)
+        .low(lowPrice)
+        .volume(volume)
+        .vwap(weightedAvgPrice)
+        .askSize(askQty)
+        .bidSize(bidQty)
+        .quoteVolume(quoteVolume)
+        .timestamp(closeTime > 0 ? new Date(closeTime) : new Date(eventTime))
+        .percentageChange(priceChangePercent)
+        .build();
+  }
+}
@@ -1,10 +1,13 @@
 package org.knowm.xchange.binance.dto.trade;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import si.mazi.rescu.HttpResponseAware;
 
-public final class BinanceNewOrder {
+public final class BinanceNewOrder implements HttpResponseAware {
 
   /** Desired response type for BinanceNewOrder. */
   public enum NewOrderResponseType {
@@ -26,6 +29,9 @@ public final class BinanceNewOrder {
   public final OrderSide side;
   public final List<BinanceTrade> fills;
 
+  @JsonIgnore
+  private Map<String, List<String>> responseHeaders;
+
   public BinanceNewOrder(
       @JsonProperty("symbol") String symbol,
       @JsonProperty("orderId") long orderId,
@@ -53,4 +59,15 @@ public final class BinanceNewOrder {
     this.side = side;
     this.fills = fills;
   }
+
+  @Override
+  public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
+    this.responseHeaders = responseHeaders;
+  }
+
+  @JsonIgnore
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return responseHeaders;
+  }
 }
@@ -1,10 +1,14 @@
 package org.knowm.xchange.binance.dto.trade;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import si.mazi.rescu.HttpResponseAware;
 
-public final class BinanceOrder {
+public final class BinanceOrder implements HttpResponseAware {
 
   public final String symbol;
   public final long orderId;
@@ -22,6 +26,9 @@ public final class BinanceOrder {
   public final BigDecimal icebergQty;
   public final long time;
 
+  @JsonIgnore
+  private Map<String, List<String>> responseHeaders;
+
   public BinanceOrder(
       @JsonProperty("symbol") String symbol,
       @JsonProperty("orderId") long orderId,
@@ -58,4 +65,15 @@ public final class BinanceOrder {
   public Date getTime() {
     return new Date(time);
   }
+
+  @Override
+  public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
+    this.responseHeaders = responseHeaders;
+  }
+
+  @JsonIgnore
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return responseHeaders;
+  }
 }
@@ -0,0 +1,182 @@
+package org.knowm.xchange.binance.dto.trade;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.util.Date;
+import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.trade.UserTrade;
+
+/**
+ * Order update of the user data stream: the spot {@code executionReport} event, or the {@code o}
+ * object of the perpetual {@code ORDER_TRADE_UPDATE} event (both use the same field names).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class BinanceOrderUpdateStreamEvent {
+
+  /** Execution type of an update filling the order. */
+  public static final String EXECUTION_TYPE_TRADE = "TRADE";
+
+  private final String symbol;
+  private final String clientOrderId;
+  private final OrderSide side;
+  private final String orderType;
+  private final BigDecimal origQty;
+  private final BigDecimal price;
+  private final BigDecimal avgPrice;
+  private final BigDecimal stopPrice;
+  private final String executionType;
+  private final OrderStatus status;
+  private final long orderId;
+  private final BigDecimal lastFilledQty;
+  private final BigDecimal executedQty;
+  private final BigDecimal lastFilledPrice;
+  private final BigDecimal commission;
+  private final String commissionAsset;
+  private final long transactionTime;
+  private final long tradeId;
+  private final BigDecimal cummulativeQuoteQty;
+  private final long orderCreationTime;
+
+  public BinanceOrderUpdateStreamEvent(
+      @JsonProperty("s") String symbol,
+      @JsonProperty("c") String clientOrderId,
+      @JsonProperty("S") OrderSide side,
+      @JsonProperty("o") String orderType,
+      @JsonProperty("q") BigDecimal origQty,
+      @JsonProperty("p") BigDecimal price,
+      @JsonProperty("ap") BigDecimal avgPrice,
+      @JsonProperty("P") BigDecimal stopPrice,
+      @JsonProperty("x") String executionType,
+      @JsonProperty("X") OrderStatus status,
+      @JsonProperty("i") long orderId,
+      @JsonProperty("l") BigDecimal lastFilledQty,
+      @JsonProperty("z") BigDecimal executedQty,
+      @JsonProperty("L") BigDecimal lastFilledPrice,
+      @JsonProperty("n") BigDecimal commission,
+      @JsonProperty("N") String commissionAsset,
+      @JsonProperty("T") long transactionTime,
+      @JsonProperty("t") long tradeId,
+      @JsonProperty("Z") BigDecimal cummulativeQuoteQty,
+      @JsonProperty("O") long orderCreationTime) {
+    this.symbol = symbol;
+    this.clientOrderId = clientOrderId;
+    this.side = side;
+    this.orderType = orderType;
+    this.origQty = origQty;
+    this.price = price;
+    this.avgPrice = avgPrice;
+    this.stopPrice = stopPrice;
+    this.executionType = executionType;
+    this.status = status;
+    this.orderId = orderId;
+    this.lastFilledQty = lastFilledQty;
+    this.executedQty = executedQty;
+    this.lastFilledPrice = lastFilledPrice;
+    this.commission = commission;
+    this.commissionAsset = commissionAsset;
+    this.transactionTime = transactionTime;
+    this.tradeId = tradeId;
+    this.cummulativeQuoteQty = cummulativeQuoteQty;
+    this.orderCreationTime = orderCreationTime;
+  }
+
+  public String getSymbol() {
+    return symbol;
+  }
+
+  public long getOrderId() {
+    return orderId;
+  }
+
+  public String getExecutionType() {
+    return executionType;
+  }
+
+  public OrderStatus getStatus() {
+    return status;
+  }
+
+  /** @return true if this update fills (partially or not) the order */
+  public boolean isTrade() {
+    return EXECUTION_TYPE_TRADE.equals(executionType) && tradeId > 0;
+  }
+
+  /**
+   * Returns the order, adapted the same way as the orders returned by the REST API.
+   *
+   * @return order
+   */
+  public Order toOrder() {
+    return BinanceAdapters.adaptOrder(
+        new BinanceOrder(
+            symbol,
+            orderId,
+            clientOrderId,
+            price,
+            origQty,
+            executedQty,
+            cummulativeQuoteQty,
+            avgPrice,
+            status,
+            null,
+            adaptOrderType(orderType),
+            side,
+            stopPrice,
+            null,
+            orderCreationTime > 0 ? orderCreationTime : transactionTime));
+  }
+
+  /**
+   * Returns the trade filling the order, adapted the same way as the trades returned by the REST
+   * API.
+   *
+   * @param currencyPair currency pair (adapted from the symbol if null)
+   * @return trade
+   */
+  public UserTrade toUserTrade(CurrencyPair currencyPair) {
+    UserTrade.Builder builder =
+        new UserTrade.Builder()
+            .type(BinanceAdapters.convert(side))
+            .originalAmount(lastFilledQty)
+            .currencyPair(currencyPair != null ? currencyPair : BinanceAdapters.adaptSymbol(symbol))
+            .price(lastFilledPrice)
+            .timestamp(new Date(transactionTime))
+            .id(Long.toString(tradeId))
+            .orderId(Long.toString(orderId))
+            .feeAmount(commission);
+    if (commissionAsset != null) {
+      builder.feeCurrency(Currency.getInstance(commissionAsset));
+    }
+    return builder.build();
+  }
+
+  /** Perpetual stop orders (STOP_MARKET, TRAILING_STOP_MARKET...) are adapted as stop orders. */
+  private static OrderType adaptOrderType(String orderType) {
+    try {
+      return OrderType.valueOf(orderType);
+    } catch (RuntimeException e) {
+      return OrderType.STOP_LOSS;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BinanceOrderUpdateStreamEvent [symbol="
+        + symbol
+        + ", orderId="
+        + orderId
+        + ", executionType="
+        + executionType
+        + ", status="
+        + status
+        + ", executedQty="
+        + executedQty
+        + ", tradeId="
+        + tradeId
+        + "]";
+  }
+}
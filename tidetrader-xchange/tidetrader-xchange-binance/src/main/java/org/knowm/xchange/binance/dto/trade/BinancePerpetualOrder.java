@@ -1,13 +1,17 @@
 package org.knowm.xchange.binance.dto.trade;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.knowm.xchange.binance.dto.trade.OrderSide;
 import org.knowm.xchange.binance.dto.trade.OrderType;
 import org.knowm.xchange.binance.dto.trade.TimeInForce;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import si.mazi.rescu.HttpResponseAware;
 
-public class BinancePerpetualOrder {
+public class BinancePerpetualOrder implements HttpResponseAware {
 
     private final long orderId;
     private final String symbol;
@@ -19,6 +23,9 @@ public class BinancePerpetualOrder {
     private final String clientOrderId;
     private final BigDecimal stopPrice;
 
+    @JsonIgnore
+    private Map<String, List<String>> responseHeaders;
+
     public BinancePerpetualOrder(
             @JsonProperty("symbol") String symbol,
             @JsonProperty("orderId") long orderId,
@@ -76,5 +83,14 @@ public class BinancePerpetualOrder {
         return stopPrice;
     }
 
+    @Override
+    public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
 
+    @JsonIgnore
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
 }
@@ -1,6 +1,7 @@
 package org.knowm.xchange.binance.perpetualswap;
 
 import org.knowm.xchange.binance.dto.BinanceException;
+import org.knowm.xchange.binance.dto.BinanceList;
 import org.knowm.xchange.binance.dto.marketdata.*;
 import org.knowm.xchange.binance.dto.meta.BinanceSystemStatus;
 import org.knowm.xchange.binance.dto.meta.BinanceTime;
@@ -14,7 +15,6 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
-import java.util.List;
 
 
 @Path("")
@@ -92,7 +92,7 @@ public interface BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinanceAggTrades> aggTrades(
+  BinanceList<BinanceAggTrades> aggTrades(
       @QueryParam("symbol") String symbol,
       @QueryParam("fromId") Long fromId,
       @QueryParam("startTime") Long startTime,
@@ -131,7 +131,7 @@ public interface BinancePerpetual {
    */
   @GET
   @Path("fapi/v1/klines")
-  List<Object[]> klines(
+  BinanceList<Object[]> klines(
       @QueryParam("symbol") String symbol,
       @QueryParam("interval") String interval,
       @QueryParam("limit") Integer limit,
@@ -149,7 +149,7 @@ public interface BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinanceTicker24h> ticker24h() throws IOException, BinanceException;
+  BinanceList<BinanceTicker24h> ticker24h() throws IOException, BinanceException;
 
   @GET
   @Path("fapi/v1/ticker/24hr")
@@ -185,7 +185,7 @@ public interface BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinancePrice> tickerAllPrices() throws IOException, BinanceException;
+  BinanceList<BinancePrice> tickerAllPrices() throws IOException, BinanceException;
 
   @GET
   @Path("api/v3/ticker/bookTicker")
@@ -196,7 +196,7 @@ public interface BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinancePriceQuantity> tickerAllBookTickers() throws IOException, BinanceException;
+  BinanceList<BinancePriceQuantity> tickerAllBookTickers() throws IOException, BinanceException;
 
 
   @GET
@@ -213,7 +213,7 @@ public interface BinancePerpetual {
   /**
    * 最新标记价格和资金费率()所有
    */
-  List<BinancePremiumIndex> getAllPremiumIndex()
+  BinanceList<BinancePremiumIndex> getAllPremiumIndex()
           throws IOException, BinanceException;
 
   @GET
@@ -221,7 +221,7 @@ public interface BinancePerpetual {
   /**
    * 查询资金费率历史
    */
-  List<FundimgRatereq> getFundingRate(@QueryParam("symbol") String symbol,
+  BinanceList<FundimgRatereq> getFundingRate(@QueryParam("symbol") String symbol,
                                       @QueryParam("startTime") Long startTime,
                                       @QueryParam("endTime") Long endTime,
                                       @QueryParam("limit") Integer limit)
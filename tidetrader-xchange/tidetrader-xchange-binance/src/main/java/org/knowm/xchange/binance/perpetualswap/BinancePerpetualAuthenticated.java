@@ -1,6 +1,7 @@
 package org.knowm.xchange.binance.perpetualswap;
 
 import org.knowm.xchange.binance.dto.BinanceException;
+import org.knowm.xchange.binance.dto.BinanceList;
 import org.knowm.xchange.binance.dto.account.*;
 import org.knowm.xchange.binance.dto.trade.*;
 import org.knowm.xchange.binance.dto.marketdata.BinancePerpetualBalance;
@@ -16,7 +17,6 @@ import javax.ws.rs.core.MediaType;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Path("")
@@ -64,7 +64,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
 
   @POST
   @Path("fapi/v1/batchOrders")
-  List<BinanceNewOrder> batchOrders(
+  BinanceList<BinanceNewOrder> batchOrders(
           @FormParam("batchOrders") String batchOrders,
           @FormParam("recvWindow") Long recvWindow,
           @FormParam("timestamp") SynchronizedValueFactory<Long> timestamp,
@@ -175,7 +175,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinanceCancelledOrder> cancelAllOpenOrders(
+  BinanceList<BinanceCancelledOrder> cancelAllOpenOrders(
       @QueryParam("symbol") String symbol,
       @QueryParam("recvWindow") Long recvWindow,
       @QueryParam("timestamp") SynchronizedValueFactory<Long> timestamp,
@@ -195,7 +195,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinanceOrder> openOrders(
+  BinanceList<BinanceOrder> openOrders(
       @QueryParam("symbol") String symbol,
       @QueryParam("recvWindow") Long recvWindow,
       @QueryParam("timestamp") SynchronizedValueFactory<Long> timestamp,
@@ -221,7 +221,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinanceOrder> allOrders(
+  BinanceList<BinanceOrder> allOrders(
       @QueryParam("symbol") String symbol,
       @QueryParam("orderId") Long orderId,
       @QueryParam("limit") Integer limit,
@@ -242,7 +242,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinancePerpetualBalance> balance(
+  BinanceList<BinancePerpetualBalance> balance(
           @QueryParam("recvWindow") Long recvWindow,
           @QueryParam("timestamp") SynchronizedValueFactory<Long> timestamp,
           @HeaderParam(X_MBX_APIKEY) String apiKey,
@@ -285,7 +285,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    * @throws BinanceException
    */
-  List<BinancePerpetualTrade> myTrades(
+  BinanceList<BinancePerpetualTrade> myTrades(
       @QueryParam("symbol") String symbol,
       @QueryParam("limit") Integer limit,
       @QueryParam("startTime") Long startTime,
@@ -441,7 +441,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
 
   @GET
   @Path("/sapi/v1/sub-account/transfer/subUserHistory")
-  List<TransferSubUserHistory> transferSubUserHistory(
+  BinanceList<TransferSubUserHistory> transferSubUserHistory(
       @QueryParam("asset") String asset,
       @QueryParam("type") Integer type,
       @QueryParam("startTime") Long startTime,
@@ -504,7 +504,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    */
   @POST
-  @Path("/api/v3/userDataStream")
+  @Path("/fapi/v1/listenKey")
   BinanceListenKey startUserDataStream(@HeaderParam(X_MBX_APIKEY) String apiKey)
       throws IOException, BinanceException;
 
@@ -518,7 +518,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    */
   @PUT
-  @Path("/api/v3/userDataStream?listenKey={listenKey}")
+  @Path("/fapi/v1/listenKey?listenKey={listenKey}")
   Map<?, ?> keepAliveUserDataStream(
       @HeaderParam(X_MBX_APIKEY) String apiKey, @PathParam("listenKey") String listenKey)
       throws IOException, BinanceException;
@@ -533,7 +533,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    * @throws IOException
    */
   @DELETE
-  @Path("/api/v3/userDataStream?listenKey={listenKey}")
+  @Path("/fapi/v1/listenKey?listenKey={listenKey}")
   Map<?, ?> closeUserDataStream(
       @HeaderParam(X_MBX_APIKEY) String apiKey, @PathParam("listenKey") String listenKey)
       throws IOException, BinanceException;
@@ -549,7 +549,7 @@ public interface BinancePerpetualAuthenticated extends BinancePerpetual {
    */
   @GET
   @Path("fapi/v2/positionRisk")
-  List<BinancePositionInfo> positionRisk(
+  BinanceList<BinancePositionInfo> positionRisk(
           @QueryParam("symbol") String symbol,
           @QueryParam("recvWindow") Long recvWindow,
           @QueryParam("timestamp") SynchronizedValueFactory<Long> timestamp,
@@ -1,6 +1,9 @@
 package org.knowm.xchange.binance.perpetualswap.service;
 
+import io.github.resilience4j.ratelimiter.RateLimiter;
 import org.knowm.xchange.binance.BinanceExchange;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter.Priority;
 import org.knowm.xchange.binance.dto.meta.BinanceSystemStatus;
 import org.knowm.xchange.binance.dto.meta.exchangeinfo.BinanceExchangeInfo;
 import org.knowm.xchange.binance.perpetualswap.BinancePerpetualAuthenticated;
@@ -44,10 +47,45 @@ public class BinancePerpetualBaseService extends BaseResilientExchangeService<Bi
         return exchange.getTimestampFactory();
     }
 
+    /**
+     * Priority of the calls made by this service in the shared request weight budget.
+     *
+     * @return priority
+     */
+    protected Priority getRequestPriority() {
+        return Priority.TRADE;
+    }
+
+    /**
+     * Returns the request weight budget with the priority of this service (see {@link
+     * #getRequestPriority()}).
+     */
+    @Override
+    protected RateLimiter rateLimiter(String name) {
+        if (REQUEST_WEIGHT_RATE_LIMITER.equals(name)) {
+            return requestWeightRateLimiter(getRequestPriority());
+        }
+        return super.rateLimiter(name);
+    }
+
+    /**
+     * Returns the request weight budget for calls of the given priority.
+     *
+     * @param priority priority
+     * @return rate limiter
+     */
+    protected RateLimiter requestWeightRateLimiter(Priority priority) {
+        RateLimiter rateLimiter = super.rateLimiter(REQUEST_WEIGHT_RATE_LIMITER);
+        if (rateLimiter instanceof BinanceRequestWeightRateLimiter) {
+            return ((BinanceRequestWeightRateLimiter) rateLimiter).forPriority(priority);
+        }
+        return rateLimiter;
+    }
+
     public BinanceExchangeInfo getExchangeInfo() throws IOException {
         return decorateApiCall(binance::exchangeInfo)
                 .withRetry(retry("exchangeInfo"))
-                .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+                .withRateLimiter(requestWeightRateLimiter(Priority.BACKGROUND))
                 .call();
     }
 
@@ -14,10 +14,13 @@ import org.knowm.xchange.dto.marketdata.OrderBook;
 import org.knowm.xchange.dto.marketdata.Ticker;
 import org.knowm.xchange.instrument.Instrument;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
 import org.knowm.xchange.service.marketdata.params.Params;
 import org.knowm.xchange.service.marketdata.params.PeriodParams;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -51,10 +54,23 @@ public class BinancePerpetualMarketDataService extends BinancePerpetualMarketDat
             throw BinanceErrorAdapter.adapt(e);
         }
     }
+    /**
+     * Tickers of the requested currency pairs when params is a {@link CurrencyPairsParam}, of every symbol otherwise.
+     * The futures API has no "symbols" filter: up to {@link #MAX_SINGLE_TICKER_REQUESTS} pairs are requested one by one,
+     * bigger lists download every ticker of the exchange.
+     */
     @Override
     public List<Ticker> getTicker(Params params) throws IOException {
         try {
-            return ticker24h().stream().map(BinanceTicker24h::toTicker).collect(Collectors.toList());
+            Collection<CurrencyPair> pairs = params instanceof CurrencyPairsParam ? ((CurrencyPairsParam) params).getCurrencyPairs() : null;
+            if (pairs == null || pairs.isEmpty() || pairs.size() > MAX_SINGLE_TICKER_REQUESTS) {
+                return ticker24h().stream().map(BinanceTicker24h::toTicker).collect(Collectors.toList());
+            }
+            List<Ticker> tickers = new ArrayList<>(pairs.size());
+            for (CurrencyPair pair : pairs) {
+                tickers.add(ticker24h(pair).toTicker());
+            }
+            return tickers;
         } catch (BinanceException e) {
             throw BinanceErrorAdapter.adapt(e);
         }
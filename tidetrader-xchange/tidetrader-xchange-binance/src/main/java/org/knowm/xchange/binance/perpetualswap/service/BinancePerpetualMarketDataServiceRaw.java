@@ -1,6 +1,7 @@
 package org.knowm.xchange.binance.perpetualswap.service;
 
 import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter.Priority;
 import org.knowm.xchange.binance.BinanceExchange;
 import org.knowm.xchange.binance.dto.marketdata.BinanceOrderbook;
 import org.knowm.xchange.binance.dto.marketdata.BinanceTicker24h;
@@ -23,10 +24,22 @@ import java.util.stream.Collectors;
 import static org.knowm.xchange.binance.BinanceResilience.REQUEST_WEIGHT_RATE_LIMITER;
 
 public class BinancePerpetualMarketDataServiceRaw extends BinancePerpetualBaseService{
+
+    /**
+     * Up to this number of pairs, single symbol 24hr tickers (weight 1 each) are requested one by one
+     * instead of downloading every ticker (weight 40).
+     */
+    public static final int MAX_SINGLE_TICKER_REQUESTS = 10;
+
     public BinancePerpetualMarketDataServiceRaw(BinanceExchange exchange, BinancePerpetualAuthenticated binance, ResilienceRegistries resilienceRegistries) {
         super(exchange, binance, resilienceRegistries);
     }
 
+    @Override
+    protected Priority getRequestPriority() {
+        return Priority.MARKET_DATA;
+    }
+
 
     public BinanceOrderbook getBinanceOrderbook(CurrencyPair currencyPair, Integer limit) throws IOException {
         return decorateApiCall(() -> binance.depth(currencyPair.getParsing(""), limit))
@@ -81,7 +94,7 @@ public class BinancePerpetualMarketDataServiceRaw extends BinancePerpetualBaseSe
     public List<Kline> klines(CurrencyPair currencyPair, KlineInterval interval, Integer limit, Long startTime, Long endTime) throws IOException {
         List<Object[]> raw = decorateApiCall(() -> binance.klines(currencyPair.getParsing(""), interval.code(), limit, startTime, endTime))
                         .withRetry(retry("klines"))
-                        .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+                        .withRateLimiter(requestWeightRateLimiter(Priority.BACKGROUND))
                         .call();
         return raw.stream()
                 .map(obj -> new Kline.Builder().from(currencyPair, obj).build())
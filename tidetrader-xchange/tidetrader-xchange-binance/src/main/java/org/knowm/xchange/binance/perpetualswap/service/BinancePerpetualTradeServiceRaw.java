@@ -2,6 +2,7 @@ package org.knowm.xchange.binance.perpetualswap.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter.Priority;
 import org.knowm.xchange.binance.BinanceErrorAdapter;
 import org.knowm.xchange.binance.BinanceExchange;
 import org.knowm.xchange.binance.dto.BinanceException;
@@ -85,7 +86,7 @@ public class BinancePerpetualTradeServiceRaw extends BinancePerpetualBaseService
                                 super.apiKey,
                                 super.signatureCreator))
                 .withRetry(retry("cancelOrder"))
-                .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+                .withRateLimiter(requestWeightRateLimiter(Priority.ORDER))
                 .call();
     }
 
@@ -100,7 +101,7 @@ public class BinancePerpetualTradeServiceRaw extends BinancePerpetualBaseService
                                 super.apiKey,
                                 super.signatureCreator))
                 .withRetry(retry("cancelAllOpenOrders"))
-                .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+                .withRateLimiter(requestWeightRateLimiter(Priority.ORDER))
                 .call();
     }
 
@@ -273,7 +274,7 @@ public class BinancePerpetualTradeServiceRaw extends BinancePerpetualBaseService
                 .withRetry(retry("newOrder", NON_IDEMPOTENT_CALLS_RETRY_CONFIG_NAME))
                 .withRateLimiter(rateLimiter(ORDERS_PER_SECOND_RATE_LIMITER))
                 .withRateLimiter(rateLimiter(ORDERS_PER_DAY_RATE_LIMITER))
-                .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+                .withRateLimiter(requestWeightRateLimiter(Priority.ORDER))
                 .call();
     }
 
@@ -1,6 +1,7 @@
 package org.knowm.xchange.binance.service;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -19,6 +20,7 @@ import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.instrument.Instrument;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
 import org.knowm.xchange.service.marketdata.params.Params;
 import org.knowm.xchange.service.marketdata.params.PeriodParams;
 
@@ -81,10 +83,28 @@ public class BinanceMarketDataService extends BinanceMarketDataServiceRaw implem
     }
   }
 
+  /**
+   * Tickers of the requested currency pairs when params is a {@link CurrencyPairsParam}, of every
+   * symbol otherwise. The cheapest request is chosen by the number of pairs: one pair uses the
+   * single symbol endpoint, up to {@link #MAX_TICKER_SYMBOLS} pairs use the "symbols" filter, and
+   * only bigger lists download every ticker of the exchange.
+   */
   @Override
   public List<Ticker> getTicker(Params params) throws IOException {
     try {
-      return ticker24h().stream().map(BinanceTicker24h::toTicker).collect(Collectors.toList());
+      Collection<CurrencyPair> pairs =
+          params instanceof CurrencyPairsParam
+              ? ((CurrencyPairsParam) params).getCurrencyPairs()
+              : null;
+      List<BinanceTicker24h> tickers;
+      if (pairs == null || pairs.isEmpty() || pairs.size() > MAX_TICKER_SYMBOLS) {
+        tickers = ticker24h();
+      } else if (pairs.size() == 1) {
+        tickers = List.of(ticker24h(pairs.iterator().next()));
+      } else {
+        tickers = ticker24h(pairs);
+      }
+      return tickers.stream().map(BinanceTicker24h::toTicker).collect(Collectors.toList());
     } catch (BinanceException e) {
       throw BinanceErrorAdapter.adapt(e);
     }
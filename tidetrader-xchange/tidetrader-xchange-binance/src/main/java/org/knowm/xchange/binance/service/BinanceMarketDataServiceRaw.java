@@ -4,10 +4,15 @@ import static org.knowm.xchange.binance.BinanceResilience.REQUEST_WEIGHT_RATE_LI
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter.Priority;
 import org.knowm.xchange.binance.BinanceAuthenticated;
 import org.knowm.xchange.binance.BinanceExchange;
 import org.knowm.xchange.binance.dto.marketdata.BinanceAggTrades;
@@ -26,6 +31,9 @@ import org.knowm.xchange.utils.StreamUtils;
 
 public class BinanceMarketDataServiceRaw extends BinanceBaseService {
 
+  /** Maximum number of symbols accepted by the "symbols" parameter of the 24hr ticker. */
+  public static final int MAX_TICKER_SYMBOLS = 100;
+
   protected BinanceMarketDataServiceRaw(
       BinanceExchange exchange,
       BinanceAuthenticated binance,
@@ -33,6 +41,11 @@ public class BinanceMarketDataServiceRaw extends BinanceBaseService {
     super(exchange, binance, resilienceRegistries);
   }
 
+  @Override
+  protected Priority getRequestPriority() {
+    return Priority.MARKET_DATA;
+  }
+
   public void ping() throws IOException {
     decorateApiCall(() -> binance.ping())
         .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
@@ -76,7 +89,7 @@ public class BinanceMarketDataServiceRaw extends BinanceBaseService {
         decorateApiCall(
                 () -> binance.klines(BinanceAdapters.toSymbol(pair), interval.code(), limit, startTime, endTime))
             .withRetry(retry("klines"))
-            .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+            .withRateLimiter(requestWeightRateLimiter(Priority.BACKGROUND))
             .call();
     return raw.stream()
         .map(obj -> new Kline.Builder().from(pair, obj).build())
@@ -86,7 +99,7 @@ public class BinanceMarketDataServiceRaw extends BinanceBaseService {
   public List<BinanceTicker24h> ticker24h() throws IOException {
     return decorateApiCall(() -> binance.ticker24h())
         .withRetry(retry("ticker24h"))
-        .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER), 40)
+        .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER), ticker24hPermits(null))
         .call();
   }
 
@@ -94,12 +107,39 @@ public class BinanceMarketDataServiceRaw extends BinanceBaseService {
     BinanceTicker24h ticker24h =
         decorateApiCall(() -> binance.ticker24h(BinanceAdapters.toSymbol(pair)))
             .withRetry(retry("ticker24h"))
-            .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+            .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER), ticker24hPermits(1))
             .call();
     ticker24h.setCurrencyPair(pair);
     return ticker24h;
   }
 
+  /**
+   * 24hr tickers of the given pairs only, in a single request.
+   *
+   * @param pairs at most {@link #MAX_TICKER_SYMBOLS} currency pairs
+   * @return one ticker per pair known by the exchange
+   */
+  public List<BinanceTicker24h> ticker24h(Collection<CurrencyPair> pairs) throws IOException {
+    Map<String, CurrencyPair> symbols =
+        pairs.stream()
+            .distinct()
+            .collect(
+                Collectors.toMap(
+                    BinanceAdapters::toSymbol,
+                    Function.identity(),
+                    (first, second) -> first,
+                    LinkedHashMap::new));
+    String symbolsParam =
+        symbols.keySet().stream().collect(Collectors.joining("\",\"", "[\"", "\"]"));
+    List<BinanceTicker24h> tickers =
+        decorateApiCall(() -> binance.ticker24hSymbols(symbolsParam))
+            .withRetry(retry("ticker24h"))
+            .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER), ticker24hPermits(symbols.size()))
+            .call();
+    tickers.forEach(ticker -> ticker.setCurrencyPair(symbols.get(ticker.getSymbol())));
+    return tickers;
+  }
+
   public BinancePrice tickerPrice(CurrencyPair pair) throws IOException {
     return tickerAllPrices().stream()
         .filter(p -> p.getCurrencyPair().equals(pair))
@@ -131,6 +171,21 @@ public class BinanceMarketDataServiceRaw extends BinanceBaseService {
     return 50;
   }
 
+  /**
+   * Request weight of the 24hr ticker.
+   *
+   * @param symbols number of requested symbols, null for all symbols
+   * @return weight
+   */
+  protected int ticker24hPermits(Integer symbols) {
+    if (symbols == null || symbols > MAX_TICKER_SYMBOLS) {
+      return 80;
+    } else if (symbols > 20) {
+      return 40;
+    }
+    return 2;
+  }
+
   protected int aggTradesPermits(Integer limit) {
     if (limit != null && limit > 500) {
       return 2;
@@ -0,0 +1,218 @@
+package org.knowm.xchange.binance.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single Binance stream connection: combined streams ({@code /stream?streams=a/b/c}) or user data
+ * stream ({@code /ws/<listenKey>}).
+ *
+ * <p>Each time the socket opens (first connection and every reconnection), the snapshot action is
+ * executed before any stream frame is handled, so that subscribers are resynchronized with the
+ * REST API and stream frames can only be newer than the snapshot. When the socket is lost, a
+ * reconnection is scheduled with an exponential backoff until {@link #close()} is called.
+ *
+ * <p>Snapshots and frames are handled, in order, by the events executor: the socket listener
+ * thread only buffers frames and never waits for REST calls or subscribers.
+ */
+class BinanceStreamConnection implements WebSocket.Listener {
+
+  static final ObjectMapper MAPPER =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  static final long INITIAL_RECONNECT_DELAY_MS = 500;
+
+  static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+  static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+  /** Handles the {@code data} part of a combined stream frame. */
+  interface FrameHandler {
+    void onFrame(JsonNode data) throws IOException;
+  }
+
+  /** Pulls a REST snapshot and pushes it to the subscriber. */
+  interface SnapshotAction {
+    void resync() throws IOException;
+  }
+
+  /** Returns the uri to connect to, called before each (re)connection. */
+  interface UriSupplier {
+    URI get() throws IOException;
+  }
+
+  private final Logger LOG = LoggerFactory.getLogger(getClass());
+
+  private final UriSupplier uriSupplier;
+  private final HttpClient httpClient;
+  private final ScheduledExecutorService scheduler;
+  private final Executor events;
+  private final FrameHandler frameHandler;
+  private final SnapshotAction snapshotAction;
+
+  private final StringBuilder buffer = new StringBuilder();
+  private final AtomicBoolean reconnecting = new AtomicBoolean(false);
+
+  private volatile URI uri;
+  private volatile WebSocket webSocket;
+  private volatile boolean closed;
+  private volatile long reconnectDelay = INITIAL_RECONNECT_DELAY_MS;
+
+  BinanceStreamConnection(
+      URI uri,
+      HttpClient httpClient,
+      ScheduledExecutorService scheduler,
+      Executor events,
+      FrameHandler frameHandler,
+      SnapshotAction snapshotAction) {
+    this(() -> uri, httpClient, scheduler, events, frameHandler, snapshotAction);
+  }
+
+  BinanceStreamConnection(
+      UriSupplier uriSupplier,
+      HttpClient httpClient,
+      ScheduledExecutorService scheduler,
+      Executor events,
+      FrameHandler frameHandler,
+      SnapshotAction snapshotAction) {
+    this.uriSupplier = uriSupplier;
+    this.httpClient = httpClient;
+    this.scheduler = scheduler;
+    this.events = events;
+    this.frameHandler = frameHandler;
+    this.snapshotAction = snapshotAction;
+  }
+
+  /**
+   * Opens the connection, waiting for the handshake to complete.
+   *
+   * @throws IOException if the first connection cannot be established
+   */
+  void connect() throws IOException {
+    uri = uriSupplier.get();
+    try {
+      webSocket =
+          httpClient
+              .newWebSocketBuilder()
+              .connectTimeout(CONNECT_TIMEOUT)
+              .buildAsync(uri, this)
+              .get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new IOException("Impossible to connect to " + uri + ": " + e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while connecting to " + uri, e);
+    }
+  }
+
+  boolean isOpen() {
+    WebSocket current = webSocket;
+    return current != null && !current.isInputClosed() && !current.isOutputClosed();
+  }
+
+  /** Drops the current connection and reconnects (the uri is asked again). */
+  void reconnect() {
+    WebSocket current = webSocket;
+    if (current != null) {
+      current.abort();
+    }
+    scheduleReconnect();
+  }
+
+  void close() {
+    closed = true;
+    WebSocket current = webSocket;
+    if (current != null) {
+      current.sendClose(WebSocket.NORMAL_CLOSURE, "").whenComplete((ws, e) -> current.abort());
+    }
+  }
+
+  @Override
+  public void onOpen(WebSocket webSocket) {
+    LOG.info("Stream connected to {}", uri);
+    reconnectDelay = INITIAL_RECONNECT_DELAY_MS;
+    events.execute(
+        () -> {
+          try {
+            snapshotAction.resync();
+          } catch (Exception e) {
+            LOG.warn("Snapshot resync failed for {}: {}", uri, e.getMessage());
+          }
+        });
+    webSocket.request(1);
+  }
+
+  @Override
+  public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+    buffer.append(data);
+    if (last) {
+      String frame = buffer.toString();
+      buffer.setLength(0);
+      events.execute(() -> onFrame(frame));
+    }
+    webSocket.request(1);
+    return null;
+  }
+
+  private void onFrame(String frame) {
+    try {
+      JsonNode node = MAPPER.readTree(frame);
+      frameHandler.onFrame(node.has("data") ? node.get("data") : node);
+    } catch (Exception e) {
+      LOG.warn("Ignoring stream frame {}: {}", frame, e.getMessage());
+    }
+  }
+
+  @Override
+  public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+    LOG.info("Stream closed by {} ({} {})", uri, statusCode, reason);
+    scheduleReconnect();
+    return null;
+  }
+
+  @Override
+  public void onError(WebSocket webSocket, Throwable error) {
+    LOG.warn("Stream error on {}: {}", uri, error.getMessage());
+    scheduleReconnect();
+  }
+
+  private void scheduleReconnect() {
+    if (closed || !reconnecting.compareAndSet(false, true)) {
+      return;
+    }
+    buffer.setLength(0);
+    long delay = reconnectDelay;
+    reconnectDelay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+    LOG.info("Reconnecting to {} in {} ms", uri, delay);
+    scheduler.schedule(
+        () -> {
+          reconnecting.set(false);
+          if (closed) {
+            return;
+          }
+          try {
+            connect();
+          } catch (IOException e) {
+            LOG.warn(e.getMessage());
+            scheduleReconnect();
+          }
+        },
+        delay,
+        TimeUnit.MILLISECONDS);
+  }
+}
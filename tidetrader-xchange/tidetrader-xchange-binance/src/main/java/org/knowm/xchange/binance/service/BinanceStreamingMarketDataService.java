@@ -0,0 +1,150 @@
+package org.knowm.xchange.binance.service;
+
+import static org.knowm.xchange.binance.service.BinanceStreamConnection.MAPPER;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.binance.dto.marketdata.BinanceKlineStreamEvent;
+import org.knowm.xchange.binance.dto.marketdata.BinanceTickerStreamEvent;
+import org.knowm.xchange.binance.dto.marketdata.KlineInterval;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.StreamingMarketDataService;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
+
+/**
+ * Binance streaming market data, based on the public combined streams.
+ *
+ * <p>Works for spot ({@code wss://stream.binance.com:9443}) and perpetual ({@code
+ * wss://fstream.binance.com}) as both publish the same ticker and kline payloads. The REST market
+ * data service of the same domain is used to resynchronize subscribers on each (re)connection, with
+ * one batched ticker request for all the subscribed pairs (klines have no batched endpoint: one
+ * request per pair).
+ */
+public class BinanceStreamingMarketDataService implements StreamingMarketDataService {
+
+  public static final String SPOT_STREAM_URI = "wss://stream.binance.com:9443";
+  public static final String SPOT_SANDBOX_STREAM_URI = "wss://testnet.binance.vision";
+  public static final String PERPETUAL_STREAM_URI = "wss://fstream.binance.com";
+  public static final String PERPETUAL_SANDBOX_STREAM_URI = "wss://stream.binancefuture.com";
+
+  private final String streamUri;
+  private final MarketDataService marketDataService;
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "binance-stream-reconnect");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final ExecutorService events =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "binance-stream-events");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final List<BinanceStreamConnection> connections = new CopyOnWriteArrayList<>();
+
+  /**
+   * @param streamUri stream base uri, without the trailing {@code /stream}
+   * @param marketDataService REST market data service used for snapshot resync
+   */
+  public BinanceStreamingMarketDataService(String streamUri, MarketDataService marketDataService) {
+    this.streamUri = streamUri.endsWith("/") ? streamUri.substring(0, streamUri.length() - 1) : streamUri;
+    this.marketDataService = marketDataService;
+  }
+
+  @Override
+  public void subscribeTickers(Collection<CurrencyPair> currencyPairs, Consumer<Ticker> listener)
+      throws IOException {
+    Map<String, CurrencyPair> pairs = toSymbols(currencyPairs);
+    open(
+        pairs.keySet().stream().map(symbol -> symbol + "@ticker").collect(Collectors.toList()),
+        data -> {
+          BinanceTickerStreamEvent event = MAPPER.treeToValue(data, BinanceTickerStreamEvent.class);
+          listener.accept(event.toTicker(pairs.get(event.getSymbol().toLowerCase())));
+        },
+        () -> {
+          CurrencyPairsParam params = () -> pairs.values();
+          marketDataService.getTicker(params).forEach(listener);
+        });
+  }
+
+  @Override
+  public void subscribeKlines(
+      Collection<CurrencyPair> currencyPairs, long intervalInMillis, Consumer<Kline> listener)
+      throws IOException {
+    KlineInterval interval = KlineInterval.lookup(intervalInMillis);
+    if (interval == null) {
+      throw new IllegalArgumentException("No Binance kline interval of " + intervalInMillis + " ms");
+    }
+    Map<String, CurrencyPair> pairs = toSymbols(currencyPairs);
+    open(
+        pairs.keySet().stream()
+            .map(symbol -> symbol + "@kline_" + interval.code())
+            .collect(Collectors.toList()),
+        data -> {
+          BinanceKlineStreamEvent event = MAPPER.treeToValue(data, BinanceKlineStreamEvent.class);
+          listener.accept(event.toKline(pairs.get(event.getSymbol().toLowerCase())));
+        },
+        () -> {
+          for (CurrencyPair pair : pairs.values()) {
+            listener.accept(marketDataService.getKline(pair, intervalInMillis));
+          }
+        });
+  }
+
+  @Override
+  public boolean isConnected() {
+    return !connections.isEmpty() && connections.stream().allMatch(BinanceStreamConnection::isOpen);
+  }
+
+  @Override
+  public void disconnect() {
+    connections.forEach(BinanceStreamConnection::close);
+    connections.clear();
+  }
+
+  private void open(
+      List<String> streams,
+      BinanceStreamConnection.FrameHandler frameHandler,
+      BinanceStreamConnection.SnapshotAction snapshotAction)
+      throws IOException {
+    if (streams.isEmpty()) {
+      return;
+    }
+    URI uri = URI.create(streamUri + "/stream?streams=" + String.join("/", streams));
+    BinanceStreamConnection connection =
+        new BinanceStreamConnection(uri, httpClient, scheduler, events, frameHandler, snapshotAction);
+    connection.connect();
+    connections.add(connection);
+  }
+
+  private static Map<String, CurrencyPair> toSymbols(Collection<CurrencyPair> currencyPairs) {
+    return currencyPairs.stream()
+        .distinct()
+        .collect(
+            Collectors.toMap(
+                pair -> BinanceAdapters.toSymbol(pair).toLowerCase(),
+                Function.identity(),
+                (first, second) -> first,
+                LinkedHashMap::new));
+  }
+}
@@ -0,0 +1,204 @@
+package org.knowm.xchange.binance.service;
+
+import static org.knowm.xchange.binance.service.BinanceStreamConnection.MAPPER;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.binance.dto.account.BinanceBalanceStreamEvent;
+import org.knowm.xchange.binance.dto.trade.BinanceOrderUpdateStreamEvent;
+import org.knowm.xchange.dto.account.Balance;
+import org.knowm.xchange.service.trade.StreamingTradeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binance streaming user data, based on the user data stream ({@code /ws/<listenKey>}).
+ *
+ * <p>Works for spot ({@code executionReport} and {@code outboundAccountPosition} events) and
+ * perpetual ({@code ORDER_TRADE_UPDATE} and {@code ACCOUNT_UPDATE} events). The listen key is
+ * requested before each (re)connection, kept alive periodically and a new one is requested when
+ * Binance reports it as expired.
+ */
+public class BinanceStreamingTradeService implements StreamingTradeService {
+
+  /** Binance closes a listen key that was not kept alive for 60 minutes. */
+  public static final long DEFAULT_KEEP_ALIVE_PERIOD_MS = TimeUnit.MINUTES.toMillis(30);
+
+  /** Listen key endpoints of the REST API (spot and perpetual have their own). */
+  public interface ListenKeyProvider {
+
+    String start() throws IOException;
+
+    void keepAlive(String listenKey) throws IOException;
+
+    void close(String listenKey) throws IOException;
+  }
+
+  private final Logger LOG = LoggerFactory.getLogger(getClass());
+
+  private final String streamUri;
+  private final ListenKeyProvider listenKeyProvider;
+  private final long keepAlivePeriodMs;
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "binance-user-stream");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final ExecutorService events =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "binance-user-stream-events");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private volatile String listenKey;
+  private volatile BinanceStreamConnection connection;
+  private volatile ScheduledFuture<?> keepAlive;
+
+  /**
+   * @param streamUri stream base uri, without the trailing {@code /ws}
+   * @param listenKeyProvider REST listen key endpoints
+   */
+  public BinanceStreamingTradeService(String streamUri, ListenKeyProvider listenKeyProvider) {
+    this(streamUri, listenKeyProvider, DEFAULT_KEEP_ALIVE_PERIOD_MS);
+  }
+
+  /**
+   * @param streamUri stream base uri, without the trailing {@code /ws}
+   * @param listenKeyProvider REST listen key endpoints
+   * @param keepAlivePeriodMs period between two listen key keep alive
+   */
+  public BinanceStreamingTradeService(
+      String streamUri, ListenKeyProvider listenKeyProvider, long keepAlivePeriodMs) {
+    this.streamUri =
+        streamUri.endsWith("/") ? streamUri.substring(0, streamUri.length() - 1) : streamUri;
+    this.listenKeyProvider = listenKeyProvider;
+    this.keepAlivePeriodMs = keepAlivePeriodMs;
+  }
+
+  @Override
+  public synchronized void subscribeUserData(UserDataListener listener) throws IOException {
+    if (connection != null) {
+      throw new IllegalStateException("User data stream already subscribed");
+    }
+    BinanceStreamConnection newConnection =
+        new BinanceStreamConnection(
+            () -> {
+              listenKey = listenKeyProvider.start();
+              return URI.create(streamUri + "/ws/" + listenKey);
+            },
+            httpClient,
+            scheduler,
+            events,
+            data -> onFrame(data, listener),
+            listener::onResync);
+    newConnection.connect();
+    connection = newConnection;
+    keepAlive =
+        scheduler.scheduleAtFixedRate(
+            this::keepAlive, keepAlivePeriodMs, keepAlivePeriodMs, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean isConnected() {
+    BinanceStreamConnection current = connection;
+    return current != null && current.isOpen();
+  }
+
+  @Override
+  public synchronized void disconnect() {
+    if (keepAlive != null) {
+      keepAlive.cancel(false);
+      keepAlive = null;
+    }
+    if (connection != null) {
+      connection.close();
+      connection = null;
+    }
+    String current = listenKey;
+    listenKey = null;
+    if (current != null) {
+      try {
+        listenKeyProvider.close(current);
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Impossible to close listen key: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void keepAlive() {
+    String current = listenKey;
+    if (current == null) {
+      return;
+    }
+    try {
+      listenKeyProvider.keepAlive(current);
+    } catch (IOException | RuntimeException e) {
+      // The next connection will request a valid listen key.
+      LOG.warn("Listen key keep alive failed, reconnecting: {}", e.getMessage());
+      BinanceStreamConnection currentConnection = connection;
+      if (currentConnection != null) {
+        currentConnection.reconnect();
+      }
+    }
+  }
+
+  private void onFrame(JsonNode data, UserDataListener listener) throws IOException {
+    String eventType = data.path("e").asText();
+    switch (eventType) {
+      case "ORDER_TRADE_UPDATE":
+        onOrderUpdate(
+            MAPPER.treeToValue(data.get("o"), BinanceOrderUpdateStreamEvent.class), listener);
+        break;
+      case "executionReport":
+        onOrderUpdate(MAPPER.treeToValue(data, BinanceOrderUpdateStreamEvent.class), listener);
+        break;
+      case "ACCOUNT_UPDATE":
+        onBalances(data.path("a").path("B"), listener);
+        break;
+      case "outboundAccountPosition":
+        onBalances(data.path("B"), listener);
+        break;
+      case "listenKeyExpired":
+        LOG.info("Listen key expired, reconnecting");
+        BinanceStreamConnection current = connection;
+        if (current != null) {
+          current.reconnect();
+        }
+        break;
+      default:
+        LOG.debug("Ignoring user data event {}", eventType);
+    }
+  }
+
+  private static void onOrderUpdate(BinanceOrderUpdateStreamEvent event, UserDataListener listener) {
+    listener.onOrder(event.toOrder());
+    if (event.isTrade()) {
+      listener.onUserTrade(event.toUserTrade(null));
+    }
+  }
+
+  private static void onBalances(JsonNode balancesNode, UserDataListener listener)
+      throws IOException {
+    List<Balance> balances = new ArrayList<>();
+    for (JsonNode balanceNode : balancesNode) {
+      balances.add(MAPPER.treeToValue(balanceNode, BinanceBalanceStreamEvent.class).toBalance());
+    }
+    if (!balances.isEmpty()) {
+      listener.onBalances(balances);
+    }
+  }
+}
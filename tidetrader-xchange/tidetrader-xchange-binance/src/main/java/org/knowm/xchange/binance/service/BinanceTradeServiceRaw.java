@@ -10,6 +10,7 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter.Priority;
 import org.knowm.xchange.binance.BinanceAuthenticated;
 import org.knowm.xchange.binance.BinanceExchange;
 import org.knowm.xchange.binance.dto.BinanceException;
@@ -85,7 +86,7 @@ public class BinanceTradeServiceRaw extends BinanceBaseService {
         .withRetry(retry("newOrder", NON_IDEMPOTENT_CALLS_RETRY_CONFIG_NAME))
         .withRateLimiter(rateLimiter(ORDERS_PER_SECOND_RATE_LIMITER))
         .withRateLimiter(rateLimiter(ORDERS_PER_DAY_RATE_LIMITER))
-        .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+        .withRateLimiter(requestWeightRateLimiter(Priority.ORDER))
         .call();
   }
 
@@ -153,7 +154,7 @@ public class BinanceTradeServiceRaw extends BinanceBaseService {
                     super.apiKey,
                     super.signatureCreator))
         .withRetry(retry("cancelOrder"))
-        .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+        .withRateLimiter(requestWeightRateLimiter(Priority.ORDER))
         .call();
   }
 
@@ -168,7 +169,7 @@ public class BinanceTradeServiceRaw extends BinanceBaseService {
                     super.apiKey,
                     super.signatureCreator))
         .withRetry(retry("cancelAllOpenOrders"))
-        .withRateLimiter(rateLimiter(REQUEST_WEIGHT_RATE_LIMITER))
+        .withRateLimiter(requestWeightRateLimiter(Priority.ORDER))
         .call();
   }
 
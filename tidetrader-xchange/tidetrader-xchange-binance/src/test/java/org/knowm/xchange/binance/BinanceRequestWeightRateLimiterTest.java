@@ -0,0 +1,168 @@
+package org.knowm.xchange.binance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter.Priority;
+import org.knowm.xchange.binance.dto.BinanceException;
+import org.knowm.xchange.binance.dto.account.BinanceAccountInformation;
+
+public class BinanceRequestWeightRateLimiterTest {
+
+  private BinanceRequestWeightRateLimiter rateLimiter;
+
+  @Before
+  public void setUp() {
+    rateLimiter =
+        new BinanceRequestWeightRateLimiter(
+            "requestWeight",
+            RateLimiterConfig.custom()
+                .limitForPeriod(100)
+                .limitRefreshPeriod(Duration.ofMinutes(1))
+                .timeoutDuration(Duration.ofMillis(300))
+                .build());
+  }
+
+  @Test
+  public void shouldSyncBudgetWithUsedWeightHeader() {
+    // given
+    assertThat(rateLimiter.acquirePermission(10)).isTrue();
+
+    // when
+    rateLimiter.onResult(response(BinanceRequestWeightRateLimiter.USED_WEIGHT_HEADER, "30"));
+
+    // then
+    assertThat(rateLimiter.getMetrics().getAvailablePermissions()).isEqualTo(70);
+  }
+
+  @Test
+  public void shouldIgnoreUsedWeightLowerThanLocalCount() {
+    // given
+    assertThat(rateLimiter.acquirePermission(40)).isTrue();
+
+    // when
+    rateLimiter.onResponseHeaders(headers("x-mbx-used-weight-1m", "25"));
+
+    // then
+    assertThat(rateLimiter.getMetrics().getAvailablePermissions()).isEqualTo(60);
+  }
+
+  @Test
+  public void shouldKeepHeadroomForHigherPriorities() {
+    // given
+    rateLimiter.onResponseHeaders(headers(BinanceRequestWeightRateLimiter.USED_WEIGHT_HEADER, "60"));
+
+    // then
+    assertThat(rateLimiter.forPriority(Priority.BACKGROUND).acquirePermission(1)).isFalse();
+    assertThat(rateLimiter.forPriority(Priority.MARKET_DATA).acquirePermission(20)).isTrue();
+    assertThat(rateLimiter.forPriority(Priority.MARKET_DATA).acquirePermission(1)).isFalse();
+    assertThat(rateLimiter.forPriority(Priority.TRADE).acquirePermission(10)).isTrue();
+    assertThat(rateLimiter.forPriority(Priority.TRADE).acquirePermission(1)).isFalse();
+    assertThat(rateLimiter.forPriority(Priority.ORDER).acquirePermission(10)).isTrue();
+    assertThat(rateLimiter.getMetrics().getAvailablePermissions()).isZero();
+  }
+
+  @Test
+  public void shouldKeepHeadroomForHigherPrioritiesWithConcurrentCalls() throws Exception {
+    // given
+    int calls = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger acquired = new AtomicInteger();
+
+    // when
+    for (int i = 0; i < calls; i++) {
+      executor.execute(
+          () -> {
+            try {
+              start.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return;
+            }
+            if (rateLimiter.forPriority(Priority.BACKGROUND).acquirePermission(1)) {
+              acquired.incrementAndGet();
+            }
+          });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    // then
+    assertThat(acquired.get()).isEqualTo(50);
+    assertThat(rateLimiter.getMetrics().getAvailablePermissions()).isEqualTo(50);
+  }
+
+  @Test
+  public void shouldWaitForTheNextCycleWhenTheBudgetIsUsed() {
+    // given
+    BinanceRequestWeightRateLimiter shortCycleRateLimiter =
+        new BinanceRequestWeightRateLimiter(
+            "requestWeight",
+            RateLimiterConfig.custom()
+                .limitForPeriod(10)
+                .limitRefreshPeriod(Duration.ofMillis(200))
+                .timeoutDuration(Duration.ofSeconds(5))
+                .build());
+    long cycle = shortCycleRateLimiter.getDetailedMetrics().getCycle();
+    assertThat(shortCycleRateLimiter.acquirePermission(10)).isTrue();
+
+    // when
+    boolean acquired = shortCycleRateLimiter.forPriority(Priority.BACKGROUND).acquirePermission(5);
+
+    // then
+    assertThat(acquired).isTrue();
+    assertThat(shortCycleRateLimiter.getDetailedMetrics().getCycle()).isGreaterThan(cycle);
+  }
+
+  @Test
+  public void shouldNotWaitForACycleEndingAfterTheTimeout() {
+    // given
+    assertThat(rateLimiter.acquirePermission(100)).isTrue();
+
+    // then
+    assertThat(rateLimiter.acquirePermission(1)).isFalse();
+    assertThat(rateLimiter.getDetailedMetrics().getCycle()).isZero();
+  }
+
+  @Test
+  public void shouldBlockEveryPriorityAfterRetryAfter() {
+    // when
+    rateLimiter.onError(
+        exception(429, BinanceRequestWeightRateLimiter.RETRY_AFTER_HEADER, "60"));
+
+    // then
+    assertThat(rateLimiter.getMetrics().getAvailablePermissions()).isLessThanOrEqualTo(0);
+    assertThat(rateLimiter.forPriority(Priority.ORDER).acquirePermission(1)).isFalse();
+  }
+
+  private static Map<String, List<String>> headers(String name, String value) {
+    return Collections.singletonMap(name, Collections.singletonList(value));
+  }
+
+  private static BinanceAccountInformation response(String name, String value) {
+    BinanceAccountInformation response =
+        new BinanceAccountInformation(null, null, null, null, true, false, false, 0, null, null);
+    response.setResponseHeaders(headers(name, value));
+    return response;
+  }
+
+  private static BinanceException exception(int status, String name, String value) {
+    BinanceException exception = new BinanceException(-1003, "Too many requests");
+    exception.setHttpStatusCode(status);
+    exception.setResponseHeaders(headers(name, value));
+    return exception;
+  }
+}
@@ -0,0 +1,174 @@
+package org.knowm.xchange.binance;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal in-process websocket server standing in for the Binance stream endpoints.
+ *
+ * <p>Only what the streaming tests need is implemented: the opening handshake, unmasked server
+ * text frames, and discarding (then answering the close of) client frames.
+ */
+public class LocalWebSocketServer implements Closeable {
+
+  private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+  private final ServerSocket serverSocket;
+  private final List<Socket> clients = new CopyOnWriteArrayList<>();
+  private final BlockingQueue<String> requestedPaths = new LinkedBlockingQueue<>();
+
+  public LocalWebSocketServer() throws IOException {
+    serverSocket = new ServerSocket(0);
+    Thread acceptor = new Thread(this::acceptLoop, "local-websocket-server");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  public String getUri() {
+    return "ws://localhost:" + serverSocket.getLocalPort();
+  }
+
+  /**
+   * Waits for the next client handshake.
+   *
+   * @return the path (with query) requested by the client, null on timeout
+   */
+  public String awaitConnection() throws InterruptedException {
+    return requestedPaths.poll(5, TimeUnit.SECONDS);
+  }
+
+  /** Sends a text frame to every connected client. */
+  public void send(String text) throws IOException {
+    byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+    for (Socket client : clients) {
+      OutputStream out = client.getOutputStream();
+      synchronized (client) {
+        out.write(0x81);
+        if (payload.length < 126) {
+          out.write(payload.length);
+        } else if (payload.length < 65536) {
+          out.write(126);
+          out.write(payload.length >>> 8);
+          out.write(payload.length);
+        } else {
+          out.write(127);
+          for (int i = 7; i >= 0; i--) {
+            out.write((int) ((long) payload.length >>> (8 * i)));
+          }
+        }
+        out.write(payload);
+        out.flush();
+      }
+    }
+  }
+
+  /** Abruptly drops every client, as a network failure would. */
+  public void dropConnections() throws IOException {
+    for (Socket client : clients) {
+      client.close();
+    }
+    clients.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    dropConnections();
+    serverSocket.close();
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket client = serverSocket.accept();
+        handshake(client);
+        clients.add(client);
+        Thread reader = new Thread(() -> readLoop(client), "local-websocket-client");
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        // Server closed.
+      }
+    }
+  }
+
+  private void handshake(Socket client) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+    String path = reader.readLine().split(" ")[1];
+    String key = null;
+    String line;
+    while ((line = reader.readLine()) != null && !line.isEmpty()) {
+      if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+        key = line.substring(line.indexOf(':') + 1).trim();
+      }
+    }
+    String response =
+        "HTTP/1.1 101 Switching Protocols\r\n"
+            + "Upgrade: websocket\r\n"
+            + "Connection: Upgrade\r\n"
+            + "Sec-WebSocket-Accept: "
+            + accept(key)
+            + "\r\n\r\n";
+    client.getOutputStream().write(response.getBytes(StandardCharsets.ISO_8859_1));
+    client.getOutputStream().flush();
+    requestedPaths.add(path);
+  }
+
+  private void readLoop(Socket client) {
+    try {
+      InputStream in = client.getInputStream();
+      while (true) {
+        int first = in.read();
+        int second = in.read();
+        if (first < 0 || second < 0) {
+          return;
+        }
+        long length = second & 0x7F;
+        if (length == 126) {
+          length = (in.read() << 8) | in.read();
+        } else if (length == 127) {
+          length = 0;
+          for (int i = 0; i < 8; i++) {
+            length = (length << 8) | in.read();
+          }
+        }
+        in.readNBytes(4 + (int) length);
+        if ((first & 0x0F) == 0x8) {
+          synchronized (client) {
+            client.getOutputStream().write(new byte[] {(byte) 0x88, 0});
+          }
+          client.close();
+          clients.remove(client);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      // Client gone.
+    }
+  }
+
+  private static String accept(String key) {
+    try {
+      MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+      return Base64.getEncoder()
+          .encodeToString(sha1.digest((key + GUID).getBytes(StandardCharsets.ISO_8859_1)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
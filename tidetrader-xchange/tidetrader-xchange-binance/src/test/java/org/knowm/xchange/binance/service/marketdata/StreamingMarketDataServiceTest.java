@@ -0,0 +1,151 @@
+package org.knowm.xchange.binance.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowm.xchange.binance.LocalWebSocketServer;
+import org.knowm.xchange.binance.service.BinanceStreamingMarketDataService;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.instrument.Instrument;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
+import org.knowm.xchange.service.marketdata.params.Params;
+
+public class StreamingMarketDataServiceTest {
+
+  private static final String TICKER_FRAME =
+      "{\"stream\":\"btcusdt@ticker\",\"data\":{\"e\":\"24hrTicker\",\"E\":1672515782136,"
+          + "\"s\":\"BTCUSDT\",\"p\":\"0.0015\",\"P\":\"250.00\",\"w\":\"0.0018\",\"x\":\"0.0009\","
+          + "\"c\":\"%s\",\"Q\":\"10\",\"b\":\"0.0024\",\"B\":\"10\",\"a\":\"0.0026\",\"A\":\"100\","
+          + "\"o\":\"0.0010\",\"h\":\"0.0025\",\"l\":\"0.0010\",\"v\":\"10000\",\"q\":\"18\","
+          + "\"O\":0,\"C\":1672515782136,\"F\":0,\"L\":18150,\"n\":18151}}";
+
+  private static final String KLINE_FRAME =
+      "{\"stream\":\"ethusdt@kline_1m\",\"data\":{\"e\":\"kline\",\"E\":1672515782136,"
+          + "\"s\":\"ETHUSDT\",\"k\":{\"t\":1672515780000,\"T\":1672515839999,\"s\":\"ETHUSDT\","
+          + "\"i\":\"1m\",\"f\":100,\"L\":200,\"o\":\"1200.10\",\"c\":\"1201.50\",\"h\":\"1202.00\","
+          + "\"l\":\"1199.90\",\"v\":\"1000\",\"n\":100,\"x\":false,\"q\":\"1200000\","
+          + "\"V\":\"500\",\"Q\":\"600000\",\"B\":\"123456\"}}}";
+
+  private final AtomicInteger snapshots = new AtomicInteger();
+
+  private LocalWebSocketServer server;
+
+  private BinanceStreamingMarketDataService service;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new LocalWebSocketServer();
+    service = new BinanceStreamingMarketDataService(server.getUri(), new SnapshotMarketDataService());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    service.disconnect();
+    server.close();
+  }
+
+  @Test
+  public void shouldResyncFromSnapshotThenPushStreamTickers() throws Exception {
+    // given
+    BlockingQueue<Ticker> tickers = new LinkedBlockingQueue<>();
+
+    // when
+    service.subscribeTickers(List.of(CurrencyPair.BTC_USDT), tickers::add);
+
+    // then
+    assertThat(server.awaitConnection()).isEqualTo("/stream?streams=btcusdt@ticker");
+    Ticker snapshot = tickers.poll(5, TimeUnit.SECONDS);
+    assertThat(snapshot).isNotNull();
+    assertThat(snapshot.getLast()).isEqualByComparingTo("1");
+
+    server.send(String.format(TICKER_FRAME, "0.0025"));
+    Ticker streamed = tickers.poll(5, TimeUnit.SECONDS);
+    assertThat(streamed).isNotNull();
+    assertThat(streamed.getInstrument()).isEqualTo(CurrencyPair.BTC_USDT);
+    assertThat(streamed.getLast()).isEqualByComparingTo("0.0025");
+    assertThat(streamed.getBid()).isEqualByComparingTo("0.0024");
+    assertThat(streamed.getAsk()).isEqualByComparingTo("0.0026");
+    assertThat(service.isConnected()).isTrue();
+  }
+
+  @Test
+  public void shouldReconnectAndResyncAfterConnectionLoss() throws Exception {
+    // given
+    BlockingQueue<Ticker> tickers = new LinkedBlockingQueue<>();
+    service.subscribeTickers(List.of(CurrencyPair.BTC_USDT), tickers::add);
+    assertThat(server.awaitConnection()).isNotNull();
+    assertThat(tickers.poll(5, TimeUnit.SECONDS)).isNotNull();
+
+    // when
+    server.dropConnections();
+
+    // then
+    assertThat(server.awaitConnection()).isEqualTo("/stream?streams=btcusdt@ticker");
+    Ticker resync = tickers.poll(5, TimeUnit.SECONDS);
+    assertThat(resync).isNotNull();
+    assertThat(resync.getLast()).isEqualByComparingTo("2");
+    assertThat(snapshots.get()).isEqualTo(2);
+
+    server.send(String.format(TICKER_FRAME, "0.0030"));
+    Ticker streamed = tickers.poll(5, TimeUnit.SECONDS);
+    assertThat(streamed).isNotNull();
+    assertThat(streamed.getLast()).isEqualByComparingTo("0.0030");
+  }
+
+  @Test
+  public void shouldPushStreamKlines() throws Exception {
+    // given
+    BlockingQueue<Kline> klines = new LinkedBlockingQueue<>();
+
+    // when
+    service.subscribeKlines(List.of(CurrencyPair.ETH_USDT), TimeUnit.MINUTES.toMillis(1), klines::add);
+
+    // then
+    assertThat(server.awaitConnection()).isEqualTo("/stream?streams=ethusdt@kline_1m");
+    assertThat(klines.poll(5, TimeUnit.SECONDS)).isNotNull();
+
+    server.send(KLINE_FRAME);
+    Kline streamed = klines.poll(5, TimeUnit.SECONDS);
+    assertThat(streamed).isNotNull();
+    assertThat(streamed.getCurrencyPair()).isEqualTo(CurrencyPair.ETH_USDT);
+    assertThat(streamed.getOpenTime()).isEqualTo(1672515780000L);
+    assertThat(streamed.getLast()).isEqualByComparingTo("1201.50");
+    assertThat(streamed.getQuoteVolume()).isEqualByComparingTo("1200000");
+  }
+
+  /**
+   * REST stand-in: each batched ticker snapshot returns tickers whose last price is the snapshot
+   * number, and each kline snapshot a kline whose last price is the snapshot number.
+   */
+  private class SnapshotMarketDataService implements MarketDataService {
+
+    @Override
+    public List<Ticker> getTicker(Params params) {
+      BigDecimal last = BigDecimal.valueOf(snapshots.incrementAndGet());
+      return ((CurrencyPairsParam) params)
+          .getCurrencyPairs().stream()
+              .map(pair -> new Ticker.Builder().instrument(pair).last(last).build())
+              .collect(Collectors.toList());
+    }
+
+    @Override
+    public Kline getKline(Instrument instrument, Object... args) {
+      return new Kline.Builder()
+          .currencyPair((CurrencyPair) instrument)
+          .last(BigDecimal.valueOf(snapshots.incrementAndGet()))
+          .build();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package org.knowm.xchange.binance.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.binance.AbstractResilienceTest;
+import org.knowm.xchange.binance.BinanceAuthenticated;
+import org.knowm.xchange.binance.BinanceExchange;
+import org.knowm.xchange.binance.BinanceRequestWeightRateLimiter;
+import org.knowm.xchange.binance.BinanceResilience;
+import org.knowm.xchange.binance.service.BinanceMarketDataService;
+import org.knowm.xchange.client.ExchangeRestProxyBuilder;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
+
+/**
+ * Benchmark of the bytes downloaded and the request weight used by one ticker polling cycle,
+ * against a local stand-in of the 24hr ticker endpoint listing as many symbols as Binance spot.
+ */
+public class TickerRequestWeightTest extends AbstractResilienceTest {
+
+  private static final int EXCHANGE_SYMBOLS = 2000;
+
+  private static final List<CurrencyPair> REQUESTED_PAIRS =
+      List.of(CurrencyPair.BTC_USDT, CurrencyPair.ETH_USDT, new CurrencyPair("BNB", "USDT"));
+
+  private final Map<String, String> tickers = new LinkedHashMap<>();
+
+  private final AtomicLong bytesSent = new AtomicLong();
+
+  /** Weight counted by Binance, sent in the responses when set. */
+  private volatile String usedWeight;
+
+  private HttpServer server;
+
+  private BinanceExchange exchange;
+
+  private BinanceMarketDataService service;
+
+  @Before
+  public void setUp() throws IOException {
+    tickers.put("BTCUSDT", ticker("BTCUSDT"));
+    tickers.put("ETHUSDT", ticker("ETHUSDT"));
+    tickers.put("BNBUSDT", ticker("BNBUSDT"));
+    IntStream.range(tickers.size(), EXCHANGE_SYMBOLS)
+        .mapToObj(i -> "SYM" + i + "USDT")
+        .forEach(symbol -> tickers.put(symbol, ticker(symbol)));
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/api/v3/ticker/24hr",
+        httpExchange -> {
+          Map<String, String> query = query(httpExchange.getRequestURI().getRawQuery());
+          String body;
+          if (query.containsKey("symbol")) {
+            body = tickers.get(query.get("symbol"));
+          } else if (query.containsKey("symbols")) {
+            body = array(Arrays.asList(query.get("symbols").replaceAll("[\\[\\]\"]", "").split(",")));
+          } else {
+            body = array(tickers.keySet());
+          }
+          byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+          bytesSent.addAndGet(bytes.length);
+          httpExchange.getResponseHeaders().add("Content-Type", "application/json");
+          if (usedWeight != null) {
+            httpExchange
+                .getResponseHeaders()
+                .add(BinanceRequestWeightRateLimiter.USED_WEIGHT_HEADER, usedWeight);
+          }
+          httpExchange.sendResponseHeaders(200, bytes.length);
+          try (OutputStream out = httpExchange.getResponseBody()) {
+            out.write(bytes);
+          }
+        });
+    server.start();
+
+    exchange = createExchangeWithRateLimiterEnabled();
+    ExchangeSpecification local = new ExchangeSpecification(BinanceExchange.class);
+    local.setSslUri("http://localhost:" + server.getAddress().getPort());
+    BinanceAuthenticated binance =
+        ExchangeRestProxyBuilder.forInterface(BinanceAuthenticated.class, local).build();
+    service = new BinanceMarketDataService(exchange, binance, exchange.getResilienceRegistries());
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void shouldOnlyDownloadRequestedSymbols() throws IOException {
+    // when
+    Cycle all = cycle(() -> List.of());
+    Cycle single = cycle(() -> REQUESTED_PAIRS.subList(0, 1));
+    Cycle scoped = cycle(() -> REQUESTED_PAIRS);
+
+    // then
+    assertThat(all.tickers).hasSize(EXCHANGE_SYMBOLS);
+    assertThat(all.weight).isEqualTo(80);
+    assertThat(single.tickers).extracting(Ticker::getInstrument).containsExactly(CurrencyPair.BTC_USDT);
+    assertThat(single.weight).isEqualTo(2);
+    assertThat(scoped.tickers)
+        .extracting(Ticker::getInstrument)
+        .containsExactlyElementsOf(REQUESTED_PAIRS);
+    assertThat(scoped.weight).isEqualTo(2);
+    assertThat(scoped.bytes * 100).isLessThan(all.bytes);
+  }
+
+  @Test
+  public void shouldFollowTheWeightCountedByBinanceOnListResponses() throws IOException {
+    // given other clients used the same weight budget
+    usedWeight = "500";
+
+    // when
+    Cycle all = cycle(() -> List.of());
+
+    // then the budget left is the one counted by Binance, not the 80 counted locally
+    assertThat(all.tickers).hasSize(EXCHANGE_SYMBOLS);
+    assertThat(all.weight).isEqualTo(500);
+  }
+
+  private Cycle cycle(CurrencyPairsParam params) throws IOException {
+    RateLimiter rateLimiter =
+        exchange
+            .getResilienceRegistries()
+            .rateLimiters()
+            .rateLimiter(BinanceResilience.REQUEST_WEIGHT_RATE_LIMITER);
+    int permitsBefore = rateLimiter.getMetrics().getAvailablePermissions();
+    long bytesBefore = bytesSent.get();
+    List<Ticker> result = service.getTicker(params);
+    return new Cycle(
+        result,
+        bytesSent.get() - bytesBefore,
+        permitsBefore - rateLimiter.getMetrics().getAvailablePermissions());
+  }
+
+  private String array(Collection<String> symbols) {
+    return symbols.stream().map(tickers::get).collect(Collectors.joining(",", "[", "]"));
+  }
+
+  private static Map<String, String> query(String rawQuery) {
+    Map<String, String> query = new LinkedHashMap<>();
+    if (rawQuery != null) {
+      for (String parameter : rawQuery.split("&")) {
+        String[] keyValue = parameter.split("=", 2);
+        query.put(keyValue[0], URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8));
+      }
+    }
+    return query;
+  }
+
+  private static String ticker(String symbol) {
+    return "{\"symbol\":\""
+        + symbol
+        + "\",\"priceChange\":\"-94.99999800\",\"priceChangePercent\":\"-95.960\","
+        + "\"weightedAvgPrice\":\"0.29628482\",\"prevClosePrice\":\"0.10002000\","
+        + "\"lastPrice\":\"4.00000200\",\"lastQty\":\"200.00000000\",\"bidPrice\":\"4.00000000\","
+        + "\"bidQty\":\"100.00000000\",\"askPrice\":\"4.00000200\",\"askQty\":\"100.00000000\","
+        + "\"openPrice\":\"99.00000000\",\"highPrice\":\"100.00000000\",\"lowPrice\":\"0.10000000\","
+        + "\"volume\":\"8913.30000000\",\"quoteVolume\":\"15.30000000\",\"openTime\":1499783499040,"
+        + "\"closeTime\":1499869899040,\"firstId\":28385,\"lastId\":28460,\"count\":76}";
+  }
+
+  /** Result of one polling cycle. */
+  private static final class Cycle {
+
+    private final List<Ticker> tickers;
+    private final long bytes;
+    private final int weight;
+
+    private Cycle(List<Ticker> tickers, long bytes, int weight) {
+      this.tickers = new ArrayList<>(tickers);
+      this.bytes = bytes;
+      this.weight = weight;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package org.knowm.xchange.binance.service.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowm.xchange.binance.LocalWebSocketServer;
+import org.knowm.xchange.binance.service.BinanceStreamingTradeService;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.account.Balance;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.dto.trade.StopOrder;
+import org.knowm.xchange.dto.trade.UserTrade;
+import org.knowm.xchange.service.trade.StreamingTradeService;
+
+public class StreamingTradeServiceTest {
+
+  private static final String ORDER_TRADE_UPDATE_FRAME =
+      "{\"e\":\"ORDER_TRADE_UPDATE\",\"E\":1672515782136,\"T\":1672515782136,\"o\":{"
+          + "\"s\":\"BTCUSDT\",\"c\":\"client-1\",\"S\":\"BUY\",\"o\":\"%s\",\"f\":\"GTC\","
+          + "\"q\":\"0.002\",\"p\":\"16500\",\"ap\":\"16480.5\",\"sp\":\"0\",\"x\":\"TRADE\","
+          + "\"X\":\"PARTIALLY_FILLED\",\"i\":8886774,\"l\":\"0.001\",\"z\":\"0.001\","
+          + "\"L\":\"16480.5\",\"N\":\"USDT\",\"n\":\"0.0065\",\"T\":1672515782136,\"t\":12345,"
+          + "\"b\":\"0\",\"a\":\"9.91\",\"m\":false,\"R\":false,\"wt\":\"CONTRACT_PRICE\","
+          + "\"ot\":\"%s\",\"ps\":\"BOTH\",\"cp\":false,\"rp\":\"0\"}}";
+
+  private static final String EXECUTION_REPORT_FRAME =
+      "{\"e\":\"executionReport\",\"E\":1499405658658,\"s\":\"ETHBTC\",\"c\":\"client-2\","
+          + "\"S\":\"SELL\",\"o\":\"LIMIT\",\"f\":\"GTC\",\"q\":\"1.00000000\","
+          + "\"p\":\"0.10264410\",\"P\":\"0.00000000\",\"F\":\"0.00000000\",\"g\":-1,\"C\":\"\","
+          + "\"x\":\"NEW\",\"X\":\"NEW\",\"r\":\"NONE\",\"i\":4293153,\"l\":\"0.00000000\","
+          + "\"z\":\"0.00000000\",\"L\":\"0.00000000\",\"n\":\"0\",\"N\":null,"
+          + "\"T\":1499405658657,\"t\":-1,\"I\":8641984,\"w\":true,\"m\":false,\"M\":false,"
+          + "\"O\":1499405658657,\"Z\":\"0.00000000\",\"Y\":\"0.00000000\",\"Q\":\"0.00000000\"}";
+
+  private static final String ACCOUNT_UPDATE_FRAME =
+      "{\"e\":\"ACCOUNT_UPDATE\",\"E\":1564745798939,\"T\":1564745798938,\"a\":{\"m\":\"ORDER\","
+          + "\"B\":[{\"a\":\"USDT\",\"wb\":\"122624.12\",\"cw\":\"100.12\",\"bc\":\"50.12\"}],"
+          + "\"P\":[]}}";
+
+  private static final String OUTBOUND_ACCOUNT_POSITION_FRAME =
+      "{\"e\":\"outboundAccountPosition\",\"E\":1564034571105,\"u\":1564034571073,"
+          + "\"B\":[{\"a\":\"ETH\",\"f\":\"10000.000000\",\"l\":\"2.000000\"}]}";
+
+  private final AtomicInteger listenKeys = new AtomicInteger();
+
+  private final BlockingQueue<String> keptAlive = new LinkedBlockingQueue<>();
+
+  private final BlockingQueue<String> closed = new LinkedBlockingQueue<>();
+
+  private final BlockingQueue<Order> orders = new LinkedBlockingQueue<>();
+
+  private final BlockingQueue<UserTrade> trades = new LinkedBlockingQueue<>();
+
+  private final BlockingQueue<List<Balance>> balances = new LinkedBlockingQueue<>();
+
+  private final Semaphore resyncs = new Semaphore(0);
+
+  private final StreamingTradeService.UserDataListener listener =
+      new StreamingTradeService.UserDataListener() {
+        @Override
+        public void onOrder(Order order) {
+          orders.add(order);
+        }
+
+        @Override
+        public void onUserTrade(UserTrade userTrade) {
+          trades.add(userTrade);
+        }
+
+        @Override
+        public void onBalances(List<Balance> updatedBalances) {
+          balances.add(updatedBalances);
+        }
+
+        @Override
+        public void onResync() {
+          resyncs.release();
+        }
+      };
+
+  private LocalWebSocketServer server;
+
+  private BinanceStreamingTradeService service;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new LocalWebSocketServer();
+    service = new BinanceStreamingTradeService(server.getUri(), new ListenKeyStandIn(), 200);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    service.disconnect();
+    server.close();
+  }
+
+  @Test
+  public void shouldConnectWithListenKeyAndResync() throws Exception {
+    // when
+    service.subscribeUserData(listener);
+
+    // then
+    assertThat(server.awaitConnection()).isEqualTo("/ws/key-1");
+    assertThat(resyncs.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(service.isConnected()).isTrue();
+    assertThat(keptAlive.poll(5, TimeUnit.SECONDS)).isEqualTo("key-1");
+  }
+
+  @Test
+  public void shouldPushOrderAndTradeFromOrderTradeUpdate() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isNotNull();
+
+    // when
+    server.send(String.format(ORDER_TRADE_UPDATE_FRAME, "LIMIT", "LIMIT"));
+
+    // then
+    Order order = orders.poll(5, TimeUnit.SECONDS);
+    assertThat(order).isInstanceOf(LimitOrder.class);
+    assertThat(order.getId()).isEqualTo("8886774");
+    assertThat(order.getType()).isEqualTo(Order.OrderType.BID);
+    assertThat(order.getInstrument()).isEqualTo(CurrencyPair.BTC_USDT);
+    assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.PARTIALLY_FILLED);
+    assertThat(order.getOriginalAmount()).isEqualByComparingTo("0.002");
+    assertThat(order.getCumulativeAmount()).isEqualByComparingTo("0.001");
+    assertThat(order.getAveragePrice()).isEqualByComparingTo("16480.5");
+    assertThat(((LimitOrder) order).getLimitPrice()).isEqualByComparingTo("16500");
+
+    UserTrade trade = trades.poll(5, TimeUnit.SECONDS);
+    assertThat(trade).isNotNull();
+    assertThat(trade.getId()).isEqualTo("12345");
+    assertThat(trade.getOrderId()).isEqualTo("8886774");
+    assertThat(trade.getType()).isEqualTo(Order.OrderType.BID);
+    assertThat(trade.getInstrument()).isEqualTo(CurrencyPair.BTC_USDT);
+    assertThat(trade.getOriginalAmount()).isEqualByComparingTo("0.001");
+    assertThat(trade.getPrice()).isEqualByComparingTo("16480.5");
+    assertThat(trade.getFeeAmount()).isEqualByComparingTo("0.0065");
+    assertThat(trade.getFeeCurrency()).isEqualTo(Currency.USDT);
+  }
+
+  @Test
+  public void shouldAdaptPerpetualStopOrderTypes() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isNotNull();
+
+    // when
+    server.send(String.format(ORDER_TRADE_UPDATE_FRAME, "STOP_MARKET", "STOP_MARKET"));
+
+    // then
+    assertThat(orders.poll(5, TimeUnit.SECONDS)).isInstanceOf(StopOrder.class);
+  }
+
+  @Test
+  public void shouldPushOrderWithoutTradeFromExecutionReport() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isNotNull();
+
+    // when
+    server.send(EXECUTION_REPORT_FRAME);
+
+    // then
+    Order order = orders.poll(5, TimeUnit.SECONDS);
+    assertThat(order).isInstanceOf(LimitOrder.class);
+    assertThat(order.getId()).isEqualTo("4293153");
+    assertThat(order.getType()).isEqualTo(Order.OrderType.ASK);
+    assertThat(order.getInstrument()).isEqualTo(CurrencyPair.ETH_BTC);
+    assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.NEW);
+    assertThat(trades.poll(200, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test
+  public void shouldPushBalances() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isNotNull();
+
+    // when
+    server.send(ACCOUNT_UPDATE_FRAME);
+    server.send(OUTBOUND_ACCOUNT_POSITION_FRAME);
+
+    // then
+    List<Balance> perpetual = balances.poll(5, TimeUnit.SECONDS);
+    assertThat(perpetual).hasSize(1);
+    assertThat(perpetual.get(0).getCurrency()).isEqualTo(Currency.USDT);
+    assertThat(perpetual.get(0).getTotal()).isEqualByComparingTo("122624.12");
+    assertThat(perpetual.get(0).getAvailable()).isEqualByComparingTo("100.12");
+
+    List<Balance> spot = balances.poll(5, TimeUnit.SECONDS);
+    assertThat(spot).hasSize(1);
+    assertThat(spot.get(0).getCurrency()).isEqualTo(Currency.ETH);
+    assertThat(spot.get(0).getTotal()).isEqualByComparingTo("10002");
+    assertThat(spot.get(0).getAvailable()).isEqualByComparingTo("10000");
+    assertThat(spot.get(0).getFrozen()).isEqualByComparingTo("2");
+  }
+
+  @Test
+  public void shouldReconnectWithNewListenKeyWhenExpired() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isEqualTo("/ws/key-1");
+
+    // when
+    server.send("{\"e\":\"listenKeyExpired\",\"E\":1576653824250}");
+
+    // then
+    assertThat(server.awaitConnection()).isEqualTo("/ws/key-2");
+    assertThat(resyncs.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void shouldReconnectAndResyncAfterConnectionLoss() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isNotNull();
+
+    // when
+    server.dropConnections();
+
+    // then
+    assertThat(server.awaitConnection()).isEqualTo("/ws/key-2");
+    assertThat(resyncs.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void shouldCloseListenKeyOnDisconnect() throws Exception {
+    // given
+    service.subscribeUserData(listener);
+    assertThat(server.awaitConnection()).isNotNull();
+
+    // when
+    service.disconnect();
+
+    // then
+    assertThat(closed.poll(5, TimeUnit.SECONDS)).isEqualTo("key-1");
+    assertThat(service.isConnected()).isFalse();
+  }
+
+  /** REST stand-in: each started user data stream gets a new listen key. */
+  private class ListenKeyStandIn implements BinanceStreamingTradeService.ListenKeyProvider {
+
+    @Override
+    public String start() {
+      return "key-" + listenKeys.incrementAndGet();
+    }
+
+    @Override
+    public void keepAlive(String listenKey) {
+      keptAlive.add(listenKey);
+    }
+
+    @Override
+    public void close(String listenKey) {
+      closed.add(listenKey);
+    }
+  }
+}
@@ -12,6 +12,8 @@ import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
 import org.knowm.xchange.instrument.Instrument;
 import org.knowm.xchange.service.account.AccountService;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.StreamingMarketDataService;
+import org.knowm.xchange.service.trade.StreamingTradeService;
 import org.knowm.xchange.service.trade.TradeService;
 import si.mazi.rescu.SynchronizedValueFactory;
 
@@ -101,6 +103,17 @@ public interface Exchange {
    */
   MarketDataService getMarketDataService();
 
+  /**
+   * A streaming market data service pushes market data as soon as the exchange publishes it
+   *
+   * @return The exchange's streaming market data service
+   * @throws NotYetImplementedForExchangeException if the exchange module does not support
+   *     streaming
+   */
+  default StreamingMarketDataService getStreamingMarketDataService() {
+    throw new NotYetImplementedForExchangeException("getStreamingMarketDataService");
+  }
+
   /**
    * An trade service typically provides access to trading functionality
    *
@@ -111,6 +124,18 @@ public interface Exchange {
    */
   TradeService getTradeService();
 
+  /**
+   * A streaming trade service pushes the user data (orders, trades and balances) as soon as the
+   * exchange publishes it
+   *
+   * @return The exchange's streaming trade service
+   * @throws NotYetImplementedForExchangeException if the exchange module does not support user
+   *     data streaming
+   */
+  default StreamingTradeService getStreamingTradeService() {
+    throw new NotYetImplementedForExchangeException("getStreamingTradeService");
+  }
+
   /**
    * An account service typically provides access to the user's private exchange data
    *
@@ -0,0 +1,57 @@
+package org.knowm.xchange.service.marketdata;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.function.Consumer;
+import org.knowm.xchange.Exchange;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.BaseService;
+
+/**
+ * Interface to provide the following to {@link Exchange}:
+ *
+ * <ul>
+ *   <li>Push based market data, delivered as soon as the exchange publishes it
+ * </ul>
+ *
+ * <p>This is the streaming counterpart of {@link MarketDataService}. Implementations are expected
+ * to reconnect by themselves and to resynchronize subscribers with a REST snapshot after each
+ * (re)connection, so that no update is lost while the connection was down.
+ */
+public interface StreamingMarketDataService extends BaseService {
+
+  /**
+   * Subscribe to ticker updates of the given currency pairs.
+   *
+   * @param currencyPairs currency pairs
+   * @param listener called with each new ticker, from the streaming thread
+   * @throws IOException - Indication that a networking error occurred while connecting
+   */
+  default void subscribeTickers(Collection<CurrencyPair> currencyPairs, Consumer<Ticker> listener)
+      throws IOException {
+    throw new NotYetImplementedForExchangeException("subscribeTickers");
+  }
+
+  /**
+   * Subscribe to kline updates of the given currency pairs.
+   *
+   * @param currencyPairs currency pairs
+   * @param intervalInMillis kline interval in milliseconds
+   * @param listener called with each new kline, from the streaming thread
+   * @throws IOException - Indication that a networking error occurred while connecting
+   */
+  default void subscribeKlines(
+      Collection<CurrencyPair> currencyPairs, long intervalInMillis, Consumer<Kline> listener)
+      throws IOException {
+    throw new NotYetImplementedForExchangeException("subscribeKlines");
+  }
+
+  /** @return true if every subscription currently has an open connection */
+  boolean isConnected();
+
+  /** Close every subscription, no reconnection will be attempted afterwards. */
+  void disconnect();
+}
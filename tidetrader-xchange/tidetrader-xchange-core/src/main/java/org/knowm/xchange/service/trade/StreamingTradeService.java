@@ -0,0 +1,73 @@
+package org.knowm.xchange.service.trade;
+
+import java.io.IOException;
+import java.util.List;
+import org.knowm.xchange.Exchange;
+import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.account.Balance;
+import org.knowm.xchange.dto.trade.UserTrade;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.BaseService;
+
+/**
+ * Interface to provide the following to {@link Exchange}:
+ *
+ * <ul>
+ *   <li>Push based user data (orders, trades and balances), delivered as soon as the exchange
+ *       publishes it
+ * </ul>
+ *
+ * <p>This is the streaming counterpart of {@link TradeService} and of the account service.
+ * Implementations are expected to reconnect by themselves and to call {@link
+ * UserDataListener#onResync()} after each (re)connection, as updates published while the
+ * connection was down are lost.
+ */
+public interface StreamingTradeService extends BaseService {
+
+  /**
+   * Subscribe to the user data of the account.
+   *
+   * @param listener called with each update, from the streaming thread
+   * @throws IOException - Indication that a networking error occurred while connecting
+   */
+  default void subscribeUserData(UserDataListener listener) throws IOException {
+    throw new NotYetImplementedForExchangeException("subscribeUserData");
+  }
+
+  /** @return true if the user data subscription currently has an open connection */
+  boolean isConnected();
+
+  /** Close the user data subscription, no reconnection will be attempted afterwards. */
+  void disconnect();
+
+  /** Receives the user data pushed by the exchange. */
+  interface UserDataListener {
+
+    /**
+     * Called when an order is created or updated.
+     *
+     * @param order order, with its current status and cumulative amount
+     */
+    default void onOrder(Order order) {}
+
+    /**
+     * Called when an order is (partially) filled.
+     *
+     * @param userTrade trade
+     */
+    default void onUserTrade(UserTrade userTrade) {}
+
+    /**
+     * Called when balances changed.
+     *
+     * @param balances balances that changed (not necessarily all the balances of the account)
+     */
+    default void onBalances(List<Balance> balances) {}
+
+    /**
+     * Called after each (re)connection, before any update: updates may have been missed, a
+     * snapshot should be pulled with the REST services.
+     */
+    default void onResync() {}
+  }
+}